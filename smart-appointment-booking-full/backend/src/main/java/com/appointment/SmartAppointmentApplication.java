@@ -2,8 +2,10 @@ package com.appointment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SmartAppointmentApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(SmartAppointmentApplication.class, args);
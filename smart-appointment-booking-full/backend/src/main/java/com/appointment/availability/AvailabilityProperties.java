@@ -0,0 +1,33 @@
+package com.appointment.availability;
+
+import com.appointment.model.Appointment;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings for provider availability
+ * Bound from app.availability.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.availability")
+public class AvailabilityProperties {
+
+  /**
+   * Slot size of the per-day bitmaps; must divide a day evenly
+   */
+  private int slotMinutes = 15;
+
+  /**
+   * Length of an appointment whose service type has no configured duration
+   */
+  private Duration defaultDuration = Duration.ofHours(1);
+
+  /**
+   * Length of an appointment per service type, unless the provider's schedule overrides it
+   */
+  private Map<Appointment.ServiceType, Duration> serviceDurations = new EnumMap<>(Appointment.ServiceType.class);
+}
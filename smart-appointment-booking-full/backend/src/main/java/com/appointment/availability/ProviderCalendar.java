@@ -0,0 +1,189 @@
+package com.appointment.availability;
+
+import com.appointment.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bookable slots of one provider, as per-day booking counts
+ *
+ * Each day has one counter per slot; an appointment counts against every slot it overlaps, possibly
+ * across midnight. A booking fits when every slot it needs is open in the weekly template and below the
+ * capacity. Bookings are intervals, so that is exactly when they can be spread over capacity parallel
+ * lanes (chairs, rooms); a fixed lane per booking would turn some of those fits away. Day counters are
+ * created on first use.
+ * Thread-safe: all access is synchronized on the calendar.
+ */
+public final class ProviderCalendar {
+
+  /**
+   * Outcome of checking a start time
+   */
+  public enum Fit {
+    FREE,
+    /**
+     * Outside working hours or during a break
+     */
+    CLOSED,
+    /**
+     * At least one of the slots is booked to capacity
+     */
+    FULL
+  }
+
+  private final SlotTemplate template;
+  private final Map<LocalDate, int[]> countsByDay = new HashMap<>();
+
+  public ProviderCalendar(SlotTemplate template) {
+    this.template = template;
+  }
+
+  /**
+   * @param start Appointment start
+   * @param serviceType Decides the duration
+   * @return Whether the appointment can be booked now
+   */
+  public synchronized Fit check(LocalDateTime start, Appointment.ServiceType serviceType) {
+    Range range = range(start, serviceType);
+    if (!isOpen(range)) {
+      return Fit.CLOSED;
+    }
+    return hasRoom(range) ? Fit.FREE : Fit.FULL;
+  }
+
+  /**
+   * Count a booking that was checked to be FREE
+   * @return false if the booking does not fit anymore
+   */
+  public synchronized boolean reserve(LocalDateTime start, Appointment.ServiceType serviceType) {
+    Range range = range(start, serviceType);
+    if (!isOpen(range) || !hasRoom(range)) {
+      return false;
+    }
+    mark(range, 1);
+    return true;
+  }
+
+  /**
+   * Record an existing booking regardless of working hours and capacity
+   * (data from before the schedule existed may exceed it)
+   */
+  public synchronized void occupy(LocalDateTime start, Appointment.ServiceType serviceType) {
+    mark(range(start, serviceType), 1);
+  }
+
+  /**
+   * Remove a booking recorded with reserve or occupy, e.g. before checking where it is moved to
+   */
+  public synchronized void release(LocalDateTime start, Appointment.ServiceType serviceType) {
+    mark(range(start, serviceType), -1);
+  }
+
+  /**
+   * Take over the counts of the days firstDay through lastDay from a calendar that was reloaded for them
+   * @param fresh Calendar with the committed bookings of those days
+   * @return false if the two calendars use different slot lengths and nothing was taken over
+   */
+  public synchronized boolean refresh(ProviderCalendar fresh, LocalDate firstDay, LocalDate lastDay) {
+    if (fresh.template.slotMinutes() != template.slotMinutes()) {
+      return false;
+    }
+    synchronized (fresh) {
+      for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+        int[] counts = fresh.countsByDay.get(day);
+        if (counts != null) {
+          countsByDay.put(day, counts.clone());
+        } else {
+          countsByDay.remove(day);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param date Day to list
+   * @param serviceType Decides the duration
+   * @return Slot-aligned start times on that day at which the service can still be booked
+   */
+  public synchronized List<LocalDateTime> availableStarts(LocalDate date, Appointment.ServiceType serviceType) {
+    List<LocalDateTime> starts = new ArrayList<>();
+    BitSet open = template.open(date.getDayOfWeek());
+    LocalDateTime midnight = date.atStartOfDay();
+    for (int slot = open.nextSetBit(0); slot >= 0; slot = open.nextSetBit(slot + 1)) {
+      LocalDateTime start = midnight.plusMinutes((long) slot * template.slotMinutes());
+      if (check(start, serviceType) == Fit.FREE) {
+        starts.add(start);
+      }
+    }
+    return starts;
+  }
+
+  /**
+   * Slots overlapped by the appointment, counted from the start of its day; may extend past that day
+   */
+  private Range range(LocalDateTime start, Appointment.ServiceType serviceType) {
+    int minute = start.toLocalTime().toSecondOfDay() / 60;
+    int from = minute / template.slotMinutes();
+    int to = Math.ceilDiv(minute + template.durationMinutes(serviceType), template.slotMinutes());
+    return new Range(start.toLocalDate(), from, Math.max(to, from + 1));
+  }
+
+  private boolean isOpen(Range range) {
+    int perDay = template.slotsPerDay();
+    for (int day = range.from / perDay; day * perDay < range.to; day++) {
+      BitSet open = template.open(range.date.plusDays(day).getDayOfWeek());
+      int from = Math.max(range.from, day * perDay) - day * perDay;
+      int to = Math.min(range.to, (day + 1) * perDay) - day * perDay;
+      if (open.nextClearBit(from) < to) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true if every slot of the range has fewer bookings than the capacity
+   */
+  private boolean hasRoom(Range range) {
+    int perDay = template.slotsPerDay();
+    for (int day = range.from / perDay; day * perDay < range.to; day++) {
+      int[] counts = countsByDay.get(range.date.plusDays(day));
+      if (counts == null) {
+        continue;
+      }
+      int from = Math.max(range.from, day * perDay) - day * perDay;
+      int to = Math.min(range.to, (day + 1) * perDay) - day * perDay;
+      for (int slot = from; slot < to; slot++) {
+        if (counts[slot] >= template.capacity()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void mark(Range range, int delta) {
+    int perDay = template.slotsPerDay();
+    for (int day = range.from / perDay; day * perDay < range.to; day++) {
+      int[] counts = countsByDay.computeIfAbsent(range.date.plusDays(day), ignored -> new int[perDay]);
+      int from = Math.max(range.from, day * perDay) - day * perDay;
+      int to = Math.min(range.to, (day + 1) * perDay) - day * perDay;
+      for (int slot = from; slot < to; slot++) {
+        counts[slot] = Math.max(0, counts[slot] + delta);
+      }
+    }
+  }
+
+  /**
+   * Slots [from, to) relative to the start of date
+   */
+  private record Range(LocalDate date, int from, int to) {
+  }
+}
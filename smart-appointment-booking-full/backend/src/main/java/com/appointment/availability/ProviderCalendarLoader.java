@@ -0,0 +1,73 @@
+package com.appointment.availability;
+
+import com.appointment.model.AppointmentSeries;
+import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.AppointmentSeriesRepository;
+import com.appointment.repository.ProviderScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Builds a provider's calendar from its schedule, its booked appointments and its active series
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderCalendarLoader {
+
+  private final AppointmentRepository appointmentRepository;
+  private final AppointmentSeriesRepository seriesRepository;
+  private final ProviderScheduleRepository scheduleRepository;
+  private final AvailabilityProperties properties;
+
+  /**
+   * @param providerId Provider ID
+   * @return Calendar holding every booking from yesterday on
+   */
+  public ProviderCalendar load(Long providerId) {
+    // From yesterday, so appointments running past midnight still block the start of today
+    LocalDateTime from = LocalDate.now().minusDays(1).atStartOfDay();
+    ProviderCalendar calendar = emptyCalendar(providerId);
+    for (AppointmentRepository.BookedSlot slot : appointmentRepository.findBookedSlotsByProvider(providerId, from)) {
+      calendar.occupy(slot.getAppointmentDateTime(), slot.getServiceType());
+    }
+    for (AppointmentSeries series : seriesRepository.findActiveByProviderFrom(providerId, from)) {
+      for (LocalDateTime occurrence : series.occurrencesBetween(from, series.getLastOccurrence().plusNanos(1))) {
+        calendar.occupy(occurrence, series.getServiceType());
+      }
+    }
+    return calendar;
+  }
+
+  /**
+   * Calendar for re-checking bookings on a few days, without loading the rest of the provider's future
+   * @param providerId Provider ID
+   * @param firstDay First day the bookings touch
+   * @param lastDay Last day the bookings touch
+   * @return Calendar that is complete only from firstDay through lastDay
+   */
+  public ProviderCalendar load(Long providerId, LocalDate firstDay, LocalDate lastDay) {
+    // From the day before, so appointments running past midnight still block the start of firstDay,
+    // through the day after, which a booking late on lastDay may run into
+    LocalDateTime from = firstDay.minusDays(1).atStartOfDay();
+    LocalDateTime to = lastDay.plusDays(2).atStartOfDay();
+    ProviderCalendar calendar = emptyCalendar(providerId);
+    for (AppointmentRepository.BookedSlot slot
+      : appointmentRepository.findBookedSlotsByProviderBetween(providerId, from, to)) {
+      calendar.occupy(slot.getAppointmentDateTime(), slot.getServiceType());
+    }
+    for (AppointmentSeries series : seriesRepository.findActiveByProviderBetween(providerId, from, to)) {
+      for (LocalDateTime occurrence : series.occurrencesBetween(from, to)) {
+        calendar.occupy(occurrence, series.getServiceType());
+      }
+    }
+    return calendar;
+  }
+
+  private ProviderCalendar emptyCalendar(Long providerId) {
+    return new ProviderCalendar(
+      SlotTemplate.compile(scheduleRepository.findByServiceProviderId(providerId).orElse(null), properties));
+  }
+}
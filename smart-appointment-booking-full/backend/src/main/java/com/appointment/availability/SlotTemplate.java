@@ -0,0 +1,105 @@
+package com.appointment.availability;
+
+import com.appointment.model.Appointment;
+import com.appointment.model.ProviderSchedule;
+import com.appointment.model.WorkingPeriod;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A provider's schedule compiled to slot form: one bitmap of open slots per weekday, the number of
+ * parallel lanes, and the number of minutes each service type takes
+ * Immutable; compiled once per loaded ProviderCalendar
+ */
+public final class SlotTemplate {
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  private final int slotMinutes;
+  private final BitSet[] openByDay;
+  private final int capacity;
+  private final Map<Appointment.ServiceType, Integer> durationMinutes;
+
+  private SlotTemplate(int slotMinutes, BitSet[] openByDay, int capacity,
+                       Map<Appointment.ServiceType, Integer> durationMinutes) {
+    this.slotMinutes = slotMinutes;
+    this.openByDay = openByDay;
+    this.capacity = capacity;
+    this.durationMinutes = durationMinutes;
+  }
+
+  /**
+   * @param schedule Provider's schedule, or null for a provider that never configured one
+   * @param properties Slot size and default durations
+   * @return Compiled template; without working hours every slot is open
+   */
+  public static SlotTemplate compile(ProviderSchedule schedule, AvailabilityProperties properties) {
+    int slotMinutes = properties.getSlotMinutes();
+    if (slotMinutes <= 0 || MINUTES_PER_DAY % slotMinutes != 0) {
+      throw new IllegalStateException("app.availability.slot-minutes must divide a day evenly: " + slotMinutes);
+    }
+    int slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+
+    BitSet[] open = new BitSet[7];
+    boolean alwaysOpen = schedule == null || schedule.getWorkingHours().isEmpty();
+    for (int day = 0; day < open.length; day++) {
+      open[day] = new BitSet(slotsPerDay);
+      if (alwaysOpen) {
+        open[day].set(0, slotsPerDay);
+      }
+    }
+    if (schedule != null) {
+      // Only slots that lie entirely within working hours are open; any slot touched by a break is closed
+      for (WorkingPeriod period : schedule.getWorkingHours()) {
+        int from = Math.ceilDiv(period.startMinute(), slotMinutes);
+        int to = period.endMinute() / slotMinutes;
+        if (from < to) {
+          open[period.getDayOfWeek().getValue() - 1].set(from, to);
+        }
+      }
+      for (WorkingPeriod period : schedule.getBreaks()) {
+        int from = period.startMinute() / slotMinutes;
+        int to = Math.ceilDiv(period.endMinute(), slotMinutes);
+        if (from < to) {
+          open[period.getDayOfWeek().getValue() - 1].clear(from, to);
+        }
+      }
+    }
+
+    Map<Appointment.ServiceType, Integer> durations = new EnumMap<>(Appointment.ServiceType.class);
+    for (Appointment.ServiceType type : Appointment.ServiceType.values()) {
+      Integer override = schedule != null ? schedule.getServiceDurations().get(type) : null;
+      Duration configured = properties.getServiceDurations().getOrDefault(type, properties.getDefaultDuration());
+      durations.put(type, Math.max(1, override != null ? override : (int) configured.toMinutes()));
+    }
+    int capacity = schedule != null ? Math.max(1, schedule.getCapacity()) : 1;
+    return new SlotTemplate(slotMinutes, open, capacity, durations);
+  }
+
+  public int slotMinutes() {
+    return slotMinutes;
+  }
+
+  public int slotsPerDay() {
+    return MINUTES_PER_DAY / slotMinutes;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * @return Open slots of the weekday; callers must not modify it
+   */
+  BitSet open(DayOfWeek day) {
+    return openByDay[day.getValue() - 1];
+  }
+
+  public int durationMinutes(Appointment.ServiceType serviceType) {
+    return durationMinutes.get(serviceType);
+  }
+}
@@ -0,0 +1,29 @@
+package com.appointment.coalesce;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Concurrent calls with equal arguments share one execution and its result
+ *
+ * Only for read methods whose result callers treat as read-only: every caller receives the same instance.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+  /**
+   * Keep a finished result for this long so back-to-back calls also share it; 0 only shares in-flight calls
+   */
+  long microcacheMs() default 0;
+
+  /**
+   * Require an admin caller; checked by the aspect for every caller, since callers that share another's
+   * result never run the method body
+   */
+  boolean adminOnly() default false;
+}
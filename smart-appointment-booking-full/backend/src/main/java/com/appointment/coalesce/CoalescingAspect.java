@@ -0,0 +1,104 @@
+package com.appointment.coalesce;
+
+import com.appointment.security.AccessGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-flight execution of @Coalesced methods
+ *
+ * The first caller for a key (method + arguments) runs the method; callers arriving while it runs wait
+ * for the same result instead of issuing the same query. Ordered before the transaction advisor, so
+ * waiting callers never open a transaction or borrow a connection. Access checks inside the method only run
+ * for the first caller; admin-only methods are checked here for everyone.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+@RequiredArgsConstructor
+public class CoalescingAspect {
+
+  private static final int SWEEP_THRESHOLD = 1024;
+
+  private final MeterRegistry meterRegistry;
+  private final AccessGuard accessGuard;
+  private final Map<List<Object>, Flight> flights = new ConcurrentHashMap<>();
+
+  @Value("${app.coalescing.enabled:true}")
+  private boolean enabled = true;
+
+  @Around("@annotation(coalesced)")
+  public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+    if (coalesced.adminOnly()) {
+      accessGuard.requireAdmin();
+    }
+    if (!enabled) {
+      return joinPoint.proceed();
+    }
+    String method = joinPoint.getSignature().toShortString();
+    List<Object> key = List.of(method, Arrays.asList(joinPoint.getArgs()));
+    long now = System.nanoTime();
+    if (flights.size() > SWEEP_THRESHOLD) {
+      flights.values().removeIf(flight -> !flight.isLive(now));
+    }
+    Flight mine = new Flight();
+    Flight flight = flights.compute(key, (k, existing) -> existing != null && existing.isLive(now) ? existing : mine);
+
+    if (flight != mine) {
+      Counter.builder("service.coalesced.calls")
+        .description("Calls answered by an in-flight or just-finished identical call")
+        .tag("method", method)
+        .register(meterRegistry)
+        .increment();
+      try {
+        return flight.result.join();
+      } catch (CompletionException ex) {
+        throw ex.getCause();
+      }
+    }
+
+    try {
+      Object result = joinPoint.proceed();
+      if (coalesced.microcacheMs() > 0) {
+        mine.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesced.microcacheMs());
+        mine.result.complete(result);
+      } else {
+        flights.remove(key, mine);
+        mine.result.complete(result);
+      }
+      return result;
+    } catch (Throwable ex) {
+      flights.remove(key, mine);
+      mine.result.completeExceptionally(ex);
+      throw ex;
+    }
+  }
+
+  /**
+   * One execution shared by all callers with the same key
+   */
+  private static final class Flight {
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    private volatile long expiresAt;
+
+    private boolean isLive(long now) {
+      return !result.isDone() || expiresAt - now > 0;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.appointment.concurrency;
+
+import com.appointment.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load before it reaches the controllers once the adaptive concurrency limit is reached
+ * Rejected requests get 503 + Retry-After; actuator endpoints are never limited
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@Slf4j
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+  private final ConcurrencyLimitProperties properties;
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+  private final AimdLimiter limiter;
+
+  public AdaptiveConcurrencyFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    this.meterRegistry = meterRegistry;
+    this.limiter = new AimdLimiter(properties);
+    Gauge.builder("http.concurrency.limit", limiter, AimdLimiter::getLimit)
+      .description("Current adaptive concurrency limit")
+      .register(meterRegistry);
+    Gauge.builder("http.concurrency.in_flight", limiter, AimdLimiter::getInFlight)
+      .description("Requests currently admitted by the concurrency limiter")
+      .register(meterRegistry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !properties.isEnabled() || priorityOf(request) == RequestPriority.CRITICAL;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+    throws ServletException, IOException {
+    RequestPriority priority = priorityOf(request);
+    if (!limiter.tryAcquire(priority)) {
+      shed(response, priority);
+      return;
+    }
+
+    long start = System.nanoTime();
+    AtomicBoolean released = new AtomicBoolean();
+    boolean failed = true;
+    try {
+      filterChain.doFilter(request, response);
+      failed = false;
+    } finally {
+      if (!failed && request.isAsyncStarted()) {
+        // e.g. login: the permit is held until the async response completes
+        request.getAsyncContext().addListener(new ReleaseListener(start, released));
+      } else if (released.compareAndSet(false, true)) {
+        limiter.release(System.nanoTime() - start, failed || response.getStatus() >= 500);
+      }
+    }
+  }
+
+  /**
+   * Health probes and scrapes bypass the limiter; booking writes and login outrank reads
+   */
+  static RequestPriority priorityOf(HttpServletRequest request) {
+    String uri = request.getRequestURI();
+    if (uri.startsWith("/actuator")) {
+      return RequestPriority.CRITICAL;
+    }
+    boolean write = !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+    if ((write && uri.startsWith("/api/v1/appointments")) || uri.startsWith("/api/v1/auth")) {
+      return RequestPriority.HIGH;
+    }
+    return RequestPriority.NORMAL;
+  }
+
+  private void shed(HttpServletResponse response, RequestPriority priority) throws IOException {
+    Counter.builder("http.concurrency.shed")
+      .description("Requests rejected by the adaptive concurrency limiter")
+      .tag("priority", priority.name())
+      .register(meterRegistry)
+      .increment();
+    log.debug("Shedding {} request at limit {}", priority, limiter.getLimit());
+
+    ApiResponse<Object> body = new ApiResponse<>();
+    body.setSuccess(false);
+    body.setMessage("Server is busy, please retry shortly");
+    body.setTimestamp(LocalDateTime.now());
+    body.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), body);
+  }
+
+  private final class ReleaseListener implements AsyncListener {
+    private final long start;
+    private final AtomicBoolean released;
+
+    private ReleaseListener(long start, AtomicBoolean released) {
+      this.start = start;
+      this.released = released;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+      release(response == null || response.getStatus() >= 500);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      release(true);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      release(true);
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+
+    private void release(boolean failed) {
+      if (released.compareAndSet(false, true)) {
+        limiter.release(System.nanoTime() - start, failed);
+      }
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.appointment.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit
+ *
+ * Every finished request is a sample. A slow or failed request shrinks the limit by backoffRatio;
+ * a healthy one while the server is at least half busy grows it by one. When the database browns out,
+ * latency rises, the limit falls towards minLimit within a few dozen requests, and the excess is
+ * rejected immediately instead of queueing on Tomcat threads and Hikari connections.
+ */
+public class AimdLimiter {
+
+  private final ConcurrencyLimitProperties properties;
+  private final long thresholdNanos;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile double limit;
+
+  public AimdLimiter(ConcurrencyLimitProperties properties) {
+    this.properties = properties;
+    this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLatencyThresholdMs());
+    this.limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), properties.getInitialLimit()));
+  }
+
+  /**
+   * Admit a request if its priority class still has room
+   * @param priority HIGH may use the whole limit, NORMAL only readShare of it
+   * @return true if admitted; release must then be called exactly once
+   */
+  public boolean tryAcquire(RequestPriority priority) {
+    int allowed = priority == RequestPriority.HIGH
+      ? (int) limit
+      : Math.max(1, (int) (limit * properties.getReadShare()));
+    while (true) {
+      int current = inFlight.get();
+      if (current >= allowed) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Finish an admitted request and feed its outcome back into the limit
+   * @param latencyNanos Time the request took
+   * @param failed true for 5xx responses and timeouts
+   */
+  public void release(long latencyNanos, boolean failed) {
+    int inFlightBefore = inFlight.getAndDecrement();
+    boolean congested = failed || latencyNanos > thresholdNanos;
+    synchronized (this) {
+      if (congested) {
+        limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+      } else if (inFlightBefore * 2 >= limit) {
+        limit = Math.min(properties.getMaxLimit(), limit + 1);
+      }
+    }
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
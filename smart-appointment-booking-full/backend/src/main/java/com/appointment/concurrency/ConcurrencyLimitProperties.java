@@ -0,0 +1,41 @@
+package com.appointment.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Adaptive concurrency limit settings
+ * Bound from app.concurrency-limit.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+  private boolean enabled = true;
+
+  private int initialLimit = 40;
+
+  private int minLimit = 8;
+
+  /**
+   * Keep below server.tomcat.threads.max so probes always find a free thread
+   */
+  private int maxLimit = 150;
+
+  /**
+   * A request slower than this (or failing with 5xx) counts as a congestion signal
+   */
+  private long latencyThresholdMs = 1000;
+
+  /**
+   * Multiplicative decrease applied to the limit on a congestion signal
+   */
+  private double backoffRatio = 0.9;
+
+  /**
+   * Share of the limit that list/search reads may use; the rest is reserved for booking writes
+   */
+  private double readShare = 0.8;
+
+  private int retryAfterSeconds = 1;
+}
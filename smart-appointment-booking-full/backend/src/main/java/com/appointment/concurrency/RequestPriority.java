@@ -0,0 +1,19 @@
+package com.appointment.concurrency;
+
+/**
+ * Admission classes of the adaptive concurrency limiter
+ */
+public enum RequestPriority {
+  /**
+   * Health probes and metrics scrapes; never limited or counted
+   */
+  CRITICAL,
+  /**
+   * Booking writes and login; may use the whole limit
+   */
+  HIGH,
+  /**
+   * Lists, searches and other reads; shed first
+   */
+  NORMAL
+}
@@ -0,0 +1,20 @@
+package com.appointment.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Micrometer Configuration
+ * Enables @Timed on service classes; histogram and SLO buckets are set in application.properties
+ * Scrape endpoint: http://localhost:8080/actuator/prometheus
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry registry) {
+    return new TimedAspect(registry);
+  }
+}
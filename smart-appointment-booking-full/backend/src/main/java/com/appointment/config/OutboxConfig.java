@@ -0,0 +1,29 @@
+package com.appointment.config;
+
+import com.appointment.outbox.FileOutboxSink;
+import com.appointment.outbox.InProcessOutboxSink;
+import com.appointment.outbox.OutboxProperties;
+import com.appointment.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Outbox Configuration
+ * app.outbox.sink selects the built-in sink; define an OutboxSink bean to relay to a broker instead
+ */
+@Configuration
+public class OutboxConfig {
+
+  @Bean
+  @ConditionalOnMissingBean(OutboxSink.class)
+  public OutboxSink outboxSink(OutboxProperties properties, ApplicationEventPublisher eventPublisher,
+                               ObjectMapper objectMapper) {
+    if ("file".equalsIgnoreCase(properties.getSink())) {
+      return new FileOutboxSink(properties.getFile(), objectMapper);
+    }
+    return new InProcessOutboxSink(eventPublisher);
+  }
+}
@@ -0,0 +1,41 @@
+package com.appointment.config;
+
+import com.appointment.ratelimit.InMemoryRateLimiterBackend;
+import com.appointment.ratelimit.RateLimitInterceptor;
+import com.appointment.ratelimit.RateLimitProperties;
+import com.appointment.ratelimit.RateLimiterBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Rate limiting Configuration
+ * Policies are defined under app.rate-limit.policies.*; define a RateLimiterBackend bean to share
+ * buckets between replicas
+ */
+@Configuration
+public class RateLimitConfig {
+
+  @Bean
+  @ConditionalOnMissingBean(RateLimiterBackend.class)
+  public InMemoryRateLimiterBackend rateLimiterBackend(RateLimitProperties properties) {
+    return new InMemoryRateLimiterBackend(properties);
+  }
+
+  @Bean
+  public WebMvcConfigurer rateLimitConfigurer(RateLimitProperties properties, RateLimiterBackend rateLimiterBackend,
+                                              MeterRegistry meterRegistry) {
+    return new WebMvcConfigurer() {
+      @Override
+      public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isEnabled() && !properties.getPolicies().isEmpty()) {
+          registry.addInterceptor(new RateLimitInterceptor(properties, rateLimiterBackend, meterRegistry))
+            .addPathPatterns("/api/**");
+        }
+      }
+    };
+  }
+}
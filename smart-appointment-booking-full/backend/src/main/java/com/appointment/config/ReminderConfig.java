@@ -0,0 +1,26 @@
+package com.appointment.config;
+
+import com.appointment.reminder.FileReminderNotifier;
+import com.appointment.reminder.LoggingReminderNotifier;
+import com.appointment.reminder.ReminderNotifier;
+import com.appointment.reminder.ReminderProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reminder Configuration
+ * app.reminders.notifier selects the built-in notifier; define a ReminderNotifier bean to deliver elsewhere
+ */
+@Configuration
+public class ReminderConfig {
+
+  @Bean
+  @ConditionalOnMissingBean(ReminderNotifier.class)
+  public ReminderNotifier reminderNotifier(ReminderProperties properties) {
+    if ("file".equalsIgnoreCase(properties.getNotifier())) {
+      return new FileReminderNotifier(properties.getFile());
+    }
+    return new LoggingReminderNotifier();
+  }
+}
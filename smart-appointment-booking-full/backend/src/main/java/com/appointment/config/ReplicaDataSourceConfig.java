@@ -0,0 +1,67 @@
+package com.appointment.config;
+
+import com.appointment.datasource.ReplicaLagMonitor;
+import com.appointment.datasource.ReplicaProperties;
+import com.appointment.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read-replica routing
+ * Active when app.datasource.replica.enabled=true: @Transactional(readOnly = true) work goes to the
+ * replica pool, writes to the primary (spring.datasource.*). Without it the default Boot DataSource is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties(prefix = "spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  @ConfigurationProperties(prefix = "app.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(ReplicaProperties properties) {
+    HikariDataSource dataSource = DataSourceBuilder.create()
+      .type(HikariDataSource.class)
+      .url(properties.getUrl())
+      .username(properties.getUsername())
+      .password(properties.getPassword())
+      .driverClassName(properties.getDriverClassName())
+      .build();
+    dataSource.setPoolName("replica");
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                             ReplicaProperties properties) {
+    return new ReplicaLagMonitor(replicaDataSource, properties);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                               @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                               ReplicaLagMonitor replicaLagMonitor) {
+    // Lazy proxy: the physical connection (and therefore the route) is picked on first statement,
+    // after the transaction manager has flagged the transaction read-only
+    return new LazyConnectionDataSourceProxy(
+      new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+  }
+}
@@ -0,0 +1,41 @@
+package com.appointment.config;
+
+import com.appointment.concurrency.AdaptiveConcurrencyFilter;
+import com.appointment.concurrency.ConcurrencyLimitProperties;
+import com.appointment.metrics.SqlStatsFilter;
+import com.appointment.metrics.SqlStatsProperties;
+import com.appointment.metrics.SqlStatsRegistry;
+import com.appointment.security.TokenAuthenticationFilter;
+import com.appointment.security.TokenProperties;
+import com.appointment.security.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Servlet filters
+ * Declared here rather than as @Component so @WebMvcTest slices do not pick them up without their
+ * dependencies; order comes from each filter's @Order
+ */
+@Configuration
+public class WebFilterConfig {
+
+  @Bean
+  public AdaptiveConcurrencyFilter adaptiveConcurrencyFilter(ConcurrencyLimitProperties properties,
+                                                             ObjectMapper objectMapper,
+                                                             MeterRegistry meterRegistry) {
+    return new AdaptiveConcurrencyFilter(properties, objectMapper, meterRegistry);
+  }
+
+  @Bean
+  public SqlStatsFilter sqlStatsFilter(SqlStatsRegistry sqlStatsRegistry, SqlStatsProperties properties) {
+    return new SqlStatsFilter(sqlStatsRegistry, properties);
+  }
+
+  @Bean
+  public TokenAuthenticationFilter tokenAuthenticationFilter(TokenService tokenService, TokenProperties properties,
+                                                             ObjectMapper objectMapper) {
+    return new TokenAuthenticationFilter(tokenService, properties, objectMapper);
+  }
+}
@@ -3,7 +3,11 @@ package com.appointment.controller;
 import com.appointment.dto.AppointmentRequest;
 import com.appointment.dto.AppointmentResponse;
 import com.appointment.dto.ApiResponse;
+import com.appointment.dto.BulkStatusUpdateRequest;
+import com.appointment.dto.BulkStatusUpdateResponse;
+import com.appointment.dto.StreamedApiResponse;
 import com.appointment.model.Appointment;
+import com.appointment.security.AccessGuard;
 import com.appointment.service.AppointmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,8 +20,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * REST Controller for Appointment Management
@@ -32,29 +34,32 @@ public class AppointmentController {
   /**
    * Get all appointments as a map (id -> AppointmentResponse)
    * GET /api/v1/appointments/map
-   * Actors: ADMIN, PROVIDER
+   * Actors: ADMIN
    */
   @GetMapping("/map")
   @Operation(summary = "Get all appointments as map", description = "Retrieve all appointments as a map of id to details")
-  public ResponseEntity<ApiResponse<Map<Long, AppointmentResponse>>> getAllAppointmentsMap() {
-    List<AppointmentResponse> appointments = appointmentService.getAllAppointments();
-    Map<Long, AppointmentResponse> map = appointments.stream()
-      .collect(Collectors.toMap(AppointmentResponse::getId, a -> a));
-    return ResponseEntity.ok(new ApiResponse<>(true, "Appointments map retrieved successfully", map));
+  public ResponseEntity<StreamedApiResponse<AppointmentResponse>> getAllAppointmentsMap() {
+    // Checked before the 200 is committed; the service checks again once it streams
+    accessGuard.requireAdmin();
+    // Rows are written straight from the result set; no list or map of all appointments is built
+    return ResponseEntity.ok(StreamedApiResponse.map("Appointments map retrieved successfully",
+      appointmentService::streamAllAppointments, AppointmentResponse::getId));
   }
 
   private final AppointmentService appointmentService;
+  private final AccessGuard accessGuard;
 
   /**
    * Get all appointments
    * GET /api/v1/appointments
-   * Actors: ADMIN, PROVIDER
+   * Actors: ADMIN
    */
   @GetMapping
   @Operation(summary = "Get all appointments", description = "Retrieve list of all appointments")
-  public ResponseEntity<ApiResponse<List<AppointmentResponse>>> getAllAppointments() {
-    List<AppointmentResponse> appointments = appointmentService.getAllAppointments();
-    return ResponseEntity.ok(new ApiResponse<>(true, "Appointments retrieved successfully", appointments));
+  public ResponseEntity<StreamedApiResponse<AppointmentResponse>> getAllAppointments() {
+    accessGuard.requireAdmin();
+    return ResponseEntity.ok(StreamedApiResponse.list("Appointments retrieved successfully",
+      appointmentService::streamAllAppointments));
   }
 
   /**
@@ -174,6 +179,19 @@ public class AppointmentController {
     }
   }
 
+  /**
+   * Update the status of many appointments at once
+   * PATCH /api/v1/appointments/status
+   * Actors: ADMIN, PROVIDER
+   */
+  @PatchMapping("/status")
+  @Operation(summary = "Bulk update status", description = "Move many appointments to the same status, with one result per ID")
+  public ResponseEntity<ApiResponse<BulkStatusUpdateResponse>> updateAppointmentStatuses(
+    @Valid @RequestBody BulkStatusUpdateRequest request) {
+    BulkStatusUpdateResponse result = appointmentService.updateAppointmentStatuses(request.getIds(), request.getStatus());
+    return ResponseEntity.ok(new ApiResponse<>(true, result.getUpdated() + " appointment(s) updated", result));
+  }
+
   /**
    * Search appointments
    * GET /api/appointments/search?keyword=value
@@ -0,0 +1,95 @@
+package com.appointment.controller;
+
+import com.appointment.dto.ApiResponse;
+import com.appointment.dto.AppointmentResponse;
+import com.appointment.dto.AppointmentSeriesRequest;
+import com.appointment.dto.AppointmentSeriesResponse;
+import com.appointment.service.AppointmentSeriesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for recurring appointments
+ * A series is stored as one rule; occurrences are expanded for the requested window
+ */
+@RestController
+@RequestMapping("/api/v1/appointments/series")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Recurring Appointments", description = "APIs for managing recurring appointment series")
+public class AppointmentSeriesController {
+
+  private final AppointmentSeriesService appointmentSeriesService;
+
+  /**
+   * Create a recurring series
+   * POST /api/v1/appointments/series
+   * Actors: USER
+   */
+  @PostMapping
+  @Operation(summary = "Create series", description = "Book a recurring appointment; fails if any occurrence conflicts")
+  public ResponseEntity<ApiResponse<AppointmentSeriesResponse>> createSeries(
+    @Valid @RequestBody AppointmentSeriesRequest request) {
+    AppointmentSeriesResponse series = appointmentSeriesService.createSeries(request);
+    return ResponseEntity
+      .status(HttpStatus.CREATED)
+      .body(new ApiResponse<>(true, "Series created successfully", series));
+  }
+
+  /**
+   * Get series by ID
+   * GET /api/v1/appointments/series/{id}
+   */
+  @GetMapping("/{id}")
+  @Operation(summary = "Get series by ID", description = "Retrieve the rule of a recurring series")
+  public ResponseEntity<ApiResponse<AppointmentSeriesResponse>> getSeriesById(@PathVariable Long id) {
+    AppointmentSeriesResponse series = appointmentSeriesService.getSeriesById(id);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Series found", series));
+  }
+
+  /**
+   * Get series of a customer
+   * GET /api/v1/appointments/series/customer/{customerId}
+   */
+  @GetMapping("/customer/{customerId}")
+  @Operation(summary = "Get customer series", description = "Get all recurring series of a customer")
+  public ResponseEntity<ApiResponse<List<AppointmentSeriesResponse>>> getSeriesByCustomer(
+    @PathVariable Long customerId) {
+    List<AppointmentSeriesResponse> series = appointmentSeriesService.getSeriesByCustomer(customerId);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Customer series retrieved", series));
+  }
+
+  /**
+   * Get occurrences of a series in a window
+   * GET /api/v1/appointments/series/{id}/occurrences?from=...&to=...
+   */
+  @GetMapping("/{id}/occurrences")
+  @Operation(summary = "Get series occurrences", description = "Expand the occurrences of a series within a window")
+  public ResponseEntity<ApiResponse<List<AppointmentResponse>>> getOccurrences(
+    @PathVariable Long id,
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    List<AppointmentResponse> occurrences = appointmentSeriesService.getOccurrences(id, from, to);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Series occurrences retrieved", occurrences));
+  }
+
+  /**
+   * Cancel a series
+   * DELETE /api/v1/appointments/series/{id}
+   */
+  @DeleteMapping("/{id}")
+  @Operation(summary = "Cancel series", description = "Cancel all remaining occurrences of a series")
+  public ResponseEntity<ApiResponse<Void>> cancelSeries(@PathVariable Long id) {
+    appointmentSeriesService.cancelSeries(id);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Series cancelled successfully", null));
+  }
+}
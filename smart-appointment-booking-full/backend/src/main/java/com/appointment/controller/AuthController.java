@@ -4,12 +4,19 @@ import com.appointment.dto.ApiResponse;
 import com.appointment.dto.UserRequest;
 import com.appointment.dto.UserResponse;
 import com.appointment.model.User;
+import com.appointment.repository.UserRepository;
+import com.appointment.security.AccessGuard;
+import com.appointment.security.AuthenticatedUser;
+import com.appointment.security.PasswordService;
+import com.appointment.security.TokenService;
 import com.appointment.service.UserService;
-import com.appointment.service.AppointmentCleanupService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST Controller for Authentication
  */
@@ -19,31 +26,54 @@ import org.springframework.web.bind.annotation.*;
 // @CrossOrigin(origins = "http://localhost:3000")
 public class AuthController {
 
-    private final com.appointment.repository.UserRepository userRepository;
+    private final UserRepository userRepository;
     private final UserService userService;
-    private final AppointmentCleanupService appointmentCleanupService;
+    private final PasswordService passwordService;
+    private final TokenService tokenService;
+    private final AccessGuard accessGuard;
 
     /**
      * Login endpoint: POST /api/auth/login
+     * The password check runs on the password hashing pool; the request thread is released meanwhile.
+     * Everything after the check runs on the password service's completion executor, not the hashing pool
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<UserResponse>> login(@RequestBody UserRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<UserResponse>>> login(@RequestBody UserRequest request) {
         // Only validate email and password for login
         String email = request.getEmail();
         String password = request.getPassword();
         if (email == null || password == null || email.isEmpty() || password.isEmpty()) {
-            return ResponseEntity.badRequest().body(new ApiResponse<>(false, "Email and password are required", null));
-        }
-        com.appointment.model.User user = userRepository.findByEmail(email).orElse(null);
-        if (user == null || !user.getPassword().equals(password)) {
-            return ResponseEntity.ok(new ApiResponse<>(false, "Invalid email or password", null));
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(new ApiResponse<>(false, "Email and password are required", null)));
         }
-        // Cleanup expired unconfirmed appointments on login
-        int removed = appointmentCleanupService.removeExpiredUnconfirmedAppointments();
-        if (removed > 0) {
-            // Optionally log or handle removed count
+        User user = userRepository.findByEmail(email).orElse(null);
+        // Unknown emails are still checked (against a dummy hash) so they cost the same as a wrong password
+        return passwordService.verify(email, password, user != null ? user.getPassword() : null)
+            .thenApplyAsync(verification -> {
+                if (user == null || !verification.matches()) {
+                    return ResponseEntity.ok(new ApiResponse<UserResponse>(false, "Invalid email or password", null));
+                }
+                if (verification.needsRehash()) {
+                    // Legacy plaintext or outdated strength: store the fresh hash unless the password changed meanwhile
+                    userRepository.replacePassword(user.getId(), user.getPassword(), verification.newHash());
+                }
+                // Off the request thread, and the caller has no token yet: the password check is the authorization
+                UserResponse response = accessGuard.internal(() -> userService.getUserByEmail(user.getEmail()));
+                response.setToken(tokenService.issue(response.getId(), response.getRole()));
+                return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", response));
+            }, passwordService.completionExecutor());
+    }
+
+    /**
+     * Logout endpoint: POST /api/auth/logout
+     * Revokes the session token sent in the Authorization header
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(HttpServletRequest request) {
+        AuthenticatedUser caller = AuthenticatedUser.from(request);
+        if (caller != null) {
+            tokenService.revoke(caller);
         }
-        UserResponse response = userService.getUserByEmail(user.getEmail());
-        return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", response));
+        return ResponseEntity.ok(new ApiResponse<>(true, "Logged out", null));
     }
 }
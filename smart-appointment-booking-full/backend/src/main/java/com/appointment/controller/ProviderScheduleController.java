@@ -0,0 +1,70 @@
+package com.appointment.controller;
+
+import com.appointment.dto.ApiResponse;
+import com.appointment.dto.ProviderScheduleRequest;
+import com.appointment.dto.ProviderScheduleResponse;
+import com.appointment.model.Appointment;
+import com.appointment.service.ProviderScheduleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for provider working hours and availability
+ */
+@RestController
+@RequestMapping("/api/v1/users/{providerId}")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Provider Availability", description = "APIs for provider schedules and bookable slots")
+public class ProviderScheduleController {
+
+  private final ProviderScheduleService providerScheduleService;
+
+  /**
+   * Get a provider's schedule
+   * GET /api/v1/users/{providerId}/schedule
+   */
+  @GetMapping("/schedule")
+  @Operation(summary = "Get schedule", description = "Working hours, breaks, durations and capacity of a provider")
+  public ResponseEntity<ApiResponse<ProviderScheduleResponse>> getSchedule(@PathVariable Long providerId) {
+    ProviderScheduleResponse schedule = providerScheduleService.getSchedule(providerId);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Schedule retrieved", schedule));
+  }
+
+  /**
+   * Replace a provider's schedule
+   * PUT /api/v1/users/{providerId}/schedule
+   * Actors: ADMIN, PROVIDER
+   */
+  @PutMapping("/schedule")
+  @Operation(summary = "Update schedule", description = "Replace working hours, breaks, durations and capacity")
+  public ResponseEntity<ApiResponse<ProviderScheduleResponse>> updateSchedule(
+    @PathVariable Long providerId,
+    @Valid @RequestBody ProviderScheduleRequest request) {
+    ProviderScheduleResponse schedule = providerScheduleService.updateSchedule(providerId, request);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Schedule updated successfully", schedule));
+  }
+
+  /**
+   * Bookable start times of a provider on a day
+   * GET /api/v1/users/{providerId}/availability?date=...&serviceType=...
+   */
+  @GetMapping("/availability")
+  @Operation(summary = "Get availability", description = "Start times at which a service can still be booked")
+  public ResponseEntity<ApiResponse<List<LocalDateTime>>> getAvailability(
+    @PathVariable Long providerId,
+    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+    @RequestParam Appointment.ServiceType serviceType) {
+    List<LocalDateTime> starts = providerScheduleService.getAvailableStarts(providerId, date, serviceType);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Available start times", starts));
+  }
+}
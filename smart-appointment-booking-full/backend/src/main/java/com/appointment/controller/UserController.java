@@ -13,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for User Management
@@ -54,14 +55,15 @@ public class UserController {
    * Create new user
    * POST /api/v1/users
    * Actors: PUBLIC
+   * The request thread is released while the password is hashed
    */
   @PostMapping
   @Operation(summary = "Create user", description = "Register a new user")
-  public ResponseEntity<ApiResponse<UserResponse>> createUser(@Valid @RequestBody UserRequest request) {
-    UserResponse user = userService.createUser(request);
-    return ResponseEntity
-      .status(HttpStatus.CREATED)
-      .body(new ApiResponse<>(true, "User created successfully", user));
+  public CompletableFuture<ResponseEntity<ApiResponse<UserResponse>>> createUser(@Valid @RequestBody UserRequest request) {
+    return userService.createUser(request)
+      .thenApply(user -> ResponseEntity
+        .status(HttpStatus.CREATED)
+        .body(new ApiResponse<>(true, "User created successfully", user)));
   }
 
   /**
@@ -70,11 +72,11 @@ public class UserController {
    */
   @PutMapping("/{id}")
   @Operation(summary = "Update user", description = "Update user details")
-  public ResponseEntity<ApiResponse<UserResponse>> updateUser(
+  public CompletableFuture<ResponseEntity<ApiResponse<UserResponse>>> updateUser(
     @PathVariable Long id,
     @Valid @RequestBody UserRequest request) {
-    UserResponse user = userService.updateUser(id, request);
-    return ResponseEntity.ok(new ApiResponse<>(true, "User updated successfully", user));
+    return userService.updateUser(id, request)
+      .thenApply(user -> ResponseEntity.ok(new ApiResponse<>(true, "User updated successfully", user)));
   }
 
   /**
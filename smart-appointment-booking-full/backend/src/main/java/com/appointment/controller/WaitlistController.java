@@ -0,0 +1,76 @@
+package com.appointment.controller;
+
+import com.appointment.dto.ApiResponse;
+import com.appointment.dto.WaitlistEntryResponse;
+import com.appointment.dto.WaitlistRequest;
+import com.appointment.service.WaitlistService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for the appointment waitlist
+ * Waiting customers are booked automatically when a matching slot is cancelled, instead of polling
+ */
+@RestController
+@RequestMapping("/api/v1/appointments/waitlist")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Waitlist", description = "APIs for waiting on fully booked providers")
+public class WaitlistController {
+
+  private final WaitlistService waitlistService;
+
+  /**
+   * Join a provider's waitlist
+   * POST /api/v1/appointments/waitlist
+   * Actors: USER
+   */
+  @PostMapping
+  @Operation(summary = "Join waitlist", description = "Wait for a slot within a time window; it is booked when freed")
+  public ResponseEntity<ApiResponse<WaitlistEntryResponse>> joinWaitlist(@Valid @RequestBody WaitlistRequest request) {
+    WaitlistEntryResponse entry = waitlistService.joinWaitlist(request);
+    return ResponseEntity
+      .status(HttpStatus.CREATED)
+      .body(new ApiResponse<>(true, "Joined the waitlist", entry));
+  }
+
+  /**
+   * Get waitlist entry by ID
+   * GET /api/v1/appointments/waitlist/{id}
+   */
+  @GetMapping("/{id}")
+  @Operation(summary = "Get waitlist entry", description = "Status of a waitlist entry and the booked appointment, if any")
+  public ResponseEntity<ApiResponse<WaitlistEntryResponse>> getEntryById(@PathVariable Long id) {
+    WaitlistEntryResponse entry = waitlistService.getEntryById(id);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Waitlist entry found", entry));
+  }
+
+  /**
+   * Get waitlist entries of a customer
+   * GET /api/v1/appointments/waitlist/customer/{customerId}
+   */
+  @GetMapping("/customer/{customerId}")
+  @Operation(summary = "Get customer waitlist", description = "All waitlist entries of a customer")
+  public ResponseEntity<ApiResponse<List<WaitlistEntryResponse>>> getEntriesByCustomer(@PathVariable Long customerId) {
+    List<WaitlistEntryResponse> entries = waitlistService.getEntriesByCustomer(customerId);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Customer waitlist retrieved", entries));
+  }
+
+  /**
+   * Leave the waitlist
+   * DELETE /api/v1/appointments/waitlist/{id}
+   */
+  @DeleteMapping("/{id}")
+  @Operation(summary = "Leave waitlist", description = "Stop waiting for a slot")
+  public ResponseEntity<ApiResponse<Void>> leaveWaitlist(@PathVariable Long id) {
+    waitlistService.leaveWaitlist(id);
+    return ResponseEntity.ok(new ApiResponse<>(true, "Left the waitlist", null));
+  }
+}
@@ -0,0 +1,9 @@
+package com.appointment.datasource;
+
+/**
+ * Lookup keys of ReplicaRoutingDataSource
+ */
+public enum DataSourceRoute {
+  PRIMARY,
+  REPLICA
+}
@@ -0,0 +1,84 @@
+package com.appointment.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a user's reads on the primary for a short time after that user's own write,
+ * so a freshly booked appointment is never missing from "my appointments" because of replica lag
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesTracker {
+
+  private static final int CLEANUP_THRESHOLD = 10_000;
+  private static final ThreadLocal<int[]> PINNED = ThreadLocal.withInitial(() -> new int[1]);
+
+  private final ReplicaProperties properties;
+  private final Map<Long, Long> recentWriters = new ConcurrentHashMap<>();
+
+  /**
+   * Remember that a user just changed data
+   * @param userId Customer or provider id; null is ignored
+   */
+  public void recordWrite(Long userId) {
+    if (userId == null || !properties.isEnabled()) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (recentWriters.size() > CLEANUP_THRESHOLD) {
+      recentWriters.values().removeIf(expiry -> expiry - now < 0);
+    }
+    recentWriters.put(userId, now + TimeUnit.MILLISECONDS.toNanos(properties.getStickinessMs()));
+  }
+
+  /**
+   * Route the current thread to the primary if the user wrote recently
+   * Use with try-with-resources around the read
+   * @param userId Customer or provider id
+   * @return Scope to close when the read is done
+   */
+  public Scope primaryIfRecentWriter(Long userId) {
+    Long expiry = userId != null ? recentWriters.get(userId) : null;
+    if (expiry == null) {
+      return Scope.NOOP;
+    }
+    if (expiry - System.nanoTime() < 0) {
+      recentWriters.remove(userId, expiry);
+      return Scope.NOOP;
+    }
+    return primary();
+  }
+
+  /**
+   * Route the current thread to the primary whoever wrote last, for reads that follow a commit
+   * this thread did not make. Use with try-with-resources around the read
+   * @return Scope to close when the read is done
+   */
+  public Scope primary() {
+    PINNED.get()[0]++;
+    return () -> PINNED.get()[0]--;
+  }
+
+  /**
+   * @return true if the current thread must read from the primary
+   */
+  public static boolean isPinnedToPrimary() {
+    return PINNED.get()[0] > 0;
+  }
+
+  /**
+   * Closeable scope returned by primaryIfRecentWriter
+   */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+    Scope NOOP = () -> { };
+
+    @Override
+    void close();
+  }
+}
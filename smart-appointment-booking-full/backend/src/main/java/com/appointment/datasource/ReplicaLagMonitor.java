@@ -0,0 +1,99 @@
+package com.appointment.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures replica lag; while the replica is lagging or unreachable, reads go to the primary
+ */
+@Slf4j
+public class ReplicaLagMonitor implements SmartLifecycle {
+
+  private final DataSource replica;
+  private final ReplicaProperties properties;
+  private ScheduledExecutorService scheduler;
+
+  private volatile boolean usable;
+  private volatile long lastLagMs = -1;
+
+  public ReplicaLagMonitor(DataSource replica, ReplicaProperties properties) {
+    this.replica = replica;
+    this.properties = properties;
+  }
+
+  @Override
+  public void start() {
+    if (scheduler != null) {
+      return;
+    }
+    check();
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "replica-lag-monitor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::check, properties.getLagCheckIntervalMs(),
+      properties.getLagCheckIntervalMs(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return scheduler != null;
+  }
+
+  /**
+   * Run one lag measurement and update the replica state
+   */
+  public void check() {
+    boolean wasUsable = usable;
+    try (Connection connection = replica.getConnection()) {
+      String lagQuery = properties.getLagQuery();
+      long lag = 0;
+      if (lagQuery != null && !lagQuery.isBlank()) {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+          lag = resultSet.next() ? (long) resultSet.getDouble(1) : 0;
+        }
+      } else if (!connection.isValid(1)) {
+        throw new SQLException("Replica connection is not valid");
+      }
+      lastLagMs = lag;
+      usable = lag <= properties.getMaxLagMs();
+    } catch (SQLException | RuntimeException ex) {
+      lastLagMs = -1;
+      usable = false;
+      if (wasUsable) {
+        log.warn("Replica unavailable, routing reads to primary: {}", ex.getMessage());
+      }
+      return;
+    }
+    if (wasUsable != usable) {
+      log.info("Replica {} (lag {} ms)", usable ? "usable again" : "lagging, routing reads to primary", lastLagMs);
+    }
+  }
+
+  public boolean isUsable() {
+    return usable;
+  }
+
+  public long getLastLagMs() {
+    return lastLagMs;
+  }
+}
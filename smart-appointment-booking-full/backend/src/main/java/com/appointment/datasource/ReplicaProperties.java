@@ -0,0 +1,48 @@
+package com.appointment.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read-replica settings
+ * Bound from app.datasource.replica.* in application.properties; pool settings go under
+ * app.datasource.replica.hikari.*
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+
+  /**
+   * Route read-only transactions to the replica
+   */
+  private boolean enabled = false;
+
+  private String url;
+
+  private String username;
+
+  private String password;
+
+  private String driverClassName;
+
+  /**
+   * Replica is skipped while its replay lag is above this value
+   */
+  private long maxLagMs = 5000;
+
+  /**
+   * Query returning the replica lag in milliseconds; blank means "only check the connection"
+   * The default reports 0 once everything received has been replayed: the age of the last replayed
+   * transaction keeps growing while the primary is idle, so it only counts while replay is behind
+   */
+  private String lagQuery =
+    "SELECT CASE WHEN pg_last_wal_receive_lsn() IS NOT DISTINCT FROM pg_last_wal_replay_lsn() THEN 0"
+      + " ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+  private long lagCheckIntervalMs = 2000;
+
+  /**
+   * After a user's own write, that user's reads stay on the primary for this long
+   */
+  private long stickinessMs = 5000;
+}
@@ -0,0 +1,42 @@
+package com.appointment.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the primary
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the route is chosen after the transaction
+ * has been marked read-only
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  private final ReplicaLagMonitor lagMonitor;
+
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+    this.lagMonitor = lagMonitor;
+    setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return currentRoute();
+  }
+
+  /**
+   * Route for a connection requested on the current thread
+   * @return REPLICA only inside a read-only transaction, with a healthy replica and no read-your-writes pin
+   */
+  public DataSourceRoute currentRoute() {
+    boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+      && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    if (readOnly && !ReadYourWritesTracker.isPinnedToPrimary() && lagMonitor.isUsable()) {
+      return DataSourceRoute.REPLICA;
+    }
+    return DataSourceRoute.PRIMARY;
+  }
+}
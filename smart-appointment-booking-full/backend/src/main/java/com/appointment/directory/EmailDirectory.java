@@ -0,0 +1,86 @@
+package com.appointment.directory;
+
+import com.appointment.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of registered emails
+ *
+ * Lets registration skip the existsByEmail query for emails this instance has never seen.
+ * Only the unique constraint on users.email guarantees uniqueness; never rely on this filter for it.
+ * Emails registered on other instances, or while the filter was loading, are false negatives here:
+ * isDefinitelyFree returns true, existsByEmail is skipped and the duplicate is only caught by the
+ * constraint on insert, after the password has been hashed. Emails freed by a delete stay in the filter
+ * and only cost an extra existsByEmail query.
+ */
+@Component
+@Slf4j
+public class EmailDirectory {
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final EmailDirectoryProperties properties;
+  private volatile ScalableBloomFilter filter;
+
+  public EmailDirectory(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                        EmailDirectoryProperties properties) {
+    this.userRepository = userRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.properties = properties;
+  }
+
+  /**
+   * Build the filter from the users table once the application is up
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    ScalableBloomFilter loaded = new ScalableBloomFilter(properties.getInitialCapacity(),
+      properties.getFalsePositiveRate());
+    transactionTemplate.executeWithoutResult(status -> {
+      try (Stream<String> emails = userRepository.streamAllEmails()) {
+        emails.forEach(email -> loaded.add(normalize(email)));
+      }
+    });
+    // An email registered while this scan runs may be missing; the unique constraint still catches it
+    filter = loaded;
+    log.info("Email filter loaded with {} emails in {} layer(s)", loaded.size(), loaded.layerCount());
+  }
+
+  /**
+   * @param email Email to check
+   * @return true if this instance never saw the email registered (it may still exist in the database);
+   *   false means "ask the database"
+   */
+  public boolean isDefinitelyFree(String email) {
+    ScalableBloomFilter current = filter;
+    return current != null && email != null && !current.mightContain(normalize(email));
+  }
+
+  /**
+   * Record a newly registered email
+   * @param email Saved email
+   */
+  public void add(String email) {
+    ScalableBloomFilter current = filter;
+    if (current != null && email != null) {
+      current.add(normalize(email));
+    }
+  }
+
+  // Case-folding only merges entries, which can add false positives but never false negatives
+  private static String normalize(String email) {
+    return email.trim().toLowerCase(Locale.ROOT);
+  }
+}
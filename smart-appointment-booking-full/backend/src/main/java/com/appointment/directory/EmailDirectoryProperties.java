@@ -0,0 +1,25 @@
+package com.appointment.directory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Email Bloom filter settings
+ * Bound from app.email-filter.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.email-filter")
+public class EmailDirectoryProperties {
+
+  /**
+   * When false, every registration checks the database
+   */
+  private boolean enabled = true;
+
+  /**
+   * Emails the first filter layer is sized for; further layers are added as needed
+   */
+  private long initialCapacity = 100_000;
+
+  private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,127 @@
+package com.appointment.directory;
+
+import com.appointment.event.UserChangedEvent;
+import com.appointment.model.User;
+import com.appointment.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory directory of active service providers
+ *
+ * Readers get a lock-free view of an immutable snapshot. Writers (user changes after commit, periodic
+ * reloads) build a new snapshot and swap it in, so a reader never sees a half-applied change. Lookups that
+ * miss must fall back to the database: the directory only hears about changes made through UserService
+ * on this instance until the next reload.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderDirectory {
+
+  private final UserRepository userRepository;
+  private final ProviderDirectoryProperties properties;
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile Snapshot snapshot;
+
+  /**
+   * @return Active service providers ordered by id
+   */
+  public List<ProviderEntry> activeProviders() {
+    if (!properties.isEnabled()) {
+      return userRepository.findAllActiveServiceProviders().stream().map(ProviderDirectory::toEntry).toList();
+    }
+    return current().providers();
+  }
+
+  /**
+   * @param providerId User ID
+   * @return The provider if it is a known active service provider; empty means "ask the database"
+   */
+  public Optional<ProviderEntry> find(Long providerId) {
+    if (!properties.isEnabled() || providerId == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(current().byId().get(providerId));
+  }
+
+  /**
+   * Apply a committed user change to the directory
+   * @param event Snapshot of the changed user
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onUserChanged(UserChangedEvent event) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      // Not loaded yet; the first load reads the committed change from the database
+      return;
+    }
+    Map<Long, ProviderEntry> byId = new TreeMap<>(current.byId());
+    boolean activeProvider = !event.deleted() && event.role() == User.Role.SERVICE_PROVIDER
+      && Boolean.TRUE.equals(event.active());
+    if (activeProvider) {
+      byId.put(event.userId(), new ProviderEntry(event.userId(), event.name(), event.email(), event.phone(),
+        event.createdAt()));
+    } else if (byId.remove(event.userId()) == null) {
+      return;
+    }
+    snapshot = new Snapshot(byId, current.loadedAt());
+  }
+
+  /**
+   * Replace the directory with the current database state
+   */
+  public synchronized void reload() {
+    Map<Long, ProviderEntry> byId = new TreeMap<>();
+    for (User provider : userRepository.findAllActiveServiceProviders()) {
+      byId.put(provider.getId(), toEntry(provider));
+    }
+    snapshot = new Snapshot(byId, System.nanoTime());
+    log.debug("Provider directory loaded with {} providers", byId.size());
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      synchronized (this) {
+        if (snapshot == null) {
+          reload();
+        }
+        return snapshot;
+      }
+    }
+    long age = System.nanoTime() - current.loadedAt();
+    if (age > TimeUnit.MILLISECONDS.toNanos(properties.getRefreshIntervalMs()) && refreshing.compareAndSet(false, true)) {
+      try {
+        reload();
+        return snapshot;
+      } catch (RuntimeException ex) {
+        log.warn("Provider directory refresh failed, serving previous snapshot: {}", ex.getMessage());
+      } finally {
+        refreshing.set(false);
+      }
+    }
+    return current;
+  }
+
+  private static ProviderEntry toEntry(User user) {
+    return new ProviderEntry(user.getId(), user.getName(), user.getEmail(), user.getPhone(), user.getCreatedAt());
+  }
+
+  private record Snapshot(Map<Long, ProviderEntry> byId, List<ProviderEntry> providers, long loadedAt) {
+
+    private Snapshot(Map<Long, ProviderEntry> byId, long loadedAt) {
+      this(Collections.unmodifiableMap(byId), List.copyOf(byId.values()), loadedAt);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.appointment.directory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Provider directory settings
+ * Bound from app.provider-directory.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.provider-directory")
+public class ProviderDirectoryProperties {
+
+  /**
+   * When false, providers are always read from the database
+   */
+  private boolean enabled = true;
+
+  /**
+   * Full reload interval; picks up changes made by other instances or directly in the database
+   */
+  private long refreshIntervalMs = 60_000;
+}
@@ -0,0 +1,33 @@
+package com.appointment.directory;
+
+import com.appointment.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable directory entry of an active service provider
+ * @param id User ID
+ * @param name Name
+ * @param email Email
+ * @param phone Phone
+ * @param createdAt Registration time
+ */
+public record ProviderEntry(Long id, String name, String email, String phone, LocalDateTime createdAt) {
+
+  /**
+   * Detached User carrying this entry's data; usable as an association target (only the id is written)
+   * and for building responses, never for updates
+   * @return New User instance
+   */
+  public User toUser() {
+    User user = new User();
+    user.setId(id);
+    user.setName(name);
+    user.setEmail(email);
+    user.setPhone(phone);
+    user.setRole(User.Role.SERVICE_PROVIDER);
+    user.setActive(true);
+    user.setCreatedAt(createdAt);
+    return user;
+  }
+}
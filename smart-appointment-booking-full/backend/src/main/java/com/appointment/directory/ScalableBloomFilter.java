@@ -0,0 +1,134 @@
+package com.appointment.directory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Scalable Bloom filter of strings
+ *
+ * Starts with one layer sized for initialCapacity at the target false-positive rate. When a layer is full,
+ * a new layer with twice the capacity and half the false-positive rate is added, so the overall rate stays
+ * below roughly twice the target no matter how many items are added. Lookups are lock-free; adds are
+ * serialized.
+ */
+public class ScalableBloomFilter {
+
+  private static final double TIGHTENING_RATIO = 0.5;
+  private static final int GROWTH_FACTOR = 2;
+
+  private volatile Layer[] layers;
+  private volatile long size;
+
+  /**
+   * @param initialCapacity Expected items before the first layer is full
+   * @param falsePositiveRate Target probability that mightContain answers true for an absent item
+   */
+  public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+    this.layers = new Layer[] {new Layer(Math.max(64, initialCapacity), falsePositiveRate * (1 - TIGHTENING_RATIO))};
+  }
+
+  /**
+   * @param value Item to look up
+   * @return false if the item was definitely never added; true if it probably was
+   */
+  public boolean mightContain(String value) {
+    long[] hashes = hash(value);
+    for (Layer layer : layers) {
+      if (layer.mightContain(hashes[0], hashes[1])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param value Item to add
+   */
+  public synchronized void add(String value) {
+    long[] hashes = hash(value);
+    Layer[] current = layers;
+    Layer last = current[current.length - 1];
+    if (last.count >= last.capacity) {
+      Layer next = new Layer(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+      Layer[] grown = new Layer[current.length + 1];
+      System.arraycopy(current, 0, grown, 0, current.length);
+      grown[current.length] = next;
+      layers = grown;
+      last = next;
+    }
+    last.add(hashes[0], hashes[1]);
+    size++;
+  }
+
+  /**
+   * @return Number of adds so far
+   */
+  public long size() {
+    return size;
+  }
+
+  public int layerCount() {
+    return layers.length;
+  }
+
+  /**
+   * Two independent 64-bit hashes (FNV-1a with different offsets, then the MurmurHash3 finalizer)
+   */
+  private static long[] hash(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    long h1 = 0xcbf29ce484222325L;
+    long h2 = 0x84222325cbf29ce4L;
+    for (byte b : bytes) {
+      h1 = (h1 ^ (b & 0xff)) * 0x100000001b3L;
+      h2 = (h2 ^ (b & 0xff)) * 0x100000001b3L;
+    }
+    return new long[] {fmix64(h1), fmix64(h2 ^ 0x9e3779b97f4a7c15L) | 1};
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+  private static final class Layer {
+    private final long capacity;
+    private final double falsePositiveRate;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+    private long count;
+
+    private Layer(long capacity, double falsePositiveRate) {
+      this.capacity = capacity;
+      this.falsePositiveRate = falsePositiveRate;
+      long m = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+      this.bits = new AtomicLongArray((int) ((m + 63) / 64));
+      this.bitCount = bits.length() * 64L;
+      this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+    }
+
+    private boolean mightContain(long h1, long h2) {
+      for (int i = 0; i < hashCount; i++) {
+        long bit = Math.floorMod(h1 + i * h2, bitCount);
+        if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void add(long h1, long h2) {
+      for (int i = 0; i < hashCount; i++) {
+        long bit = Math.floorMod(h1 + i * h2, bitCount);
+        int index = (int) (bit >>> 6);
+        // Single writer (add is synchronized); the atomic array publishes the bit to readers
+        bits.set(index, bits.get(index) | (1L << bit));
+      }
+      count++;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.appointment.dto;
+
+import com.appointment.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria for paged appointment queries; null fields are not filtered on
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentFilter {
+
+  private Long providerId;
+
+  private Long customerId;
+
+  private Appointment.Status status;
+
+  /**
+   * Earliest appointment time (inclusive)
+   */
+  private LocalDateTime from;
+
+  /**
+   * Latest appointment time (exclusive)
+   */
+  private LocalDateTime to;
+}
@@ -2,6 +2,8 @@ package com.appointment.dto;
 
 import com.appointment.model.Appointment;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,10 +13,18 @@ import java.time.LocalDateTime;
 /**
  * DTO for Appointment responses
  * Used when sending appointment data to clients
+ * Property order is fixed so JSON, CBOR and Smile payloads keep a stable layout
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonPropertyOrder({
+  "id",
+  "customerId", "customerName", "customerEmail", "customerPhone",
+  "serviceProviderId", "serviceProviderName", "serviceProviderEmail", "serviceProviderPhone",
+  "serviceType", "serviceTypeDisplayName", "appointmentDateTime", "notes",
+  "status", "statusDisplayName", "createdAt", "updatedAt", "upcoming", "past", "seriesId"
+})
 public class AppointmentResponse {
 
   private Long id;
@@ -51,6 +61,10 @@ public class AppointmentResponse {
   @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
   private LocalDateTime updatedAt;
 
+  // Set on occurrences of a recurring series, which have no ID of their own; they are cancelled through the series
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Long seriesId;
+
   /**
    * Helper method to set display names from enums
    * @param serviceType Service type enum
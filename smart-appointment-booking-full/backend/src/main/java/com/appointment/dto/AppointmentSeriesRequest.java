@@ -0,0 +1,51 @@
+package com.appointment.dto;
+
+import com.appointment.model.Appointment;
+import com.appointment.model.AppointmentSeries;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for recurring appointment requests
+ * Every interval days/weeks/months from the first occurrence, occurrences times
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSeriesRequest {
+
+  @NotNull(message = "Customer ID is required")
+  private Long customerId;
+
+  @NotNull(message = "Service provider ID is required")
+  private Long serviceProviderId;
+
+  @NotNull(message = "Service type is required")
+  private Appointment.ServiceType serviceType;
+
+  @NotNull(message = "First occurrence is required")
+  @Future(message = "Series must start at a future date and time")
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime firstOccurrence;
+
+  @NotNull(message = "Frequency is required")
+  private AppointmentSeries.Frequency frequency;
+
+  @Min(value = 1, message = "Interval must be at least 1")
+  @Max(value = 52, message = "Interval must be at most 52")
+  private int interval = 1;
+
+  @Min(value = 2, message = "A series needs at least 2 occurrences")
+  @Max(value = 104, message = "A series can have at most 104 occurrences")
+  private int occurrences;
+
+  private String notes;
+}
@@ -0,0 +1,47 @@
+package com.appointment.dto;
+
+import com.appointment.model.Appointment;
+import com.appointment.model.AppointmentSeries;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for recurring appointment responses
+ * Carries the rule only; occurrences are fetched per window
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSeriesResponse {
+
+  private Long id;
+
+  private Long customerId;
+  private String customerName;
+
+  private Long serviceProviderId;
+  private String serviceProviderName;
+
+  private Appointment.ServiceType serviceType;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime firstOccurrence;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime lastOccurrence;
+
+  private AppointmentSeries.Frequency frequency;
+  private int interval;
+  private int occurrences;
+
+  private String notes;
+
+  private AppointmentSeries.Status status;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,27 @@
+package com.appointment.dto;
+
+import com.appointment.model.Appointment;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for moving many appointments to the same status in one call
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+
+  @NotEmpty(message = "At least one appointment ID is required")
+  @Size(max = 500, message = "At most 500 appointments can be updated at once")
+  private List<@NotNull Long> ids;
+
+  @NotNull(message = "Status is required")
+  private Appointment.Status status;
+}
@@ -0,0 +1,49 @@
+package com.appointment.dto;
+
+import com.appointment.model.Appointment;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk status update, one entry per requested ID in request order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+
+  private Appointment.Status status;
+  private int updated;
+  private List<Outcome> results;
+
+  /**
+   * Result for a single appointment
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public static class Outcome {
+    private Long id;
+    private Result result;
+    private Appointment.Status previousStatus;
+    private String message;
+  }
+
+  public enum Result {
+    /** Status changed */
+    UPDATED,
+    /** Appointment already had the requested status */
+    UNCHANGED,
+    /** No appointment with this ID */
+    NOT_FOUND,
+    /** The transition is not allowed from the current status */
+    INVALID_TRANSITION,
+    /** The appointment was changed concurrently; retry after re-reading it */
+    CONFLICT
+  }
+}
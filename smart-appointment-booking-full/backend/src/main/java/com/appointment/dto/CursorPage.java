@@ -0,0 +1,39 @@
+package com.appointment.dto;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * One page of a keyset-paginated result, shaped like a Relay connection
+ * The total count is only queried when totalCount() is called.
+ *
+ * @param edges Items of this page with their cursors
+ * @param hasNextPage Whether more items follow the last edge
+ * @param hasPreviousPage Whether the page was requested after a cursor
+ * @param totalCountQuery Counts all items matching the filter, ignoring the cursor
+ * @param <T> Type of the items
+ */
+public record CursorPage<T>(List<Edge<T>> edges, boolean hasNextPage, boolean hasPreviousPage,
+                            LongSupplier totalCountQuery) {
+
+  public PageInfo pageInfo() {
+    return new PageInfo(hasNextPage, hasPreviousPage,
+      edges.isEmpty() ? null : edges.get(0).cursor(),
+      edges.isEmpty() ? null : edges.get(edges.size() - 1).cursor());
+  }
+
+  public long totalCount() {
+    return totalCountQuery.getAsLong();
+  }
+
+  /**
+   * @param cursor Opaque position of the item, usable as "after"
+   * @param node The item
+   * @param <T> Type of the item
+   */
+  public record Edge<T>(String cursor, T node) {
+  }
+
+  public record PageInfo(boolean hasNextPage, boolean hasPreviousPage, String startCursor, String endCursor) {
+  }
+}
@@ -0,0 +1,69 @@
+package com.appointment.dto;
+
+import com.appointment.model.Appointment;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a provider's weekly schedule
+ * Used both to replace a schedule and to return it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderScheduleRequest {
+
+  @Min(value = 1, message = "Capacity must be at least 1")
+  @Max(value = 100, message = "Capacity must be at most 100")
+  private int capacity = 1;
+
+  /**
+   * Empty means the provider can be booked at any time
+   */
+  @Valid
+  private List<Period> workingHours = new ArrayList<>();
+
+  @Valid
+  private List<Period> breaks = new ArrayList<>();
+
+  /**
+   * Minutes per service type; missing types use the defaults in app.availability
+   */
+  private Map<Appointment.ServiceType,
+    @NotNull @Min(value = 5, message = "Durations must be at least 5 minutes")
+    @Max(value = 720, message = "Durations must be at most 12 hours") Integer> serviceDurations =
+    new EnumMap<>(Appointment.ServiceType.class);
+
+  /**
+   * A weekly time range; an end of 00:00 means midnight
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Period {
+
+    @NotNull(message = "Day of week is required")
+    private DayOfWeek dayOfWeek;
+
+    @NotNull(message = "Start time is required")
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime start;
+
+    @NotNull(message = "End time is required")
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime end;
+  }
+}
@@ -0,0 +1,36 @@
+package com.appointment.dto;
+
+import com.appointment.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a provider's schedule as applied to bookings
+ * Durations include the defaults for service types the provider did not override
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderScheduleResponse {
+
+  private Long serviceProviderId;
+
+  /**
+   * False when the provider has no schedule and can be booked at any time
+   */
+  private boolean configured;
+
+  private int capacity;
+
+  private int slotMinutes;
+
+  private List<ProviderScheduleRequest.Period> workingHours;
+
+  private List<ProviderScheduleRequest.Period> breaks;
+
+  private Map<Appointment.ServiceType, Integer> serviceDurations;
+}
@@ -0,0 +1,120 @@
+package com.appointment.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Successful ApiResponse whose data is written row by row
+ *
+ * Produces the same envelope as ApiResponse (success, message, data, timestamp), but the rows are pulled
+ * from a RowSource while the response body is being serialized: each row goes straight from the result
+ * set to the JsonGenerator and is dropped afterwards, so no list or map of the whole result is built.
+ * Works with every Jackson-based converter (JSON, CBOR, Smile).
+ *
+ * @param <T> Type of the rows
+ */
+@JsonSerialize(using = StreamedApiResponse.Serializer.class)
+public final class StreamedApiResponse<T> {
+
+  private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+  private final String message;
+  private final RowSource<T> rows;
+  private final Function<? super T, ?> keyFunction;
+  private final LocalDateTime timestamp = LocalDateTime.now();
+
+  private StreamedApiResponse(String message, RowSource<T> rows, Function<? super T, ?> keyFunction) {
+    this.message = message;
+    this.rows = rows;
+    this.keyFunction = keyFunction;
+  }
+
+  /**
+   * Rows written as a JSON array
+   * @param message Success message
+   * @param rows Source of the rows, invoked once during serialization
+   * @param <T> Type of the rows
+   * @return Response body
+   */
+  public static <T> StreamedApiResponse<T> list(String message, RowSource<T> rows) {
+    return new StreamedApiResponse<>(message, rows, null);
+  }
+
+  /**
+   * Rows written as a JSON object keyed by the given property
+   * @param message Success message
+   * @param rows Source of the rows, invoked once during serialization
+   * @param keyFunction Extracts the (unique) key of a row
+   * @param <T> Type of the rows
+   * @return Response body
+   */
+  public static <T> StreamedApiResponse<T> map(String message, RowSource<T> rows, Function<? super T, ?> keyFunction) {
+    return new StreamedApiResponse<>(message, rows, keyFunction);
+  }
+
+  /**
+   * Pushes rows to a consumer, typically from inside a read-only transaction
+   * @param <T> Type of the rows
+   */
+  @FunctionalInterface
+  public interface RowSource<T> {
+    void forEach(Consumer<? super T> action);
+  }
+
+  public static final class Serializer extends StdSerializer<StreamedApiResponse<?>> {
+
+    public Serializer() {
+      super(StreamedApiResponse.class, false);
+    }
+
+    @Override
+    public void serialize(StreamedApiResponse<?> value, JsonGenerator gen, SerializerProvider provider)
+      throws IOException {
+      gen.writeStartObject();
+      gen.writeBooleanField("success", true);
+      gen.writeStringField("message", value.message);
+      gen.writeFieldName("data");
+      writeData(value, gen, provider);
+      gen.writeStringField("timestamp", TIMESTAMP_FORMAT.format(value.timestamp));
+      gen.writeEndObject();
+    }
+
+    private static <T> void writeData(StreamedApiResponse<T> value, JsonGenerator gen, SerializerProvider provider)
+      throws IOException {
+      if (value.keyFunction == null) {
+        gen.writeStartArray();
+      } else {
+        gen.writeStartObject();
+      }
+      try {
+        value.rows.forEach(row -> {
+          try {
+            if (value.keyFunction != null) {
+              gen.writeFieldName(String.valueOf(value.keyFunction.apply(row)));
+            }
+            provider.defaultSerializeValue(row, gen);
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+      } catch (UncheckedIOException ex) {
+        // Client went away or the output failed; let Jackson report the original exception
+        throw ex.getCause();
+      }
+      if (value.keyFunction == null) {
+        gen.writeEndArray();
+      } else {
+        gen.writeEndObject();
+      }
+    }
+  }
+}
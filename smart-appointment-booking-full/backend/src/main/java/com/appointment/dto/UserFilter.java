@@ -0,0 +1,19 @@
+package com.appointment.dto;
+
+import com.appointment.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional criteria for paged user queries; null fields are not filtered on
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFilter {
+
+  private User.Role role;
+
+  private Boolean active;
+}
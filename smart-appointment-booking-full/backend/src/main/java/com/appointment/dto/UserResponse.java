@@ -3,6 +3,8 @@ package com.appointment.dto;
 import com.appointment.model.User;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,6 +19,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonPropertyOrder({"id", "name", "email", "phone", "role", "roleDisplayName", "active", "createdAt", "updatedAt", "token"})
 public class UserResponse {
 
   private Long id;
@@ -39,6 +42,12 @@ public class UserResponse {
   @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
   private LocalDateTime updatedAt;
 
+  /**
+   * Session token, only set on login
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String token;
+
   /**
    * Set role and automatically set display name
    * @param role User role
@@ -0,0 +1,55 @@
+package com.appointment.dto;
+
+import com.appointment.model.Appointment;
+import com.appointment.model.WaitlistEntry;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for waitlist entries
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryResponse {
+
+  private Long id;
+
+  private Long customerId;
+  private String customerName;
+
+  private Long serviceProviderId;
+  private String serviceProviderName;
+
+  private Appointment.ServiceType serviceType;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime windowStart;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime windowEnd;
+
+  private String notes;
+
+  private WaitlistEntry.Status status;
+
+  /**
+   * 1-based place in the provider's queue while waiting
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer position;
+
+  /**
+   * Set once a freed slot was booked for this entry
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Long appointmentId;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,41 @@
+package com.appointment.dto;
+
+import com.appointment.model.Appointment;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for joining a provider's waitlist
+ * The customer accepts any freed slot starting within [windowStart, windowEnd]
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistRequest {
+
+  @NotNull(message = "Customer ID is required")
+  private Long customerId;
+
+  @NotNull(message = "Service provider ID is required")
+  private Long serviceProviderId;
+
+  @NotNull(message = "Service type is required")
+  private Appointment.ServiceType serviceType;
+
+  @NotNull(message = "Window start is required")
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime windowStart;
+
+  @NotNull(message = "Window end is required")
+  @Future(message = "Window must end in the future")
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime windowEnd;
+
+  private String notes;
+}
@@ -0,0 +1,34 @@
+package com.appointment.event;
+
+import com.appointment.model.Appointment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by AppointmentService for every appointment that was created, edited, moved to another status
+ * or deleted. Listeners that act on the committed state should use @TransactionalEventListener
+ * @param change Kind of change
+ * @param appointmentId Appointment ID
+ * @param customerId Customer ID
+ * @param serviceProviderId Service provider ID
+ * @param previousStatus Status before the change, null for CREATED
+ * @param status Status after the change, null for DELETED
+ * @param appointmentDateTime Start of the appointment after the change (before it, for DELETED)
+ */
+public record AppointmentChangedEvent(Change change, Long appointmentId, Long customerId, Long serviceProviderId,
+                                      Appointment.Status previousStatus, Appointment.Status status,
+                                      LocalDateTime appointmentDateTime) {
+
+  public enum Change {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED
+  }
+
+  public static AppointmentChangedEvent of(Change change, Appointment appointment,
+                                           Appointment.Status previousStatus, Appointment.Status status) {
+    return new AppointmentChangedEvent(change, appointment.getId(), appointment.getCustomer().getId(),
+      appointment.getServiceProvider().getId(), previousStatus, status, appointment.getAppointmentDateTime());
+  }
+}
@@ -0,0 +1,38 @@
+package com.appointment.event;
+
+import com.appointment.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by UserService after a user is created, updated or deleted
+ * Carries a snapshot of the committed state so listeners do not need to re-read the user
+ * @param userId User ID
+ * @param name Name (null when deleted)
+ * @param email Email (null when deleted)
+ * @param phone Phone (null when deleted)
+ * @param role Role (null when deleted)
+ * @param active Active flag (null when deleted)
+ * @param createdAt Creation time (null when deleted)
+ * @param deleted true if the user no longer exists
+ */
+public record UserChangedEvent(Long userId, String name, String email, String phone, User.Role role,
+                               Boolean active, LocalDateTime createdAt, boolean deleted) {
+
+  /**
+   * @param user Saved user
+   * @return Event describing the user's new state
+   */
+  public static UserChangedEvent saved(User user) {
+    return new UserChangedEvent(user.getId(), user.getName(), user.getEmail(), user.getPhone(), user.getRole(),
+      user.getActive(), user.getCreatedAt(), false);
+  }
+
+  /**
+   * @param userId ID of the deleted user
+   * @return Event describing the deletion
+   */
+  public static UserChangedEvent deleted(Long userId) {
+    return new UserChangedEvent(userId, null, null, null, null, null, null, true);
+  }
+}
@@ -0,0 +1,17 @@
+package com.appointment.exception;
+
+/**
+ * Thrown when the caller may not read or change a resource (e.g. another customer's appointments)
+ *
+ * This exception is handled by GlobalExceptionHandler and returns HTTP 403
+ */
+public class AccessDeniedException extends RuntimeException {
+
+  /**
+   * Constructor with message
+   * @param message Error message
+   */
+  public AccessDeniedException(String message) {
+    super(message);
+  }
+}
@@ -2,6 +2,7 @@ package com.appointment.exception;
 
 import com.appointment.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -162,6 +163,72 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
   }
 
+  /**
+   * Handle AccessDeniedException (403 Forbidden)
+   * Thrown when the caller's token does not allow access to the resource
+   */
+  @ExceptionHandler(AccessDeniedException.class)
+  @ResponseStatus(HttpStatus.FORBIDDEN)
+  public ResponseEntity<ApiResponse<Object>> handleAccessDeniedException(AccessDeniedException ex) {
+
+    log.warn("Access denied: {}", ex.getMessage());
+
+    ApiResponse<Object> response = new ApiResponse<>();
+    response.setSuccess(false);
+    response.setMessage(ex.getMessage());
+    response.setData(null);
+    response.setTimestamp(LocalDateTime.now());
+    response.setStatusCode(HttpStatus.FORBIDDEN.value());
+
+    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+  }
+
+  /**
+   * Handle RateLimitExceededException (429 Too Many Requests)
+   * Thrown when a client exceeds the request rate of a rate-limited endpoint
+   */
+  @ExceptionHandler(RateLimitExceededException.class)
+  @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+  public ResponseEntity<ApiResponse<Object>> handleRateLimitExceededException(
+    RateLimitExceededException ex) {
+
+    log.warn("Rate limit exceeded: {}", ex.getMessage());
+
+    ApiResponse<Object> response = new ApiResponse<>();
+    response.setSuccess(false);
+    response.setMessage(ex.getMessage());
+    response.setData(null);
+    response.setTimestamp(LocalDateTime.now());
+    response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+      .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+      .body(response);
+  }
+
+  /**
+   * Handle ServiceOverloadedException (503 Service Unavailable)
+   * Thrown when a bounded worker pool is saturated; the client should back off and retry
+   */
+  @ExceptionHandler(ServiceOverloadedException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ResponseEntity<ApiResponse<Object>> handleServiceOverloadedException(
+    ServiceOverloadedException ex) {
+
+    log.warn("Service overloaded: {}", ex.getMessage());
+
+    ApiResponse<Object> response = new ApiResponse<>();
+    response.setSuccess(false);
+    response.setMessage(ex.getMessage());
+    response.setData(null);
+    response.setTimestamp(LocalDateTime.now());
+    response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+      .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+      .body(response);
+  }
+
   /**
    * Handle all other unhandled exceptions (500 Internal Server Error)
    * Catch-all for unexpected errors
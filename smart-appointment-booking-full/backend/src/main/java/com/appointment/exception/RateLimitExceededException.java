@@ -0,0 +1,25 @@
+package com.appointment.exception;
+
+/**
+ * Thrown when a client exceeds the request rate of an endpoint
+ *
+ * This exception is handled by GlobalExceptionHandler and returns HTTP 429 with a Retry-After header
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  /**
+   * Constructor with message and retry hint
+   * @param message Error message
+   * @param retryAfterSeconds Seconds until the next request will be accepted
+   */
+  public RateLimitExceededException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
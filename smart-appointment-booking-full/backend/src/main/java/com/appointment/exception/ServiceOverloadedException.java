@@ -0,0 +1,25 @@
+package com.appointment.exception;
+
+/**
+ * Thrown when a bounded worker pool cannot take more work
+ *
+ * This exception is handled by GlobalExceptionHandler and returns HTTP 503 with a Retry-After header
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+  private final int retryAfterSeconds;
+
+  /**
+   * Constructor with message and retry hint
+   * @param message Error message
+   * @param retryAfterSeconds Seconds the client should wait before retrying
+   */
+  public ServiceOverloadedException(String message, int retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public int getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,69 @@
+package com.appointment.graphql;
+
+import com.appointment.event.AppointmentChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Objects;
+
+/**
+ * Fans committed appointment changes out to GraphQL subscriptions
+ *
+ * Every subscription filters the shared stream on its own arguments and gets a bounded buffer: a slow
+ * client loses its oldest undelivered events instead of holding up the publisher or other clients.
+ * Metrics: graphql.subscription.active and graphql.subscription.dropped
+ */
+@Component
+@Slf4j
+public class AppointmentChangePublisher {
+
+    private final GraphQlSubscriptionProperties properties;
+    private final Sinks.Many<AppointmentChangedEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final Counter dropped;
+
+    public AppointmentChangePublisher(GraphQlSubscriptionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dropped = Counter.builder("graphql.subscription.dropped")
+            .description("Appointment change events dropped for subscribers that fell behind")
+            .register(meterRegistry);
+        Gauge.builder("graphql.subscription.active", sink, Sinks.Many::currentSubscriberCount)
+            .description("Open appointment change subscriptions")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Forward a change once its transaction has committed
+     * @param event The change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAppointmentChanged(AppointmentChangedEvent event) {
+        // Serialized because events arrive on many request threads; delivery only enqueues into subscriber buffers
+        Sinks.EmitResult result = sink.tryEmitNext(event);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.debug("Appointment change {} not delivered: {}", event.appointmentId(), result);
+        }
+    }
+
+    /**
+     * @param providerId Only changes of this provider's appointments, or null for any
+     * @param customerId Only changes of this customer's appointments, or null for any
+     * @return Hot stream of matching changes from now on
+     */
+    public Flux<AppointmentChangedEvent> subscribe(Long providerId, Long customerId) {
+        if (sink.currentSubscriberCount() >= properties.getMaxSubscriptions()) {
+            return Flux.error(new IllegalStateException("Too many open subscriptions, please retry later"));
+        }
+        return sink.asFlux()
+            .filter(event -> providerId == null || Objects.equals(providerId, event.serviceProviderId()))
+            .filter(event -> customerId == null || Objects.equals(customerId, event.customerId()))
+            .onBackpressureBuffer(Math.max(1, properties.getBufferSize()),
+                event -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST);
+    }
+}
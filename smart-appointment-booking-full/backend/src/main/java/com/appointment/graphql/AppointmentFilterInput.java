@@ -0,0 +1,19 @@
+package com.appointment.graphql;
+
+import com.appointment.dto.AppointmentFilter;
+import com.appointment.model.Appointment;
+
+import java.time.LocalDateTime;
+
+/**
+ * GraphQL AppointmentFilter input; times are ISO-8601 local date-times like the rest of the schema
+ */
+public record AppointmentFilterInput(Long providerId, Long customerId, Appointment.Status status,
+                                     String from, String to) {
+
+    AppointmentFilter toFilter() {
+        return new AppointmentFilter(providerId, customerId, status,
+            from != null ? LocalDateTime.parse(from) : null,
+            to != null ? LocalDateTime.parse(to) : null);
+    }
+}
@@ -1,16 +1,29 @@
 package com.appointment.graphql;
 
+import com.appointment.datasource.ReadYourWritesTracker;
 import com.appointment.dto.AppointmentResponse;
+import com.appointment.dto.CursorPage;
 import com.appointment.dto.UserResponse;
+import com.appointment.event.AppointmentChangedEvent;
+import com.appointment.exception.AccessDeniedException;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.model.User;
+import com.appointment.security.AccessGuard;
+import com.appointment.security.AuthenticatedUser;
 import com.appointment.service.AppointmentService;
 import com.appointment.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
@@ -18,6 +31,9 @@ public class AppointmentGraphQLController {
 
     private final AppointmentService appointmentService;
     private final UserService userService;
+    private final AppointmentChangePublisher changePublisher;
+    private final AccessGuard accessGuard;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     @QueryMapping
     public List<AppointmentResponse> appointments() {
@@ -29,6 +45,12 @@ public class AppointmentGraphQLController {
         return appointmentService.getAppointmentById(id);
     }
 
+    @QueryMapping
+    public CursorPage<AppointmentResponse> appointmentsConnection(@Argument int first, @Argument String after,
+                                                                  @Argument AppointmentFilterInput filter) {
+        return appointmentService.getAppointmentsPage(filter != null ? filter.toFilter() : null, first, after);
+    }
+
     @QueryMapping
     public List<UserResponse> users() {
         return userService.getAllUsers();
@@ -39,6 +61,68 @@ public class AppointmentGraphQLController {
         return userService.getUserById(id);
     }
 
+    @QueryMapping
+    public CursorPage<UserResponse> usersConnection(@Argument int first, @Argument String after,
+                                                    @Argument UserFilterInput filter) {
+        return userService.getUsersPage(filter != null ? filter.toFilter() : null, first, after);
+    }
+
+    /**
+     * Customer of an appointment, built from the columns already loaded with it
+     */
+    @SchemaMapping(typeName = "Appointment")
+    public UserResponse customer(AppointmentResponse appointment) {
+        return party(appointment.getCustomerId(), appointment.getCustomerName(),
+            appointment.getCustomerEmail(), appointment.getCustomerPhone());
+    }
+
+    /**
+     * Service provider of an appointment, built from the columns already loaded with it
+     */
+    @SchemaMapping(typeName = "Appointment")
+    public UserResponse serviceProvider(AppointmentResponse appointment) {
+        return party(appointment.getServiceProviderId(), appointment.getServiceProviderName(),
+            appointment.getServiceProviderEmail(), appointment.getServiceProviderPhone());
+    }
+
+    /**
+     * Changes of the caller's own appointments; only admins may watch other users' or all appointments
+     */
+    @SubscriptionMapping
+    public Flux<AppointmentChangedEvent> appointmentChanged(@Argument Long providerId, @Argument Long customerId,
+                                                            @ContextValue(name = GraphQlAuthInterceptor.CALLER, required = false)
+                                                            AuthenticatedUser caller) {
+        if (caller != null && !caller.isAdmin() && providerId == null && customerId == null) {
+            // No filter given: default to the caller's side of their appointments
+            if (caller.role() == User.Role.SERVICE_PROVIDER) {
+                providerId = caller.userId();
+            } else {
+                customerId = caller.userId();
+            }
+        }
+        if (!accessGuard.allows(caller, providerId, customerId)) {
+            return Flux.error(new AccessDeniedException("Not allowed to watch these appointments"));
+        }
+        return changePublisher.subscribe(providerId, customerId);
+    }
+
+    /**
+     * Appointment as committed by the change, read from the primary: the event is delivered right after the
+     * commit, before a replica has caught up and before the writer has been recorded for read-your-writes
+     */
+    @SchemaMapping(typeName = "AppointmentChange")
+    public AppointmentResponse appointment(AppointmentChangedEvent event) {
+        if (event.change() == AppointmentChangedEvent.Change.DELETED) {
+            return null;
+        }
+        try (ReadYourWritesTracker.Scope ignored = readYourWritesTracker.primary()) {
+            return appointmentService.getAppointmentById(event.appointmentId());
+        } catch (ResourceNotFoundException ex) {
+            // Deleted after this event was published
+            return null;
+        }
+    }
+
     @MutationMapping
     public AppointmentResponse createAppointment(@Argument Long customerId, @Argument Long providerId, @Argument String serviceType, @Argument String appointmentDateTime, @Argument String notes) {
         // Convert serviceType string to enum
@@ -50,8 +134,17 @@ public class AppointmentGraphQLController {
     }
 
     @MutationMapping
-    public UserResponse createUser(@Argument String name, @Argument String email, @Argument String phone, @Argument String password) {
+    public CompletableFuture<UserResponse> createUser(@Argument String name, @Argument String email, @Argument String phone, @Argument String password) {
         com.appointment.dto.UserRequest request = new com.appointment.dto.UserRequest(name, email, password, phone, com.appointment.model.User.Role.CUSTOMER);
         return userService.createUser(request);
     }
+
+    private static UserResponse party(Long id, String name, String email, String phone) {
+        UserResponse user = new UserResponse();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        user.setPhone(phone);
+        return user;
+    }
 }
@@ -0,0 +1,68 @@
+package com.appointment.graphql;
+
+import com.appointment.exception.AccessDeniedException;
+import com.appointment.security.AuthenticatedUser;
+import com.appointment.security.TokenProperties;
+import com.appointment.security.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.WebSocketGraphQlInterceptor;
+import org.springframework.graphql.server.WebSocketGraphQlRequest;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Puts the caller of a GraphQL operation into the GraphQL context under {@link #CALLER}
+ *
+ * HTTP requests carry the session token in the Authorization header. graphql-ws clients cannot set
+ * WebSocket headers from a browser, so they send it in the connection_init payload instead
+ * ({"Authorization": "Bearer ..."}); an invalid token there closes the connection, and so does a missing
+ * one while app.auth.token.required is on.
+ */
+@RequiredArgsConstructor
+public class GraphQlAuthInterceptor implements WebSocketGraphQlInterceptor {
+
+    public static final String CALLER = "caller";
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+    private final TokenProperties properties;
+
+    @Override
+    public Mono<Object> handleConnectionInitialization(WebSocketSessionInfo sessionInfo,
+                                                       Map<String, Object> connectionInitPayload) {
+        if (connectionInitPayload.get(HttpHeaders.AUTHORIZATION) instanceof String header) {
+            AuthenticatedUser caller = verify(header);
+            if (caller == null) {
+                return Mono.error(new AccessDeniedException("Session expired or invalid, please log in again"));
+            }
+            sessionInfo.getAttributes().put(CALLER, caller);
+        } else if (properties.isRequired()) {
+            return Mono.error(new AccessDeniedException("Authentication required"));
+        }
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        AuthenticatedUser caller = request instanceof WebSocketGraphQlRequest webSocketRequest
+            ? (AuthenticatedUser) webSocketRequest.getSessionInfo().getAttributes().get(CALLER)
+            : verify(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        if (caller != null) {
+            request.configureExecutionInput((input, builder) -> builder.graphQLContext(Map.of(CALLER, caller)).build());
+        }
+        return chain.next(request);
+    }
+
+    private AuthenticatedUser verify(String header) {
+        if (header == null || !header.startsWith(BEARER)) {
+            return null;
+        }
+        return tokenService.verify(header.substring(BEARER.length()).trim()).orElse(null);
+    }
+}
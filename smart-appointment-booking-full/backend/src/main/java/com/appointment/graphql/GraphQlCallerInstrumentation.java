@@ -0,0 +1,36 @@
+package com.appointment.graphql;
+
+import com.appointment.security.AccessGuard;
+import com.appointment.security.AuthenticatedUser;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs every data fetcher as the caller that GraphQlAuthInterceptor put into the GraphQL context
+ *
+ * Operations over the WebSocket have no servlet request, so without this AccessGuard would not know who
+ * is calling. Data fetchers that hand their work to another thread lose the caller and are denied.
+ */
+@Component
+@RequiredArgsConstructor
+public class GraphQlCallerInstrumentation extends SimplePerformantInstrumentation {
+
+    private final AccessGuard accessGuard;
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) {
+            // Property reads, no service calls
+            return dataFetcher;
+        }
+        return environment -> {
+            AuthenticatedUser caller = environment.getGraphQlContext().get(GraphQlAuthInterceptor.CALLER);
+            return accessGuard.callAs(caller, () -> dataFetcher.get(environment));
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.appointment.graphql;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GraphQL query budget settings
+ * Bound from app.graphql.cost.* in application.properties; field coordinates are written as Type.field
+ */
+@Data
+@ConfigurationProperties(prefix = "app.graphql.cost")
+public class GraphQlCostProperties {
+
+    /**
+     * When false, over-budget operations are counted but still executed
+     */
+    private boolean enabled = true;
+
+    private long maxCost = 5_000;
+
+    private int maxDepth = 8;
+
+    /**
+     * Upper bound on the number of fields (after fragment expansion) in one operation
+     */
+    private int maxFields = 500;
+
+    /**
+     * Assumed size of a list without a first/last/limit argument or a list-sizes entry
+     */
+    private int defaultListSize = 100;
+
+    private int objectFieldCost = 1;
+
+    private int scalarFieldCost = 0;
+
+    /**
+     * Base cost overrides, e.g. fieldCosts[Query.appointments]=10
+     */
+    private Map<String, Integer> fieldCosts = new HashMap<>();
+
+    /**
+     * List size estimates, e.g. listSizes[Query.users]=200
+     */
+    private Map<String, Integer> listSizes = new HashMap<>();
+
+    /**
+     * Distinct operation names tagged on metrics; later names are reported as "other"
+     */
+    private int maxOperationTags = 100;
+}
@@ -0,0 +1,24 @@
+package com.appointment.graphql;
+
+import com.appointment.security.TokenProperties;
+import com.appointment.security.TokenService;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Plugs the document cache, persisted query lookup and caller authentication into the GraphQL engine
+ */
+@Configuration
+public class GraphQlDocumentConfig {
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedDocumentCustomizer(PersistedDocumentProvider provider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(provider));
+    }
+
+    @Bean
+    public GraphQlAuthInterceptor graphQlAuthInterceptor(TokenService tokenService, TokenProperties properties) {
+        return new GraphQlAuthInterceptor(tokenService, properties);
+    }
+}
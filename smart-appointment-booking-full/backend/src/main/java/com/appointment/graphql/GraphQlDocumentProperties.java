@@ -0,0 +1,33 @@
+package com.appointment.graphql;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Parsed-document cache and automatic persisted query settings
+ * Bound from app.graphql.documents.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.graphql.documents")
+public class GraphQlDocumentProperties {
+
+    /**
+     * Parsed and validated documents kept, keyed by query text; 0 disables the cache
+     */
+    private int cacheSize = 500;
+
+    /**
+     * Accept extensions.persistedQuery.sha256Hash in place of the query text
+     */
+    private boolean persistedQueries = true;
+
+    /**
+     * Query texts remembered by hash; least recently used ones are forgotten first
+     */
+    private int persistedQueryCacheSize = 1_000;
+
+    /**
+     * Longer query texts are neither registered nor cached
+     */
+    private int maxQueryLength = 20_000;
+}
@@ -0,0 +1,23 @@
+package com.appointment.graphql;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * GraphQL subscription settings
+ * Bound from app.graphql.subscriptions.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.graphql.subscriptions")
+public class GraphQlSubscriptionProperties {
+
+    /**
+     * Events held per subscription while its client is not keeping up; the oldest are dropped beyond this
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Concurrent subscriptions accepted by this instance
+     */
+    private int maxSubscriptions = 1_000;
+}
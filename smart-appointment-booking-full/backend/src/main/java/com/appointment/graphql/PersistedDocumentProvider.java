@@ -0,0 +1,137 @@
+package com.appointment.graphql;
+
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Skips parsing and validation for query texts seen before, and resolves automatic persisted queries
+ *
+ * Persisted queries follow the Apollo protocol: the client sends extensions.persistedQuery.sha256Hash
+ * without a query; on PersistedQueryNotFound it retries once with the full text, which is registered
+ * under its hash if the hash matches. Documents are cached only when they parsed and validated cleanly,
+ * so invalid queries are always reported in full.
+ * Metrics: graphql.document.cache (result=hit|miss) and graphql.persisted.query (result=hit|miss|registered)
+ */
+@Component
+public class PersistedDocumentProvider implements PreparsedDocumentProvider {
+
+    static final String NOT_FOUND = "PersistedQueryNotFound";
+
+    private final GraphQlDocumentProperties properties;
+    private final LruCache<String, PreparsedDocumentEntry> documents;
+    private final LruCache<String, String> persistedQueries;
+    private final Counter documentHits;
+    private final Counter documentMisses;
+    private final Counter persistedHits;
+    private final Counter persistedMisses;
+    private final Counter persistedRegistered;
+
+    public PersistedDocumentProvider(GraphQlDocumentProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.documents = new LruCache<>(properties.getCacheSize());
+        this.persistedQueries = new LruCache<>(properties.getPersistedQueryCacheSize());
+        this.documentHits = documentCounter(meterRegistry, "hit");
+        this.documentMisses = documentCounter(meterRegistry, "miss");
+        this.persistedHits = persistedCounter(meterRegistry, "hit");
+        this.persistedMisses = persistedCounter(meterRegistry, "miss");
+        this.persistedRegistered = persistedCounter(meterRegistry, "registered");
+        Gauge.builder("graphql.document.cache.size", documents, LruCache::size)
+            .description("Parsed GraphQL documents held in memory")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+        ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        String hash = properties.isPersistedQueries() ? persistedQueryHash(executionInput) : null;
+        if (hash != null) {
+            // Spring GraphQL passes a request without a query as graphql-java's marker, not as null
+            if (query == null || query.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+                query = persistedQueries.get(hash);
+                if (query == null) {
+                    persistedMisses.increment();
+                    return CompletableFuture.completedFuture(new PreparsedDocumentEntry(
+                        error(NOT_FOUND, "PERSISTED_QUERY_NOT_FOUND")));
+                }
+                persistedHits.increment();
+                String text = query;
+                executionInput = executionInput.transform(builder -> builder.query(text));
+            } else if (!hash.equalsIgnoreCase(sha256(query))) {
+                return CompletableFuture.completedFuture(new PreparsedDocumentEntry(
+                    error("Provided sha256Hash does not match the query", "PERSISTED_QUERY_HASH_MISMATCH")));
+            } else if (query.length() <= properties.getMaxQueryLength()) {
+                persistedQueries.put(hash, query);
+                persistedRegistered.increment();
+            }
+        }
+
+        PreparsedDocumentEntry cached = documents.get(query);
+        if (cached != null) {
+            documentHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        documentMisses.increment();
+        PreparsedDocumentEntry entry = parseAndValidateFunction.apply(executionInput);
+        if (!entry.hasErrors() && query.length() <= properties.getMaxQueryLength()) {
+            documents.put(query, entry);
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    private static String persistedQueryHash(ExecutionInput executionInput) {
+        if (executionInput.getExtensions().get("persistedQuery") instanceof Map<?, ?> persistedQuery
+            && persistedQuery.get("sha256Hash") instanceof String hash && !hash.isBlank()) {
+            return hash.toLowerCase();
+        }
+        return null;
+    }
+
+    static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static GraphQLError error(String message, String code) {
+        return GraphqlErrorBuilder.newError()
+            .message(message)
+            .errorType(ErrorType.BAD_REQUEST)
+            .extensions(Map.of("code", code))
+            .build();
+    }
+
+    private static Counter documentCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("graphql.document.cache")
+            .description("Parsed GraphQL document cache lookups")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static Counter persistedCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("graphql.persisted.query")
+            .description("Automatic persisted query lookups and registrations")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
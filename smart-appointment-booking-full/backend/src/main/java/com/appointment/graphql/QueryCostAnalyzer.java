@@ -0,0 +1,149 @@
+package com.appointment.graphql;
+
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.CoercedVariables;
+import graphql.language.Document;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.util.TraversalControl;
+
+import java.util.List;
+
+/**
+ * Static cost of a GraphQL operation, computed from the document before anything is resolved
+ *
+ * Each field costs its base cost (a fieldCosts entry, otherwise objectFieldCost or scalarFieldCost) times
+ * the size of every list above it. A list's size comes from a first/last/limit argument, a listSizes entry
+ * or defaultListSize. Introspection fields are free. Traversal stops as soon as a limit is crossed, so
+ * documents that expand to huge numbers of fields are rejected without being walked in full.
+ */
+public class QueryCostAnalyzer {
+
+    private static final List<String> PAGING_ARGUMENTS = List.of("first", "last", "limit");
+
+    private final GraphQlCostProperties properties;
+
+    public QueryCostAnalyzer(GraphQlCostProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @param schema Executable schema
+     * @param document Parsed document
+     * @param operationName Operation to analyze (null when the document has a single operation)
+     * @param variables Coerced variables, used to resolve paging arguments
+     * @return Cost, depth and field count, and the first limit that was crossed if any
+     */
+    public Result analyze(GraphQLSchema schema, Document document, String operationName, CoercedVariables variables) {
+        Accumulator accumulator = new Accumulator();
+        QueryTraverser.newQueryTraverser()
+            .schema(schema)
+            .document(document)
+            .operationName(operationName)
+            .coercedVariables(variables)
+            .build()
+            .visitPreOrder(accumulator);
+        return new Result(accumulator.cost, accumulator.depth, accumulator.fields, accumulator.violation);
+    }
+
+    private long listSize(QueryVisitorFieldEnvironment env) {
+        for (String name : PAGING_ARGUMENTS) {
+            if (env.getArguments().get(name) instanceof Number size) {
+                return Math.max(0, size.longValue());
+            }
+        }
+        GraphQLType type = GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType());
+        if (!GraphQLTypeUtil.isList(type)) {
+            return 1;
+        }
+        return properties.getListSizes().getOrDefault(coordinate(env), properties.getDefaultListSize());
+    }
+
+    private long baseCost(QueryVisitorFieldEnvironment env) {
+        Integer configured = properties.getFieldCosts().get(coordinate(env));
+        if (configured != null) {
+            return configured;
+        }
+        GraphQLOutputType type = env.getFieldDefinition().getType();
+        GraphQLType unwrapped = GraphQLTypeUtil.unwrapAll(type);
+        boolean leaf = unwrapped instanceof GraphQLScalarType || unwrapped instanceof GraphQLEnumType;
+        return leaf ? properties.getScalarFieldCost() : properties.getObjectFieldCost();
+    }
+
+    private static String coordinate(QueryVisitorFieldEnvironment env) {
+        return env.getFieldsContainer().getName() + "." + env.getField().getName();
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return (high == 0 && low >= 0) ? low : Long.MAX_VALUE;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Limit crossed by an operation
+     */
+    public enum Violation {
+        COST, DEPTH, FIELDS
+    }
+
+    /**
+     * @param cost Estimated cost (saturates at Long.MAX_VALUE)
+     * @param depth Deepest field nesting seen
+     * @param fields Fields visited
+     * @param violation First limit crossed, or null when the operation is within budget
+     */
+    public record Result(long cost, int depth, int fields, Violation violation) {
+
+        public boolean rejected() {
+            return violation != null;
+        }
+    }
+
+    private final class Accumulator extends QueryVisitorStub {
+        private long cost;
+        private int depth;
+        private int fields;
+        private Violation violation;
+
+        @Override
+        public TraversalControl visitFieldWithControl(QueryVisitorFieldEnvironment env) {
+            if (env.isTypeNameIntrospectionField() || env.getField().getName().startsWith("__")) {
+                // Introspection is free; __schema/__type subtrees are skipped entirely
+                return TraversalControl.ABORT;
+            }
+
+            int fieldDepth = 1;
+            long multiplier = 1;
+            for (QueryVisitorFieldEnvironment parent = env.getParentEnvironment(); parent != null;
+                 parent = parent.getParentEnvironment()) {
+                fieldDepth++;
+                multiplier = saturatedMultiply(multiplier, listSize(parent));
+            }
+
+            fields++;
+            depth = Math.max(depth, fieldDepth);
+            cost = saturatedAdd(cost, saturatedMultiply(multiplier, baseCost(env)));
+
+            if (depth > properties.getMaxDepth()) {
+                violation = Violation.DEPTH;
+            } else if (fields > properties.getMaxFields()) {
+                violation = Violation.FIELDS;
+            } else if (cost > properties.getMaxCost()) {
+                violation = Violation.COST;
+            }
+            return violation != null ? TraversalControl.QUIT : TraversalControl.CONTINUE;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.appointment.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejects GraphQL operations whose static cost, depth or size is over budget, before any data fetcher runs
+ * Metrics: graphql.operation.cost (per operation name and type) and graphql.operation.rejected (per reason)
+ */
+@Component
+@Slf4j
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    private final GraphQlCostProperties properties;
+    private final QueryCostAnalyzer analyzer;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> taggedOperations = ConcurrentHashMap.newKeySet();
+
+    public QueryCostInstrumentation(GraphQlCostProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.analyzer = new QueryCostAnalyzer(properties);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+        InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+        OperationDefinition operation = context.getOperationDefinition();
+        QueryCostAnalyzer.Result result = analyzer.analyze(context.getGraphQLSchema(), context.getDocument(),
+            operation.getName(), context.getCoercedVariables());
+
+        String operationTag = operationTag(operation.getName());
+        String typeTag = operation.getOperation().name().toLowerCase(Locale.ROOT);
+        DistributionSummary.builder("graphql.operation.cost")
+            .description("Static cost of GraphQL operations")
+            .tag("operation", operationTag)
+            .tag("type", typeTag)
+            .register(meterRegistry)
+            .record(result.cost());
+
+        if (result.rejected()) {
+            Counter.builder("graphql.operation.rejected")
+                .description("GraphQL operations over the cost, depth or field budget")
+                .tag("operation", operationTag)
+                .tag("reason", result.violation().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+            if (properties.isEnabled()) {
+                log.warn("Rejected GraphQL operation {}: {} (cost {}, depth {}, fields {})", operationTag,
+                    result.violation(), result.cost(), result.depth(), result.fields());
+                throw new AbortExecutionException(message(result));
+            }
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private String message(QueryCostAnalyzer.Result result) {
+        return switch (result.violation()) {
+            case COST -> "Query cost exceeds the limit of " + properties.getMaxCost()
+                + "; request fewer items with first/limit or select fewer nested lists";
+            case DEPTH -> "Query depth exceeds the limit of " + properties.getMaxDepth();
+            case FIELDS -> "Query selects more than " + properties.getMaxFields() + " fields";
+        };
+    }
+
+    private String operationTag(String name) {
+        if (name == null) {
+            return "anonymous";
+        }
+        if (taggedOperations.contains(name)) {
+            return name;
+        }
+        if (taggedOperations.size() < properties.getMaxOperationTags()) {
+            taggedOperations.add(name);
+            return name;
+        }
+        return "other";
+    }
+}
@@ -0,0 +1,14 @@
+package com.appointment.graphql;
+
+import com.appointment.dto.UserFilter;
+import com.appointment.model.User;
+
+/**
+ * GraphQL UserFilter input
+ */
+public record UserFilterInput(User.Role role, Boolean active) {
+
+    UserFilter toFilter() {
+        return new UserFilter(role, active);
+    }
+}
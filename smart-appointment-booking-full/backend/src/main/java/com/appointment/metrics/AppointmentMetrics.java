@@ -0,0 +1,67 @@
+package com.appointment.metrics;
+
+import com.appointment.model.Appointment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters for the booking workflow
+ * Exposed through /actuator/metrics and /actuator/prometheus
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentMetrics {
+
+  public static final String BOOKING_CONFLICTS = "appointments.booking.conflicts";
+  public static final String VALIDATION_REJECTIONS = "appointments.validation.rejections";
+  public static final String CLEANUP_DELETIONS = "appointments.cleanup.deletions";
+
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Count a booking rejected because the provider already has an appointment in the window
+   * @param serviceType Requested service type
+   * @param status Status of the appointment being booked (PENDING) or moved
+   */
+  public void bookingConflict(Appointment.ServiceType serviceType, Appointment.Status status) {
+    Counter.builder(BOOKING_CONFLICTS)
+      .description("Bookings rejected because of a conflicting appointment")
+      .tag("service_type", tagValue(serviceType))
+      .tag("status", tagValue(status))
+      .register(meterRegistry)
+      .increment();
+  }
+
+  /**
+   * Count a request rejected by business validation
+   * @param reason Short machine-readable reason (e.g. past_date, not_a_provider)
+   * @param serviceType Requested service type
+   */
+  public void validationRejected(String reason, Appointment.ServiceType serviceType) {
+    Counter.builder(VALIDATION_REJECTIONS)
+      .description("Appointment requests rejected by business validation")
+      .tag("reason", reason)
+      .tag("service_type", tagValue(serviceType))
+      .register(meterRegistry)
+      .increment();
+  }
+
+  /**
+   * Count an appointment removed by the expired-appointment cleanup
+   * @param appointment The deleted appointment
+   */
+  public void cleanupDeleted(Appointment appointment) {
+    Counter.builder(CLEANUP_DELETIONS)
+      .description("Expired appointments removed by cleanup")
+      .tag("service_type", tagValue(appointment.getServiceType()))
+      .tag("status", tagValue(appointment.getStatus()))
+      .register(meterRegistry)
+      .increment();
+  }
+
+  private static String tagValue(Enum<?> value) {
+    return value != null ? value.name() : "UNKNOWN";
+  }
+}
@@ -0,0 +1,103 @@
+package com.appointment.metrics;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL statement counter for the request currently being served
+ * Opened and closed by SqlStatsFilter, fed by the JDBC proxies in SqlStatsDataSourcePostProcessor.
+ * Bound to the request thread; executors wrapped with {@link #propagating(Executor)} carry it to their
+ * worker threads, so the counters may be updated from several threads.
+ */
+public final class SqlStatementContext {
+
+  private static final ThreadLocal<SqlStatementContext> CURRENT = new ThreadLocal<>();
+
+  private final String requestLabel;
+  private final AtomicInteger statements = new AtomicInteger();
+  private final AtomicLong elapsedNanos = new AtomicLong();
+
+  private SqlStatementContext(String requestLabel) {
+    this.requestLabel = requestLabel;
+  }
+
+  /**
+   * Start counting statements on the current thread
+   * @param requestLabel Method and URI of the request, used to label slow queries
+   * @return The new context
+   */
+  public static SqlStatementContext open(String requestLabel) {
+    SqlStatementContext context = new SqlStatementContext(requestLabel);
+    CURRENT.set(context);
+    return context;
+  }
+
+  /**
+   * Stop counting statements on the current thread
+   */
+  public static void close() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Context of the request running on this thread
+   * @return The context, or null outside of a request
+   */
+  public static SqlStatementContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Executor that runs each task inside the context of the thread that submitted it
+   * @param delegate Executor doing the work; rejections are passed through unchanged
+   * @return Propagating executor
+   */
+  public static Executor propagating(Executor delegate) {
+    return task -> {
+      SqlStatementContext context = CURRENT.get();
+      delegate.execute(context == null ? task : () -> {
+        SqlStatementContext previous = CURRENT.get();
+        CURRENT.set(context);
+        try {
+          task.run();
+        } finally {
+          if (previous != null) {
+            CURRENT.set(previous);
+          } else {
+            CURRENT.remove();
+          }
+        }
+      });
+    };
+  }
+
+  /**
+   * Record one executed statement against the current request, if any
+   * @param nanos Execution time in nanoseconds
+   */
+  static void record(long nanos) {
+    SqlStatementContext context = CURRENT.get();
+    if (context != null) {
+      context.statements.incrementAndGet();
+      context.elapsedNanos.addAndGet(nanos);
+    }
+  }
+
+  /**
+   * Label of the request running on this thread
+   * @return Method and URI, or null outside of a request (e.g. scheduled jobs)
+   */
+  static String currentRequestLabel() {
+    SqlStatementContext context = CURRENT.get();
+    return context != null ? context.requestLabel : null;
+  }
+
+  public int getStatements() {
+    return statements.get();
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos.get();
+  }
+}
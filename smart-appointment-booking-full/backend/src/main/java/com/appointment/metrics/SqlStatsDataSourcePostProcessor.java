@@ -0,0 +1,136 @@
+package com.appointment.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps the application DataSource so every executed JDBC statement is counted and timed
+ * Counts go to the current SqlStatementContext, slow statements to SqlStatsRegistry
+ */
+@Component
+public class SqlStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+  private final ObjectProvider<SqlStatsRegistry> registry;
+  private final ObjectProvider<SqlStatsProperties> properties;
+
+  public SqlStatsDataSourcePostProcessor(ObjectProvider<SqlStatsRegistry> registry,
+                                         ObjectProvider<SqlStatsProperties> properties) {
+    this.registry = registry;
+    this.properties = properties;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+      return proxy(DataSource.class, dataSource, new DataSourceHandler(dataSource));
+    }
+    return bean;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException ex) {
+      throw ex.getTargetException();
+    }
+  }
+
+  private void recordExecution(String sql, long nanos) {
+    SqlStatementContext.record(nanos);
+    SqlStatsProperties settings = properties.getIfAvailable();
+    if (settings != null && nanos >= TimeUnit.MILLISECONDS.toNanos(settings.getSlowQueryThresholdMs())) {
+      registry.ifAvailable(stats -> stats.recordSlowQuery(sql, nanos));
+    }
+  }
+
+  private boolean isEnabled() {
+    SqlStatsProperties settings = properties.getIfAvailable();
+    return settings == null || settings.isEnabled();
+  }
+
+  private final class DataSourceHandler implements InvocationHandler {
+    private final DataSource target;
+
+    private DataSourceHandler(DataSource target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = SqlStatsDataSourcePostProcessor.invoke(target, method, args);
+      if ("getConnection".equals(method.getName()) && result instanceof Connection connection && isEnabled()) {
+        return proxy(Connection.class, connection, new ConnectionHandler(connection));
+      }
+      return result;
+    }
+  }
+
+  private final class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+
+    private ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = SqlStatsDataSourcePostProcessor.invoke(target, method, args);
+      switch (method.getName()) {
+        case "prepareStatement":
+          return proxy(PreparedStatement.class, (PreparedStatement) result,
+            new StatementHandler(result, (String) args[0]));
+        case "prepareCall":
+          return proxy(CallableStatement.class, (CallableStatement) result,
+            new StatementHandler(result, (String) args[0]));
+        case "createStatement":
+          return proxy(Statement.class, (Statement) result, new StatementHandler(result, null));
+        default:
+          return result;
+      }
+    }
+  }
+
+  private final class StatementHandler implements InvocationHandler {
+    private final Object target;
+    private final String preparedSql;
+
+    private StatementHandler(Object target, String preparedSql) {
+      this.target = target;
+      this.preparedSql = preparedSql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (!method.getName().startsWith("execute")) {
+        return SqlStatsDataSourcePostProcessor.invoke(target, method, args);
+      }
+      String sql = preparedSql;
+      if (sql == null && args != null && args.length > 0 && args[0] instanceof String text) {
+        sql = text;
+      }
+      long start = System.nanoTime();
+      try {
+        return SqlStatsDataSourcePostProcessor.invoke(target, method, args);
+      } finally {
+        recordExecution(sql, System.nanoTime() - start);
+      }
+    }
+  }
+}
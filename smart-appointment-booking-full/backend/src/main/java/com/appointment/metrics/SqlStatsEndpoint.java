@@ -0,0 +1,39 @@
+package com.appointment.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing SQL statements per endpoint, slow queries and N+1 budget violations
+ * GET /actuator/sqlstats, DELETE /actuator/sqlstats to reset
+ */
+@Component
+@Endpoint(id = "sqlstats")
+@RequiredArgsConstructor
+public class SqlStatsEndpoint {
+
+  private final SqlStatsRegistry sqlStatsRegistry;
+  private final SqlStatsProperties properties;
+
+  @ReadOperation
+  public Map<String, Object> sqlStats() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("statementBudget", properties.getStatementBudget());
+    result.put("slowQueryThresholdMs", properties.getSlowQueryThresholdMs());
+    result.put("endpoints", sqlStatsRegistry.endpointSnapshot());
+    result.put("budgetViolations", sqlStatsRegistry.recentBudgetViolations());
+    result.put("slowQueries", sqlStatsRegistry.recentSlowQueries());
+    return result;
+  }
+
+  @DeleteOperation
+  public void reset() {
+    sqlStatsRegistry.reset();
+  }
+}
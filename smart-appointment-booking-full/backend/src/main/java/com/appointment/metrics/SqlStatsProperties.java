@@ -0,0 +1,33 @@
+package com.appointment.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for per-request SQL statement statistics
+ * Bound from app.sql-stats.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sql-stats")
+public class SqlStatsProperties {
+
+  /**
+   * Turn statement counting and slow-query capture on or off
+   */
+  private boolean enabled = true;
+
+  /**
+   * Maximum statements one request may issue before it is flagged as a possible N+1
+   */
+  private int statementBudget = 10;
+
+  /**
+   * Statements slower than this are logged and kept in the slow-query buffer
+   */
+  private long slowQueryThresholdMs = 200;
+
+  /**
+   * Number of recent slow queries and budget violations kept for the actuator endpoint
+   */
+  private int historySize = 50;
+}
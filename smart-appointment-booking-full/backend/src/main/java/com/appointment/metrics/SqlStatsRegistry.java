@@ -0,0 +1,163 @@
+package com.appointment.metrics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates SQL statement counts per endpoint and keeps recent slow queries and budget violations
+ * Read by SqlStatsEndpoint (/actuator/sqlstats)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SqlStatsRegistry {
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final SqlStatsProperties properties;
+
+  private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+  private final Deque<Map<String, Object>> slowQueries = new ArrayDeque<>();
+  private final Deque<Map<String, Object>> budgetViolations = new ArrayDeque<>();
+
+  /**
+   * Record the statements issued by one finished request
+   * @param endpoint Handler pattern, e.g. "GET /api/v1/appointments/{id}"
+   * @param context Statement counter of the request
+   */
+  public void recordRequest(String endpoint, SqlStatementContext context) {
+    int statements = context.getStatements();
+    EndpointStats stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+    stats.requests.increment();
+    stats.statements.add(statements);
+    stats.elapsedNanos.add(context.getElapsedNanos());
+    stats.maxStatements.accumulateAndGet(statements, Math::max);
+
+    if (statements > properties.getStatementBudget()) {
+      stats.budgetExceeded.increment();
+      log.warn("Possible N+1: {} issued {} SQL statements (budget {})",
+        endpoint, statements, properties.getStatementBudget());
+      Map<String, Object> violation = new LinkedHashMap<>();
+      violation.put("endpoint", endpoint);
+      violation.put("statements", statements);
+      violation.put("sqlTimeMs", TimeUnit.NANOSECONDS.toMillis(context.getElapsedNanos()));
+      violation.put("timestamp", LocalDateTime.now());
+      append(budgetViolations, violation);
+    }
+  }
+
+  /**
+   * Record a statement that ran longer than the slow-query threshold
+   * @param sql Statement text; literals are redacted before it is stored or logged
+   * @param nanos Execution time in nanoseconds
+   */
+  public void recordSlowQuery(String sql, long nanos) {
+    String redacted = redact(sql);
+    long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+    String request = SqlStatementContext.currentRequestLabel();
+    log.warn("Slow SQL ({} ms) during {}: {}", millis, request != null ? request : "background task", redacted);
+
+    Map<String, Object> entry = new LinkedHashMap<>();
+    entry.put("sql", redacted);
+    entry.put("durationMs", millis);
+    entry.put("request", request);
+    entry.put("timestamp", LocalDateTime.now());
+    append(slowQueries, entry);
+  }
+
+  /**
+   * Snapshot of per-endpoint statistics, ordered by endpoint
+   * @return Map of endpoint to statistics
+   */
+  public Map<String, Map<String, Object>> endpointSnapshot() {
+    Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+    endpoints.forEach((endpoint, stats) -> snapshot.put(endpoint, stats.toMap()));
+    return snapshot;
+  }
+
+  public List<Map<String, Object>> recentSlowQueries() {
+    synchronized (slowQueries) {
+      return new ArrayList<>(slowQueries);
+    }
+  }
+
+  public List<Map<String, Object>> recentBudgetViolations() {
+    synchronized (budgetViolations) {
+      return new ArrayList<>(budgetViolations);
+    }
+  }
+
+  /**
+   * Clear all collected statistics
+   */
+  public void reset() {
+    endpoints.clear();
+    synchronized (slowQueries) {
+      slowQueries.clear();
+    }
+    synchronized (budgetViolations) {
+      budgetViolations.clear();
+    }
+  }
+
+  /**
+   * Replace string and numeric literals with ? so no bound or inlined values leave the process
+   * @param sql Raw statement text
+   * @return Redacted statement text
+   */
+  static String redact(String sql) {
+    if (sql == null) {
+      return null;
+    }
+    String redacted = STRING_LITERAL.matcher(sql).replaceAll("?");
+    redacted = NUMERIC_LITERAL.matcher(redacted).replaceAll("?");
+    return WHITESPACE.matcher(redacted).replaceAll(" ").trim();
+  }
+
+  private void append(Deque<Map<String, Object>> buffer, Map<String, Object> entry) {
+    synchronized (buffer) {
+      if (buffer.size() >= properties.getHistorySize()) {
+        buffer.removeFirst();
+      }
+      buffer.addLast(entry);
+    }
+  }
+
+  private static final class EndpointStats {
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+    private final LongAdder budgetExceeded = new LongAdder();
+    private final AtomicLong maxStatements = new AtomicLong();
+
+    private Map<String, Object> toMap() {
+      long requestCount = requests.sum();
+      long statementCount = statements.sum();
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("requests", requestCount);
+      map.put("statements", statementCount);
+      map.put("avgStatementsPerRequest", requestCount > 0 ? (double) statementCount / requestCount : 0.0);
+      map.put("maxStatementsPerRequest", maxStatements.get());
+      map.put("sqlTimeMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos.sum()));
+      map.put("budgetExceeded", budgetExceeded.sum());
+      return map;
+    }
+  }
+}
@@ -16,7 +16,12 @@ import java.time.LocalDateTime;
  * Links customers with service providers
  */
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+  // Keyset pagination (newest first), optionally narrowed to one provider or customer
+  @Index(name = "idx_appointments_datetime_id", columnList = "appointment_datetime, id"),
+  @Index(name = "idx_appointments_provider_datetime_id", columnList = "provider_id, appointment_datetime, id"),
+  @Index(name = "idx_appointments_customer_datetime_id", columnList = "customer_id, appointment_datetime, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,6 +58,10 @@ public class Appointment {
   @Column(nullable = false)
   private Status status = Status.PENDING;
 
+  // Due time of the latest reminder sent for the current start time; claimed by ReminderScheduler
+  @Column(name = "last_reminder_due_at")
+  private LocalDateTime lastReminderDueAt;
+
   @CreationTimestamp
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -105,6 +114,20 @@ public class Appointment {
     public String getDisplayName() {
       return displayName;
     }
+
+    /**
+     * Allowed transitions: PENDING -> CONFIRMED | CANCELLED,
+     * CONFIRMED -> COMPLETED | CANCELLED | NO_SHOW; CANCELLED, COMPLETED and NO_SHOW are final
+     * @param target Requested status
+     * @return true if an appointment in this status may move to the target
+     */
+    public boolean canTransitionTo(Status target) {
+      return switch (this) {
+        case PENDING -> target == CONFIRMED || target == CANCELLED;
+        case CONFIRMED -> target == COMPLETED || target == CANCELLED || target == NO_SHOW;
+        case CANCELLED, COMPLETED, NO_SHOW -> false;
+      };
+    }
   }
 
   /**
@@ -0,0 +1,175 @@
+package com.appointment.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appointment Series Entity - A recurring booking stored as one rule
+ * Occurrences are never stored; they are computed for the window a query asks for
+ * (first occurrence, then every interval days/weeks/months, count times)
+ */
+@Entity
+@Table(name = "appointment_series", indexes = {
+  // Series of a provider that still have occurrences after a given time
+  @Index(name = "idx_series_provider_last", columnList = "provider_id, last_occurrence"),
+  @Index(name = "idx_series_customer_last", columnList = "customer_id, last_occurrence")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSeries {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @NotNull(message = "Customer is required")
+  @ManyToOne(fetch = FetchType.EAGER)
+  @JoinColumn(name = "customer_id", nullable = false)
+  private User customer;
+
+  @NotNull(message = "Service provider is required")
+  @ManyToOne(fetch = FetchType.EAGER)
+  @JoinColumn(name = "provider_id", nullable = false)
+  private User serviceProvider;
+
+  @NotNull(message = "Service type is required")
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Appointment.ServiceType serviceType;
+
+  @NotNull
+  @Column(name = "first_occurrence", nullable = false)
+  private LocalDateTime firstOccurrence;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Frequency frequency;
+
+  @Column(name = "repeat_interval", nullable = false)
+  private int interval = 1;
+
+  @Column(name = "occurrence_count", nullable = false)
+  private int occurrenceCount;
+
+  /**
+   * Derived from the rule; stored so that series overlapping a window can be found with an index
+   */
+  @Column(name = "last_occurrence", nullable = false)
+  private LocalDateTime lastOccurrence;
+
+  @Column(columnDefinition = "TEXT")
+  private String notes;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Status status = Status.ACTIVE;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @UpdateTimestamp
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  /**
+   * @param index Zero-based occurrence number
+   * @return Start of that occurrence
+   */
+  public LocalDateTime occurrence(int index) {
+    return firstOccurrence.plus((long) index * interval, frequency.unit);
+  }
+
+  /**
+   * Set lastOccurrence from the rule; call after changing any rule field
+   */
+  public void updateLastOccurrence() {
+    lastOccurrence = occurrence(occurrenceCount - 1);
+  }
+
+  /**
+   * Occurrences starting in [from, to), computed without walking the ones before the window
+   * @param from Window start (inclusive)
+   * @param to Window end (exclusive)
+   * @return Occurrence start times in ascending order
+   */
+  public List<LocalDateTime> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+    List<LocalDateTime> occurrences = new ArrayList<>();
+    if (!from.isBefore(to) || !firstOccurrence.isBefore(to)) {
+      return occurrences;
+    }
+    // Jump close to the window; months have uneven lengths, so step forward from there
+    int index = from.isAfter(firstOccurrence)
+      ? (int) Math.min(occurrenceCount, frequency.unit.between(firstOccurrence, from) / interval)
+      : 0;
+    while (index > 0 && !occurrence(index - 1).isBefore(from)) {
+      index--;
+    }
+    for (; index < occurrenceCount; index++) {
+      LocalDateTime occurrence = occurrence(index);
+      if (!occurrence.isBefore(to)) {
+        break;
+      }
+      if (!occurrence.isBefore(from)) {
+        occurrences.add(occurrence);
+      }
+    }
+    return occurrences;
+  }
+
+  /**
+   * End the series before a time: occurrences starting at or after it are dropped, earlier ones are kept
+   * @param time First start time to drop
+   * @return Number of occurrences kept; the rule is left unchanged if that is zero
+   */
+  public int endBefore(LocalDateTime time) {
+    int kept = occurrencesBetween(firstOccurrence, time).size();
+    if (kept > 0 && kept < occurrenceCount) {
+      occurrenceCount = kept;
+      updateLastOccurrence();
+    }
+    return kept;
+  }
+
+  /**
+   * @return true if the series is active
+   */
+  public boolean isActive() {
+    return status == Status.ACTIVE;
+  }
+
+  /**
+   * Enum for recurrence frequency (RRULE FREQ)
+   */
+  public enum Frequency {
+    DAILY(ChronoUnit.DAYS),
+    WEEKLY(ChronoUnit.WEEKS),
+    MONTHLY(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    Frequency(ChronoUnit unit) {
+      this.unit = unit;
+    }
+  }
+
+  /**
+   * Enum for Series Status
+   */
+  public enum Status {
+    ACTIVE,
+    CANCELLED
+  }
+}
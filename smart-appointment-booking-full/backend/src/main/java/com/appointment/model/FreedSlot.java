@@ -0,0 +1,43 @@
+package com.appointment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Freed Slot Entity - A cancelled or deleted booking whose slot can be offered to the waitlist
+ * Written in the same transaction as the cancellation and deleted once the slot has been promoted or
+ * no waiting customer fits it
+ */
+@Entity
+@Table(name = "waitlist_freed_slots", indexes = {
+  @Index(name = "idx_freed_slots_next_attempt", columnList = "next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreedSlot {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "provider_id", nullable = false)
+  private Long serviceProviderId;
+
+  @Column(name = "slot_start", nullable = false)
+  private LocalDateTime start;
+
+  /**
+   * Not handed out again before this time; pushed forward while an instance works on the slot, so a
+   * crashed or undecided attempt is retried later
+   */
+  @Column(name = "next_attempt_at", nullable = false)
+  private LocalDateTime nextAttemptAt;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,61 @@
+package com.appointment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Provider Schedule Entity - Weekly working hours, breaks, service durations and capacity of a provider
+ * Providers without a schedule can be booked at any time, one appointment at a time
+ */
+@Entity
+@Table(name = "provider_schedules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderSchedule {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @OneToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "provider_id", nullable = false, unique = true)
+  private User serviceProvider;
+
+  /**
+   * Appointments the provider can serve at the same time (e.g. chairs in a salon)
+   */
+  @Column(nullable = false)
+  private int capacity = 1;
+
+  @ElementCollection
+  @CollectionTable(name = "provider_working_hours", joinColumns = @JoinColumn(name = "schedule_id"))
+  private Set<WorkingPeriod> workingHours = new HashSet<>();
+
+  @ElementCollection
+  @CollectionTable(name = "provider_breaks", joinColumns = @JoinColumn(name = "schedule_id"))
+  private Set<WorkingPeriod> breaks = new HashSet<>();
+
+  /**
+   * Per-service overrides of the default durations in app.availability
+   */
+  @ElementCollection
+  @CollectionTable(name = "provider_service_durations", joinColumns = @JoinColumn(name = "schedule_id"))
+  @MapKeyEnumerated(EnumType.STRING)
+  @MapKeyColumn(name = "service_type")
+  @Column(name = "duration_minutes", nullable = false)
+  private Map<Appointment.ServiceType, Integer> serviceDurations = new HashMap<>();
+
+  @UpdateTimestamp
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+}
@@ -17,7 +17,10 @@ import java.time.LocalDateTime;
  * Can be CUSTOMER, SERVICE_PROVIDER, or ADMIN
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+  // Keyset pagination (newest first)
+  @Index(name = "idx_users_created_at_id", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,91 @@
+package com.appointment.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Waitlist Entry Entity - A customer waiting for any slot of a provider within a time window
+ * Entries are served first come, first served; when a matching slot is freed the entry is booked
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+  // Waiting entries of a provider, loaded into the in-memory queues
+  @Index(name = "idx_waitlist_provider_status_window", columnList = "provider_id, status, window_end"),
+  @Index(name = "idx_waitlist_customer_status", columnList = "customer_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @NotNull(message = "Customer is required")
+  @ManyToOne(fetch = FetchType.EAGER)
+  @JoinColumn(name = "customer_id", nullable = false)
+  private User customer;
+
+  @NotNull(message = "Service provider is required")
+  @ManyToOne(fetch = FetchType.EAGER)
+  @JoinColumn(name = "provider_id", nullable = false)
+  private User serviceProvider;
+
+  @NotNull(message = "Service type is required")
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Appointment.ServiceType serviceType;
+
+  /**
+   * Earliest acceptable appointment start
+   */
+  @NotNull
+  @Column(name = "window_start", nullable = false)
+  private LocalDateTime windowStart;
+
+  /**
+   * Latest acceptable appointment start
+   */
+  @NotNull
+  @Column(name = "window_end", nullable = false)
+  private LocalDateTime windowEnd;
+
+  @Column(columnDefinition = "TEXT")
+  private String notes;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Status status = Status.WAITING;
+
+  /**
+   * The appointment booked for this entry, once promoted
+   */
+  @Column(name = "appointment_id")
+  private Long appointmentId;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @UpdateTimestamp
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  /**
+   * Enum for Waitlist Entry Status
+   */
+  public enum Status {
+    WAITING,
+    BOOKED,
+    CANCELLED,
+    EXPIRED
+  }
+}
@@ -0,0 +1,48 @@
+package com.appointment.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * A weekly time range, used for a provider's working hours and breaks
+ * The end is exclusive; an end of 00:00 means midnight at the end of the day
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkingPeriod {
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "day_of_week", nullable = false)
+  private DayOfWeek dayOfWeek;
+
+  @Column(name = "start_time", nullable = false)
+  private LocalTime startTime;
+
+  @Column(name = "end_time", nullable = false)
+  private LocalTime endTime;
+
+  /**
+   * @return Start as minutes since midnight
+   */
+  public int startMinute() {
+    return startTime.toSecondOfDay() / 60;
+  }
+
+  /**
+   * @return End as minutes since midnight, 1440 for an end of 00:00
+   */
+  public int endMinute() {
+    int minute = endTime.toSecondOfDay() / 60;
+    return minute == 0 ? 24 * 60 : minute;
+  }
+}
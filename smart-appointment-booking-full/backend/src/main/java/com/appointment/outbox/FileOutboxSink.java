@@ -0,0 +1,44 @@
+package com.appointment.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed events to a file as JSON lines, one write per batch
+ */
+public class FileOutboxSink implements OutboxSink {
+
+  private final Path file;
+  private final ObjectMapper objectMapper;
+
+  public FileOutboxSink(Path file, ObjectMapper objectMapper) {
+    this.file = file;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public void publish(List<OutboxMessage> messages) {
+    StringBuilder lines = new StringBuilder();
+    try {
+      for (OutboxMessage message : messages) {
+        lines.append(objectMapper.writeValueAsString(message)).append(System.lineSeparator());
+      }
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Could not serialize outbox message", ex);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Could not write outbox messages to " + file, ex);
+    }
+  }
+}
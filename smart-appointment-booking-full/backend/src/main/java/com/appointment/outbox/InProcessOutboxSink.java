@@ -0,0 +1,22 @@
+package com.appointment.outbox;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Publishes each relayed event as an OutboxMessage application event, for consumers inside this JVM
+ */
+public class InProcessOutboxSink implements OutboxSink {
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  public InProcessOutboxSink(ApplicationEventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public void publish(List<OutboxMessage> messages) {
+    messages.forEach(eventPublisher::publishEvent);
+  }
+}
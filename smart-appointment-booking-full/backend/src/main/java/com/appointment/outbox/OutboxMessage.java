@@ -0,0 +1,27 @@
+package com.appointment.outbox;
+
+import com.appointment.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Relayed outbox event as handed to a sink
+ * Delivery is at least once; consumers should deduplicate on id. Do not rely on ordering: ids come from a
+ * pooled sequence (blocks of 50 per instance), so neither id order nor delivery order is commit order, and
+ * skipped locked rows can be relayed after newer ones. Consumers that need the current state of an
+ * aggregate should re-read it instead of replaying events in sequence.
+ * @param id Outbox ID
+ * @param aggregateType Kind of entity, e.g. Appointment
+ * @param aggregateId Entity ID
+ * @param eventType Kind of change, e.g. STATUS_CHANGED
+ * @param payload Event as JSON
+ * @param createdAt When the change was made
+ */
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType, String payload,
+                            LocalDateTime createdAt) {
+
+  static OutboxMessage of(OutboxEvent event) {
+    return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getEventType(),
+      event.getPayload(), event.getCreatedAt());
+  }
+}
@@ -0,0 +1,41 @@
+package com.appointment.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the outbox relay
+ * Bound from app.outbox.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+  /**
+   * When false, events are still written to the outbox but not relayed by this instance
+   */
+  private boolean relayEnabled = true;
+
+  /**
+   * Events locked, published and deleted per transaction
+   */
+  private int batchSize = 200;
+
+  /**
+   * Pause after a batch that was not full
+   */
+  private Duration pollInterval = Duration.ofMillis(500);
+
+  /**
+   * in-process or file
+   */
+  private String sink = "in-process";
+
+  /**
+   * Target of the file sink, one JSON line per event
+   */
+  private Path file = Path.of("logs", "outbox.jsonl");
+}
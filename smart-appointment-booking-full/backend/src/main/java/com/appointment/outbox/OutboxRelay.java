@@ -0,0 +1,143 @@
+package com.appointment.outbox;
+
+import com.appointment.model.OutboxEvent;
+import com.appointment.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves outbox events to the configured sink
+ *
+ * Each round locks the oldest batch with FOR UPDATE SKIP LOCKED, publishes it and deletes it with one
+ * statement, all in one transaction: several instances can relay side by side without waiting on each
+ * other, and a failed publish leaves the batch in place to be retried (at-least-once delivery). Full
+ * batches are followed immediately by the next one; otherwise the relay sleeps for pollInterval.
+ * Metrics: outbox.relay.published, outbox.relay.batch.size, outbox.relay.lag (commit to publish)
+ * and outbox.relay.failures
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final OutboxSink sink;
+  private final OutboxProperties properties;
+  private final Counter published;
+  private final Counter failures;
+  private final DistributionSummary batchSize;
+  private final Timer lag;
+
+  private volatile boolean running;
+  private Thread thread;
+
+  public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                     PlatformTransactionManager transactionManager,
+                     OutboxSink sink,
+                     OutboxProperties properties,
+                     MeterRegistry meterRegistry) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.sink = sink;
+    this.properties = properties;
+    this.published = Counter.builder("outbox.relay.published")
+      .description("Outbox events published and deleted")
+      .register(meterRegistry);
+    this.failures = Counter.builder("outbox.relay.failures")
+      .description("Relay rounds rolled back")
+      .register(meterRegistry);
+    this.batchSize = DistributionSummary.builder("outbox.relay.batch.size")
+      .description("Outbox events per relay round")
+      .register(meterRegistry);
+    this.lag = Timer.builder("outbox.relay.lag")
+      .description("Time from writing an outbox event to publishing it")
+      .publishPercentiles(0.5, 0.95, 0.99)
+      .register(meterRegistry);
+  }
+
+  @Override
+  public void start() {
+    if (running) {
+      return;
+    }
+    if (!properties.isRelayEnabled()) {
+      log.info("Outbox relay disabled on this instance");
+      return;
+    }
+    running = true;
+    thread = new Thread(this::run, "outbox-relay");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Publish and delete one batch
+   * @return Number of events relayed
+   */
+  public int relayBatch() {
+    int limit = Math.max(1, properties.getBatchSize());
+    List<OutboxEvent> events = transactionTemplate.execute(status -> {
+      List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(Limit.of(limit));
+      if (!batch.isEmpty()) {
+        sink.publish(batch.stream().map(OutboxMessage::of).toList());
+        outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+      }
+      return batch;
+    });
+    if (events == null || events.isEmpty()) {
+      return 0;
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    published.increment(events.size());
+    batchSize.record(events.size());
+    events.forEach(event -> lag.record(Duration.between(event.getCreatedAt(), now)));
+    return events.size();
+  }
+
+  private void run() {
+    while (running) {
+      boolean full;
+      try {
+        full = relayBatch() >= properties.getBatchSize();
+      } catch (RuntimeException ex) {
+        failures.increment();
+        log.warn("Outbox relay round failed, retrying in {}", properties.getPollInterval(), ex);
+        full = false;
+      }
+      if (!full) {
+        try {
+          Thread.sleep(properties.getPollInterval().toMillis());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+}
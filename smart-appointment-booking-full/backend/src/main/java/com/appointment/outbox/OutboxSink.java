@@ -0,0 +1,12 @@
+package com.appointment.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events
+ * A batch counts as delivered when publish returns; throwing leaves the whole batch in the outbox for a retry.
+ */
+public interface OutboxSink {
+
+  void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,49 @@
+package com.appointment.outbox;
+
+import com.appointment.event.AppointmentChangedEvent;
+import com.appointment.model.OutboxEvent;
+import com.appointment.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records appointment changes in the outbox as part of the transaction that makes them
+ * Runs synchronously while the change is published, so the outbox row commits or rolls back with it;
+ * publishing outside a transaction is a programming error and fails.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+  private static final String APPOINTMENT = "Appointment";
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final ObjectMapper objectMapper;
+
+  @EventListener
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void onAppointmentChanged(AppointmentChangedEvent event) {
+    OutboxEvent outboxEvent = new OutboxEvent();
+    outboxEvent.setAggregateType(APPOINTMENT);
+    outboxEvent.setAggregateId(event.appointmentId());
+    outboxEvent.setEventType(event.change().name());
+    outboxEvent.setPayload(toJson(event));
+    outboxEvent.setCreatedAt(LocalDateTime.now());
+    outboxEventRepository.save(outboxEvent);
+  }
+
+  private String toJson(Object event) {
+    try {
+      return objectMapper.writeValueAsString(event);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Could not serialize " + event, ex);
+    }
+  }
+}
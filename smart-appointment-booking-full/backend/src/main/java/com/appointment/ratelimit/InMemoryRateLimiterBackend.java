@@ -0,0 +1,74 @@
+package com.appointment.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets in a ConcurrentHashMap
+ *
+ * Each bucket is a single AtomicLong holding the GCRA "theoretical arrival time": the instant at which
+ * the bucket would be full again. Taking a token is one compare-and-set. A bucket whose arrival time
+ * has passed is full, i.e. identical to a missing bucket, so idle buckets can be evicted without
+ * changing any limit.
+ */
+public class InMemoryRateLimiterBackend implements RateLimiterBackend {
+
+  private static final long MIN_FORCED_EVICTION_GAP = TimeUnit.SECONDS.toNanos(1);
+
+  private final RateLimitProperties properties;
+  private final LongSupplier nanoClock;
+  private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+  private final AtomicLong lastEviction;
+
+  public InMemoryRateLimiterBackend(RateLimitProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  public InMemoryRateLimiterBackend(RateLimitProperties properties, LongSupplier nanoClock) {
+    this.properties = properties;
+    this.nanoClock = nanoClock;
+    this.lastEviction = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  @Override
+  public long tryAcquire(String key, RateLimitProperties.Policy policy) {
+    long now = nanoClock.getAsLong();
+    evictIfDue(now);
+
+    long interval = (long) (TimeUnit.SECONDS.toNanos(1) / policy.getRefillPerSecond());
+    long burst = interval * Math.max(1, policy.getCapacity());
+    AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    while (true) {
+      long arrival = bucket.get();
+      long next = Math.max(arrival, now) + interval;
+      long wait = next - now - burst;
+      if (wait > 0) {
+        return wait;
+      }
+      if (bucket.compareAndSet(arrival, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * @return Number of buckets currently held
+   */
+  public int size() {
+    return buckets.size();
+  }
+
+  private void evictIfDue(long now) {
+    long last = lastEviction.get();
+    long elapsed = now - last;
+    boolean due = elapsed >= TimeUnit.MILLISECONDS.toNanos(properties.getEvictionIntervalMs())
+      || (buckets.size() > properties.getMaxBuckets() && elapsed >= MIN_FORCED_EVICTION_GAP);
+    if (!due || !lastEviction.compareAndSet(last, now)) {
+      return;
+    }
+    buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+  }
+}
@@ -0,0 +1,68 @@
+package com.appointment.ratelimit;
+
+import com.appointment.exception.RateLimitExceededException;
+import com.appointment.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the configured token-bucket policies to matching handlers
+ * Callers are keyed by user id when the request carries a session token, otherwise by client IP
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+  private final RateLimitProperties properties;
+  private final RateLimiterBackend backend;
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    if (pattern == null) {
+      return true;
+    }
+    for (Map.Entry<String, RateLimitProperties.Policy> entry : properties.getPolicies().entrySet()) {
+      RateLimitProperties.Policy policy = entry.getValue();
+      if (!pattern.equals(policy.getPath())
+        || (policy.getMethod() != null && !policy.getMethod().isBlank()
+        && !policy.getMethod().equalsIgnoreCase(request.getMethod()))) {
+        continue;
+      }
+      long waitNanos = backend.tryAcquire(entry.getKey() + "|" + callerKey(request), policy);
+      if (waitNanos > 0) {
+        Counter.builder("http.rate_limit.rejections")
+          .description("Requests rejected by the rate limiter")
+          .tag("policy", entry.getKey())
+          .register(meterRegistry)
+          .increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        throw new RateLimitExceededException("Too many requests, please slow down", retryAfter);
+      }
+    }
+    return true;
+  }
+
+  private String callerKey(HttpServletRequest request) {
+    AuthenticatedUser user = AuthenticatedUser.from(request);
+    if (user != null) {
+      return "user:" + user.userId();
+    }
+    if (properties.isTrustForwardedFor()) {
+      String forwarded = request.getHeader("X-Forwarded-For");
+      if (forwarded != null && !forwarded.isBlank()) {
+        int comma = forwarded.indexOf(',');
+        return "ip:" + (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+      }
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+}
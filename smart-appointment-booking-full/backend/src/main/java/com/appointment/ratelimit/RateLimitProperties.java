@@ -0,0 +1,62 @@
+package com.appointment.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate limiting settings
+ * Bound from app.rate-limit.* in application.properties; one entry under policies per limited endpoint
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+  private boolean enabled = true;
+
+  /**
+   * Use the first X-Forwarded-For address as client IP (only behind a trusted proxy)
+   */
+  private boolean trustForwardedFor = false;
+
+  /**
+   * How often idle (full) buckets are dropped from memory
+   */
+  private long evictionIntervalMs = 60_000;
+
+  /**
+   * Buckets kept in memory before an eviction pass is forced
+   */
+  private int maxBuckets = 100_000;
+
+  private Map<String, Policy> policies = new LinkedHashMap<>();
+
+  /**
+   * Token bucket for one endpoint
+   */
+  @Data
+  public static class Policy {
+
+    /**
+     * Handler path pattern as declared on the controller, e.g. /api/v1/appointments/search
+     */
+    private String path;
+
+    /**
+     * HTTP method; blank matches all methods
+     */
+    private String method;
+
+    /**
+     * Burst size
+     */
+    private int capacity = 10;
+
+    /**
+     * Tokens added per second
+     */
+    private double refillPerSecond = 1;
+  }
+}
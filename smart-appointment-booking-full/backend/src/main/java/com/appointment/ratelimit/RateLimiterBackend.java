@@ -0,0 +1,19 @@
+package com.appointment.ratelimit;
+
+/**
+ * Storage for token buckets
+ *
+ * The default InMemoryRateLimiterBackend limits each replica on its own. For a limit shared by all
+ * replicas, provide a bean of this type backed by a shared store (e.g. a Redis script implementing
+ * the same GCRA arithmetic); it replaces the in-memory one.
+ */
+public interface RateLimiterBackend {
+
+  /**
+   * Take one token from the bucket of a key
+   * @param key Bucket key (policy name and caller)
+   * @param policy Bucket size and refill rate
+   * @return 0 if the request may proceed, otherwise nanoseconds until a token is available
+   */
+  long tryAcquire(String key, RateLimitProperties.Policy policy);
+}
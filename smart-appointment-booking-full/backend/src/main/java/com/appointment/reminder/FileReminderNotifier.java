@@ -0,0 +1,37 @@
+package com.appointment.reminder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Appends one tab-separated line per reminder to a file
+ * Columns: sent at, appointment ID, customer ID, customer email, appointment time, lead time
+ */
+public class FileReminderNotifier implements ReminderNotifier {
+
+  private final Path file;
+
+  public FileReminderNotifier(Path file) {
+    this.file = file;
+  }
+
+  @Override
+  public void send(Reminder reminder) {
+    String line = String.join("\t", LocalDateTime.now().toString(), String.valueOf(reminder.appointmentId()),
+      String.valueOf(reminder.customerId()), String.valueOf(reminder.customerEmail()),
+      reminder.appointmentDateTime().toString(), reminder.leadTime().toString()) + System.lineSeparator();
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Could not write reminder to " + file, ex);
+    }
+  }
+}
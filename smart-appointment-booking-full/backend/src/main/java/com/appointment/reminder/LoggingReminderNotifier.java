@@ -0,0 +1,17 @@
+package com.appointment.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes reminders to the application log
+ */
+@Slf4j
+public class LoggingReminderNotifier implements ReminderNotifier {
+
+  @Override
+  public void send(Reminder reminder) {
+    log.info("Reminder for appointment {}: {} <{}>, {} with {} at {}", reminder.appointmentId(),
+      reminder.customerName(), reminder.customerEmail(), reminder.serviceType(), reminder.serviceProviderName(),
+      reminder.appointmentDateTime());
+  }
+}
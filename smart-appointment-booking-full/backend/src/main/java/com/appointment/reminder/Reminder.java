@@ -0,0 +1,26 @@
+package com.appointment.reminder;
+
+import com.appointment.model.Appointment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One reminder to send, with the appointment details captured when it was scheduled
+ * @param appointmentId Appointment ID
+ * @param leadTime How long before the appointment the reminder is due
+ * @param appointmentDateTime Appointment start
+ * @param serviceType Service booked
+ * @param customerId Recipient ID
+ * @param customerName Recipient name
+ * @param customerEmail Recipient email
+ * @param serviceProviderName Provider name
+ */
+public record Reminder(Long appointmentId, Duration leadTime, LocalDateTime appointmentDateTime,
+                       Appointment.ServiceType serviceType, Long customerId, String customerName,
+                       String customerEmail, String serviceProviderName) {
+
+  public LocalDateTime dueAt() {
+    return appointmentDateTime.minus(leadTime);
+  }
+}
@@ -0,0 +1,11 @@
+package com.appointment.reminder;
+
+/**
+ * Delivers reminders
+ * Called on the reminder thread; implementations that block for long (SMTP, HTTP) should hand off to
+ * their own executor.
+ */
+public interface ReminderNotifier {
+
+  void send(Reminder reminder);
+}
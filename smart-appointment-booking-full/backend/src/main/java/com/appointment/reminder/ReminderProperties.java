@@ -0,0 +1,57 @@
+package com.appointment.reminder;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for appointment reminders
+ * Bound from app.reminders.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.reminders")
+public class ReminderProperties {
+
+  private boolean enabled = true;
+
+  /**
+   * How long before a confirmed appointment each reminder is sent
+   */
+  private List<Duration> leadTimes = new ArrayList<>(List.of(Duration.ofHours(24)));
+
+  /**
+   * Reminders due within this window are kept in memory; the window is reloaded when half of it has passed
+   */
+  private Duration horizon = Duration.ofHours(6);
+
+  /**
+   * Reminders that fell due this recently, e.g. during a restart, are still sent
+   */
+  private Duration missedGrace = Duration.ofMinutes(10);
+
+  /**
+   * Wheel resolution; reminders fire at most this late
+   */
+  private Duration tick = Duration.ofSeconds(1);
+
+  /**
+   * Slots per wheel level (power of two)
+   */
+  private int wheelSize = 64;
+
+  private int wheelLevels = 4;
+
+  /**
+   * log or file
+   */
+  private String notifier = "log";
+
+  /**
+   * Target of the file notifier, one line per reminder
+   */
+  private Path file = Path.of("logs", "reminders.log");
+}
@@ -0,0 +1,253 @@
+package com.appointment.reminder;
+
+import com.appointment.event.AppointmentChangedEvent;
+import com.appointment.model.Appointment;
+import com.appointment.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends reminders ahead of confirmed appointments
+ *
+ * Reminders due within the next horizon are loaded with one query and filed into a hierarchical timing
+ * wheel, so each tick costs O(1) however many reminders are pending; the window is reloaded when half of it
+ * has passed, and on startup, so a restart only loses what fell due longer than missedGrace ago. Appointment
+ * changes are queued by the after-commit listener and applied by the wheel thread, which re-reads all
+ * changed appointments of a tick in one query. The wheel and its index are only touched by that thread.
+ *
+ * Every instance schedules every reminder, and a restart reloads those due since missedGrace ago, so each
+ * send is first claimed on the appointment row (see AppointmentRepository#claimReminder) in the
+ * transaction that sends it: only one instance sends a reminder, and only once. A failed send rolls the
+ * claim back. All queries use read-write transactions, so they run on the primary and see the latest
+ * confirmations and claims.
+ */
+@Component
+@Slf4j
+public class ReminderScheduler implements SmartLifecycle {
+
+  private final AppointmentRepository appointmentRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ReminderNotifier notifier;
+  private final ReminderProperties properties;
+  private final Queue<AppointmentChangedEvent> changes = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Counter sent;
+  private final Counter failed;
+
+  // Owned by the reminder thread
+  private final Map<Long, List<TimingWheel.Timer<Reminder>>> scheduled = new HashMap<>();
+  private TimingWheel<Reminder> wheel;
+  private long originMillis;
+  private long tickMillis;
+  private LocalDateTime loadedUntil;
+
+  private volatile boolean running;
+  private Thread thread;
+
+  public ReminderScheduler(AppointmentRepository appointmentRepository,
+                           PlatformTransactionManager transactionManager,
+                           ReminderNotifier notifier,
+                           ReminderProperties properties,
+                           MeterRegistry meterRegistry) {
+    this.appointmentRepository = appointmentRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.notifier = notifier;
+    this.properties = properties;
+    this.sent = Counter.builder("reminders.sent")
+      .description("Appointment reminders delivered to the notifier")
+      .register(meterRegistry);
+    this.failed = Counter.builder("reminders.failed")
+      .description("Appointment reminders the notifier failed to deliver")
+      .register(meterRegistry);
+    Gauge.builder("reminders.pending", pending, AtomicInteger::get)
+      .description("Reminders scheduled within the loaded horizon")
+      .register(meterRegistry);
+  }
+
+  @Override
+  public void start() {
+    if (running) {
+      return;
+    }
+    if (!properties.isEnabled() || properties.getLeadTimes().isEmpty()) {
+      log.info("Appointment reminders disabled");
+      return;
+    }
+    tickMillis = Math.max(1, properties.getTick().toMillis());
+    originMillis = System.currentTimeMillis();
+    wheel = new TimingWheel<>(properties.getWheelSize(), properties.getWheelLevels(), 0);
+    running = true;
+    thread = new Thread(this::run, "reminder-wheel");
+    thread.setDaemon(true);
+    thread.start();
+    log.info("Reminder scheduler started, lead times {}, horizon {}", properties.getLeadTimes(),
+      properties.getHorizon());
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Queue a committed change for the wheel thread
+   * @param event The change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAppointmentChanged(AppointmentChangedEvent event) {
+    if (running) {
+      changes.add(event);
+    }
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        LocalDateTime now = LocalDateTime.now();
+        applyChanges(now);
+        if (loadedUntil == null || !now.plus(properties.getHorizon().dividedBy(2)).isBefore(loadedUntil)) {
+          loadHorizon(now);
+        }
+        wheel.advance(Math.floorDiv(System.currentTimeMillis() - originMillis, tickMillis), this::fire);
+        pending.set(wheel.size());
+      } catch (RuntimeException ex) {
+        // Database unavailable or similar; retried on the next tick
+        log.error("Reminder tick failed", ex);
+      }
+      try {
+        Thread.sleep(tickMillis);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Schedule every reminder due between the end of the loaded window (or now - missedGrace on the first
+   * load) and now + horizon
+   */
+  private void loadHorizon(LocalDateTime now) {
+    LocalDateTime from = loadedUntil != null ? loadedUntil : now.minus(properties.getMissedGrace());
+    LocalDateTime until = now.plus(properties.getHorizon());
+    Duration shortestLead = properties.getLeadTimes().stream().min(Comparator.naturalOrder()).orElseThrow();
+    Duration longestLead = properties.getLeadTimes().stream().max(Comparator.naturalOrder()).orElseThrow();
+
+    List<AppointmentRepository.ReminderRow> rows = transactionTemplate.execute(status ->
+      appointmentRepository.findReminderRows(Appointment.Status.CONFIRMED, from.plus(shortestLead),
+        until.plus(longestLead)));
+    int before = wheel.size();
+    rows.forEach(row -> schedule(row, from, until));
+    loadedUntil = until;
+    log.debug("Loaded {} reminders due before {}", wheel.size() - before, until);
+  }
+
+  private void applyChanges(LocalDateTime now) {
+    Set<Long> refresh = new HashSet<>();
+    AppointmentChangedEvent event;
+    while ((event = changes.poll()) != null) {
+      cancel(event.appointmentId());
+      if (event.change() != AppointmentChangedEvent.Change.DELETED
+        && event.status() == Appointment.Status.CONFIRMED) {
+        refresh.add(event.appointmentId());
+      } else {
+        refresh.remove(event.appointmentId());
+      }
+    }
+    if (refresh.isEmpty() || loadedUntil == null) {
+      // Before the first load there is nothing to adjust; that load reads the committed state
+      return;
+    }
+    // Re-read the committed state: covers confirmation and rescheduling alike
+    List<AppointmentRepository.ReminderRow> rows = transactionTemplate.execute(status ->
+      appointmentRepository.findReminderRowsByIds(refresh, Appointment.Status.CONFIRMED));
+    rows.forEach(row -> schedule(row, now, loadedUntil));
+  }
+
+  private void schedule(AppointmentRepository.ReminderRow row, LocalDateTime dueFrom, LocalDateTime dueUntil) {
+    for (Duration leadTime : properties.getLeadTimes()) {
+      Reminder reminder = new Reminder(row.getId(), leadTime, row.getAppointmentDateTime(), row.getServiceType(),
+        row.getCustomerId(), row.getCustomerName(), row.getCustomerEmail(), row.getServiceProviderName());
+      LocalDateTime dueAt = reminder.dueAt();
+      if (!dueAt.isBefore(dueFrom) && dueAt.isBefore(dueUntil)) {
+        scheduled.computeIfAbsent(row.getId(), id -> new ArrayList<>(1))
+          .add(wheel.schedule(tickOf(dueAt), reminder));
+      }
+    }
+  }
+
+  private void cancel(Long appointmentId) {
+    List<TimingWheel.Timer<Reminder>> timers = scheduled.remove(appointmentId);
+    if (timers != null) {
+      timers.forEach(wheel::cancel);
+    }
+  }
+
+  private void fire(Reminder reminder) {
+    List<TimingWheel.Timer<Reminder>> timers = scheduled.get(reminder.appointmentId());
+    if (timers != null) {
+      timers.removeIf(timer -> timer.payload() == reminder);
+      if (timers.isEmpty()) {
+        scheduled.remove(reminder.appointmentId());
+      }
+    }
+    if (reminder.appointmentDateTime().isBefore(LocalDateTime.now())) {
+      // Caught up after downtime, but the appointment has already started
+      return;
+    }
+    try {
+      Boolean delivered = transactionTemplate.execute(status -> {
+        if (appointmentRepository.claimReminder(reminder.appointmentId(), reminder.appointmentDateTime(),
+          reminder.dueAt(), Appointment.Status.CONFIRMED) == 0) {
+          // Sent by another instance or before a restart, or the appointment has changed since
+          return false;
+        }
+        notifier.send(reminder);
+        return true;
+      });
+      if (Boolean.TRUE.equals(delivered)) {
+        sent.increment();
+      }
+    } catch (RuntimeException ex) {
+      failed.increment();
+      log.warn("Could not send reminder for appointment {}", reminder.appointmentId(), ex);
+    }
+  }
+
+  /**
+   * First tick at or after the given time, so reminders never fire early
+   */
+  private long tickOf(LocalDateTime time) {
+    long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    return Math.floorDiv(millis - originMillis + tickMillis - 1, tickMillis);
+  }
+}
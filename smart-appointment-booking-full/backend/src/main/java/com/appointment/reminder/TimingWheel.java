@@ -0,0 +1,222 @@
+package com.appointment.reminder;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel over integer ticks
+ *
+ * Level 0 has one slot per tick; every slot of level n is as wide as a full turn of level n - 1. A timer is
+ * filed on the lowest level whose turn still covers its deadline and moves down one or more levels when the
+ * slot it sits in comes around. Scheduling and cancelling are O(1), advancing by one tick visits at most one
+ * slot per level, and each timer is moved at most once per level before it fires. Deadlines beyond the top
+ * level's range are parked in the top level and refiled on each turn.
+ *
+ * Not thread-safe: a single thread owns the wheel.
+ *
+ * @param <T> Payload delivered when a timer fires
+ */
+public final class TimingWheel<T> {
+
+  private final int wheelBits;
+  private final int mask;
+  private final int levels;
+  private final Slot<T>[][] slots;
+  private final Slot<T> due = new Slot<>();
+  private long currentTick;
+  private int size;
+
+  /**
+   * @param wheelSize Slots per level, a power of two
+   * @param levels Number of levels; wheelSize^levels ticks are covered without refiling
+   * @param startTick Tick the wheel starts at
+   */
+  @SuppressWarnings("unchecked")
+  public TimingWheel(int wheelSize, int levels, long startTick) {
+    if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+      throw new IllegalArgumentException("wheelSize must be a power of two, got " + wheelSize);
+    }
+    this.wheelBits = Integer.numberOfTrailingZeros(wheelSize);
+    if (levels < 1 || (long) wheelBits * levels > 62) {
+      throw new IllegalArgumentException("levels must be between 1 and " + 62 / wheelBits + ", got " + levels);
+    }
+    this.mask = wheelSize - 1;
+    this.levels = levels;
+    this.slots = new Slot[levels][wheelSize];
+    for (Slot<T>[] level : slots) {
+      for (int i = 0; i < wheelSize; i++) {
+        level[i] = new Slot<>();
+      }
+    }
+    this.currentTick = startTick;
+  }
+
+  /**
+   * @param deadlineTick Tick at which the timer fires; past ticks fire on the next advance
+   * @param payload Value handed to the consumer
+   * @return Handle for cancel
+   */
+  public Timer<T> schedule(long deadlineTick, T payload) {
+    Timer<T> timer = new Timer<>(deadlineTick, payload);
+    file(timer);
+    size++;
+    return timer;
+  }
+
+  /**
+   * @param timer Handle returned by schedule
+   * @return false if the timer already fired or was cancelled
+   */
+  public boolean cancel(Timer<T> timer) {
+    if (timer.slot == null) {
+      return false;
+    }
+    timer.slot.remove(timer);
+    size--;
+    return true;
+  }
+
+  /**
+   * Move the wheel forward, firing every timer whose deadline is reached
+   * @param nowTick Current tick; ticks already passed are ignored
+   * @param consumer Receives the payloads, tick by tick
+   */
+  public void advance(long nowTick, Consumer<? super T> consumer) {
+    fireAll(due, consumer);
+    while (currentTick < nowTick) {
+      currentTick++;
+      // Levels whose turn boundary was crossed hand their current slot down
+      for (int level = 1; level < levels; level++) {
+        if ((currentTick & ((1L << (wheelBits * level)) - 1)) != 0) {
+          break;
+        }
+        refile(slots[level][index(currentTick, level)]);
+      }
+      fireAll(slots[0][index(currentTick, 0)], consumer);
+      fireAll(due, consumer);
+    }
+  }
+
+  /**
+   * @return Timers scheduled and not yet fired or cancelled
+   */
+  public int size() {
+    return size;
+  }
+
+  public long currentTick() {
+    return currentTick;
+  }
+
+  private void file(Timer<T> timer) {
+    long delta = timer.deadline - currentTick;
+    if (delta <= 0) {
+      due.add(timer);
+      return;
+    }
+    int level = 0;
+    while (level < levels - 1 && delta >= 1L << (wheelBits * (level + 1))) {
+      level++;
+    }
+    long slotTick = timer.deadline;
+    long range = 1L << (wheelBits * levels);
+    if (delta >= range) {
+      // Beyond the top level: park one full turn ahead, refiled when that slot comes around
+      slotTick = currentTick + range;
+    }
+    slots[level][index(slotTick, level)].add(timer);
+  }
+
+  private void refile(Slot<T> slot) {
+    Timer<T> timer = slot.takeAll();
+    while (timer != null) {
+      Timer<T> next = timer.next;
+      timer.next = null;
+      file(timer);
+      timer = next;
+    }
+  }
+
+  private void fireAll(Slot<T> slot, Consumer<? super T> consumer) {
+    Timer<T> timer = slot.takeAll();
+    while (timer != null) {
+      Timer<T> next = timer.next;
+      timer.next = null;
+      size--;
+      consumer.accept(timer.payload);
+      timer = next;
+    }
+  }
+
+  private int index(long tick, int level) {
+    return (int) ((tick >>> (wheelBits * level)) & mask);
+  }
+
+  /**
+   * Scheduled timer; cancel through the owning wheel
+   * @param <T> Payload
+   */
+  public static final class Timer<T> {
+    private final long deadline;
+    private final T payload;
+    private Slot<T> slot;
+    private Timer<T> prev;
+    private Timer<T> next;
+
+    private Timer(long deadline, T payload) {
+      this.deadline = deadline;
+      this.payload = payload;
+    }
+
+    public long deadline() {
+      return deadline;
+    }
+
+    public T payload() {
+      return payload;
+    }
+  }
+
+  /**
+   * Intrusive doubly linked list, so a timer is removed without searching
+   */
+  private static final class Slot<T> {
+    private Timer<T> head;
+
+    private void add(Timer<T> timer) {
+      timer.slot = this;
+      timer.prev = null;
+      timer.next = head;
+      if (head != null) {
+        head.prev = timer;
+      }
+      head = timer;
+    }
+
+    private void remove(Timer<T> timer) {
+      if (timer.prev != null) {
+        timer.prev.next = timer.next;
+      } else {
+        head = timer.next;
+      }
+      if (timer.next != null) {
+        timer.next.prev = timer.prev;
+      }
+      timer.prev = null;
+      timer.next = null;
+      timer.slot = null;
+    }
+
+    /**
+     * Detach the whole list; the returned timers are linked through next only and belong to no slot
+     */
+    private Timer<T> takeAll() {
+      Timer<T> first = head;
+      head = null;
+      for (Timer<T> timer = first; timer != null; timer = timer.next) {
+        timer.slot = null;
+        timer.prev = null;
+      }
+      return first;
+    }
+  }
+}
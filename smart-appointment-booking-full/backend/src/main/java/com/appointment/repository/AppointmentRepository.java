@@ -2,20 +2,68 @@ package com.appointment.repository;
 
 import com.appointment.model.Appointment;
 import com.appointment.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Appointment entity
  * Provides CRUD operations and custom queries for appointments
  */
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment> {
+
+  /**
+   * Flat projection of one appointment with both parties, as listed by the API
+   */
+  interface ListingRow {
+    Long getId();
+    Long getCustomerId();
+    String getCustomerName();
+    String getCustomerEmail();
+    Long getServiceProviderId();
+    String getServiceProviderName();
+    String getServiceProviderEmail();
+    Appointment.ServiceType getServiceType();
+    LocalDateTime getAppointmentDateTime();
+    String getNotes();
+    Appointment.Status getStatus();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+  }
+
+  /**
+   * Stream all appointments, most recent first, then by customer ID descending
+   * Scalar projection fetched in chunks: no entities enter the persistence context, so memory stays flat
+   * however many rows there are. Must be consumed (and closed) inside a transaction.
+   * @return Stream of listing rows
+   */
+  @Query("SELECT a.id AS id, c.id AS customerId, c.name AS customerName, c.email AS customerEmail, " +
+    "p.id AS serviceProviderId, p.name AS serviceProviderName, p.email AS serviceProviderEmail, " +
+    "a.serviceType AS serviceType, a.appointmentDateTime AS appointmentDateTime, a.notes AS notes, " +
+    "a.status AS status, a.createdAt AS createdAt, a.updatedAt AS updatedAt " +
+    "FROM Appointment a JOIN a.customer c JOIN a.serviceProvider p " +
+    "ORDER BY a.appointmentDateTime DESC, c.id DESC")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<ListingRow> streamAllForListing();
+
   // Find appointments that are PENDING and in the past
   List<Appointment> findByStatusAndAppointmentDateTimeBefore(Appointment.Status status, LocalDateTime dateTime);
 
@@ -165,20 +213,172 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
   Long countByCustomerIdAndStatus(Long customerId, Appointment.Status status);
 
   /**
-   * Find conflicting appointments (same provider, overlapping time)
-   * Used to prevent double booking
+   * Start and service type of a booked appointment
+   */
+  interface BookedSlot {
+    LocalDateTime getAppointmentDateTime();
+    Appointment.ServiceType getServiceType();
+  }
+
+  /**
+   * Booked (non-cancelled) appointments of a provider from a given point on
+   * Lightweight projection used to build the in-memory calendar of BookingSequencer
    * @param providerId Provider ID
-   * @param startTime Start of time window
-   * @param endTime End of time window
-   * @return List of conflicting appointments
+   * @param from Earliest appointment time to include
+   * @return Booked slots in ascending order
    */
-  @Query("SELECT a FROM Appointment a WHERE a.serviceProvider.id = :providerId " +
+  @Query("SELECT a.appointmentDateTime AS appointmentDateTime, a.serviceType AS serviceType " +
+    "FROM Appointment a WHERE a.serviceProvider.id = :providerId " +
     "AND a.status != 'CANCELLED' " +
-    "AND a.appointmentDateTime BETWEEN :startTime AND :endTime")
-  List<Appointment> findConflictingAppointments(
+    "AND a.appointmentDateTime >= :from " +
+    "ORDER BY a.appointmentDateTime ASC")
+  List<BookedSlot> findBookedSlotsByProvider(
     @Param("providerId") Long providerId,
-    @Param("startTime") LocalDateTime startTime,
-    @Param("endTime") LocalDateTime endTime
+    @Param("from") LocalDateTime from
+  );
+
+  /**
+   * Booked (non-cancelled) appointments of a provider starting in [from, to)
+   * Used to re-check bookings against the committed state without loading the whole future
+   * @param providerId Provider ID
+   * @param from Earliest appointment time to include
+   * @param to Appointments must start before this
+   * @return Booked slots in ascending order
+   */
+  @Query("SELECT a.appointmentDateTime AS appointmentDateTime, a.serviceType AS serviceType " +
+    "FROM Appointment a WHERE a.serviceProvider.id = :providerId " +
+    "AND a.status != 'CANCELLED' " +
+    "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to " +
+    "ORDER BY a.appointmentDateTime ASC")
+  List<BookedSlot> findBookedSlotsByProviderBetween(
+    @Param("providerId") Long providerId,
+    @Param("from") LocalDateTime from,
+    @Param("to") LocalDateTime to
+  );
+
+  /**
+   * Current status and parties of an appointment, used to plan a bulk status change
+   */
+  interface StatusRow {
+    Long getId();
+    Appointment.Status getStatus();
+    Long getCustomerId();
+    Long getServiceProviderId();
+    LocalDateTime getAppointmentDateTime();
+  }
+
+  /**
+   * Lock one appointment for a read-modify-write
+   * @param id Appointment ID
+   * @return The appointment, if it exists
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT a FROM Appointment a WHERE a.id = :id")
+  Optional<Appointment> lockById(@Param("id") Long id);
+
+  /**
+   * Lock the given appointments and read their current status
+   * Rows are locked in ID order so concurrent bulk updates over overlapping sets cannot deadlock
+   * @param ids Appointment IDs
+   * @return One row per existing appointment
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT a.id AS id, a.status AS status, a.customer.id AS customerId, " +
+    "a.serviceProvider.id AS serviceProviderId, a.appointmentDateTime AS appointmentDateTime " +
+    "FROM Appointment a WHERE a.id IN :ids ORDER BY a.id")
+  List<StatusRow> lockStatusRows(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Move a group of appointments from one status to another in a single statement
+   * Rows that are no longer in the expected status are left alone
+   * @param ids Appointment IDs
+   * @param from Expected current status
+   * @param to New status
+   * @param now Value for updatedAt (bulk updates bypass @UpdateTimestamp)
+   * @return Number of rows updated
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE Appointment a SET a.status = :to, a.updatedAt = :now WHERE a.id IN :ids AND a.status = :from")
+  int transitionStatus(
+    @Param("ids") Collection<Long> ids,
+    @Param("from") Appointment.Status from,
+    @Param("to") Appointment.Status to,
+    @Param("now") LocalDateTime now
+  );
+
+  /**
+   * IDs among the given appointments that currently have a status
+   * @param ids Appointment IDs
+   * @param status Status to match
+   * @return Matching IDs
+   */
+  @Query("SELECT a.id FROM Appointment a WHERE a.id IN :ids AND a.status = :status")
+  List<Long> findIdsWithStatus(@Param("ids") Collection<Long> ids, @Param("status") Appointment.Status status);
+
+  /**
+   * What a reminder needs to know about an appointment
+   */
+  interface ReminderRow {
+    Long getId();
+    LocalDateTime getAppointmentDateTime();
+    Appointment.ServiceType getServiceType();
+    Long getCustomerId();
+    String getCustomerName();
+    String getCustomerEmail();
+    String getServiceProviderName();
+  }
+
+  /**
+   * Appointments with a status starting in [from, to)
+   * @param status Status to match
+   * @param from Earliest start (inclusive)
+   * @param to Latest start (exclusive)
+   * @return Reminder rows
+   */
+  @Query("SELECT a.id AS id, a.appointmentDateTime AS appointmentDateTime, a.serviceType AS serviceType, " +
+    "c.id AS customerId, c.name AS customerName, c.email AS customerEmail, p.name AS serviceProviderName " +
+    "FROM Appointment a JOIN a.customer c JOIN a.serviceProvider p " +
+    "WHERE a.status = :status AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to")
+  List<ReminderRow> findReminderRows(
+    @Param("status") Appointment.Status status,
+    @Param("from") LocalDateTime from,
+    @Param("to") LocalDateTime to
+  );
+
+  /**
+   * Given appointments that currently have a status
+   * @param ids Appointment IDs
+   * @param status Status to match
+   * @return Reminder rows
+   */
+  @Query("SELECT a.id AS id, a.appointmentDateTime AS appointmentDateTime, a.serviceType AS serviceType, " +
+    "c.id AS customerId, c.name AS customerName, c.email AS customerEmail, p.name AS serviceProviderName " +
+    "FROM Appointment a JOIN a.customer c JOIN a.serviceProvider p " +
+    "WHERE a.id IN :ids AND a.status = :status")
+  List<ReminderRow> findReminderRowsByIds(
+    @Param("ids") Collection<Long> ids,
+    @Param("status") Appointment.Status status
+  );
+
+  /**
+   * Claim a reminder for sending: succeeds for one caller only, on whichever instance, and never again
+   * for the same reminder after a restart. Fails if the appointment is no longer confirmed at that start
+   * time. Must run in the transaction that sends the reminder, so a failed send releases the claim.
+   * @param id Appointment ID
+   * @param appointmentDateTime Start time the reminder was scheduled for
+   * @param dueAt Due time of the reminder
+   * @param status Required status
+   * @return 1 if claimed, 0 otherwise
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE Appointment a SET a.lastReminderDueAt = :dueAt WHERE a.id = :id AND a.status = :status " +
+    "AND a.appointmentDateTime = :appointmentDateTime " +
+    "AND (a.lastReminderDueAt IS NULL OR a.lastReminderDueAt < :dueAt)")
+  int claimReminder(
+    @Param("id") Long id,
+    @Param("appointmentDateTime") LocalDateTime appointmentDateTime,
+    @Param("dueAt") LocalDateTime dueAt,
+    @Param("status") Appointment.Status status
   );
 
   /**
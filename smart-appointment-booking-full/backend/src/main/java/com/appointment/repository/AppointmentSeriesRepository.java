@@ -0,0 +1,92 @@
+package com.appointment.repository;
+
+import com.appointment.model.AppointmentSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for AppointmentSeries entity
+ * Series are matched on [firstOccurrence, lastOccurrence]; callers expand occurrences for their window
+ */
+@Repository
+public interface AppointmentSeriesRepository extends JpaRepository<AppointmentSeries, Long> {
+
+  /**
+   * Active series of a provider with occurrences in [from, to)
+   * @param providerId Provider ID
+   * @param from Window start
+   * @param to Window end
+   * @return Matching series
+   */
+  @Query("SELECT s FROM AppointmentSeries s WHERE s.serviceProvider.id = :providerId " +
+    "AND s.status = com.appointment.model.AppointmentSeries.Status.ACTIVE " +
+    "AND s.lastOccurrence >= :from AND s.firstOccurrence < :to")
+  List<AppointmentSeries> findActiveByProviderBetween(
+    @Param("providerId") Long providerId,
+    @Param("from") LocalDateTime from,
+    @Param("to") LocalDateTime to
+  );
+
+  /**
+   * Active series of a provider with occurrences at or after a time, for the booking schedule
+   * @param providerId Provider ID
+   * @param from Earliest occurrence of interest
+   * @return Matching series
+   */
+  @Query("SELECT s FROM AppointmentSeries s WHERE s.serviceProvider.id = :providerId " +
+    "AND s.status = com.appointment.model.AppointmentSeries.Status.ACTIVE AND s.lastOccurrence >= :from")
+  List<AppointmentSeries> findActiveByProviderFrom(@Param("providerId") Long providerId, @Param("from") LocalDateTime from);
+
+  /**
+   * Active series of a provider with occurrences in [from, to)
+   * @param providerId Provider ID
+   * @param from Window start
+   * @param to Window end
+   * @return Matching series
+   */
+  @Query("SELECT s FROM AppointmentSeries s WHERE s.serviceProvider.id = :providerId " +
+    "AND s.status = com.appointment.model.AppointmentSeries.Status.ACTIVE " +
+    "AND s.lastOccurrence >= :from AND s.firstOccurrence < :to")
+  List<AppointmentSeries> findActiveByProviderBetween(@Param("providerId") Long providerId,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+  /**
+   * Active series with occurrences in [from, to)
+   * @param from Window start
+   * @param to Window end
+   * @return Matching series
+   */
+  @Query("SELECT s FROM AppointmentSeries s WHERE s.status = com.appointment.model.AppointmentSeries.Status.ACTIVE " +
+    "AND s.lastOccurrence >= :from AND s.firstOccurrence < :to")
+  List<AppointmentSeries> findActiveBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  /**
+   * Active series of a customer with occurrences after a time
+   * @param customerId Customer ID
+   * @param from Occurrences must start after this
+   * @return Matching series
+   */
+  @Query("SELECT s FROM AppointmentSeries s WHERE s.customer.id = :customerId " +
+    "AND s.status = com.appointment.model.AppointmentSeries.Status.ACTIVE AND s.lastOccurrence > :from")
+  List<AppointmentSeries> findActiveByCustomerAfter(@Param("customerId") Long customerId, @Param("from") LocalDateTime from);
+
+  /**
+   * All series of a provider
+   * @param providerId Provider ID
+   * @return Series
+   */
+  List<AppointmentSeries> findByServiceProviderId(Long providerId);
+
+  /**
+   * All series of a customer, newest first
+   * @param customerId Customer ID
+   * @return Series
+   */
+  List<AppointmentSeries> findByCustomerIdOrderByFirstOccurrenceDesc(Long customerId);
+}
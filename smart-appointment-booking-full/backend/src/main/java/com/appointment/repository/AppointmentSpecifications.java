@@ -0,0 +1,80 @@
+package com.appointment.repository;
+
+import com.appointment.dto.AppointmentFilter;
+import com.appointment.model.Appointment;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query building blocks for paged appointment lists
+ */
+public final class AppointmentSpecifications {
+
+  /**
+   * Keyset order matching KeysetCursor; backed by the (…, appointment_datetime, id) indexes
+   */
+  public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("appointmentDateTime"), Sort.Order.desc("id"));
+
+  private AppointmentSpecifications() {
+  }
+
+  /**
+   * @param filter Criteria; null fields are ignored
+   * @return Conjunction of the given criteria
+   */
+  public static Specification<Appointment> matching(AppointmentFilter filter) {
+    return (root, query, cb) -> {
+      List<Predicate> predicates = new ArrayList<>();
+      if (filter.getProviderId() != null) {
+        predicates.add(cb.equal(root.get("serviceProvider").get("id"), filter.getProviderId()));
+      }
+      if (filter.getCustomerId() != null) {
+        predicates.add(cb.equal(root.get("customer").get("id"), filter.getCustomerId()));
+      }
+      if (filter.getStatus() != null) {
+        predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+      }
+      if (filter.getFrom() != null) {
+        predicates.add(cb.greaterThanOrEqualTo(root.get("appointmentDateTime"), filter.getFrom()));
+      }
+      if (filter.getTo() != null) {
+        predicates.add(cb.lessThan(root.get("appointmentDateTime"), filter.getTo()));
+      }
+      return cb.and(predicates.toArray(Predicate[]::new));
+    };
+  }
+
+  /**
+   * Items strictly after the cursor in NEWEST_FIRST order
+   * @param cursor Last item of the previous page
+   * @return Keyset predicate
+   */
+  public static Specification<Appointment> after(KeysetCursor cursor) {
+    return (root, query, cb) -> {
+      Path<LocalDateTime> at = root.get("appointmentDateTime");
+      return cb.or(
+        cb.lessThan(at, cursor.at()),
+        cb.and(cb.equal(at, cursor.at()), cb.lessThan(root.get("id"), cursor.id())));
+    };
+  }
+
+  /**
+   * Load customer and provider in the same query (skipped for count queries)
+   * @return Fetch-only specification
+   */
+  public static Specification<Appointment> fetchParties() {
+    return (root, query, cb) -> {
+      if (query != null && !Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+        root.fetch("customer");
+        root.fetch("serviceProvider");
+      }
+      return null;
+    };
+  }
+}
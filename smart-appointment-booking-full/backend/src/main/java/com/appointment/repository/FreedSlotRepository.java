@@ -0,0 +1,56 @@
+package com.appointment.repository;
+
+import com.appointment.model.FreedSlot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for FreedSlot entity
+ */
+@Repository
+public interface FreedSlotRepository extends JpaRepository<FreedSlot, Long> {
+
+  /**
+   * Lock the oldest slots that are due, skipping rows another instance has locked
+   * Must run inside a transaction
+   * @param now Current time
+   * @param limit Batch size
+   * @return Due slots, roughly oldest first
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  // -2 is Hibernate's LockOptions.SKIP_LOCKED
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("SELECT f FROM FreedSlot f WHERE f.nextAttemptAt <= :now ORDER BY f.id")
+  List<FreedSlot> lockDue(@Param("now") LocalDateTime now, Limit limit);
+
+  /**
+   * Hold slots back until a time
+   * @param ids Slot IDs
+   * @param next Earliest time they are handed out again
+   * @return Number of rows updated
+   */
+  @Modifying
+  @Query("UPDATE FreedSlot f SET f.nextAttemptAt = :next WHERE f.id IN :ids")
+  int postpone(@Param("ids") Collection<Long> ids, @Param("next") LocalDateTime next);
+
+  /**
+   * Remove a handled slot; does nothing if another instance removed it already
+   * @param id Slot ID
+   * @return Number of rows deleted
+   */
+  @Modifying
+  @Query("DELETE FROM FreedSlot f WHERE f.id = :id")
+  int deleteSlot(@Param("id") Long id);
+}
@@ -0,0 +1,43 @@
+package com.appointment.repository;
+
+import com.appointment.exception.AppointmentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by (timestamp desc, id desc), encoded as an opaque base64url string
+ * @param at Timestamp of the last item seen
+ * @param id ID of the last item seen
+ */
+public record KeysetCursor(LocalDateTime at, Long id) {
+
+  /**
+   * @return Cursor string for clients
+   */
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding()
+      .encodeToString((at + "|" + id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param cursor Cursor string from a previous page
+   * @return Decoded position
+   * @throws AppointmentException if the cursor was not produced by encode()
+   */
+  public static KeysetCursor decode(String cursor) {
+    try {
+      String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = value.indexOf('|');
+      if (separator < 0) {
+        throw new AppointmentException("Invalid cursor");
+      }
+      return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+        Long.valueOf(value.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException ex) {
+      throw new AppointmentException("Invalid cursor");
+    }
+  }
+}
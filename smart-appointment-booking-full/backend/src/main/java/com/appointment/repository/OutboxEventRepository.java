@@ -0,0 +1,32 @@
+package com.appointment.repository;
+
+import com.appointment.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  /**
+   * Lock the oldest unpublished events, skipping rows another relay has locked
+   * Renders as SELECT ... ORDER BY id LIMIT n FOR UPDATE SKIP LOCKED; must run inside a transaction
+   * @param limit Batch size
+   * @return Events by id, roughly oldest first (ids are not commit order)
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  // -2 is Hibernate's LockOptions.SKIP_LOCKED
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+  List<OutboxEvent> lockNextBatch(Limit limit);
+}
@@ -0,0 +1,23 @@
+package com.appointment.repository;
+
+import com.appointment.model.ProviderSchedule;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for ProviderSchedule entity
+ */
+@Repository
+public interface ProviderScheduleRepository extends JpaRepository<ProviderSchedule, Long> {
+
+  /**
+   * Schedule of a provider with all of its collections, ready to be compiled outside a session
+   * @param providerId Provider ID
+   * @return The schedule, or empty if the provider has none
+   */
+  @EntityGraph(attributePaths = {"workingHours", "breaks", "serviceDurations"})
+  Optional<ProviderSchedule> findByServiceProviderId(Long providerId);
+}
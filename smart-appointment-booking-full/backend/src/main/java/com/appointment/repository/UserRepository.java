@@ -2,19 +2,23 @@ package com.appointment.repository;
 
 import com.appointment.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for User entity
  * Provides database operations for users
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
   /**
    * Find user by email (used for login)
@@ -94,4 +98,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
    * @return Optional containing user if found
    */
   Optional<User> findByPhone(String phone);
-}
\ No newline at end of file
+
+  /**
+   * Replace a stored password, only if it has not changed since it was read
+   * Used to upgrade legacy plaintext or outdated hashes after a successful login
+   * @param id User ID
+   * @param expected Password value that was verified
+   * @param newHash New hash to store
+   * @return Number of rows updated (0 if the password changed meanwhile)
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :expected")
+  int replacePassword(@Param("id") Long id, @Param("expected") String expected, @Param("newHash") String newHash);
+
+  /**
+   * Lock a user's row until the end of the current transaction
+   * Taken on the provider by every booking transaction, so bookings for one provider are inserted one
+   * after another even when several instances share the database
+   * @param id User ID
+   * @return The ID, or null if there is no such user
+   */
+  @Query(value = "SELECT id FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+  Long lockById(@Param("id") Long id);
+
+  /**
+   * Stream all registered emails (used to build the email Bloom filter)
+   * Must be consumed inside a transaction
+   * @return Stream of emails
+   */
+  @Query("SELECT u.email FROM User u")
+  Stream<String> streamAllEmails();
+}
@@ -0,0 +1,57 @@
+package com.appointment.repository;
+
+import com.appointment.dto.UserFilter;
+import com.appointment.model.User;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query building blocks for paged user lists
+ */
+public final class UserSpecifications {
+
+  /**
+   * Keyset order matching KeysetCursor; backed by the (created_at, id) index
+   */
+  public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+  private UserSpecifications() {
+  }
+
+  /**
+   * @param filter Criteria; null fields are ignored
+   * @return Conjunction of the given criteria
+   */
+  public static Specification<User> matching(UserFilter filter) {
+    return (root, query, cb) -> {
+      List<Predicate> predicates = new ArrayList<>();
+      if (filter.getRole() != null) {
+        predicates.add(cb.equal(root.get("role"), filter.getRole()));
+      }
+      if (filter.getActive() != null) {
+        predicates.add(cb.equal(root.get("active"), filter.getActive()));
+      }
+      return cb.and(predicates.toArray(Predicate[]::new));
+    };
+  }
+
+  /**
+   * Users strictly after the cursor in NEWEST_FIRST order
+   * @param cursor Last user of the previous page
+   * @return Keyset predicate
+   */
+  public static Specification<User> after(KeysetCursor cursor) {
+    return (root, query, cb) -> {
+      Path<LocalDateTime> at = root.get("createdAt");
+      return cb.or(
+        cb.lessThan(at, cursor.at()),
+        cb.and(cb.equal(at, cursor.at()), cb.lessThan(root.get("id"), cursor.id())));
+    };
+  }
+}
@@ -0,0 +1,72 @@
+package com.appointment.repository;
+
+import com.appointment.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for WaitlistEntry entity
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+  /**
+   * Entries still waiting for a slot, oldest first
+   * @param status Usually WAITING
+   * @param after Only entries whose window ends after this time
+   * @return Matching entries
+   */
+  List<WaitlistEntry> findByStatusAndWindowEndAfterOrderByCreatedAtAsc(WaitlistEntry.Status status, LocalDateTime after);
+
+  List<WaitlistEntry> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
+
+  long countByCustomerIdAndStatus(Long customerId, WaitlistEntry.Status status);
+
+  /**
+   * @param providerId Provider ID
+   * @param start Start of a slot
+   * @return true if a waiting entry of that provider accepts the slot
+   */
+  @Query("SELECT COUNT(w) > 0 FROM WaitlistEntry w WHERE w.serviceProvider.id = :providerId " +
+    "AND w.status = com.appointment.model.WaitlistEntry.Status.WAITING " +
+    "AND w.windowStart <= :start AND w.windowEnd >= :start")
+  boolean hasWaiterFor(@Param("providerId") Long providerId, @Param("start") LocalDateTime start);
+
+  /**
+   * Move an entry from one status to another if it is still in the expected one
+   * Used to claim an entry before booking it, so two instances cannot promote it twice
+   * @return 1 if the entry was moved, 0 if it was not in the expected status
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE WaitlistEntry w SET w.status = :to, w.updatedAt = :now WHERE w.id = :id AND w.status = :from")
+  int transition(
+    @Param("id") Long id,
+    @Param("from") WaitlistEntry.Status from,
+    @Param("to") WaitlistEntry.Status to,
+    @Param("now") LocalDateTime now
+  );
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE WaitlistEntry w SET w.appointmentId = :appointmentId, w.updatedAt = :now WHERE w.id = :id")
+  int recordAppointment(
+    @Param("id") Long id,
+    @Param("appointmentId") Long appointmentId,
+    @Param("now") LocalDateTime now
+  );
+
+  /**
+   * Expire waiting entries whose window has passed
+   * @param now Current time
+   * @return Number of entries expired
+   */
+  @Modifying
+  @Query("UPDATE WaitlistEntry w SET w.status = com.appointment.model.WaitlistEntry.Status.EXPIRED, " +
+    "w.updatedAt = :now WHERE w.status = com.appointment.model.WaitlistEntry.Status.WAITING AND w.windowEnd < :now")
+  int expireBefore(@Param("now") LocalDateTime now);
+}
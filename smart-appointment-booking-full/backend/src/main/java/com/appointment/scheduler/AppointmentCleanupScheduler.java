@@ -1,29 +1,23 @@
 package com.appointment.scheduler;
 
-import com.appointment.model.Appointment;
-import com.appointment.repository.AppointmentRepository;
+import com.appointment.service.AppointmentCleanupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.util.List;
-
 @Component
+@EnableScheduling
 @RequiredArgsConstructor
 @Slf4j
 public class AppointmentCleanupScheduler {
-    private final AppointmentRepository appointmentRepository;
+    private final AppointmentCleanupService appointmentCleanupService;
 
-    // Run every day at 2am
-    @Scheduled(cron = "0 0 2 * * *")
+    // Hourly by default; this is the only place expired unconfirmed appointments are removed
+    @Scheduled(cron = "${app.cleanup.cron:0 0 * * * *}")
     public void removeExpiredUnconfirmedAppointments() {
-        List<Appointment> expired = appointmentRepository.findByStatusAndAppointmentDateTimeBefore(
-                Appointment.Status.PENDING, LocalDateTime.now());
-        if (!expired.isEmpty()) {
-            appointmentRepository.deleteAll(expired);
-            log.info("Deleted {} expired unconfirmed appointments", expired.size());
-        }
+        int removed = appointmentCleanupService.removeExpiredUnconfirmedAppointments();
+        log.debug("Scheduled cleanup finished, {} appointments removed", removed);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package com.appointment.security;
+
+import com.appointment.exception.AccessDeniedException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Ownership and role checks for service methods
+ *
+ * The caller is the one of the current GraphQL operation (see GraphQlCallerInstrumentation) or else the one
+ * TokenAuthenticationFilter put on the current request. A call without a token is only let through when
+ * app.auth.token.required is off. Outside both a request and a GraphQL operation everything is denied,
+ * except work explicitly run through {@link #internal(Supplier)}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessGuard {
+
+  private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+  private final TokenProperties properties;
+
+  /**
+   * Run a GraphQL data fetcher as the caller of its operation
+   * @param caller Caller from the GraphQL context, or null if unauthenticated
+   * @param action The data fetcher
+   * @return Its result
+   */
+  public <T> T callAs(AuthenticatedUser caller, Callable<T> action) throws Exception {
+    Scope previous = SCOPE.get();
+    SCOPE.set(new Scope(caller, false));
+    try {
+      return action.call();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  /**
+   * Run work of the application itself (reminders, waitlist promotion) without ownership checks
+   * @param action The work
+   * @return Its result
+   */
+  public <T> T internal(Supplier<T> action) {
+    Scope previous = SCOPE.get();
+    SCOPE.set(new Scope(null, true));
+    try {
+      return action.get();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  /**
+   * @return Caller of the current GraphQL operation or request, or null if there is none
+   */
+  public AuthenticatedUser caller() {
+    Scope scope = SCOPE.get();
+    if (scope != null) {
+      return scope.caller();
+    }
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    return attributes != null
+      ? (AuthenticatedUser) attributes.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+      : null;
+  }
+
+  /**
+   * @param userIds Users the resource belongs to (e.g. customer and provider of an appointment)
+   * @return true if the caller is one of them or an admin
+   */
+  public boolean mayAccess(Long... userIds) {
+    Scope scope = SCOPE.get();
+    if (scope != null && scope.internal()) {
+      return true;
+    }
+    if (scope == null && RequestContextHolder.getRequestAttributes() == null) {
+      // Nobody to check against: not a request, not a GraphQL operation, not declared internal
+      return false;
+    }
+    return allows(caller(), userIds);
+  }
+
+  /**
+   * Same check for a caller known from elsewhere (e.g. a GraphQL subscription's connection)
+   * @param caller Caller, or null if unauthenticated
+   * @param userIds Users the resource belongs to
+   * @return true if the caller is one of them or an admin
+   */
+  public boolean allows(AuthenticatedUser caller, Long... userIds) {
+    if (caller == null) {
+      return !properties.isRequired();
+    }
+    if (caller.isAdmin()) {
+      return true;
+    }
+    for (Long userId : userIds) {
+      if (caller.userId().equals(userId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param userIds Users the resource belongs to
+   * @throws AccessDeniedException unless the caller is one of them or an admin
+   */
+  public void requireAccess(Long... userIds) {
+    if (!mayAccess(userIds)) {
+      throw new AccessDeniedException("Not allowed to access another user's data");
+    }
+  }
+
+  /**
+   * @throws AccessDeniedException unless the caller is an admin
+   */
+  public void requireAdmin() {
+    if (!mayAccess()) {
+      throw new AccessDeniedException("Administrator role required");
+    }
+  }
+
+  private static void restore(Scope previous) {
+    if (previous != null) {
+      SCOPE.set(previous);
+    } else {
+      SCOPE.remove();
+    }
+  }
+
+  private record Scope(AuthenticatedUser caller, boolean internal) {
+  }
+}
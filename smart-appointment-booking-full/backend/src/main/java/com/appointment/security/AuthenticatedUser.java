@@ -0,0 +1,31 @@
+package com.appointment.security;
+
+import com.appointment.model.User;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Identity carried by a verified session token
+ * @param userId User ID
+ * @param role User role at the time of login
+ * @param expiresAt Expiry, epoch seconds
+ * @param tokenId Unique token id, used for revocation
+ */
+public record AuthenticatedUser(Long userId, User.Role role, long expiresAt, String tokenId) {
+
+  /**
+   * Request attribute set by TokenAuthenticationFilter
+   */
+  public static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+
+  /**
+   * @param request Current request
+   * @return The caller, or null if the request carried no token
+   */
+  public static AuthenticatedUser from(HttpServletRequest request) {
+    return (AuthenticatedUser) request.getAttribute(REQUEST_ATTRIBUTE);
+  }
+
+  public boolean isAdmin() {
+    return role == User.Role.ADMIN;
+  }
+}
@@ -0,0 +1,50 @@
+package com.appointment.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Password hashing settings
+ * Bound from app.security.password.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.security.password")
+public class PasswordProperties {
+
+  /**
+   * BCrypt log rounds; stored hashes with a different strength are upgraded on next login
+   */
+  private int bcryptStrength = 10;
+
+  /**
+   * Threads hashing and verifying passwords
+   */
+  private int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+  /**
+   * Hash/verify jobs waiting for a thread before new ones are rejected
+   */
+  private int queueCapacity = 64;
+
+  /**
+   * Threads running the work that follows a hash or verification (e.g. loading the user after login)
+   */
+  private int completionPoolSize = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+  /**
+   * How long registration and profile updates wait for a hash
+   */
+  private long timeoutMs = 5000;
+
+  /**
+   * How long a successful verification is remembered; 0 disables the cache
+   */
+  private long cacheTtlMs = 60_000;
+
+  private int cacheMaxEntries = 10_000;
+
+  /**
+   * Retry-After sent with 503 when the pool is saturated
+   */
+  private int retryAfterSeconds = 1;
+}
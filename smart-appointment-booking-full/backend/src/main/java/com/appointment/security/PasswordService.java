@@ -0,0 +1,258 @@
+package com.appointment.security;
+
+import com.appointment.exception.ServiceOverloadedException;
+import com.appointment.metrics.SqlStatementContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a dedicated bounded pool
+ *
+ * Request threads never run BCrypt themselves: hashing and verification return futures, and when the
+ * pool's queue is full callers get a ServiceOverloadedException (503) instead of piling up. Whatever
+ * follows a hash (database access, building the response) belongs on {@link #completionExecutor()},
+ * never on the hashing threads. Rows still holding a plaintext password are accepted once and reported
+ * for rehashing. Successful verifications are remembered for a short time under a salted digest, so
+ * repeated logins skip the hash. Logins for unknown emails are checked against a dummy hash, so they
+ * take as long as a wrong password.
+ */
+@Service
+@Slf4j
+public class PasswordService implements DisposableBean {
+
+  private static final String BCRYPT_PREFIX = "$2";
+
+  private final PasswordProperties properties;
+  private final BCryptPasswordEncoder encoder;
+  private final ThreadPoolExecutor executor;
+  private final ThreadPoolExecutor completionPool;
+  private final Executor completionExecutor;
+  private final byte[] cacheSalt = new byte[32];
+  private final Map<String, Long> verifiedCache = new ConcurrentHashMap<>();
+  private volatile String dummyHash;
+
+  public PasswordService(PasswordProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.encoder = new BCryptPasswordEncoder(properties.getBcryptStrength());
+    int poolSize = Math.max(1, properties.getPoolSize());
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+      runnable -> {
+        Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      },
+      new ThreadPoolExecutor.AbortPolicy());
+    // Unbounded queue: its callers are already bounded by the hashing pool and the request concurrency limit
+    int completionThreads = Math.max(1, properties.getCompletionPoolSize());
+    AtomicInteger completionThreadCount = new AtomicInteger();
+    this.completionPool = new ThreadPoolExecutor(completionThreads, completionThreads, 0, TimeUnit.MILLISECONDS,
+      new LinkedBlockingQueue<>(),
+      runnable -> {
+        Thread thread = new Thread(runnable, "password-completion-" + completionThreadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    this.completionExecutor = SqlStatementContext.propagating(completionPool);
+    new SecureRandom().nextBytes(cacheSalt);
+
+    Gauge.builder("password.hash.queue", executor, pool -> pool.getQueue().size())
+      .description("Password hash/verify jobs waiting for a thread")
+      .register(meterRegistry);
+    Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+      .description("Password hash/verify jobs running")
+      .register(meterRegistry);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+    completionPool.shutdownNow();
+  }
+
+  /**
+   * Hash a new password on the pool
+   * @param rawPassword Password as entered by the user
+   * @return Future with the BCrypt hash to store; fails with ServiceOverloadedException if hashing
+   *   takes longer than the configured timeout
+   * @throws ServiceOverloadedException if the pool is saturated
+   */
+  public CompletableFuture<String> hashAsync(String rawPassword) {
+    return submit(() -> encoder.encode(rawPassword))
+      .orTimeout(properties.getTimeoutMs(), TimeUnit.MILLISECONDS)
+      .exceptionally(ex -> {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof TimeoutException) {
+          throw overloaded();
+        }
+        throw new CompletionException(cause);
+      });
+  }
+
+  /**
+   * Executor for the work that follows a hash or verification
+   * Keeps it off the hashing threads; SQL it runs is still counted against the request
+   */
+  public Executor completionExecutor() {
+    return completionExecutor;
+  }
+
+  /**
+   * Check a login attempt against the stored password
+   * @param email Login email, part of the cache key
+   * @param rawPassword Password as entered by the user
+   * @param storedPassword BCrypt hash, plaintext for rows created before hashing was introduced, or null
+   *   if no user has this email
+   * @return Future with the outcome; completed immediately on a cache hit
+   * @throws ServiceOverloadedException if the pool is saturated
+   */
+  public CompletableFuture<Verification> verify(String email, String rawPassword, String storedPassword) {
+    if (storedPassword == null) {
+      // Same BCrypt work as a wrong password, so response times do not reveal which emails exist
+      return submit(() -> {
+        encoder.matches(rawPassword, dummyHash());
+        return Verification.mismatch();
+      });
+    }
+    String cacheKey = cacheKey(email, rawPassword, storedPassword);
+    Long expiry = verifiedCache.get(cacheKey);
+    if (expiry != null && expiry - System.nanoTime() > 0) {
+      return CompletableFuture.completedFuture(Verification.match());
+    }
+
+    return submit(() -> {
+      Verification verification = check(rawPassword, storedPassword);
+      if (verification.matches()) {
+        remember(cacheKey);
+      }
+      return verification;
+    });
+  }
+
+  /**
+   * @param storedPassword Value of the password column
+   * @return true if the value is not a BCrypt hash
+   */
+  public static boolean isLegacyPlaintext(String storedPassword) {
+    return storedPassword != null && !storedPassword.startsWith(BCRYPT_PREFIX);
+  }
+
+  private Verification check(String rawPassword, String storedPassword) {
+    if (isLegacyPlaintext(storedPassword)) {
+      boolean matches = MessageDigest.isEqual(
+        rawPassword.getBytes(StandardCharsets.UTF_8), storedPassword.getBytes(StandardCharsets.UTF_8));
+      return matches ? Verification.rehash(encoder.encode(rawPassword)) : Verification.mismatch();
+    }
+    if (!encoder.matches(rawPassword, storedPassword)) {
+      return Verification.mismatch();
+    }
+    return encoder.upgradeEncoding(storedPassword)
+      ? Verification.rehash(encoder.encode(rawPassword))
+      : Verification.match();
+  }
+
+  private String dummyHash() {
+    String hash = dummyHash;
+    if (hash == null) {
+      byte[] random = new byte[16];
+      new SecureRandom().nextBytes(random);
+      hash = encoder.encode(HexFormat.of().formatHex(random));
+      dummyHash = hash;
+    }
+    return hash;
+  }
+
+  private <T> CompletableFuture<T> submit(Supplier<T> task) {
+    try {
+      return CompletableFuture.supplyAsync(task, executor);
+    } catch (RejectedExecutionException ex) {
+      log.warn("Password hashing pool saturated ({} queued), rejecting request", executor.getQueue().size());
+      throw overloaded();
+    }
+  }
+
+  private ServiceOverloadedException overloaded() {
+    return new ServiceOverloadedException("Too many login attempts in progress, please retry shortly",
+      properties.getRetryAfterSeconds());
+  }
+
+  private void remember(String cacheKey) {
+    if (properties.getCacheTtlMs() <= 0) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (verifiedCache.size() >= properties.getCacheMaxEntries()) {
+      verifiedCache.values().removeIf(expiry -> expiry - now <= 0);
+      if (verifiedCache.size() >= properties.getCacheMaxEntries()) {
+        verifiedCache.clear();
+      }
+    }
+    verifiedCache.put(cacheKey, now + TimeUnit.MILLISECONDS.toNanos(properties.getCacheTtlMs()));
+  }
+
+  /**
+   * SHA-256 over a per-process random salt, the email, the password and the stored hash;
+   * a password change alters the stored hash and therefore misses the cache
+   */
+  private String cacheKey(String email, String rawPassword, String storedPassword) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(cacheSalt);
+      for (String part : new String[] {email, rawPassword, storedPassword}) {
+        digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+
+  /**
+   * Outcome of a password check
+   * @param matches Whether the password is correct
+   * @param newHash Replacement hash to store (legacy plaintext or outdated strength), otherwise null
+   */
+  public record Verification(boolean matches, String newHash) {
+
+    static Verification match() {
+      return new Verification(true, null);
+    }
+
+    static Verification mismatch() {
+      return new Verification(false, null);
+    }
+
+    static Verification rehash(String newHash) {
+      return new Verification(true, newHash);
+    }
+
+    public boolean needsRehash() {
+      return newHash != null;
+    }
+  }
+}
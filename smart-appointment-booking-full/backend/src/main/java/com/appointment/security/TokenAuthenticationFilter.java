@@ -0,0 +1,82 @@
+package com.appointment.security;
+
+import com.appointment.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Verifies the Bearer token of API and GraphQL requests and exposes the caller as a request attribute
+ * (see AuthenticatedUser.from). No database access; an invalid token is answered with 401. Ownership is
+ * checked by the services (see AccessGuard).
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+  private static final String BEARER = "Bearer ";
+
+  private final TokenService tokenService;
+  private final TokenProperties properties;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String uri = request.getRequestURI();
+    return !(uri.startsWith("/api/") || uri.equals("/graphql")) || HttpMethod.OPTIONS.matches(request.getMethod());
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+    throws ServletException, IOException {
+    String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (header != null && header.startsWith(BEARER)) {
+      AuthenticatedUser user = tokenService.verify(header.substring(BEARER.length()).trim()).orElse(null);
+      if (user == null) {
+        reject(response, "Session expired or invalid, please log in again");
+        return;
+      }
+      request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, user);
+    } else if (properties.isRequired() && requiresToken(request)) {
+      reject(response, "Authentication required");
+      return;
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  /**
+   * Every API needs a token except login/logout and registration (POST /api/v1/users);
+   * GraphQL is left to the services, since registration is also a mutation
+   */
+  private static boolean requiresToken(HttpServletRequest request) {
+    String uri = request.getRequestURI();
+    if (uri.startsWith("/api/v1/auth/") || uri.equals("/graphql")) {
+      return false;
+    }
+    return !(uri.equals("/api/v1/users") && HttpMethod.POST.matches(request.getMethod()));
+  }
+
+  private void reject(HttpServletResponse response, String message) throws IOException {
+    ApiResponse<Object> body = new ApiResponse<>();
+    body.setSuccess(false);
+    body.setMessage(message);
+    body.setTimestamp(LocalDateTime.now());
+    body.setStatusCode(HttpStatus.UNAUTHORIZED.value());
+    response.setStatus(HttpStatus.UNAUTHORIZED.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), body);
+  }
+}
@@ -0,0 +1,30 @@
+package com.appointment.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Session token settings
+ * Bound from app.auth.token.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.auth.token")
+public class TokenProperties {
+
+  /**
+   * HMAC key (at least 32 characters); when blank a random key is generated and tokens do not survive a restart
+   */
+  private String secret;
+
+  private long ttlSeconds = 8 * 60 * 60;
+
+  /**
+   * Reject /api/** requests that carry no token, except login and registration; only turn off for local testing
+   */
+  private boolean required = true;
+
+  /**
+   * Revoked tokens remembered until they expire
+   */
+  private int revocationMaxEntries = 100_000;
+}
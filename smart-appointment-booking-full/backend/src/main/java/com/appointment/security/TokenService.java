@@ -0,0 +1,144 @@
+package com.appointment.security;
+
+import com.appointment.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Issues and verifies stateless session tokens
+ *
+ * Format: base64url(userId:role:expiresAt:tokenId) "." base64url(HMAC-SHA256 of the first part).
+ * Verification is a single HMAC over a few dozen bytes and never touches the database; logged-out tokens
+ * are kept in a small in-memory revocation map until they would have expired anyway.
+ */
+@Service
+@Slf4j
+public class TokenService {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final TokenProperties properties;
+  private final SecretKeySpec key;
+  private final ThreadLocal<Mac> mac;
+  private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+  public TokenService(TokenProperties properties) {
+    this.properties = properties;
+    byte[] secret;
+    if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+      log.warn("app.auth.token.secret is not set; using a random key, sessions will not survive a restart");
+      secret = new byte[32];
+      new SecureRandom().nextBytes(secret);
+    } else {
+      secret = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+      if (secret.length < 32) {
+        throw new IllegalStateException("app.auth.token.secret must be at least 32 characters");
+      }
+    }
+    this.key = new SecretKeySpec(secret, ALGORITHM);
+    this.mac = ThreadLocal.withInitial(this::newMac);
+  }
+
+  /**
+   * Issue a token for a user who just logged in
+   * @param userId User ID
+   * @param role User role
+   * @return Signed token
+   */
+  public String issue(Long userId, User.Role role) {
+    long expiresAt = Instant.now().getEpochSecond() + properties.getTtlSeconds();
+    String tokenId = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+    String payload = ENCODER.encodeToString(
+      (userId + ":" + role.name() + ":" + expiresAt + ":" + tokenId).getBytes(StandardCharsets.UTF_8));
+    return payload + "." + ENCODER.encodeToString(sign(payload));
+  }
+
+  /**
+   * Verify a token
+   * @param token Token from the Authorization header
+   * @return The caller, or empty if the token is malformed, forged, expired or revoked
+   */
+  public Optional<AuthenticatedUser> verify(String token) {
+    int dot = token.indexOf('.');
+    if (dot <= 0 || dot == token.length() - 1) {
+      return Optional.empty();
+    }
+    String payload = token.substring(0, dot);
+    try {
+      if (!MessageDigest.isEqual(sign(payload), DECODER.decode(token.substring(dot + 1)))) {
+        return Optional.empty();
+      }
+      String[] parts = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split(":");
+      if (parts.length != 4) {
+        return Optional.empty();
+      }
+      AuthenticatedUser user = new AuthenticatedUser(
+        Long.valueOf(parts[0]), User.Role.valueOf(parts[1]), Long.parseLong(parts[2]), parts[3]);
+      if (user.expiresAt() <= Instant.now().getEpochSecond() || revoked.containsKey(user.tokenId())) {
+        return Optional.empty();
+      }
+      return Optional.of(user);
+    } catch (IllegalArgumentException ex) {
+      // Bad base64, number or role
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Revoke a token until its natural expiry
+   * The list never grows past revocationMaxEntries: when it is full of live entries, the one that expires
+   * soonest is dropped (that token becomes usable again for the rest of its short lifetime)
+   * @param user Verified token owner
+   */
+  public synchronized void revoke(AuthenticatedUser user) {
+    if (!revoked.containsKey(user.tokenId()) && revoked.size() >= properties.getRevocationMaxEntries()) {
+      long now = Instant.now().getEpochSecond();
+      revoked.values().removeIf(expiresAt -> expiresAt <= now);
+      if (revoked.size() >= properties.getRevocationMaxEntries()) {
+        Map.Entry<String, Long> soonest = revoked.entrySet().stream()
+          .min(Map.Entry.comparingByValue())
+          .orElse(null);
+        if (soonest != null && soonest.getValue() > user.expiresAt()) {
+          log.warn("Token revocation list is full ({} entries), not recording a token that expires sooner",
+            revoked.size());
+          return;
+        }
+        log.warn("Token revocation list is full ({} entries), dropping the entry that expires soonest",
+          revoked.size());
+        if (soonest != null) {
+          revoked.remove(soonest.getKey());
+        }
+      }
+    }
+    revoked.put(user.tokenId(), user.expiresAt());
+  }
+
+  private byte[] sign(String payload) {
+    return mac.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private Mac newMac() {
+    try {
+      Mac instance = Mac.getInstance(ALGORITHM);
+      instance.init(key);
+      return instance;
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("HMAC-SHA256 not available", ex);
+    }
+  }
+}
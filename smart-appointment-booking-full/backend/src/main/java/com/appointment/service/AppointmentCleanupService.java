@@ -1,7 +1,9 @@
 package com.appointment.service;
 
+import com.appointment.metrics.AppointmentMetrics;
 import com.appointment.model.Appointment;
 import com.appointment.repository.AppointmentRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,8 +14,10 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "appointment.service", histogram = true)
 public class AppointmentCleanupService {
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentMetrics appointmentMetrics;
 
     public int removeExpiredUnconfirmedAppointments() {
         List<Appointment> expired = appointmentRepository.findByStatusAndAppointmentDateTimeBefore(
@@ -21,8 +25,9 @@ public class AppointmentCleanupService {
         int count = expired.size();
         if (count > 0) {
             appointmentRepository.deleteAll(expired);
+            expired.forEach(appointmentMetrics::cleanupDeleted);
             log.info("Deleted {} expired unconfirmed appointments", count);
         }
         return count;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.appointment.service;
+
+import com.appointment.dto.AppointmentResponse;
+import com.appointment.dto.AppointmentSeriesRequest;
+import com.appointment.dto.AppointmentSeriesResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for recurring appointment series
+ */
+public interface AppointmentSeriesService {
+
+  /**
+   * Book a series; every occurrence is checked for conflicts before anything is stored
+   * @param request Recurrence rule and parties
+   * @return The created series
+   */
+  AppointmentSeriesResponse createSeries(AppointmentSeriesRequest request);
+
+  AppointmentSeriesResponse getSeriesById(Long id);
+
+  List<AppointmentSeriesResponse> getSeriesByCustomer(Long customerId);
+
+  /**
+   * Cancel all remaining occurrences of a series
+   * Occurrences that have already started stay in the customer's and provider's history
+   * @param id Series ID
+   */
+  void cancelSeries(Long id);
+
+  /**
+   * Occurrences of one series in [from, to]
+   * @param id Series ID
+   * @param from Window start
+   * @param to Window end
+   * @return Occurrences as appointments without an ID, carrying the series ID
+   */
+  List<AppointmentResponse> getOccurrences(Long id, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Occurrences of all active series in [from, to]
+   * @param from Window start
+   * @param to Window end
+   * @return Occurrences as appointments without an ID, carrying the series ID
+   */
+  List<AppointmentResponse> getOccurrencesBetween(LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Every occurrence of a customer's series, cancelled ones included
+   * @param customerId Customer ID
+   * @return Occurrences as appointments without an ID, carrying the series ID
+   */
+  List<AppointmentResponse> getOccurrencesByCustomer(Long customerId);
+
+  /**
+   * Every occurrence of a provider's series, cancelled ones included
+   * @param providerId Provider ID
+   * @return Occurrences as appointments without an ID, carrying the series ID
+   */
+  List<AppointmentResponse> getOccurrencesByProvider(Long providerId);
+
+  /**
+   * Occurrences of a customer's active series starting after a time
+   * @param customerId Customer ID
+   * @param now Occurrences must start after this
+   * @return Occurrences as appointments without an ID, carrying the series ID
+   */
+  List<AppointmentResponse> getUpcomingOccurrencesByCustomer(Long customerId, LocalDateTime now);
+}
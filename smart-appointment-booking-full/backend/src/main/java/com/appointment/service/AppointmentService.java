@@ -1,40 +1,84 @@
 package com.appointment.service;
 
+import com.appointment.dto.AppointmentFilter;
 import com.appointment.dto.AppointmentRequest;
 import com.appointment.dto.AppointmentResponse;
+import com.appointment.dto.BulkStatusUpdateResponse;
+import com.appointment.dto.CursorPage;
 import com.appointment.model.Appointment;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Appointment operations
  */
 public interface AppointmentService {
 
+  /**
+   * Stored appointments only, like the other admin lists (status, search, pages); occurrences of recurring
+   * series are listed per customer, provider and date range, or per series
+   */
   List<AppointmentResponse> getAllAppointments();
 
+  /**
+   * Push every appointment to the action, in getAllAppointments order, without collecting them
+   * @param action Called once per appointment inside a read-only transaction
+   */
+  void streamAllAppointments(Consumer<? super AppointmentResponse> action);
+
   AppointmentResponse getAppointmentById(Long id);
 
+  /**
+   * Keyset-paginated appointments, newest first
+   * @param filter Criteria, may be null
+   * @param first Page size (clamped to 1..100)
+   * @param after Cursor of the last item of the previous page, or null for the first page
+   * @return Page with cursors; the total count is computed only on demand
+   */
+  CursorPage<AppointmentResponse> getAppointmentsPage(AppointmentFilter filter, int first, String after);
+
   AppointmentResponse createAppointment(AppointmentRequest request);
 
   AppointmentResponse updateAppointment(Long id, AppointmentRequest request);
 
   void deleteAppointment(Long id);
 
+  /**
+   * @return The customer's appointments and series occurrences, by start time; occurrences have no ID but a
+   *   seriesId, and are changed through their series
+   */
   List<AppointmentResponse> getAppointmentsByCustomer(Long customerId);
 
+  /**
+   * @return The provider's appointments and series occurrences, as for getAppointmentsByCustomer
+   */
   List<AppointmentResponse> getAppointmentsByProvider(Long providerId);
 
+  /**
+   * @return The customer's future appointments and series occurrences, as for getAppointmentsByCustomer
+   */
   List<AppointmentResponse> getUpcomingAppointmentsByCustomer(Long customerId);
 
   List<AppointmentResponse> getAppointmentsByStatus(Appointment.Status status);
 
   AppointmentResponse updateAppointmentStatus(Long id, Appointment.Status status);
 
+  /**
+   * Move many appointments to the same status, validating each against the transition graph
+   * @param ids Appointment IDs (duplicates are ignored)
+   * @param status New status
+   * @return Per-ID outcomes in request order
+   */
+  BulkStatusUpdateResponse updateAppointmentStatuses(List<Long> ids, Appointment.Status status);
+
   List<AppointmentResponse> searchAppointments(String keyword);
 
+  /**
+   * @return Appointments and series occurrences in the range, as for getAppointmentsByCustomer
+   */
   List<AppointmentResponse> getAppointmentsByDateRange(LocalDateTime start, LocalDateTime end);
 
   Map<String, Object> getAppointmentStatistics();
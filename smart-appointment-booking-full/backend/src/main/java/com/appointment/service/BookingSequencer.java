@@ -0,0 +1,678 @@
+package com.appointment.service;
+
+import com.appointment.availability.ProviderCalendar;
+import com.appointment.availability.ProviderCalendarLoader;
+import com.appointment.event.AppointmentChangedEvent;
+import com.appointment.exception.AppointmentException;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.exception.ServiceOverloadedException;
+import com.appointment.metrics.AppointmentMetrics;
+import com.appointment.model.Appointment;
+import com.appointment.model.AppointmentSeries;
+import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.AppointmentSeriesRepository;
+import com.appointment.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Serializes bookings per service provider
+ *
+ * Providers are hashed onto a fixed number of shards. Each shard owns a bounded queue and a single
+ * consumer thread, so all bookings for one provider are decided one after another against an in-memory
+ * copy of that provider's calendar, while different providers proceed in parallel. Accepted bookings are
+ * committed in small batches. Callers asking for a slot that is already known to be taken are rejected
+ * before they are queued.
+ *
+ * The shard threads start with the application context (SmartLifecycle), not when the bean is
+ * created; until then, and after shutdown, bookings are verified and saved directly.
+ *
+ * The calendar (see ProviderCalendar) applies the provider's working hours, breaks, service durations
+ * and capacity. Cached calendars only see this instance's writes and are reloaded after calendar-ttl;
+ * code paths that change a provider's appointments or schedule should call
+ * {@link #invalidateAfterCommit(Long)} so this instance reloads at once.
+ *
+ * Other instances may book the same provider against their own cached calendars, so the cache alone
+ * never decides: the transaction that inserts a batch first locks each provider's users row, reloads the
+ * days of the provider's calendar that the batch touches from the database and re-checks the batch against
+ * them (verify-in-database); those days then replace their cached counts.
+ * Instances therefore insert one after another per provider and always against the committed state.
+ *
+ * An AppointmentChangedEvent (CREATED) is published inside the transaction that inserts each booking,
+ * so transactional listeners such as the outbox commit together with it. Callers can add their own writes
+ * to that transaction with {@link #book(Appointment, Consumer)}.
+ *
+ * Recurring series go through the same shards: all occurrences of a new series are checked against the
+ * provider's calendar in one pass and reserved together. A provider's calendar holds its single bookings
+ * and the occurrences of its active series, so later single bookings see both.
+ *
+ * Reschedules (a new start time or service type) go through the same shards: the appointment's current
+ * slot is released from the calendar and the new one is checked like a new booking, then the row is
+ * updated under the same provider lock.
+ */
+@Component
+@Slf4j
+public class BookingSequencer implements SmartLifecycle {
+
+  private final AppointmentRepository appointmentRepository;
+  private final AppointmentSeriesRepository seriesRepository;
+  private final UserRepository userRepository;
+  private final ProviderCalendarLoader calendarLoader;
+  private final TransactionTemplate transactionTemplate;
+  private final AppointmentMetrics appointmentMetrics;
+  private final BookingSequencerProperties properties;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private volatile Shard[] shards = new Shard[0];
+
+  public BookingSequencer(AppointmentRepository appointmentRepository,
+                          AppointmentSeriesRepository seriesRepository,
+                          UserRepository userRepository,
+                          ProviderCalendarLoader calendarLoader,
+                          PlatformTransactionManager transactionManager,
+                          AppointmentMetrics appointmentMetrics,
+                          BookingSequencerProperties properties,
+                          ApplicationEventPublisher eventPublisher) {
+    this.appointmentRepository = appointmentRepository;
+    this.seriesRepository = seriesRepository;
+    this.userRepository = userRepository;
+    this.calendarLoader = calendarLoader;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.appointmentMetrics = appointmentMetrics;
+    this.properties = properties;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public void start() {
+    if (shards.length > 0) {
+      return;
+    }
+    if (!properties.isEnabled()) {
+      log.info("Booking sequencer disabled, bookings are saved directly");
+      return;
+    }
+    int count = Math.max(1, properties.getShards());
+    Shard[] started = new Shard[count];
+    for (int i = 0; i < count; i++) {
+      started[i] = new Shard(i);
+      started[i].start();
+    }
+    shards = started;
+    log.info("Booking sequencer started with {} shards", count);
+  }
+
+  @Override
+  public void stop() {
+    Shard[] stopping = shards;
+    shards = new Shard[0];
+    for (Shard shard : stopping) {
+      shard.stop();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return shards.length > 0;
+  }
+
+  /**
+   * Book an appointment, serialized with all other bookings of the same provider
+   * @param appointment New, unsaved appointment with customer and provider set
+   * @return The saved appointment
+   * @throws AppointmentException if the provider is not working or fully booked at that time
+   * @throws ServiceOverloadedException if the provider's queue is full, or the booking did not finish in
+   *   time and its outcome is not known yet
+   */
+  public Appointment book(Appointment appointment) {
+    return book(appointment, saved -> { });
+  }
+
+  /**
+   * Book an appointment and run more writes in the transaction that inserts it
+   * @param appointment New, unsaved appointment with customer and provider set
+   * @param inTransaction Called with the saved appointment before commit; throwing rolls the booking back
+   *   and fails it with that exception
+   * @return The saved appointment
+   * @throws AppointmentException if the provider is not working or fully booked at that time
+   * @throws ServiceOverloadedException if the provider's queue is full, or the booking did not finish in
+   *   time and its outcome is not known yet; the booking and the writes commit together or not at all
+   */
+  public Appointment book(Appointment appointment, Consumer<Appointment> inTransaction) {
+    return (Appointment) submit(new BookingTask(appointment, inTransaction));
+  }
+
+  /**
+   * Book every occurrence of a recurring series at once, serialized with the provider's other bookings
+   * @param series New, unsaved series with its rule, customer and provider set
+   * @return The saved series
+   * @throws AppointmentException if the provider is not working or fully booked at any occurrence
+   * @throws ServiceOverloadedException if the provider's queue is full, or the booking did not finish in
+   *   time and its outcome is not known yet
+   */
+  public AppointmentSeries bookSeries(AppointmentSeries series) {
+    return (AppointmentSeries) submit(new BookingTask(series));
+  }
+
+  /**
+   * Save changes to an existing appointment; a new start time or service type is checked against the
+   * provider's calendar like a new booking and serialized with the provider's other bookings
+   * @param changed Appointment as read, with the new start time, service type and notes set
+   * @param previousStart Start time it was read with
+   * @param previousType Service type it was read with
+   * @return The saved appointment
+   * @throws AppointmentException if the provider is not working or fully booked at the new time
+   * @throws ServiceOverloadedException if the provider's queue is full, or the change did not finish in
+   *   time and its outcome is not known yet
+   */
+  public Appointment update(Appointment changed, LocalDateTime previousStart, Appointment.ServiceType previousType) {
+    boolean moved = !changed.getAppointmentDateTime().equals(previousStart) || changed.getServiceType() != previousType;
+    if (!moved || changed.getStatus() == Appointment.Status.CANCELLED) {
+      // Takes no (new) capacity, nothing to check
+      return transactionTemplate.execute(status -> apply(lockAppointment(changed.getId()), changed));
+    }
+    return (Appointment) submit(new BookingTask(changed, previousStart, previousType));
+  }
+
+  /**
+   * Start times at which a service can still be booked with a provider
+   * Read from the cached calendar, so the answer may be stale; booking re-checks it
+   * @param providerId Provider ID
+   * @param date Day to list
+   * @param serviceType Decides the duration
+   * @return Slot-aligned start times in ascending order
+   */
+  public List<LocalDateTime> availableStarts(Long providerId, LocalDate date, Appointment.ServiceType serviceType) {
+    Shard shard = shardFor(providerId);
+    ProviderCalendar calendar = shard != null ? shard.cached(providerId) : null;
+    if (calendar == null) {
+      // Only the shard thread caches calendars, so a load here can never hide one of its reservations
+      calendar = calendarLoader.load(providerId);
+    }
+    return calendar.availableStarts(date, serviceType);
+  }
+
+  private Object submit(BookingTask task) {
+    Shard shard = shardFor(task.providerId());
+    if (shard == null) {
+      return bookDirectly(task);
+    }
+
+    // Fast rejection: a slot is already known not to fit, no need to queue or touch the database
+    // (not for reschedules: the cached calendar still counts the appointment at its old time)
+    ProviderCalendar calendar = task.isReschedule() ? null : shard.cached(task.providerId());
+    AppointmentException rejection = calendar != null ? rejection(calendar, task) : null;
+    if (rejection != null) {
+      throw rejection;
+    }
+
+    if (!shard.queue.offer(task)) {
+      throw overloaded("Too many bookings in progress for this service provider, please retry shortly");
+    }
+
+    try {
+      return task.result.get(properties.getTimeoutMs(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Booking failed", ex.getCause());
+    } catch (TimeoutException ex) {
+      // Still queued or committing: the booking may yet succeed, so do not report it as failed
+      throw overloaded("Booking is still being processed and its outcome is not known yet; "
+        + "please check your appointments before retrying");
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw overloaded("Booking was interrupted before its outcome was known; "
+        + "please check your appointments before retrying");
+    }
+  }
+
+  private ServiceOverloadedException overloaded(String message) {
+    return new ServiceOverloadedException(message, properties.getRetryAfterSeconds());
+  }
+
+  /**
+   * Drop the cached calendar of a provider once the current transaction commits
+   * (or immediately when there is no transaction)
+   * @param providerId Provider whose appointments or schedule changed
+   */
+  public void invalidateAfterCommit(Long providerId) {
+    if (providerId == null || !isRunning()) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          invalidate(providerId);
+        }
+      });
+    } else {
+      invalidate(providerId);
+    }
+  }
+
+  private void invalidate(Long providerId) {
+    Shard shard = shardFor(providerId);
+    if (shard != null) {
+      shard.calendars.remove(providerId);
+    }
+  }
+
+  /**
+   * Re-check tasks against the committed state, serialized with every other instance
+   * Runs inside the inserting transaction: locks each provider's users row (in id order, so two instances
+   * never wait on each other) and reloads the days its tasks touch, so bookings committed elsewhere are seen.
+   * Only those days are read: the lock is held until commit, and the whole future of a busy provider is large.
+   * @param tasks Tasks in decision order
+   * @param fresh Receives the reloaded days, with the fitting tasks reserved
+   * @param rejected Receives the tasks that do not fit and why
+   * @return Tasks that fit, in decision order
+   */
+  private List<BookingTask> verify(List<BookingTask> tasks, Map<Long, VerifiedDays> fresh,
+                                   Map<BookingTask, AppointmentException> rejected) {
+    tasks.stream().map(BookingTask::providerId).distinct().sorted().forEach(providerId -> {
+      if (properties.isVerifyInDatabase()) {
+        userRepository.lockById(providerId);
+      }
+      List<LocalDate> days = tasks.stream()
+        .filter(task -> task.providerId().equals(providerId))
+        .flatMap(task -> task.slots.stream())
+        .map(LocalDateTime::toLocalDate)
+        .sorted()
+        .toList();
+      LocalDate firstDay = days.get(0);
+      LocalDate lastDay = days.get(days.size() - 1);
+      fresh.put(providerId, new VerifiedDays(calendarLoader.load(providerId, firstDay, lastDay), firstDay, lastDay));
+    });
+    List<BookingTask> fitting = new ArrayList<>(tasks.size());
+    for (BookingTask task : tasks) {
+      ProviderCalendar calendar = fresh.get(task.providerId()).calendar();
+      AppointmentException rejection = rejection(calendar, task);
+      if (rejection != null) {
+        rejected.put(task, rejection);
+      } else {
+        task.slots.forEach(slot -> calendar.reserve(slot, task.serviceType()));
+        fitting.add(task);
+      }
+    }
+    return fitting;
+  }
+
+  /**
+   * Check one task against the database and save it; must run inside a transaction
+   * @throws AppointmentException if it does not fit
+   */
+  private Object verifyAndSave(BookingTask task) {
+    if (task.isReschedule()) {
+      return move(task);
+    }
+    Map<BookingTask, AppointmentException> rejected = new HashMap<>();
+    verify(List.of(task), new HashMap<>(), rejected);
+    if (!rejected.isEmpty()) {
+      throw rejected.get(task);
+    }
+    return save(task);
+  }
+
+  /**
+   * @return The provider's shard, or null while the sequencer is not running
+   */
+  private Shard shardFor(Long providerId) {
+    Shard[] current = shards;
+    return current.length > 0 ? current[Math.floorMod(providerId.hashCode(), current.length)] : null;
+  }
+
+  private Object bookDirectly(BookingTask task) {
+    return transactionTemplate.execute(status -> verifyAndSave(task));
+  }
+
+  private Object save(BookingTask task) {
+    if (task.isReschedule()) {
+      return move(task);
+    }
+    return task.series != null
+      ? seriesRepository.save(task.series)
+      : saved(task, appointmentRepository.save(task.appointment));
+  }
+
+  /**
+   * Reschedule an appointment; must run inside a transaction
+   * With verify-in-database the provider is locked and the new slot is checked against the committed
+   * calendar without the appointment's current slot
+   * @throws AppointmentException if it does not fit
+   */
+  private Appointment move(BookingTask task) {
+    if (properties.isVerifyInDatabase()) {
+      userRepository.lockById(task.providerId());
+    }
+    Appointment current = lockAppointment(task.appointment.getId());
+    if (properties.isVerifyInDatabase()) {
+      LocalDate day = task.appointment.getAppointmentDateTime().toLocalDate();
+      ProviderCalendar calendar = calendarLoader.load(task.providerId(), day, day);
+      if (current.getStatus() != Appointment.Status.CANCELLED) {
+        calendar.release(current.getAppointmentDateTime(), current.getServiceType());
+      }
+      AppointmentException rejection = rejection(calendar, task);
+      if (rejection != null) {
+        throw rejection;
+      }
+    }
+    return apply(current, task.appointment);
+  }
+
+  private Appointment lockAppointment(Long id) {
+    return appointmentRepository.lockById(id)
+      .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
+  }
+
+  /**
+   * Copy the editable fields onto the locked row, leaving its status alone
+   */
+  private Appointment apply(Appointment current, Appointment changed) {
+    if (!current.getAppointmentDateTime().equals(changed.getAppointmentDateTime())) {
+      // Reminders sent for the old start time do not count for the new one
+      current.setLastReminderDueAt(null);
+    }
+    current.setServiceType(changed.getServiceType());
+    current.setAppointmentDateTime(changed.getAppointmentDateTime());
+    current.setNotes(changed.getNotes());
+    Appointment saved = appointmentRepository.save(current);
+    eventPublisher.publishEvent(AppointmentChangedEvent.of(
+      AppointmentChangedEvent.Change.UPDATED, saved, saved.getStatus(), saved.getStatus()));
+    return saved;
+  }
+
+  private Appointment saved(BookingTask task, Appointment saved) {
+    eventPublisher.publishEvent(AppointmentChangedEvent.of(
+      AppointmentChangedEvent.Change.CREATED, saved, null, saved.getStatus()));
+    task.inTransaction.accept(saved);
+    return saved;
+  }
+
+  /**
+   * @return Why the first slot of the task that does not fit is rejected, or null if all fit
+   */
+  private AppointmentException rejection(ProviderCalendar calendar, BookingTask task) {
+    Appointment.ServiceType serviceType = task.serviceType();
+    for (LocalDateTime slot : task.slots) {
+      ProviderCalendar.Fit fit = calendar.check(slot, serviceType);
+      if (fit == ProviderCalendar.Fit.CLOSED) {
+        appointmentMetrics.validationRejected("outside_working_hours", serviceType);
+        return new AppointmentException(task.series == null
+          ? "Service provider is not available at this time"
+          : "Service provider is not available on " + slot + ", which is part of this series");
+      }
+      if (fit == ProviderCalendar.Fit.FULL) {
+        appointmentMetrics.bookingConflict(serviceType, task.status());
+        return new AppointmentException(task.series == null
+          ? "Service provider already has an appointment at this time"
+          : "Service provider already has an appointment near " + slot + ", which is part of this series");
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A single appointment or a whole series, with the slots it needs
+   */
+  private static final class BookingTask {
+    private final Appointment appointment;
+    private final AppointmentSeries series;
+    private final List<LocalDateTime> slots;
+    // Set when an existing appointment is moved: the slot it holds in the cached calendar
+    private final LocalDateTime previousStart;
+    private final Appointment.ServiceType previousType;
+    private final Consumer<Appointment> inTransaction;
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    private BookingTask(Appointment appointment, Consumer<Appointment> inTransaction) {
+      this(appointment, null, null, inTransaction);
+    }
+
+    private BookingTask(Appointment appointment, LocalDateTime previousStart, Appointment.ServiceType previousType) {
+      this(appointment, previousStart, previousType, saved -> { });
+    }
+
+    private BookingTask(Appointment appointment, LocalDateTime previousStart, Appointment.ServiceType previousType,
+                        Consumer<Appointment> inTransaction) {
+      this.appointment = appointment;
+      this.series = null;
+      this.slots = List.of(appointment.getAppointmentDateTime());
+      this.previousStart = previousStart;
+      this.previousType = previousType;
+      this.inTransaction = inTransaction;
+    }
+
+    private BookingTask(AppointmentSeries series) {
+      this.appointment = null;
+      this.series = series;
+      this.slots = series.occurrencesBetween(series.getFirstOccurrence(), series.getLastOccurrence().plusNanos(1));
+      this.previousStart = null;
+      this.previousType = null;
+      this.inTransaction = saved -> { };
+    }
+
+    private boolean isReschedule() {
+      return previousStart != null;
+    }
+
+    private Long providerId() {
+      return series != null ? series.getServiceProvider().getId() : appointment.getServiceProvider().getId();
+    }
+
+    private Appointment.ServiceType serviceType() {
+      return series != null ? series.getServiceType() : appointment.getServiceType();
+    }
+
+    private Appointment.Status status() {
+      // Occurrences of a series are pending like single bookings
+      return series != null ? Appointment.Status.PENDING : appointment.getStatus();
+    }
+  }
+
+  /**
+   * Calendar reloaded under the provider lock, complete from firstDay through lastDay
+   */
+  private record VerifiedDays(ProviderCalendar calendar, LocalDate firstDay, LocalDate lastDay) {
+  }
+
+  private record CachedCalendar(ProviderCalendar calendar, long expiresAt) {
+  }
+
+  /**
+   * One queue, one consumer thread and the calendars of the providers hashed to it
+   */
+  private final class Shard implements Runnable {
+    private final int index;
+    private final BlockingQueue<BookingTask> queue;
+    private final Map<Long, CachedCalendar> calendars = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+    private Thread thread;
+
+    private Shard(int index) {
+      this.index = index;
+      this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    }
+
+    private void start() {
+      thread = new Thread(this, "booking-shard-" + index);
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    private void stop() {
+      running = false;
+      if (thread != null) {
+        thread.interrupt();
+      }
+      List<BookingTask> pending = new ArrayList<>();
+      queue.drainTo(pending);
+      pending.forEach(task -> task.result.completeExceptionally(
+        overloaded("Booking service is shutting down, please retry")));
+    }
+
+    @Override
+    public void run() {
+      List<BookingTask> batch = new ArrayList<>();
+      while (running) {
+        try {
+          BookingTask first = queue.poll(100, TimeUnit.MILLISECONDS);
+          if (first == null) {
+            continue;
+          }
+          batch.add(first);
+          queue.drainTo(batch, Math.max(1, properties.getMaxBatchSize()) - 1);
+          process(batch);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        } catch (RuntimeException ex) {
+          log.error("Booking shard {} failed to process a batch", index, ex);
+          batch.forEach(task -> task.result.completeExceptionally(ex));
+        } finally {
+          batch.clear();
+        }
+      }
+    }
+
+    private void process(List<BookingTask> batch) {
+      List<BookingTask> accepted = new ArrayList<>(batch.size());
+      // Series and reschedules are committed one by one
+      List<BookingTask> acceptedSingly = new ArrayList<>();
+      // Pin each provider's calendar for the whole batch so a concurrent invalidation cannot hide reservations
+      Map<Long, ProviderCalendar> batchCalendars = new HashMap<>();
+      for (BookingTask task : batch) {
+        ProviderCalendar calendar = batchCalendars.computeIfAbsent(task.providerId(), this::calendarOf);
+        if (task.isReschedule()) {
+          calendar.release(task.previousStart, task.previousType);
+        }
+        AppointmentException rejection = rejection(calendar, task);
+        if (rejection != null) {
+          if (task.isReschedule()) {
+            calendar.occupy(task.previousStart, task.previousType);
+          }
+          task.result.completeExceptionally(rejection);
+        } else {
+          // Reserve in memory so later requests in this batch see the slots as taken;
+          // occurrences of one series are at least a day apart and never overlap each other
+          task.slots.forEach(slot -> calendar.reserve(slot, task.serviceType()));
+          (task.series != null || task.isReschedule() ? acceptedSingly : accepted).add(task);
+        }
+      }
+      acceptedSingly.forEach(this::commitOne);
+      if (accepted.isEmpty()) {
+        return;
+      }
+
+      List<BookingTask> fitting = new ArrayList<>(accepted);
+      Map<Long, VerifiedDays> fresh = new HashMap<>();
+      Map<BookingTask, AppointmentException> rejected = new HashMap<>();
+      try {
+        List<Appointment> saved = transactionTemplate.execute(status -> {
+          if (properties.isVerifyInDatabase()) {
+            fitting.retainAll(verify(accepted, fresh, rejected));
+            if (fitting.isEmpty()) {
+              return List.<Appointment>of();
+            }
+          }
+          List<Appointment> inserted = appointmentRepository.saveAll(
+            fitting.stream().map(task -> task.appointment).toList());
+          // A failing inTransaction callback rolls back the batch; the retry one by one isolates it
+          for (int i = 0; i < inserted.size(); i++) {
+            saved(fitting.get(i), inserted.get(i));
+          }
+          return inserted;
+        });
+        fresh.forEach(this::refresh);
+        rejected.forEach((task, rejection) -> task.result.completeExceptionally(rejection));
+        for (int i = 0; i < fitting.size(); i++) {
+          fitting.get(i).result.complete(saved.get(i));
+        }
+      } catch (RuntimeException batchFailure) {
+        log.warn("Batch commit of {} bookings failed, retrying one by one", accepted.size(), batchFailure);
+        accepted.forEach(this::commitOne);
+      }
+    }
+
+    private void commitOne(BookingTask task) {
+      try {
+        task.result.complete(transactionTemplate.execute(status ->
+          properties.isVerifyInDatabase() ? verifyAndSave(task) : save(task)));
+      } catch (RuntimeException ex) {
+        // The reservation made for this task is wrong now; reload the calendar on next use
+        calendars.remove(task.providerId());
+        task.result.completeExceptionally(ex);
+      }
+    }
+
+    /**
+     * @return The provider's cached calendar, or null if there is none or it is older than calendar-ttl
+     */
+    private ProviderCalendar cached(Long providerId) {
+      CachedCalendar cached = calendars.get(providerId);
+      if (cached == null) {
+        return null;
+      }
+      if (cached.expiresAt() - System.nanoTime() <= 0) {
+        calendars.remove(providerId, cached);
+        return null;
+      }
+      return cached.calendar();
+    }
+
+    private void cache(Long providerId, ProviderCalendar calendar) {
+      if (!calendars.containsKey(providerId) && calendars.size() >= properties.getMaxSchedulesPerShard()) {
+        Iterator<Long> eldest = calendars.keySet().iterator();
+        if (eldest.hasNext()) {
+          calendars.remove(eldest.next());
+        }
+      }
+      calendars.put(providerId,
+        new CachedCalendar(calendar, System.nanoTime() + properties.getCalendarTtl().toNanos()));
+    }
+
+    /**
+     * Replace the cached counts of the verified days with the committed ones
+     */
+    private void refresh(Long providerId, VerifiedDays verified) {
+      ProviderCalendar calendar = cached(providerId);
+      if (calendar != null && !calendar.refresh(verified.calendar(), verified.firstDay(), verified.lastDay())) {
+        // The schedule changed since the calendar was cached
+        calendars.remove(providerId);
+      }
+    }
+
+    private ProviderCalendar calendarOf(Long providerId) {
+      ProviderCalendar calendar = cached(providerId);
+      if (calendar == null) {
+        calendar = calendarLoader.load(providerId);
+        cache(providerId, calendar);
+      }
+      return calendar;
+    }
+  }
+}
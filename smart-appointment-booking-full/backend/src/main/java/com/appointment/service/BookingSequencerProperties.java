@@ -0,0 +1,63 @@
+package com.appointment.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the per-provider booking sequencer
+ * Bound from app.booking.sequencer.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.booking.sequencer")
+public class BookingSequencerProperties {
+
+  /**
+   * When false, bookings are checked and saved directly in the caller's thread
+   */
+  private boolean enabled = true;
+
+  /**
+   * Number of single-consumer shards; providers are assigned to a shard by id
+   */
+  private int shards = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Pending bookings per shard before callers are rejected
+   */
+  private int queueCapacity = 256;
+
+  /**
+   * Maximum number of accepted bookings committed in one transaction
+   */
+  private int maxBatchSize = 16;
+
+  /**
+   * How long a caller waits for its booking to be decided and committed
+   */
+  private long timeoutMs = 5000;
+
+  /**
+   * Provider schedules kept in memory per shard
+   */
+  private int maxSchedulesPerShard = 10_000;
+
+  /**
+   * How long a cached calendar is used for fast rejection and availability before it is reloaded;
+   * bounds how long writes made by other instances stay invisible to those reads
+   */
+  private Duration calendarTtl = Duration.ofSeconds(30);
+
+  /**
+   * Lock the provider's row and re-check each batch against the database before inserting it.
+   * Keeps instances that share the database from double-booking; only a single-instance deployment
+   * may turn it off
+   */
+  private boolean verifyInDatabase = true;
+
+  /**
+   * Retry-After (seconds) sent when a provider's queue is full or a booking did not finish in time
+   */
+  private int retryAfterSeconds = 2;
+}
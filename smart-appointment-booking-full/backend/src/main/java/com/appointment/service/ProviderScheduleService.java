@@ -0,0 +1,34 @@
+package com.appointment.service;
+
+import com.appointment.dto.ProviderScheduleRequest;
+import com.appointment.dto.ProviderScheduleResponse;
+import com.appointment.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for provider working hours, capacity and availability
+ */
+public interface ProviderScheduleService {
+
+  ProviderScheduleResponse getSchedule(Long providerId);
+
+  /**
+   * Replace a provider's schedule; applies to bookings made after the change, existing ones are kept
+   * @param providerId Provider ID
+   * @param request New schedule
+   * @return The schedule as applied
+   */
+  ProviderScheduleResponse updateSchedule(Long providerId, ProviderScheduleRequest request);
+
+  /**
+   * Start times at which a service can still be booked with a provider on a day
+   * @param providerId Provider ID
+   * @param date Day to list
+   * @param serviceType Decides the duration
+   * @return Future start times in ascending order
+   */
+  List<LocalDateTime> getAvailableStarts(Long providerId, LocalDate date, Appointment.ServiceType serviceType);
+}
@@ -1,9 +1,12 @@
 package com.appointment.service;
 
+import com.appointment.dto.CursorPage;
+import com.appointment.dto.UserFilter;
 import com.appointment.dto.UserRequest;
 import com.appointment.dto.UserResponse;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for User operations
@@ -14,9 +17,17 @@ public interface UserService {
 
   UserResponse getUserById(Long id);
 
-  UserResponse createUser(UserRequest request);
+  CursorPage<UserResponse> getUsersPage(UserFilter filter, int first, String after);
 
-  UserResponse updateUser(Long id, UserRequest request);
+  /**
+   * Validation errors are thrown directly; the future completes once the password is hashed and the user saved
+   */
+  CompletableFuture<UserResponse> createUser(UserRequest request);
+
+  /**
+   * Validation errors are thrown directly; the future completes once the password is hashed and the user saved
+   */
+  CompletableFuture<UserResponse> updateUser(Long id, UserRequest request);
 
   void deleteUser(Long id);
 
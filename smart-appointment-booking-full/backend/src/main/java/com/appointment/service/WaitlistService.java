@@ -0,0 +1,29 @@
+package com.appointment.service;
+
+import com.appointment.dto.WaitlistEntryResponse;
+import com.appointment.dto.WaitlistRequest;
+
+import java.util.List;
+
+/**
+ * Service interface for the appointment waitlist
+ */
+public interface WaitlistService {
+
+  /**
+   * Wait for a slot; the first matching slot that is freed is booked automatically
+   * @param request Customer, provider, service and acceptable window
+   * @return The new entry
+   */
+  WaitlistEntryResponse joinWaitlist(WaitlistRequest request);
+
+  WaitlistEntryResponse getEntryById(Long id);
+
+  List<WaitlistEntryResponse> getEntriesByCustomer(Long customerId);
+
+  /**
+   * Stop waiting
+   * @param id Entry ID
+   */
+  void leaveWaitlist(Long id);
+}
@@ -0,0 +1,226 @@
+package com.appointment.service.impl;
+
+import com.appointment.datasource.ReadYourWritesTracker;
+import com.appointment.directory.ProviderDirectory;
+import com.appointment.directory.ProviderEntry;
+import com.appointment.dto.AppointmentResponse;
+import com.appointment.dto.AppointmentSeriesRequest;
+import com.appointment.dto.AppointmentSeriesResponse;
+import com.appointment.exception.AppointmentException;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.metrics.AppointmentMetrics;
+import com.appointment.model.Appointment;
+import com.appointment.model.AppointmentSeries;
+import com.appointment.model.User;
+import com.appointment.repository.AppointmentSeriesRepository;
+import com.appointment.repository.UserRepository;
+import com.appointment.security.AccessGuard;
+import com.appointment.service.AppointmentSeriesService;
+import com.appointment.service.BookingSequencer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of AppointmentSeriesService
+ * A series is one row holding the rule; occurrences are expanded only for the window being read
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class AppointmentSeriesServiceImpl implements AppointmentSeriesService {
+
+  private final AppointmentSeriesRepository seriesRepository;
+  private final UserRepository userRepository;
+  private final ProviderDirectory providerDirectory;
+  private final AppointmentMetrics appointmentMetrics;
+  private final BookingSequencer bookingSequencer;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final AccessGuard accessGuard;
+
+  @Override
+  // No surrounding transaction: the series is committed by BookingSequencer, the caller only waits for it
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public AppointmentSeriesResponse createSeries(AppointmentSeriesRequest request) {
+    log.info("Creating {} series of {} occurrences for customer: {}",
+      request.getFrequency(), request.getOccurrences(), request.getCustomerId());
+    accessGuard.requireAccess(request.getCustomerId(), request.getServiceProviderId());
+
+    User customer = userRepository.findById(request.getCustomerId())
+      .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+    User provider = providerDirectory.find(request.getServiceProviderId())
+      .map(ProviderEntry::toUser)
+      .orElseGet(() -> userRepository.findById(request.getServiceProviderId())
+        .orElseThrow(() -> new ResourceNotFoundException("Service provider not found")));
+
+    if (!provider.isServiceProvider()) {
+      appointmentMetrics.validationRejected("not_a_provider", request.getServiceType());
+      throw new AppointmentException("Selected user is not a service provider");
+    }
+    if (request.getFirstOccurrence().isBefore(LocalDateTime.now())) {
+      appointmentMetrics.validationRejected("past_date", request.getServiceType());
+      throw new AppointmentException("Series must start at a future date");
+    }
+
+    AppointmentSeries series = new AppointmentSeries();
+    series.setCustomer(customer);
+    series.setServiceProvider(provider);
+    series.setServiceType(request.getServiceType());
+    series.setFirstOccurrence(request.getFirstOccurrence());
+    series.setFrequency(request.getFrequency());
+    series.setInterval(request.getInterval());
+    series.setOccurrenceCount(request.getOccurrences());
+    series.setNotes(request.getNotes());
+    series.updateLastOccurrence();
+
+    // All occurrences are checked and reserved together, serialized with the provider's other bookings
+    AppointmentSeries saved = bookingSequencer.bookSeries(series);
+    readYourWritesTracker.recordWrite(customer.getId());
+    readYourWritesTracker.recordWrite(provider.getId());
+    log.info("Series created successfully with id: {}", saved.getId());
+
+    return convertToResponse(saved);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public AppointmentSeriesResponse getSeriesById(Long id) {
+    return convertToResponse(findSeries(id));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<AppointmentSeriesResponse> getSeriesByCustomer(Long customerId) {
+    accessGuard.requireAccess(customerId);
+    return seriesRepository.findByCustomerIdOrderByFirstOccurrenceDesc(customerId).stream()
+      .map(this::convertToResponse)
+      .toList();
+  }
+
+  @Override
+  public void cancelSeries(Long id) {
+    log.info("Cancelling series with id: {}", id);
+    AppointmentSeries series = findSeries(id);
+    LocalDateTime now = LocalDateTime.now();
+    if (!series.isActive()) {
+      throw new AppointmentException("Series is already cancelled");
+    }
+    if (series.getLastOccurrence().isBefore(now)) {
+      throw new AppointmentException("Series has no remaining occurrences");
+    }
+    // End the rule at now so occurrences that already took place stay in the history
+    if (series.endBefore(now) == 0) {
+      series.setStatus(AppointmentSeries.Status.CANCELLED);
+    }
+    seriesRepository.save(series);
+    bookingSequencer.invalidateAfterCommit(series.getServiceProvider().getId());
+    readYourWritesTracker.recordWrite(series.getCustomer().getId());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<AppointmentResponse> getOccurrences(Long id, LocalDateTime from, LocalDateTime to) {
+    if (to.isBefore(from)) {
+      throw new AppointmentException("Window end must not be before its start");
+    }
+    AppointmentSeries series = findSeries(id);
+    return expand(series, from, to, new ArrayList<>());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<AppointmentResponse> getOccurrencesBetween(LocalDateTime from, LocalDateTime to) {
+    List<AppointmentResponse> occurrences = new ArrayList<>();
+    // Inclusive end, like the appointment date-range query
+    for (AppointmentSeries series : seriesRepository.findActiveBetween(from, to.plusNanos(1))) {
+      expand(series, from, to, occurrences);
+    }
+    return occurrences;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<AppointmentResponse> getOccurrencesByCustomer(Long customerId) {
+    accessGuard.requireAccess(customerId);
+    return expandAll(seriesRepository.findByCustomerIdOrderByFirstOccurrenceDesc(customerId));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<AppointmentResponse> getOccurrencesByProvider(Long providerId) {
+    accessGuard.requireAccess(providerId);
+    return expandAll(seriesRepository.findByServiceProviderId(providerId));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<AppointmentResponse> getUpcomingOccurrencesByCustomer(Long customerId, LocalDateTime now) {
+    accessGuard.requireAccess(customerId);
+    List<AppointmentResponse> occurrences = new ArrayList<>();
+    for (AppointmentSeries series : seriesRepository.findActiveByCustomerAfter(customerId, now)) {
+      expand(series, now.plusNanos(1), series.getLastOccurrence(), occurrences);
+    }
+    return occurrences;
+  }
+
+  private List<AppointmentResponse> expandAll(List<AppointmentSeries> series) {
+    List<AppointmentResponse> occurrences = new ArrayList<>();
+    series.forEach(one -> expand(one, one.getFirstOccurrence(), one.getLastOccurrence(), occurrences));
+    return occurrences;
+  }
+
+  private AppointmentSeries findSeries(Long id) {
+    AppointmentSeries series = seriesRepository.findById(id)
+      .orElseThrow(() -> new ResourceNotFoundException("Series not found with id: " + id));
+    accessGuard.requireAccess(series.getCustomer().getId(), series.getServiceProvider().getId());
+    return series;
+  }
+
+  private List<AppointmentResponse> expand(AppointmentSeries series, LocalDateTime from, LocalDateTime to,
+                                           List<AppointmentResponse> into) {
+    for (LocalDateTime occurrence : series.occurrencesBetween(from, to.plusNanos(1))) {
+      AppointmentResponse response = new AppointmentResponse();
+      response.setSeriesId(series.getId());
+      response.setCustomerId(series.getCustomer().getId());
+      response.setCustomerName(series.getCustomer().getName());
+      response.setCustomerEmail(series.getCustomer().getEmail());
+      response.setServiceProviderId(series.getServiceProvider().getId());
+      response.setServiceProviderName(series.getServiceProvider().getName());
+      response.setServiceProviderEmail(series.getServiceProvider().getEmail());
+      response.setServiceType(series.getServiceType());
+      response.setAppointmentDateTime(occurrence);
+      response.setNotes(series.getNotes());
+      response.setStatus(series.isActive() ? Appointment.Status.PENDING : Appointment.Status.CANCELLED);
+      response.setCreatedAt(series.getCreatedAt());
+      response.setUpdatedAt(series.getUpdatedAt());
+      into.add(response);
+    }
+    return into;
+  }
+
+  private AppointmentSeriesResponse convertToResponse(AppointmentSeries series) {
+    AppointmentSeriesResponse response = new AppointmentSeriesResponse();
+    response.setId(series.getId());
+    response.setCustomerId(series.getCustomer().getId());
+    response.setCustomerName(series.getCustomer().getName());
+    response.setServiceProviderId(series.getServiceProvider().getId());
+    response.setServiceProviderName(series.getServiceProvider().getName());
+    response.setServiceType(series.getServiceType());
+    response.setFirstOccurrence(series.getFirstOccurrence());
+    response.setLastOccurrence(series.getLastOccurrence());
+    response.setFrequency(series.getFrequency());
+    response.setInterval(series.getInterval());
+    response.setOccurrences(series.getOccurrenceCount());
+    response.setNotes(series.getNotes());
+    response.setStatus(series.getStatus());
+    response.setCreatedAt(series.getCreatedAt());
+    return response;
+  }
+}
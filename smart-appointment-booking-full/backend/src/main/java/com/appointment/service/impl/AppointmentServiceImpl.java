@@ -1,24 +1,50 @@
 package com.appointment.service.impl;
 
+import com.appointment.coalesce.Coalesced;
+import com.appointment.datasource.ReadYourWritesTracker;
+import com.appointment.directory.ProviderDirectory;
+import com.appointment.directory.ProviderEntry;
+import com.appointment.dto.AppointmentFilter;
 import com.appointment.dto.AppointmentRequest;
 import com.appointment.dto.AppointmentResponse;
+import com.appointment.dto.BulkStatusUpdateResponse;
+import com.appointment.dto.CursorPage;
+import com.appointment.event.AppointmentChangedEvent;
 import com.appointment.exception.AppointmentException;
 import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.metrics.AppointmentMetrics;
 import com.appointment.model.Appointment;
 import com.appointment.model.User;
 import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.AppointmentSpecifications;
+import com.appointment.repository.KeysetCursor;
 import com.appointment.repository.UserRepository;
+import com.appointment.security.AccessGuard;
+import com.appointment.service.AppointmentSeriesService;
 import com.appointment.service.AppointmentService;
+import com.appointment.service.BookingSequencer;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.Comparator;
 
 /**
@@ -28,15 +54,26 @@ import java.util.Comparator;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "appointment.service", histogram = true)
 public class AppointmentServiceImpl implements AppointmentService {
 
+  private static final int MAX_PAGE_SIZE = 100;
+
   private final AppointmentRepository appointmentRepository;
   private final UserRepository userRepository;
+  private final AppointmentMetrics appointmentMetrics;
+  private final BookingSequencer bookingSequencer;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final ProviderDirectory providerDirectory;
+  private final ApplicationEventPublisher eventPublisher;
+  private final AppointmentSeriesService appointmentSeriesService;
+  private final AccessGuard accessGuard;
 
   @Override
   @Transactional(readOnly = true)
   public List<AppointmentResponse> getAllAppointments() {
     log.info("Fetching all appointments");
+    accessGuard.requireAdmin();
     // Default sorting: most recent appointment first, then by created user
     return appointmentRepository.findAll().stream()
       .sorted(Comparator.comparing(Appointment::getAppointmentDateTime).reversed()
@@ -45,48 +82,82 @@ public class AppointmentServiceImpl implements AppointmentService {
       .collect(Collectors.toList());
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public void streamAllAppointments(Consumer<? super AppointmentResponse> action) {
+    log.info("Streaming all appointments");
+    accessGuard.requireAdmin();
+    // Same order as getAllAppointments, but sorted by the database and converted one row at a time
+    try (Stream<AppointmentRepository.ListingRow> rows = appointmentRepository.streamAllForListing()) {
+      rows.map(this::convertToResponse).forEach(action);
+    }
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public CursorPage<AppointmentResponse> getAppointmentsPage(AppointmentFilter filter, int first, String after) {
+    accessGuard.requireAdmin();
+    int size = Math.max(1, Math.min(first, MAX_PAGE_SIZE));
+    Specification<Appointment> matching = AppointmentSpecifications.matching(
+      filter != null ? filter : new AppointmentFilter());
+    Specification<Appointment> page = matching.and(AppointmentSpecifications.fetchParties());
+    if (after != null) {
+      page = page.and(AppointmentSpecifications.after(KeysetCursor.decode(after)));
+    }
+
+    // One extra row tells whether there is a next page
+    List<Appointment> rows = appointmentRepository.findBy(page, query -> query
+      .sortBy(AppointmentSpecifications.NEWEST_FIRST)
+      .limit(size + 1)
+      .all());
+    List<CursorPage.Edge<AppointmentResponse>> edges = rows.stream()
+      .limit(size)
+      .map(appointment -> new CursorPage.Edge<>(
+        new KeysetCursor(appointment.getAppointmentDateTime(), appointment.getId()).encode(),
+        convertToResponse(appointment)))
+      .toList();
+    return new CursorPage<>(edges, rows.size() > size, after != null, () -> appointmentRepository.count(matching));
+  }
+
   @Override
   @Transactional(readOnly = true)
   public AppointmentResponse getAppointmentById(Long id) {
     log.info("Fetching appointment with id: {}", id);
     Appointment appointment = appointmentRepository.findById(id)
       .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + id));
+    requireParticipant(appointment);
     return convertToResponse(appointment);
   }
 
   @Override
+  // No surrounding transaction: the booking is committed by BookingSequencer, the caller only waits for it
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public AppointmentResponse createAppointment(AppointmentRequest request) {
     log.info("Creating new appointment for customer: {}", request.getCustomerId());
+    accessGuard.requireAccess(request.getCustomerId(), request.getServiceProviderId());
 
     // Validate customer exists
     User customer = userRepository.findById(request.getCustomerId())
       .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
 
-    // Validate service provider exists
-    User provider = userRepository.findById(request.getServiceProviderId())
-      .orElseThrow(() -> new ResourceNotFoundException("Service provider not found"));
+    // Validate service provider exists; known active providers are resolved from the directory
+    User provider = providerDirectory.find(request.getServiceProviderId())
+      .map(ProviderEntry::toUser)
+      .orElseGet(() -> userRepository.findById(request.getServiceProviderId())
+        .orElseThrow(() -> new ResourceNotFoundException("Service provider not found")));
 
     // Validate provider is actually a service provider
     if (!provider.isServiceProvider()) {
+      appointmentMetrics.validationRejected("not_a_provider", request.getServiceType());
       throw new AppointmentException("Selected user is not a service provider");
     }
 
     // Validate appointment is in future
     if (request.getAppointmentDateTime().isBefore(LocalDateTime.now())) {
+      appointmentMetrics.validationRejected("past_date", request.getServiceType());
       throw new AppointmentException("Appointment must be scheduled for a future date");
     }
 
-    // Check for conflicting appointments (optional - prevent double booking)
-    List<Appointment> conflicts = appointmentRepository.findConflictingAppointments(
-      provider.getId(),
-      request.getAppointmentDateTime().minusHours(1),
-      request.getAppointmentDateTime().plusHours(1)
-    );
-
-    if (!conflicts.isEmpty()) {
-      throw new AppointmentException("Service provider already has an appointment at this time");
-    }
-
     // Create appointment
     Appointment appointment = new Appointment();
     appointment.setCustomer(customer);
@@ -96,18 +167,26 @@ public class AppointmentServiceImpl implements AppointmentService {
     appointment.setNotes(request.getNotes());
     appointment.setStatus(Appointment.Status.PENDING);
 
-    Appointment savedAppointment = appointmentRepository.save(appointment);
+    // Conflict check and insert are serialized per provider (prevents double booking)
+    Appointment savedAppointment = bookingSequencer.book(appointment);
+    readYourWritesTracker.recordWrite(customer.getId());
+    readYourWritesTracker.recordWrite(provider.getId());
     log.info("Appointment created successfully with id: {}", savedAppointment.getId());
 
     return convertToResponse(savedAppointment);
   }
 
   @Override
+  // No surrounding transaction: the change is committed by BookingSequencer, the caller only waits for it
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public AppointmentResponse updateAppointment(Long id, AppointmentRequest request) {
     log.info("Updating appointment with id: {}", id);
 
     Appointment appointment = appointmentRepository.findById(id)
       .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
+    requireParticipant(appointment);
+    LocalDateTime previousStart = appointment.getAppointmentDateTime();
+    Appointment.ServiceType previousType = appointment.getServiceType();
 
     // Update fields
     if (request.getServiceType() != null) {
@@ -116,6 +195,7 @@ public class AppointmentServiceImpl implements AppointmentService {
 
     if (request.getAppointmentDateTime() != null) {
       if (request.getAppointmentDateTime().isBefore(LocalDateTime.now())) {
+        appointmentMetrics.validationRejected("past_date", appointment.getServiceType());
         throw new AppointmentException("Appointment must be scheduled for a future date");
       }
       appointment.setAppointmentDateTime(request.getAppointmentDateTime());
@@ -125,7 +205,9 @@ public class AppointmentServiceImpl implements AppointmentService {
       appointment.setNotes(request.getNotes());
     }
 
-    Appointment updatedAppointment = appointmentRepository.save(appointment);
+    // A new time or service type is checked against the provider's calendar like a new booking
+    Appointment updatedAppointment = bookingSequencer.update(appointment, previousStart, previousType);
+    recordWrite(updatedAppointment);
     log.info("Appointment updated successfully");
 
     return convertToResponse(updatedAppointment);
@@ -135,11 +217,15 @@ public class AppointmentServiceImpl implements AppointmentService {
   public void deleteAppointment(Long id) {
     log.info("Deleting appointment with id: {}", id);
 
-    if (!appointmentRepository.existsById(id)) {
-      throw new ResourceNotFoundException("Appointment not found with id: " + id);
-    }
+    Appointment appointment = appointmentRepository.findById(id)
+      .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + id));
+    requireParticipant(appointment);
 
-    appointmentRepository.deleteById(id);
+    appointmentRepository.delete(appointment);
+    bookingSequencer.invalidateAfterCommit(appointment.getServiceProvider().getId());
+    recordWrite(appointment);
+    eventPublisher.publishEvent(AppointmentChangedEvent.of(
+      AppointmentChangedEvent.Change.DELETED, appointment, appointment.getStatus(), null));
     log.info("Appointment deleted successfully");
   }
 
@@ -147,47 +233,54 @@ public class AppointmentServiceImpl implements AppointmentService {
   @Transactional(readOnly = true)
   public List<AppointmentResponse> getAppointmentsByCustomer(Long customerId) {
     log.info("Fetching appointments for customer: {}", customerId);
+    accessGuard.requireAccess(customerId);
 
-    if (!userRepository.existsById(customerId)) {
-      throw new ResourceNotFoundException("Customer not found");
-    }
+    try (ReadYourWritesTracker.Scope ignored = readYourWritesTracker.primaryIfRecentWriter(customerId)) {
+      if (!userRepository.existsById(customerId)) {
+        throw new ResourceNotFoundException("Customer not found");
+      }
 
-    return appointmentRepository.findByCustomerId(customerId).stream()
-      .map(this::convertToResponse)
-      .collect(Collectors.toList());
+      return withOccurrences(appointmentRepository.findByCustomerId(customerId),
+        appointmentSeriesService.getOccurrencesByCustomer(customerId));
+    }
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<AppointmentResponse> getAppointmentsByProvider(Long providerId) {
     log.info("Fetching appointments for provider: {}", providerId);
+    accessGuard.requireAccess(providerId);
 
-    if (!userRepository.existsById(providerId)) {
-      throw new ResourceNotFoundException("Provider not found");
-    }
+    try (ReadYourWritesTracker.Scope ignored = readYourWritesTracker.primaryIfRecentWriter(providerId)) {
+      if (!userRepository.existsById(providerId)) {
+        throw new ResourceNotFoundException("Provider not found");
+      }
 
-    return appointmentRepository.findByServiceProviderId(providerId).stream()
-      .map(this::convertToResponse)
-      .collect(Collectors.toList());
+      return withOccurrences(appointmentRepository.findByServiceProviderId(providerId),
+        appointmentSeriesService.getOccurrencesByProvider(providerId));
+    }
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<AppointmentResponse> getUpcomingAppointmentsByCustomer(Long customerId) {
     log.info("Fetching upcoming appointments for customer: {}", customerId);
+    accessGuard.requireAccess(customerId);
 
-    if (!userRepository.existsById(customerId)) {
-      throw new ResourceNotFoundException("Customer not found");
-    }
+    try (ReadYourWritesTracker.Scope ignored = readYourWritesTracker.primaryIfRecentWriter(customerId)) {
+      if (!userRepository.existsById(customerId)) {
+        throw new ResourceNotFoundException("Customer not found");
+      }
 
-    return appointmentRepository.findUpcomingAppointmentsByCustomer(customerId, LocalDateTime.now())
-      .stream()
-      .map(this::convertToResponse)
-      .collect(Collectors.toList());
+      LocalDateTime now = LocalDateTime.now();
+      return withOccurrences(appointmentRepository.findUpcomingAppointmentsByCustomer(customerId, now),
+        appointmentSeriesService.getUpcomingOccurrencesByCustomer(customerId, now));
+    }
   }
 
   @Override
   @Transactional(readOnly = true)
+  @Coalesced(adminOnly = true)
   public List<AppointmentResponse> getAppointmentsByStatus(Appointment.Status status) {
     log.info("Fetching appointments with status: {}", status);
 
@@ -200,20 +293,102 @@ public class AppointmentServiceImpl implements AppointmentService {
   public AppointmentResponse updateAppointmentStatus(Long id, Appointment.Status status) {
     log.info("Updating appointment {} status to: {}", id, status);
 
-    Appointment appointment = appointmentRepository.findById(id)
+    // Locked, so the transition is checked against the status it replaces and no concurrent change
+    // (another transition, a reschedule, a reminder claim) is overwritten by the save below
+    Appointment appointment = appointmentRepository.lockById(id)
       .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
+    requireParticipant(appointment);
+
+    Appointment.Status previousStatus = appointment.getStatus();
+    if (previousStatus == status) {
+      return convertToResponse(appointment);
+    }
+    if (!previousStatus.canTransitionTo(status)) {
+      throw new AppointmentException(invalidTransition(previousStatus, status));
+    }
 
     appointment.setStatus(status);
     Appointment updatedAppointment = appointmentRepository.save(appointment);
+    bookingSequencer.invalidateAfterCommit(appointment.getServiceProvider().getId());
+    recordWrite(updatedAppointment);
+    eventPublisher.publishEvent(AppointmentChangedEvent.of(
+      AppointmentChangedEvent.Change.STATUS_CHANGED, updatedAppointment, previousStatus, status));
 
     log.info("Status updated successfully");
     return convertToResponse(updatedAppointment);
   }
 
+  @Override
+  public BulkStatusUpdateResponse updateAppointmentStatuses(List<Long> ids, Appointment.Status status) {
+    Set<Long> requested = new LinkedHashSet<>(ids);
+    log.info("Bulk updating {} appointments to status: {}", requested.size(), status);
+
+    // Appointments the caller is not part of are reported as not found
+    Map<Long, AppointmentRepository.StatusRow> rows = new HashMap<>();
+    appointmentRepository.lockStatusRows(requested).stream()
+      .filter(row -> accessGuard.mayAccess(row.getCustomerId(), row.getServiceProviderId()))
+      .forEach(row -> rows.put(row.getId(), row));
+
+    // Validate every ID against the transition graph, grouping the valid ones by their current status
+    Map<Long, BulkStatusUpdateResponse.Outcome> outcomes = new LinkedHashMap<>();
+    Map<Appointment.Status, List<Long>> groups = new EnumMap<>(Appointment.Status.class);
+    for (Long id : requested) {
+      AppointmentRepository.StatusRow row = rows.get(id);
+      if (row == null) {
+        outcomes.put(id, new BulkStatusUpdateResponse.Outcome(
+          id, BulkStatusUpdateResponse.Result.NOT_FOUND, null, "Appointment not found"));
+      } else if (row.getStatus() == status) {
+        outcomes.put(id, new BulkStatusUpdateResponse.Outcome(
+          id, BulkStatusUpdateResponse.Result.UNCHANGED, status, null));
+      } else if (!row.getStatus().canTransitionTo(status)) {
+        outcomes.put(id, new BulkStatusUpdateResponse.Outcome(
+          id, BulkStatusUpdateResponse.Result.INVALID_TRANSITION, row.getStatus(),
+          invalidTransition(row.getStatus(), status)));
+      } else {
+        outcomes.put(id, null);
+        groups.computeIfAbsent(row.getStatus(), from -> new ArrayList<>()).add(id);
+      }
+    }
+
+    // One UPDATE per (from, to) group
+    LocalDateTime now = LocalDateTime.now();
+    Set<Long> changedProviders = new HashSet<>();
+    int updated = 0;
+    for (Map.Entry<Appointment.Status, List<Long>> group : groups.entrySet()) {
+      Appointment.Status from = group.getKey();
+      List<Long> groupIds = group.getValue();
+      int count = appointmentRepository.transitionStatus(groupIds, from, status, now);
+      Set<Long> applied = count == groupIds.size()
+        ? Set.copyOf(groupIds)
+        : Set.copyOf(appointmentRepository.findIdsWithStatus(groupIds, status));
+
+      for (Long id : groupIds) {
+        if (!applied.contains(id)) {
+          outcomes.put(id, new BulkStatusUpdateResponse.Outcome(
+            id, BulkStatusUpdateResponse.Result.CONFLICT, from, "Appointment was changed concurrently"));
+          continue;
+        }
+        AppointmentRepository.StatusRow row = rows.get(id);
+        outcomes.put(id, new BulkStatusUpdateResponse.Outcome(id, BulkStatusUpdateResponse.Result.UPDATED, from, null));
+        updated++;
+        changedProviders.add(row.getServiceProviderId());
+        readYourWritesTracker.recordWrite(row.getCustomerId());
+        readYourWritesTracker.recordWrite(row.getServiceProviderId());
+        eventPublisher.publishEvent(new AppointmentChangedEvent(AppointmentChangedEvent.Change.STATUS_CHANGED,
+          id, row.getCustomerId(), row.getServiceProviderId(), from, status, row.getAppointmentDateTime()));
+      }
+    }
+    changedProviders.forEach(bookingSequencer::invalidateAfterCommit);
+
+    log.info("Bulk status update done: {} of {} appointments moved to {}", updated, requested.size(), status);
+    return new BulkStatusUpdateResponse(status, updated, new ArrayList<>(outcomes.values()));
+  }
+
   @Override
   @Transactional(readOnly = true)
   public List<AppointmentResponse> searchAppointments(String keyword) {
     log.info("Searching appointments with keyword: {}", keyword);
+    accessGuard.requireAdmin();
 
     return appointmentRepository.searchAppointments(keyword).stream()
       .map(this::convertToResponse)
@@ -224,14 +399,30 @@ public class AppointmentServiceImpl implements AppointmentService {
   @Transactional(readOnly = true)
   public List<AppointmentResponse> getAppointmentsByDateRange(LocalDateTime start, LocalDateTime end) {
     log.info("Fetching appointments between {} and {}", start, end);
+    accessGuard.requireAdmin();
+
+    return withOccurrences(appointmentRepository.findByAppointmentDateTimeBetween(start, end),
+      appointmentSeriesService.getOccurrencesBetween(start, end));
+  }
 
-    return appointmentRepository.findByAppointmentDateTimeBetween(start, end).stream()
+  /**
+   * Recurring series are stored as rules; their expanded occurrences are merged in by start time
+   */
+  private List<AppointmentResponse> withOccurrences(List<Appointment> appointments,
+                                                    List<AppointmentResponse> occurrences) {
+    List<AppointmentResponse> merged = appointments.stream()
       .map(this::convertToResponse)
-      .collect(Collectors.toList());
+      .collect(Collectors.toCollection(ArrayList::new));
+    if (!occurrences.isEmpty()) {
+      merged.addAll(occurrences);
+      merged.sort(Comparator.comparing(AppointmentResponse::getAppointmentDateTime));
+    }
+    return merged;
   }
 
   @Override
   @Transactional(readOnly = true)
+  @Coalesced(microcacheMs = 1000, adminOnly = true)
   public Map<String, Object> getAppointmentStatistics() {
     log.info("Fetching appointment statistics");
 
@@ -252,6 +443,20 @@ public class AppointmentServiceImpl implements AppointmentService {
     return stats;
   }
 
+  private static String invalidTransition(Appointment.Status from, Appointment.Status to) {
+    return "Cannot change status from " + from + " to " + to;
+  }
+
+  private void requireParticipant(Appointment appointment) {
+    accessGuard.requireAccess(appointment.getCustomer().getId(), appointment.getServiceProvider().getId());
+  }
+
+  // Keep both parties' reads on the primary until the change has reached the replica
+  private void recordWrite(Appointment appointment) {
+    readYourWritesTracker.recordWrite(appointment.getCustomer().getId());
+    readYourWritesTracker.recordWrite(appointment.getServiceProvider().getId());
+  }
+
   // Helper method to convert Entity to Response DTO
   private AppointmentResponse convertToResponse(Appointment appointment) {
     AppointmentResponse response = new AppointmentResponse();
@@ -270,4 +475,23 @@ public class AppointmentServiceImpl implements AppointmentService {
     response.setUpdatedAt(appointment.getUpdatedAt());
     return response;
   }
+
+  // Same mapping for the flat listing projection
+  private AppointmentResponse convertToResponse(AppointmentRepository.ListingRow row) {
+    AppointmentResponse response = new AppointmentResponse();
+    response.setId(row.getId());
+    response.setCustomerId(row.getCustomerId());
+    response.setCustomerName(row.getCustomerName());
+    response.setCustomerEmail(row.getCustomerEmail());
+    response.setServiceProviderId(row.getServiceProviderId());
+    response.setServiceProviderName(row.getServiceProviderName());
+    response.setServiceProviderEmail(row.getServiceProviderEmail());
+    response.setServiceType(row.getServiceType());
+    response.setAppointmentDateTime(row.getAppointmentDateTime());
+    response.setNotes(row.getNotes());
+    response.setStatus(row.getStatus());
+    response.setCreatedAt(row.getCreatedAt());
+    response.setUpdatedAt(row.getUpdatedAt());
+    return response;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.appointment.service.impl;
+
+import com.appointment.availability.AvailabilityProperties;
+import com.appointment.availability.SlotTemplate;
+import com.appointment.dto.ProviderScheduleRequest;
+import com.appointment.dto.ProviderScheduleResponse;
+import com.appointment.exception.AppointmentException;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.model.Appointment;
+import com.appointment.model.ProviderSchedule;
+import com.appointment.model.User;
+import com.appointment.model.WorkingPeriod;
+import com.appointment.repository.ProviderScheduleRepository;
+import com.appointment.repository.UserRepository;
+import com.appointment.security.AccessGuard;
+import com.appointment.service.BookingSequencer;
+import com.appointment.service.ProviderScheduleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of ProviderScheduleService
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ProviderScheduleServiceImpl implements ProviderScheduleService {
+
+  private final ProviderScheduleRepository scheduleRepository;
+  private final UserRepository userRepository;
+  private final BookingSequencer bookingSequencer;
+  private final AvailabilityProperties availabilityProperties;
+  private final AccessGuard accessGuard;
+
+  @Override
+  @Transactional(readOnly = true)
+  public ProviderScheduleResponse getSchedule(Long providerId) {
+    findProvider(providerId);
+    return convertToResponse(providerId, scheduleRepository.findByServiceProviderId(providerId).orElse(null));
+  }
+
+  @Override
+  public ProviderScheduleResponse updateSchedule(Long providerId, ProviderScheduleRequest request) {
+    log.info("Updating schedule of provider: {}", providerId);
+    accessGuard.requireAccess(providerId);
+    // Same lock as the booking transactions, so none of them verifies against the old schedule after this commits
+    userRepository.lockById(providerId);
+    User provider = findProvider(providerId);
+
+    ProviderSchedule schedule = scheduleRepository.findByServiceProviderId(providerId).orElseGet(() -> {
+      ProviderSchedule created = new ProviderSchedule();
+      created.setServiceProvider(provider);
+      return created;
+    });
+    schedule.setCapacity(request.getCapacity());
+    replace(schedule.getWorkingHours(), request.getWorkingHours());
+    replace(schedule.getBreaks(), request.getBreaks());
+    schedule.getServiceDurations().clear();
+    schedule.getServiceDurations().putAll(request.getServiceDurations());
+
+    ProviderSchedule saved = scheduleRepository.save(schedule);
+    // Cached calendars were compiled from the old schedule
+    bookingSequencer.invalidateAfterCommit(providerId);
+    return convertToResponse(providerId, saved);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<LocalDateTime> getAvailableStarts(Long providerId, LocalDate date, Appointment.ServiceType serviceType) {
+    findProvider(providerId);
+    LocalDateTime now = LocalDateTime.now();
+    return bookingSequencer.availableStarts(providerId, date, serviceType).stream()
+      .filter(start -> start.isAfter(now))
+      .toList();
+  }
+
+  private User findProvider(Long providerId) {
+    User provider = userRepository.findById(providerId)
+      .orElseThrow(() -> new ResourceNotFoundException("Service provider not found"));
+    if (!provider.isServiceProvider()) {
+      throw new AppointmentException("Selected user is not a service provider");
+    }
+    return provider;
+  }
+
+  private static void replace(Set<WorkingPeriod> target, Collection<ProviderScheduleRequest.Period> periods) {
+    target.clear();
+    for (ProviderScheduleRequest.Period period : periods) {
+      WorkingPeriod workingPeriod = new WorkingPeriod(period.getDayOfWeek(), period.getStart(), period.getEnd());
+      if (workingPeriod.endMinute() <= workingPeriod.startMinute()) {
+        throw new AppointmentException("Period on " + period.getDayOfWeek() + " must end after it starts");
+      }
+      target.add(workingPeriod);
+    }
+  }
+
+  private ProviderScheduleResponse convertToResponse(Long providerId, ProviderSchedule schedule) {
+    SlotTemplate template = SlotTemplate.compile(schedule, availabilityProperties);
+    Map<Appointment.ServiceType, Integer> durations = new EnumMap<>(Appointment.ServiceType.class);
+    for (Appointment.ServiceType type : Appointment.ServiceType.values()) {
+      durations.put(type, template.durationMinutes(type));
+    }
+    ProviderScheduleResponse response = new ProviderScheduleResponse();
+    response.setServiceProviderId(providerId);
+    response.setConfigured(schedule != null);
+    response.setCapacity(template.capacity());
+    response.setSlotMinutes(template.slotMinutes());
+    response.setWorkingHours(schedule != null ? periods(schedule.getWorkingHours()) : List.of());
+    response.setBreaks(schedule != null ? periods(schedule.getBreaks()) : List.of());
+    response.setServiceDurations(durations);
+    return response;
+  }
+
+  private static List<ProviderScheduleRequest.Period> periods(Set<WorkingPeriod> periods) {
+    return periods.stream()
+      .sorted(Comparator.comparing(WorkingPeriod::getDayOfWeek).thenComparing(WorkingPeriod::getStartTime))
+      .map(period -> new ProviderScheduleRequest.Period(period.getDayOfWeek(), period.getStartTime(),
+        period.getEndTime()))
+      .toList();
+  }
+}
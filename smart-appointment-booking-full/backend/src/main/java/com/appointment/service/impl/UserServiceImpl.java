@@ -1,18 +1,35 @@
 package com.appointment.service.impl;
 
+import com.appointment.directory.EmailDirectory;
+import com.appointment.directory.ProviderDirectory;
+import com.appointment.directory.ProviderEntry;
+import com.appointment.dto.CursorPage;
+import com.appointment.dto.UserFilter;
 import com.appointment.dto.UserRequest;
 import com.appointment.dto.UserResponse;
+import com.appointment.event.UserChangedEvent;
 import com.appointment.exception.AppointmentException;
 import com.appointment.exception.ResourceNotFoundException;
 import com.appointment.model.User;
+import com.appointment.repository.KeysetCursor;
 import com.appointment.repository.UserRepository;
+import com.appointment.repository.UserSpecifications;
+import com.appointment.security.AccessGuard;
+import com.appointment.security.PasswordService;
 import com.appointment.service.UserService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.Comparator;
 
@@ -20,17 +37,39 @@ import java.util.Comparator;
  * Implementation of UserService
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "appointment.service", histogram = true)
 public class UserServiceImpl implements UserService {
 
+  private static final int MAX_PAGE_SIZE = 100;
+
   private final UserRepository userRepository;
+  private final PasswordService passwordService;
+  private final ProviderDirectory providerDirectory;
+  private final EmailDirectory emailDirectory;
+  private final ApplicationEventPublisher eventPublisher;
+  private final AccessGuard accessGuard;
+  private final TransactionTemplate transactionTemplate;
+
+  public UserServiceImpl(UserRepository userRepository, PasswordService passwordService,
+                         ProviderDirectory providerDirectory, EmailDirectory emailDirectory,
+                         ApplicationEventPublisher eventPublisher, AccessGuard accessGuard,
+                         PlatformTransactionManager transactionManager) {
+    this.userRepository = userRepository;
+    this.passwordService = passwordService;
+    this.providerDirectory = providerDirectory;
+    this.emailDirectory = emailDirectory;
+    this.eventPublisher = eventPublisher;
+    this.accessGuard = accessGuard;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
 
   @Override
   @Transactional(readOnly = true)
   public List<UserResponse> getAllUsers() {
     log.info("Fetching all users");
+    accessGuard.requireAdmin();
     // Default sorting: most recently created users first
     return userRepository.findAll().stream()
       .sorted(Comparator.comparing(User::getCreatedAt).reversed())
@@ -38,42 +77,105 @@ public class UserServiceImpl implements UserService {
       .collect(Collectors.toList());
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public CursorPage<UserResponse> getUsersPage(UserFilter filter, int first, String after) {
+    accessGuard.requireAdmin();
+    int size = Math.max(1, Math.min(first, MAX_PAGE_SIZE));
+    Specification<User> matching = UserSpecifications.matching(filter != null ? filter : new UserFilter());
+    Specification<User> page = after == null
+      ? matching
+      : matching.and(UserSpecifications.after(KeysetCursor.decode(after)));
+
+    List<User> rows = userRepository.findBy(page, query -> query
+      .sortBy(UserSpecifications.NEWEST_FIRST)
+      .limit(size + 1)
+      .all());
+    List<CursorPage.Edge<UserResponse>> edges = rows.stream()
+      .limit(size)
+      .map(user -> new CursorPage.Edge<>(
+        new KeysetCursor(user.getCreatedAt(), user.getId()).encode(), convertToResponse(user)))
+      .toList();
+    return new CursorPage<>(edges, rows.size() > size, after != null, () -> userRepository.count(matching));
+  }
+
   @Override
   @Transactional(readOnly = true)
   public UserResponse getUserById(Long id) {
     log.info("Fetching user with id: {}", id);
+    accessGuard.requireAccess(id);
     User user = userRepository.findById(id)
       .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     return convertToResponse(user);
   }
 
   @Override
-  public UserResponse createUser(UserRequest request) {
+  // No transaction while hashing; the insert runs in its own once the hash is ready
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public CompletableFuture<UserResponse> createUser(UserRequest request) {
     log.info("Creating new user with email: {}", request.getEmail());
+    if (request.getRole() == User.Role.ADMIN) {
+      accessGuard.requireAdmin();
+    }
 
-    // Check if email already exists
-    if (userRepository.existsByEmail(request.getEmail())) {
+    // Check if email already exists (skipped when this instance never saw it; the unique constraint is the real check)
+    if (!emailDirectory.isDefinitelyFree(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
       throw new AppointmentException("Email already registered: " + request.getEmail());
     }
 
+    return passwordService.hashAsync(request.getPassword())
+      .thenApplyAsync(hash -> transactionTemplate.execute(status -> insertUser(request, hash)),
+        passwordService.completionExecutor());
+  }
+
+  @Override
+  // No transaction while hashing; the update runs in its own once the hash is ready
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public CompletableFuture<UserResponse> updateUser(Long id, UserRequest request) {
+    log.info("Updating user with id: {}", id);
+    accessGuard.requireAccess(id);
+
+    // Reject early, before spending a hash on the request
+    User current = userRepository.findById(id)
+      .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    checkEmailChange(current, request);
+    if (request.getRole() != null && request.getRole() != current.getRole()) {
+      accessGuard.requireAdmin();
+    }
+
+    CompletableFuture<String> hashed = request.getPassword() != null
+      ? passwordService.hashAsync(request.getPassword())
+      : CompletableFuture.completedFuture(null);
+    return hashed.thenApplyAsync(hash -> transactionTemplate.execute(status -> applyUpdate(id, request, hash)),
+      passwordService.completionExecutor());
+  }
+
+  private UserResponse insertUser(UserRequest request, String passwordHash) {
     User user = new User();
     user.setName(request.getName());
     user.setEmail(request.getEmail());
-    user.setPassword(request.getPassword()); // In production, hash the password
+    user.setPassword(passwordHash);
     user.setPhone(request.getPhone());
     user.setRole(request.getRole() != null ? request.getRole() : User.Role.CUSTOMER);
     user.setActive(true);
 
-    User savedUser = userRepository.save(user);
+    User savedUser = saveUnique(user);
+    emailDirectory.add(savedUser.getEmail());
+    eventPublisher.publishEvent(UserChangedEvent.saved(savedUser));
     log.info("User created successfully with id: {}", savedUser.getId());
 
     return convertToResponse(savedUser);
   }
 
-  @Override
-  public UserResponse updateUser(Long id, UserRequest request) {
-    log.info("Updating user with id: {}", id);
+  private void checkEmailChange(User user, UserRequest request) {
+    if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())
+      && !emailDirectory.isDefinitelyFree(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
+      throw new AppointmentException("Email already in use: " + request.getEmail());
+    }
+  }
 
+  private UserResponse applyUpdate(Long id, UserRequest request, String passwordHash) {
+    // Reloaded: the row may have changed while the password was hashed
     User user = userRepository.findById(id)
       .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
@@ -83,14 +185,11 @@ public class UserServiceImpl implements UserService {
     }
 
     if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-      if (userRepository.existsByEmail(request.getEmail())) {
-        throw new AppointmentException("Email already in use: " + request.getEmail());
-      }
       user.setEmail(request.getEmail());
     }
 
-    if (request.getPassword() != null) {
-      user.setPassword(request.getPassword()); // Hash in production
+    if (passwordHash != null) {
+      user.setPassword(passwordHash);
     }
 
     if (request.getPhone() != null) {
@@ -101,7 +200,9 @@ public class UserServiceImpl implements UserService {
       user.setRole(request.getRole());
     }
 
-    User updatedUser = userRepository.save(user);
+    User updatedUser = saveUnique(user);
+    emailDirectory.add(updatedUser.getEmail());
+    eventPublisher.publishEvent(UserChangedEvent.saved(updatedUser));
     log.info("User updated successfully");
 
     return convertToResponse(updatedUser);
@@ -110,20 +211,25 @@ public class UserServiceImpl implements UserService {
   @Override
   public void deleteUser(Long id) {
     log.info("Deleting user with id: {}", id);
+    accessGuard.requireAccess(id);
 
     if (!userRepository.existsById(id)) {
       throw new ResourceNotFoundException("User not found with id: " + id);
     }
 
     userRepository.deleteById(id);
+    eventPublisher.publishEvent(UserChangedEvent.deleted(id));
     log.info("User deleted successfully");
   }
 
   @Override
-  @Transactional(readOnly = true)
+  // No transaction: served from memory, a directory reload uses the repository's own
+  @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
   public List<UserResponse> getAllServiceProviders() {
     log.info("Fetching all service providers");
-    return userRepository.findAllActiveServiceProviders().stream()
+    // Served from the in-memory provider directory
+    return providerDirectory.activeProviders().stream()
+      .map(ProviderEntry::toUser)
       .map(this::convertToResponse)
       .collect(Collectors.toList());
   }
@@ -134,6 +240,7 @@ public class UserServiceImpl implements UserService {
     log.info("Fetching user with email: {}", email);
     User user = userRepository.findByEmail(email)
       .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+    accessGuard.requireAccess(user.getId());
     return convertToResponse(user);
   }
 
@@ -141,11 +248,23 @@ public class UserServiceImpl implements UserService {
   @Transactional(readOnly = true)
   public List<UserResponse> searchUsersByName(String name) {
     log.info("Searching users with name: {}", name);
+    accessGuard.requireAdmin();
     return userRepository.findByNameContainingIgnoreCase(name).stream()
       .map(this::convertToResponse)
       .collect(Collectors.toList());
   }
 
+  // Save and flush so a duplicate email surfaces here; the unique constraint is the final authority
+  private User saveUnique(User user) {
+    try {
+      User saved = userRepository.save(user);
+      userRepository.flush();
+      return saved;
+    } catch (DataIntegrityViolationException ex) {
+      throw new AppointmentException("Email already registered: " + user.getEmail());
+    }
+  }
+
   // Helper method to convert Entity to Response DTO
   private UserResponse convertToResponse(User user) {
     UserResponse response = new UserResponse();
@@ -0,0 +1,134 @@
+package com.appointment.service.impl;
+
+import com.appointment.dto.WaitlistEntryResponse;
+import com.appointment.dto.WaitlistRequest;
+import com.appointment.exception.AppointmentException;
+import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.model.User;
+import com.appointment.model.WaitlistEntry;
+import com.appointment.repository.UserRepository;
+import com.appointment.repository.WaitlistEntryRepository;
+import com.appointment.security.AccessGuard;
+import com.appointment.service.WaitlistService;
+import com.appointment.waitlist.WaitlistPromoter;
+import com.appointment.waitlist.WaitlistProperties;
+import com.appointment.waitlist.Waiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementation of WaitlistService
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class WaitlistServiceImpl implements WaitlistService {
+
+  private final WaitlistEntryRepository waitlistRepository;
+  private final UserRepository userRepository;
+  private final WaitlistPromoter waitlistPromoter;
+  private final WaitlistProperties properties;
+  private final AccessGuard accessGuard;
+
+  @Override
+  public WaitlistEntryResponse joinWaitlist(WaitlistRequest request) {
+    log.info("Customer {} joining the waitlist of provider {}", request.getCustomerId(), request.getServiceProviderId());
+    accessGuard.requireAccess(request.getCustomerId());
+
+    User customer = userRepository.findById(request.getCustomerId())
+      .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+    User provider = userRepository.findById(request.getServiceProviderId())
+      .orElseThrow(() -> new ResourceNotFoundException("Service provider not found"));
+    if (!provider.isServiceProvider()) {
+      throw new AppointmentException("Selected user is not a service provider");
+    }
+
+    LocalDateTime windowStart = request.getWindowStart().isBefore(LocalDateTime.now())
+      ? LocalDateTime.now() : request.getWindowStart();
+    if (!request.getWindowEnd().isAfter(windowStart)) {
+      throw new AppointmentException("Window must end after it starts");
+    }
+    if (Duration.between(windowStart, request.getWindowEnd()).compareTo(properties.getMaxWindow()) > 0) {
+      throw new AppointmentException("Window can be at most " + properties.getMaxWindow().toDays() + " days long");
+    }
+    if (waitlistRepository.countByCustomerIdAndStatus(customer.getId(), WaitlistEntry.Status.WAITING)
+      >= properties.getMaxEntriesPerCustomer()) {
+      throw new AppointmentException("Too many waitlist entries, leave one before joining another");
+    }
+
+    WaitlistEntry entry = new WaitlistEntry();
+    entry.setCustomer(customer);
+    entry.setServiceProvider(provider);
+    entry.setServiceType(request.getServiceType());
+    entry.setWindowStart(windowStart);
+    entry.setWindowEnd(request.getWindowEnd());
+    entry.setNotes(request.getNotes());
+    WaitlistEntry saved = waitlistRepository.saveAndFlush(entry);
+    waitlistPromoter.enqueueAfterCommit(Waiter.of(saved));
+
+    return convertToResponse(saved);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public WaitlistEntryResponse getEntryById(Long id) {
+    WaitlistEntry entry = findEntry(id);
+    accessGuard.requireAccess(entry.getCustomer().getId(), entry.getServiceProvider().getId());
+    return convertToResponse(entry);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<WaitlistEntryResponse> getEntriesByCustomer(Long customerId) {
+    accessGuard.requireAccess(customerId);
+    return waitlistRepository.findByCustomerIdOrderByCreatedAtDesc(customerId).stream()
+      .map(this::convertToResponse)
+      .toList();
+  }
+
+  @Override
+  public void leaveWaitlist(Long id) {
+    log.info("Leaving waitlist entry: {}", id);
+    WaitlistEntry entry = findEntry(id);
+    accessGuard.requireAccess(entry.getCustomer().getId());
+    // Conditional, so an entry being promoted right now is not cancelled underneath its booking
+    if (waitlistRepository.transition(id, WaitlistEntry.Status.WAITING, WaitlistEntry.Status.CANCELLED,
+      LocalDateTime.now()) == 0) {
+      throw new AppointmentException("Waitlist entry is no longer waiting");
+    }
+    waitlistPromoter.removeAfterCommit(entry.getServiceProvider().getId(), id);
+  }
+
+  private WaitlistEntry findEntry(Long id) {
+    return waitlistRepository.findById(id)
+      .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + id));
+  }
+
+  private WaitlistEntryResponse convertToResponse(WaitlistEntry entry) {
+    WaitlistEntryResponse response = new WaitlistEntryResponse();
+    response.setId(entry.getId());
+    response.setCustomerId(entry.getCustomer().getId());
+    response.setCustomerName(entry.getCustomer().getName());
+    response.setServiceProviderId(entry.getServiceProvider().getId());
+    response.setServiceProviderName(entry.getServiceProvider().getName());
+    response.setServiceType(entry.getServiceType());
+    response.setWindowStart(entry.getWindowStart());
+    response.setWindowEnd(entry.getWindowEnd());
+    response.setNotes(entry.getNotes());
+    response.setStatus(entry.getStatus());
+    response.setAppointmentId(entry.getAppointmentId());
+    response.setCreatedAt(entry.getCreatedAt());
+    if (entry.getStatus() == WaitlistEntry.Status.WAITING) {
+      int position = waitlistPromoter.position(entry.getServiceProvider().getId(), entry.getId());
+      response.setPosition(position > 0 ? position : null);
+    }
+    return response;
+  }
+}
@@ -0,0 +1,34 @@
+package com.appointment.waitlist;
+
+import com.appointment.model.Appointment;
+import com.appointment.model.WaitlistEntry;
+
+import java.time.LocalDateTime;
+
+/**
+ * In-memory copy of a waiting entry
+ * @param entryId Waitlist entry ID
+ * @param customerId Customer ID
+ * @param serviceProviderId Service provider ID
+ * @param serviceType Service to book
+ * @param windowStart Earliest acceptable start
+ * @param windowEnd Latest acceptable start
+ * @param joinedAt When the customer joined; earlier entries are served first
+ * @param notes Notes for the appointment
+ */
+public record Waiter(Long entryId, Long customerId, Long serviceProviderId, Appointment.ServiceType serviceType,
+                     LocalDateTime windowStart, LocalDateTime windowEnd, LocalDateTime joinedAt, String notes) {
+
+  public static Waiter of(WaitlistEntry entry) {
+    return new Waiter(entry.getId(), entry.getCustomer().getId(), entry.getServiceProvider().getId(),
+      entry.getServiceType(), entry.getWindowStart(), entry.getWindowEnd(), entry.getCreatedAt(), entry.getNotes());
+  }
+
+  /**
+   * @param start Start of a freed slot
+   * @return true if the customer accepts an appointment at that time
+   */
+  public boolean accepts(LocalDateTime start) {
+    return !start.isBefore(windowStart) && !start.isAfter(windowEnd);
+  }
+}
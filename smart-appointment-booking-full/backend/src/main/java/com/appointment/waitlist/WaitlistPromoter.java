@@ -0,0 +1,348 @@
+package com.appointment.waitlist;
+
+import com.appointment.datasource.ReadYourWritesTracker;
+import com.appointment.event.AppointmentChangedEvent;
+import com.appointment.exception.AppointmentException;
+import com.appointment.model.Appointment;
+import com.appointment.model.FreedSlot;
+import com.appointment.model.User;
+import com.appointment.model.WaitlistEntry;
+import com.appointment.repository.FreedSlotRepository;
+import com.appointment.repository.UserRepository;
+import com.appointment.repository.WaitlistEntryRepository;
+import com.appointment.service.BookingSequencer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Books freed slots for waiting customers
+ *
+ * A cancellation or deletion that frees a future slot some waiter accepts records it in
+ * waitlist_freed_slots, in the same transaction. A single thread per instance takes due slots with
+ * FOR UPDATE SKIP LOCKED (woken at once by local cancellations, otherwise every pollInterval) and tries
+ * the waiters of that provider who accept the start time, in order. Each attempt books through
+ * BookingSequencer and, in the same transaction, claims the entry with a conditional update, records the
+ * appointment on it and deletes the freed slot: the booking and the claim commit together or not at all,
+ * so no claim ever needs releasing. If the booking is rejected, e.g. the waiter's service takes longer
+ * than the gap, the next waiter is tried. A slot no waiter fits is deleted; one whose outcome is unknown
+ * (timeout, overload, database error) stays and is retried after retryDelay.
+ *
+ * The queues are rebuilt from the database on startup and every reloadInterval; entries joined or left on
+ * this instance are applied after commit in between.
+ */
+@Component
+@Slf4j
+public class WaitlistPromoter implements SmartLifecycle {
+
+  private final WaitlistEntryRepository waitlistRepository;
+  private final FreedSlotRepository freedSlotRepository;
+  private final UserRepository userRepository;
+  private final BookingSequencer bookingSequencer;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final TransactionTemplate transactionTemplate;
+  private final WaitlistProperties properties;
+  private final WaitlistQueue queue = new WaitlistQueue();
+  private final Semaphore wakeUp = new Semaphore(0);
+  private final Counter promoted;
+  private final Counter failed;
+
+  private volatile boolean running;
+  private Thread thread;
+
+  public WaitlistPromoter(WaitlistEntryRepository waitlistRepository,
+                          FreedSlotRepository freedSlotRepository,
+                          UserRepository userRepository,
+                          BookingSequencer bookingSequencer,
+                          ReadYourWritesTracker readYourWritesTracker,
+                          PlatformTransactionManager transactionManager,
+                          WaitlistProperties properties,
+                          MeterRegistry meterRegistry) {
+    this.waitlistRepository = waitlistRepository;
+    this.freedSlotRepository = freedSlotRepository;
+    this.userRepository = userRepository;
+    this.bookingSequencer = bookingSequencer;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.properties = properties;
+    this.promoted = Counter.builder("waitlist.promoted")
+      .description("Freed slots booked for a waiting customer")
+      .register(meterRegistry);
+    this.failed = Counter.builder("waitlist.promotion.failed")
+      .description("Freed slots that could not be promoted because of an error")
+      .register(meterRegistry);
+    Gauge.builder("waitlist.waiting", queue, WaitlistQueue::size)
+      .description("Customers waiting in the in-memory queues")
+      .register(meterRegistry);
+  }
+
+  @Override
+  public void start() {
+    if (running) {
+      return;
+    }
+    if (!properties.isPromotionEnabled()) {
+      log.info("Waitlist promotion disabled");
+      return;
+    }
+    running = true;
+    thread = new Thread(this::run, "waitlist-promoter");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Record a slot freed by a cancellation or deletion, in the transaction that frees it
+   * Only future slots that a waiting entry accepts are recorded.
+   * @param event The change
+   */
+  @EventListener
+  public void onAppointmentChanged(AppointmentChangedEvent event) {
+    if (!properties.isPromotionEnabled() || !freesSlot(event)
+      || !event.appointmentDateTime().isAfter(LocalDateTime.now())
+      || !waitlistRepository.hasWaiterFor(event.serviceProviderId(), event.appointmentDateTime())) {
+      return;
+    }
+    FreedSlot slot = new FreedSlot();
+    slot.setServiceProviderId(event.serviceProviderId());
+    slot.setStart(event.appointmentDateTime());
+    slot.setNextAttemptAt(LocalDateTime.now());
+    slot.setCreatedAt(LocalDateTime.now());
+    freedSlotRepository.save(slot);
+    afterCommit(wakeUp::release);
+  }
+
+  /**
+   * Add a new entry to the queues once the current transaction commits
+   * @param waiter The entry
+   */
+  public void enqueueAfterCommit(Waiter waiter) {
+    afterCommit(() -> queue.add(waiter));
+  }
+
+  /**
+   * Remove an entry from the queues once the current transaction commits
+   * @param providerId Provider of the entry
+   * @param entryId Entry ID
+   */
+  public void removeAfterCommit(Long providerId, Long entryId) {
+    afterCommit(() -> queue.remove(providerId, entryId));
+  }
+
+  /**
+   * @return 1-based position among the provider's waiters on this instance, or 0 if not queued
+   */
+  public int position(Long providerId, Long entryId) {
+    return queue.position(providerId, entryId);
+  }
+
+  private void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+
+  /**
+   * @return true if the change gives up a booked slot: a pending or confirmed appointment was
+   *   cancelled or deleted
+   */
+  private static boolean freesSlot(AppointmentChangedEvent event) {
+    boolean wasBooked = event.previousStatus() == Appointment.Status.PENDING
+      || event.previousStatus() == Appointment.Status.CONFIRMED;
+    boolean cancelled = event.change() == AppointmentChangedEvent.Change.DELETED
+      || (event.change() == AppointmentChangedEvent.Change.STATUS_CHANGED
+      && event.status() == Appointment.Status.CANCELLED);
+    return wasBooked && cancelled && event.appointmentDateTime() != null;
+  }
+
+  /**
+   * Take the due freed slots and try to book each for a waiter
+   * @return Number of slots taken
+   */
+  public int promoteDue() {
+    LocalDateTime now = LocalDateTime.now();
+    List<FreedSlot> due = transactionTemplate.execute(status -> {
+      List<FreedSlot> batch = freedSlotRepository.lockDue(now, Limit.of(Math.max(1, properties.getBatchSize())));
+      if (!batch.isEmpty()) {
+        // Lease: another instance takes them over only if this one has not finished by then
+        freedSlotRepository.postpone(batch.stream().map(FreedSlot::getId).toList(),
+          now.plus(properties.getRetryDelay()));
+      }
+      return batch;
+    });
+    if (due == null) {
+      return 0;
+    }
+    for (FreedSlot slot : due) {
+      try {
+        promote(slot);
+      } catch (RuntimeException ex) {
+        // Outcome unknown: the slot may have been booked; it is tried again after retryDelay
+        failed.increment();
+        log.warn("Promotion of the slot of provider {} at {} failed, retrying in {}", slot.getServiceProviderId(),
+          slot.getStart(), properties.getRetryDelay(), ex);
+      }
+    }
+    return due.size();
+  }
+
+  private void run() {
+    long reloadNanos = Math.max(1, properties.getReloadInterval().toNanos());
+    long nextReload = System.nanoTime();
+    while (running) {
+      boolean full = false;
+      try {
+        if (System.nanoTime() - nextReload >= 0) {
+          nextReload = System.nanoTime() + reloadNanos;
+          reload();
+        }
+        full = promoteDue() >= properties.getBatchSize();
+      } catch (RuntimeException ex) {
+        // Database unavailable or similar; the next round starts over from the committed state
+        failed.increment();
+        log.error("Waitlist promotion failed", ex);
+      }
+      if (!full) {
+        try {
+          long wait = Math.min(properties.getPollInterval().toNanos(), Math.max(1, nextReload - System.nanoTime()));
+          if (wakeUp.tryAcquire(wait, TimeUnit.NANOSECONDS)) {
+            wakeUp.drainPermits();
+          }
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void reload() {
+    LocalDateTime now = LocalDateTime.now();
+    List<Waiter> waiters = transactionTemplate.execute(status -> {
+      int expired = waitlistRepository.expireBefore(now);
+      if (expired > 0) {
+        log.info("Expired {} waitlist entries", expired);
+      }
+      return waitlistRepository.findByStatusAndWindowEndAfterOrderByCreatedAtAsc(WaitlistEntry.Status.WAITING, now)
+        .stream().map(Waiter::of).toList();
+    });
+    queue.reset(waiters);
+  }
+
+  /**
+   * Try the waiters who accept the slot, in order, until one is booked; the slot is deleted either way
+   * @throws RuntimeException if the outcome of a booking is not known; the slot is kept
+   */
+  private void promote(FreedSlot slot) {
+    LocalDateTime now = LocalDateTime.now();
+    if (!slot.getStart().isAfter(now)) {
+      consume(slot);
+      return;
+    }
+    // The cancelling transaction drops the cached calendar after commit too; do not race it
+    bookingSequencer.invalidateAfterCommit(slot.getServiceProviderId());
+    for (Waiter waiter : queue.candidates(slot.getServiceProviderId(), slot.getStart(), now)) {
+      Appointment booked;
+      try {
+        booked = bookingSequencer.book(appointmentFor(waiter, slot.getStart()), saved -> {
+          // Consume, claim and record together with the booking
+          if (freedSlotRepository.deleteSlot(slot.getId()) == 0) {
+            throw new SlotGoneException();
+          }
+          if (waitlistRepository.transition(waiter.entryId(), WaitlistEntry.Status.WAITING,
+            WaitlistEntry.Status.BOOKED, LocalDateTime.now()) == 0) {
+            throw new NoLongerWaitingException();
+          }
+          waitlistRepository.recordAppointment(waiter.entryId(), saved.getId(), LocalDateTime.now());
+        });
+      } catch (SlotGoneException ex) {
+        // Handled by another instance after this one's lease ran out; nothing was booked
+        return;
+      } catch (NoLongerWaitingException ex) {
+        // Left the waitlist or promoted elsewhere; nothing was booked
+        queue.remove(waiter.serviceProviderId(), waiter.entryId());
+        continue;
+      } catch (AppointmentException ex) {
+        // Does not fit this waiter (or the slot is gone); nothing was booked, the next one may still fit
+        continue;
+      }
+      queue.remove(waiter.serviceProviderId(), waiter.entryId());
+      readYourWritesTracker.recordWrite(waiter.customerId());
+      promoted.increment();
+      log.info("Waitlist entry {} booked as appointment {} at {}", waiter.entryId(), booked.getId(), slot.getStart());
+      return;
+    }
+    consume(slot);
+  }
+
+  private void consume(FreedSlot slot) {
+    transactionTemplate.executeWithoutResult(status -> freedSlotRepository.deleteSlot(slot.getId()));
+  }
+
+  private Appointment appointmentFor(Waiter waiter, LocalDateTime start) {
+    User customer = userRepository.findById(waiter.customerId())
+      .orElseThrow(() -> new AppointmentException("Customer no longer exists"));
+    User provider = userRepository.findById(waiter.serviceProviderId())
+      .orElseThrow(() -> new AppointmentException("Service provider no longer exists"));
+    Appointment appointment = new Appointment();
+    appointment.setCustomer(customer);
+    appointment.setServiceProvider(provider);
+    appointment.setServiceType(waiter.serviceType());
+    appointment.setAppointmentDateTime(start);
+    appointment.setNotes(waiter.notes());
+    appointment.setStatus(Appointment.Status.PENDING);
+    return appointment;
+  }
+
+  /**
+   * Thrown inside the booking transaction when the slot was already handled
+   */
+  private static final class SlotGoneException extends RuntimeException {
+    private SlotGoneException() {
+      super("Freed slot was already handled", null, false, false);
+    }
+  }
+
+  /**
+   * Thrown inside the booking transaction when the entry was claimed or left in the meantime
+   */
+  private static final class NoLongerWaitingException extends RuntimeException {
+    private NoLongerWaitingException() {
+      super("Waitlist entry is no longer waiting", null, false, false);
+    }
+  }
+}
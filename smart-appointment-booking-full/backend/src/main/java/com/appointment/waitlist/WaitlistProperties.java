@@ -0,0 +1,50 @@
+package com.appointment.waitlist;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the appointment waitlist
+ * Bound from app.waitlist.* in application.properties
+ */
+@Data
+@ConfigurationProperties(prefix = "app.waitlist")
+public class WaitlistProperties {
+
+  /**
+   * When false, freed slots are not offered to waiting customers; joining the waitlist still works
+   */
+  private boolean promotionEnabled = true;
+
+  /**
+   * Longest time window a customer can wait on
+   */
+  private Duration maxWindow = Duration.ofDays(14);
+
+  /**
+   * Waiting entries per customer
+   */
+  private int maxEntriesPerCustomer = 10;
+
+  /**
+   * Longest wait between checks for freed slots; slots freed on this instance are picked up at once
+   */
+  private Duration pollInterval = Duration.ofSeconds(5);
+
+  /**
+   * Delay before a freed slot is tried again when its promotion failed or its instance stopped
+   */
+  private Duration retryDelay = Duration.ofMinutes(1);
+
+  /**
+   * Freed slots taken per round
+   */
+  private int batchSize = 20;
+
+  /**
+   * How often the in-memory queues are rebuilt from the database, picking up entries made on other instances
+   */
+  private Duration reloadInterval = Duration.ofMinutes(1);
+}
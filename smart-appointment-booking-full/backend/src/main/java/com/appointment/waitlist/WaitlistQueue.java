@@ -0,0 +1,84 @@
+package com.appointment.waitlist;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-provider priority queues of waiting customers, first come first served
+ * Thread-safe; the database stays the source of truth and the queues are rebuilt from it periodically
+ */
+public class WaitlistQueue {
+
+  private static final Comparator<Waiter> PRIORITY = Comparator
+    .comparing(Waiter::joinedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+    .thenComparing(Waiter::entryId);
+
+  private volatile Map<Long, NavigableSet<Waiter>> byProvider = new ConcurrentHashMap<>();
+
+  public void add(Waiter waiter) {
+    byProvider.computeIfAbsent(waiter.serviceProviderId(), id -> new ConcurrentSkipListSet<>(PRIORITY)).add(waiter);
+  }
+
+  public void remove(Long providerId, Long entryId) {
+    NavigableSet<Waiter> waiters = byProvider.get(providerId);
+    if (waiters != null) {
+      waiters.removeIf(waiter -> waiter.entryId().equals(entryId));
+    }
+  }
+
+  /**
+   * Waiters who accept a slot, in priority order; waiters whose window has passed are dropped
+   * @param providerId Provider whose slot was freed
+   * @param start Start of the freed slot
+   * @param now Current time
+   * @return Candidates, best first
+   */
+  public List<Waiter> candidates(Long providerId, LocalDateTime start, LocalDateTime now) {
+    NavigableSet<Waiter> waiters = byProvider.get(providerId);
+    if (waiters == null) {
+      return List.of();
+    }
+    waiters.removeIf(waiter -> waiter.windowEnd().isBefore(now));
+    return waiters.stream().filter(waiter -> waiter.accepts(start)).toList();
+  }
+
+  /**
+   * @return 1-based position among the provider's waiters, or 0 if not queued
+   */
+  public int position(Long providerId, Long entryId) {
+    NavigableSet<Waiter> waiters = byProvider.get(providerId);
+    if (waiters == null) {
+      return 0;
+    }
+    int position = 1;
+    for (Waiter waiter : waiters) {
+      if (waiter.entryId().equals(entryId)) {
+        return position;
+      }
+      position++;
+    }
+    return 0;
+  }
+
+  /**
+   * Replace all queues at once
+   * @param waiters Every waiting entry
+   */
+  public void reset(Collection<Waiter> waiters) {
+    Map<Long, NavigableSet<Waiter>> rebuilt = new ConcurrentHashMap<>();
+    for (Waiter waiter : waiters) {
+      rebuilt.computeIfAbsent(waiter.serviceProviderId(), id -> new ConcurrentSkipListSet<>(PRIORITY)).add(waiter);
+    }
+    byProvider = rebuilt;
+  }
+
+  public int size() {
+    return byProvider.values().stream().mapToInt(NavigableSet::size).sum();
+  }
+}
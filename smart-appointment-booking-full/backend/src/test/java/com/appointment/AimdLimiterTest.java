@@ -0,0 +1,72 @@
+package com.appointment;
+
+import com.appointment.concurrency.AimdLimiter;
+import com.appointment.concurrency.ConcurrencyLimitProperties;
+import com.appointment.concurrency.RequestPriority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimiterTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+  private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+  private AimdLimiter limiter;
+
+  @BeforeEach
+  void setUp() {
+    ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+    properties.setInitialLimit(10);
+    properties.setMinLimit(2);
+    properties.setMaxLimit(20);
+    properties.setReadShare(0.8);
+    limiter = new AimdLimiter(properties);
+  }
+
+  @Test
+  void testReadsAreShedBeforeWrites() {
+    for (int i = 0; i < 8; i++) {
+      assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+    }
+    assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+    assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+    assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+    assertFalse(limiter.tryAcquire(RequestPriority.HIGH));
+  }
+
+  @Test
+  void testSlowResponsesShrinkLimit() {
+    for (int i = 0; i < 20; i++) {
+      assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+      limiter.release(SLOW, false);
+    }
+    assertEquals(2, limiter.getLimit());
+  }
+
+  @Test
+  void testHealthyBusyServerGrowsLimit() {
+    for (int round = 0; round < 5; round++) {
+      int admitted = 0;
+      while (limiter.tryAcquire(RequestPriority.HIGH)) {
+        admitted++;
+      }
+      for (int i = 0; i < admitted; i++) {
+        limiter.release(FAST, false);
+      }
+    }
+    assertTrue(limiter.getLimit() > 10);
+    assertTrue(limiter.getLimit() <= 20);
+  }
+
+  @Test
+  void testFailuresCountAsCongestion() {
+    assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+    limiter.release(FAST, true);
+    assertEquals(9, limiter.getLimit());
+    assertEquals(0, limiter.getInFlight());
+  }
+}
@@ -0,0 +1,111 @@
+package com.appointment;
+
+import com.appointment.event.AppointmentChangedEvent;
+import com.appointment.graphql.AppointmentChangePublisher;
+import com.appointment.graphql.GraphQlSubscriptionProperties;
+import com.appointment.model.Appointment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentChangePublisherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GraphQlSubscriptionProperties properties;
+    private AppointmentChangePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new GraphQlSubscriptionProperties();
+        properties.setBufferSize(2);
+        publisher = new AppointmentChangePublisher(properties, meterRegistry);
+    }
+
+    @Test
+    void testSubscriptionsSeeOnlyMatchingChanges() {
+        Collector provider7 = new Collector(Long.MAX_VALUE);
+        Collector customer3 = new Collector(Long.MAX_VALUE);
+        publisher.subscribe(7L, null).subscribe(provider7);
+        publisher.subscribe(null, 3L).subscribe(customer3);
+
+        publisher.onAppointmentChanged(change(1L, 3L, 7L));
+        publisher.onAppointmentChanged(change(2L, 4L, 7L));
+        publisher.onAppointmentChanged(change(3L, 3L, 8L));
+
+        assertEquals(List.of(1L, 2L), provider7.ids());
+        assertEquals(List.of(1L, 3L), customer3.ids());
+    }
+
+    @Test
+    void testSlowSubscriberKeepsNewestEvents() {
+        Collector slow = new Collector(0);
+        Collector fast = new Collector(Long.MAX_VALUE);
+        publisher.subscribe(null, null).subscribe(slow);
+        publisher.subscribe(null, null).subscribe(fast);
+
+        for (long id = 1; id <= 5; id++) {
+            publisher.onAppointmentChanged(change(id, 3L, 7L));
+        }
+        slow.request(Long.MAX_VALUE);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), fast.ids());
+        assertEquals(List.of(4L, 5L), slow.ids());
+        assertEquals(3, meterRegistry.get("graphql.subscription.dropped").counter().count());
+    }
+
+    @Test
+    void testSubscriptionLimit() {
+        properties.setMaxSubscriptions(1);
+        publisher.subscribe(null, null).subscribe(new Collector(Long.MAX_VALUE));
+        Collector rejected = new Collector(Long.MAX_VALUE);
+
+        publisher.subscribe(null, null).subscribe(rejected);
+
+        assertInstanceOf(IllegalStateException.class, rejected.error);
+    }
+
+    private static AppointmentChangedEvent change(Long appointmentId, Long customerId, Long providerId) {
+        return new AppointmentChangedEvent(AppointmentChangedEvent.Change.STATUS_CHANGED, appointmentId, customerId,
+            providerId, Appointment.Status.PENDING, Appointment.Status.CONFIRMED, LocalDateTime.now().plusDays(1));
+    }
+
+    private static final class Collector extends BaseSubscriber<AppointmentChangedEvent> {
+        private final long initialDemand;
+        private final List<AppointmentChangedEvent> received = new ArrayList<>();
+        private Throwable error;
+
+        private Collector(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(AppointmentChangedEvent value) {
+            received.add(value);
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+
+        private List<Long> ids() {
+            return received.stream().map(AppointmentChangedEvent::appointmentId).toList();
+        }
+    }
+}
@@ -5,11 +5,15 @@ import com.appointment.model.Appointment;
 import com.appointment.model.User;
 import com.appointment.repository.AppointmentRepository;
 import com.appointment.repository.UserRepository;
+import com.appointment.security.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -35,6 +39,9 @@ class AppointmentControllerIntegrationTest {
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private TokenService tokenService;
+
     private User customer;
     private User provider;
 
@@ -67,12 +74,24 @@ class AppointmentControllerIntegrationTest {
         request.setServiceType(Appointment.ServiceType.DOCTOR);
         request.setAppointmentDateTime(LocalDateTime.now().plusDays(1));
 
-        ResponseEntity<String> postResponse = restTemplate.postForEntity("/api/v1/appointments", request, String.class);
+        ResponseEntity<String> postResponse = restTemplate.postForEntity("/api/v1/appointments", as(customer, request), String.class);
         assertEquals(HttpStatus.CREATED, postResponse.getStatusCode());
         assertTrue(postResponse.getBody().contains("Appointment created successfully"));
 
-        ResponseEntity<String> getResponse = restTemplate.getForEntity("/api/v1/appointments", String.class);
+        ResponseEntity<String> getResponse = restTemplate.exchange("/api/v1/appointments/customer/" + customer.getId(),
+            HttpMethod.GET, as(customer, null), String.class);
         assertEquals(HttpStatus.OK, getResponse.getStatusCode());
         assertTrue(getResponse.getBody().contains("John Doe"));
+
+        // Everyone's appointments are for admins only
+        assertEquals(HttpStatus.FORBIDDEN,
+            restTemplate.exchange("/api/v1/appointments", HttpMethod.GET, as(customer, null), String.class).getStatusCode());
+    }
+
+    // Requests carry a session token for the given user, as after POST /api/v1/auth/login
+    private HttpEntity<Object> as(User user, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tokenService.issue(user.getId(), user.getRole()));
+        return new HttpEntity<>(body, headers);
     }
 }
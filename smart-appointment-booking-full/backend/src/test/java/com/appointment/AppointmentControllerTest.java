@@ -4,6 +4,7 @@ import com.appointment.controller.AppointmentController;
 import com.appointment.dto.AppointmentRequest;
 import com.appointment.dto.AppointmentResponse;
 import com.appointment.model.Appointment;
+import com.appointment.security.AccessGuard;
 import com.appointment.service.AppointmentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,11 +18,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.doAnswer;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -81,6 +84,9 @@ class AppointmentControllerTest {
 	@MockBean
 	private AppointmentService appointmentService;
 
+	@MockBean
+	private AccessGuard accessGuard;
+
 	private AppointmentResponse appointmentResponse;
 	private AppointmentRequest appointmentRequest;
 
@@ -106,12 +112,30 @@ class AppointmentControllerTest {
 	@Test
 	void testGetAllAppointments() throws Exception {
 		List<AppointmentResponse> appointments = Arrays.asList(appointmentResponse);
-		when(appointmentService.getAllAppointments()).thenReturn(appointments);
+		streamAppointments(appointments);
 
 		mockMvc.perform(get("/api/v1/appointments"))
 			.andExpect(status().isOk())
 			.andExpect(jsonPath("$.success").value(true))
-			.andExpect(jsonPath("$.data[0].customerName").value("John Doe"));
+			.andExpect(jsonPath("$.data[0].customerName").value("John Doe"))
+			.andExpect(jsonPath("$.timestamp").exists());
+	}
+
+	@Test
+	void testGetAllAppointmentsMap() throws Exception {
+		streamAppointments(Arrays.asList(appointmentResponse));
+
+		mockMvc.perform(get("/api/v1/appointments/map"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.success").value(true))
+			.andExpect(jsonPath("$.data['1'].customerName").value("John Doe"));
+	}
+
+	private void streamAppointments(List<AppointmentResponse> appointments) {
+		doAnswer(invocation -> {
+			appointments.forEach(invocation.<Consumer<AppointmentResponse>>getArgument(0));
+			return null;
+		}).when(appointmentService).streamAllAppointments(any());
 	}
 
 	@Test
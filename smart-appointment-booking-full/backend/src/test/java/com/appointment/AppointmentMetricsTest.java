@@ -0,0 +1,58 @@
+package com.appointment;
+
+import com.appointment.metrics.AppointmentMetrics;
+import com.appointment.model.Appointment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentMetricsTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private AppointmentMetrics appointmentMetrics;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    appointmentMetrics = new AppointmentMetrics(meterRegistry);
+  }
+
+  @Test
+  void testBookingConflictsAreCountedPerServiceType() {
+    appointmentMetrics.bookingConflict(Appointment.ServiceType.DOCTOR, Appointment.Status.PENDING);
+    appointmentMetrics.bookingConflict(Appointment.ServiceType.DOCTOR, Appointment.Status.PENDING);
+    appointmentMetrics.bookingConflict(Appointment.ServiceType.DENTIST, Appointment.Status.PENDING);
+
+    assertEquals(2.0, conflicts("DOCTOR").count());
+    assertEquals(1.0, conflicts("DENTIST").count());
+  }
+
+  @Test
+  void testBookingConflictsAreCountedPerStatus() {
+    appointmentMetrics.bookingConflict(Appointment.ServiceType.DOCTOR, Appointment.Status.PENDING);
+    appointmentMetrics.bookingConflict(Appointment.ServiceType.DOCTOR, Appointment.Status.CONFIRMED);
+
+    for (String status : new String[] {"PENDING", "CONFIRMED"}) {
+      assertEquals(1.0, meterRegistry.get(AppointmentMetrics.BOOKING_CONFLICTS)
+        .tags("service_type", "DOCTOR", "status", status).counter().count());
+    }
+  }
+
+  @Test
+  void testBookingConflictWithoutServiceTypeIsTaggedUnknown() {
+    appointmentMetrics.bookingConflict(null, null);
+
+    assertEquals(1.0, conflicts("UNKNOWN").count());
+  }
+
+  private Counter conflicts(String serviceType) {
+    Counter counter = meterRegistry.find(AppointmentMetrics.BOOKING_CONFLICTS)
+      .tag("service_type", serviceType)
+      .counter();
+    assertNotNull(counter, "No conflict counter for " + serviceType);
+    return counter;
+  }
+}
@@ -0,0 +1,34 @@
+package com.appointment;
+
+import com.appointment.dto.AppointmentResponse;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentResponseTest {
+
+  @Test
+  void testEveryPropertyHasAFixedPosition() throws Exception {
+    // Binary encodings share repeated keys; a property missing from the order moves around between payloads
+    AppointmentResponse response = new AppointmentResponse();
+    response.setSeriesId(5L);
+    ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    Map<?, ?> serialized = mapper.readValue(mapper.writeValueAsString(response), Map.class);
+    List<String> order = List.of(AppointmentResponse.class.getAnnotation(JsonPropertyOrder.class).value());
+
+    List<String> unordered = new ArrayList<>();
+    for (Object property : serialized.keySet()) {
+      if (!order.contains(property)) {
+        unordered.add((String) property);
+      }
+    }
+    assertTrue(unordered.isEmpty(), "Missing from @JsonPropertyOrder: " + unordered);
+  }
+}
@@ -0,0 +1,74 @@
+package com.appointment;
+
+import com.appointment.model.AppointmentSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentSeriesTest {
+
+  @Test
+  void testOccurrencesBetweenReturnsOnlyTheWindow() {
+    AppointmentSeries series = series(LocalDateTime.of(2030, 1, 7, 9, 0), AppointmentSeries.Frequency.WEEKLY, 2, 10);
+
+    List<LocalDateTime> occurrences = series.occurrencesBetween(
+      LocalDateTime.of(2030, 2, 1, 0, 0), LocalDateTime.of(2030, 3, 4, 9, 0));
+
+    assertEquals(List.of(LocalDateTime.of(2030, 2, 4, 9, 0), LocalDateTime.of(2030, 2, 18, 9, 0)), occurrences);
+    assertEquals(LocalDateTime.of(2030, 5, 13, 9, 0), series.getLastOccurrence());
+  }
+
+  @Test
+  void testOccurrencesStopAtCount() {
+    AppointmentSeries series = series(LocalDateTime.of(2030, 1, 1, 10, 0), AppointmentSeries.Frequency.DAILY, 1, 3);
+
+    List<LocalDateTime> occurrences = series.occurrencesBetween(
+      LocalDateTime.of(2029, 1, 1, 0, 0), LocalDateTime.of(2031, 1, 1, 0, 0));
+
+    assertEquals(3, occurrences.size());
+    assertTrue(series.occurrencesBetween(LocalDateTime.of(2030, 1, 4, 0, 0), LocalDateTime.of(2031, 1, 1, 0, 0)).isEmpty());
+  }
+
+  @Test
+  void testMonthlyOccurrencesClampToShortMonths() {
+    AppointmentSeries series = series(LocalDateTime.of(2030, 1, 31, 9, 0), AppointmentSeries.Frequency.MONTHLY, 1, 4);
+
+    List<LocalDateTime> occurrences = series.occurrencesBetween(
+      LocalDateTime.of(2030, 2, 28, 9, 0), LocalDateTime.of(2030, 4, 1, 0, 0));
+
+    assertEquals(List.of(LocalDateTime.of(2030, 2, 28, 9, 0), LocalDateTime.of(2030, 3, 31, 9, 0)), occurrences);
+  }
+
+  @Test
+  void testEndBeforeKeepsOccurrencesThatAlreadyStarted() {
+    AppointmentSeries series = series(LocalDateTime.of(2030, 1, 7, 9, 0), AppointmentSeries.Frequency.WEEKLY, 1, 10);
+
+    assertEquals(3, series.endBefore(LocalDateTime.of(2030, 1, 21, 12, 0)));
+
+    assertEquals(3, series.getOccurrenceCount());
+    assertEquals(LocalDateTime.of(2030, 1, 21, 9, 0), series.getLastOccurrence());
+    assertEquals(3, series.occurrencesBetween(LocalDateTime.of(2029, 1, 1, 0, 0), LocalDateTime.of(2031, 1, 1, 0, 0)).size());
+  }
+
+  @Test
+  void testEndBeforeTheFirstOccurrenceKeepsNothing() {
+    AppointmentSeries series = series(LocalDateTime.of(2030, 1, 7, 9, 0), AppointmentSeries.Frequency.WEEKLY, 1, 10);
+
+    assertEquals(0, series.endBefore(LocalDateTime.of(2030, 1, 7, 9, 0)));
+    assertEquals(10, series.getOccurrenceCount());
+  }
+
+  private static AppointmentSeries series(LocalDateTime first, AppointmentSeries.Frequency frequency,
+                                          int interval, int count) {
+    AppointmentSeries series = new AppointmentSeries();
+    series.setFirstOccurrence(first);
+    series.setFrequency(frequency);
+    series.setInterval(interval);
+    series.setOccurrenceCount(count);
+    series.updateLastOccurrence();
+    return series;
+  }
+}
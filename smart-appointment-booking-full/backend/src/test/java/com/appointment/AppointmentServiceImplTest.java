@@ -1,23 +1,45 @@
 package com.appointment;
 
+import com.appointment.datasource.ReadYourWritesTracker;
+import com.appointment.directory.ProviderDirectory;
 import com.appointment.dto.AppointmentRequest;
 import com.appointment.dto.AppointmentResponse;
+import com.appointment.dto.BulkStatusUpdateResponse;
+import com.appointment.dto.CursorPage;
+import com.appointment.event.AppointmentChangedEvent;
+import com.appointment.exception.AccessDeniedException;
 import com.appointment.exception.ResourceNotFoundException;
+import com.appointment.metrics.AppointmentMetrics;
 import com.appointment.model.Appointment;
 import com.appointment.model.User;
 import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.KeysetCursor;
 import com.appointment.repository.UserRepository;
+import com.appointment.security.AccessGuard;
+import com.appointment.security.AuthenticatedUser;
+import com.appointment.security.TokenProperties;
+import com.appointment.service.AppointmentSeriesService;
+import com.appointment.service.BookingSequencer;
 import com.appointment.service.impl.AppointmentServiceImpl;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.Collections;
 import java.util.List;
+import java.util.ArrayList;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -72,6 +94,28 @@ class AppointmentServiceImplTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private AppointmentMetrics appointmentMetrics;
+
+  @Mock
+  private BookingSequencer bookingSequencer;
+
+  @Mock
+  private ReadYourWritesTracker readYourWritesTracker;
+
+  @Mock
+  private ProviderDirectory providerDirectory;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private AppointmentSeriesService appointmentSeriesService;
+
+  // Real guard; tests call as an admin unless they set another caller
+  @Spy
+  private AccessGuard accessGuard = new AccessGuard(new TokenProperties());
+
   @InjectMocks
   private AppointmentServiceImpl appointmentService;
 
@@ -82,6 +126,7 @@ class AppointmentServiceImplTest {
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
+    callAs(new AuthenticatedUser(99L, User.Role.ADMIN, Long.MAX_VALUE, "admin"));
   user = new User();
   user.setId(1L);
   user.setName("John Doe");
@@ -112,6 +157,22 @@ class AppointmentServiceImplTest {
     assertEquals("John Doe", responses.get(0).getCustomerName());
   }
 
+  @Test
+  void testStreamAllAppointments_ConvertsEachRow() {
+    AppointmentRepository.ListingRow row = mock(AppointmentRepository.ListingRow.class);
+    when(row.getId()).thenReturn(1L);
+    when(row.getCustomerName()).thenReturn("John Doe");
+    when(row.getStatus()).thenReturn(Appointment.Status.PENDING);
+    when(appointmentRepository.streamAllForListing()).thenReturn(Stream.of(row));
+
+    List<AppointmentResponse> responses = new ArrayList<>();
+    appointmentService.streamAllAppointments(responses::add);
+
+    assertEquals(1, responses.size());
+    assertEquals("John Doe", responses.get(0).getCustomerName());
+    assertEquals("Pending Confirmation", responses.get(0).getStatusDisplayName());
+  }
+
   @Test
   void testGetAppointmentById_Found() {
     when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
@@ -129,8 +190,231 @@ class AppointmentServiceImplTest {
   void testCreateAppointment_Success() {
     when(userRepository.findById(1L)).thenReturn(Optional.of(user));
     when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-    when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+    when(bookingSequencer.book(any(Appointment.class))).thenReturn(appointment);
     AppointmentResponse response = appointmentService.createAppointment(appointmentRequest);
     assertEquals("John Doe", response.getCustomerName());
   }
+
+  @Test
+  void testUpdateAppointmentStatus_RejectsInvalidTransition() {
+    appointment.setStatus(Appointment.Status.COMPLETED);
+    when(appointmentRepository.lockById(1L)).thenReturn(Optional.of(appointment));
+    assertThrows(com.appointment.exception.AppointmentException.class,
+      () -> appointmentService.updateAppointmentStatus(1L, Appointment.Status.PENDING));
+    verify(appointmentRepository, never()).save(any());
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void testUpdateAppointmentStatuses_OneUpdatePerSourceStatus() {
+    List<AppointmentRepository.StatusRow> rows = List.of(
+      statusRow(1L, Appointment.Status.PENDING),
+      statusRow(2L, Appointment.Status.CONFIRMED),
+      statusRow(3L, Appointment.Status.PENDING),
+      statusRow(4L, Appointment.Status.COMPLETED),
+      statusRow(5L, Appointment.Status.CANCELLED));
+    when(appointmentRepository.lockStatusRows(any())).thenReturn(rows);
+    when(appointmentRepository.transitionStatus(eq(List.of(1L, 3L)), eq(Appointment.Status.PENDING),
+      eq(Appointment.Status.CANCELLED), any())).thenReturn(2);
+    when(appointmentRepository.transitionStatus(eq(List.of(2L)), eq(Appointment.Status.CONFIRMED),
+      eq(Appointment.Status.CANCELLED), any())).thenReturn(1);
+
+    BulkStatusUpdateResponse response = appointmentService.updateAppointmentStatuses(
+      List.of(1L, 2L, 3L, 4L, 5L, 6L, 1L), Appointment.Status.CANCELLED);
+
+    assertEquals(3, response.getUpdated());
+    assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L),
+      response.getResults().stream().map(BulkStatusUpdateResponse.Outcome::getId).toList());
+    assertEquals(List.of(
+        BulkStatusUpdateResponse.Result.UPDATED,
+        BulkStatusUpdateResponse.Result.UPDATED,
+        BulkStatusUpdateResponse.Result.UPDATED,
+        BulkStatusUpdateResponse.Result.INVALID_TRANSITION,
+        BulkStatusUpdateResponse.Result.UNCHANGED,
+        BulkStatusUpdateResponse.Result.NOT_FOUND),
+      response.getResults().stream().map(BulkStatusUpdateResponse.Outcome::getResult).toList());
+    verify(appointmentRepository, times(2)).transitionStatus(any(), any(), any(), any());
+    verify(eventPublisher, times(3)).publishEvent(any(AppointmentChangedEvent.class));
+  }
+
+  @Test
+  void testUpdateAppointmentStatuses_ReportsConcurrentChanges() {
+    List<AppointmentRepository.StatusRow> rows = List.of(
+      statusRow(1L, Appointment.Status.PENDING), statusRow(2L, Appointment.Status.PENDING));
+    when(appointmentRepository.lockStatusRows(any())).thenReturn(rows);
+    when(appointmentRepository.transitionStatus(any(), any(), any(), any())).thenReturn(1);
+    when(appointmentRepository.findIdsWithStatus(any(), eq(Appointment.Status.CONFIRMED))).thenReturn(List.of(2L));
+
+    BulkStatusUpdateResponse response = appointmentService.updateAppointmentStatuses(
+      List.of(1L, 2L), Appointment.Status.CONFIRMED);
+
+    assertEquals(1, response.getUpdated());
+    assertEquals(BulkStatusUpdateResponse.Result.CONFLICT, response.getResults().get(0).getResult());
+    assertEquals(BulkStatusUpdateResponse.Result.UPDATED, response.getResults().get(1).getResult());
+  }
+
+  @Test
+  void testGetAppointmentsPage_FetchesOneExtraRowAndCountsLazily() {
+    Appointment second = new Appointment();
+    second.setId(2L);
+    second.setCustomer(user);
+    second.setServiceProvider(user);
+    second.setServiceType(Appointment.ServiceType.DOCTOR);
+    second.setAppointmentDateTime(appointment.getAppointmentDateTime().minusHours(2));
+    second.setStatus(Appointment.Status.PENDING);
+    doReturn(List.of(appointment, second)).when(appointmentRepository).findBy(any(Specification.class), any());
+    when(appointmentRepository.count(any(Specification.class))).thenReturn(7L);
+
+    CursorPage<AppointmentResponse> page = appointmentService.getAppointmentsPage(null, 1, null);
+
+    assertEquals(1, page.edges().size());
+    assertTrue(page.hasNextPage());
+    assertFalse(page.hasPreviousPage());
+    KeysetCursor cursor = KeysetCursor.decode(page.pageInfo().endCursor());
+    assertEquals(1L, cursor.id());
+    assertEquals(appointment.getAppointmentDateTime(), cursor.at());
+    verify(appointmentRepository, never()).count(any(Specification.class));
+    assertEquals(7L, page.totalCount());
+  }
+
+  @Test
+  void testGetAppointmentsPage_RejectsMalformedCursor() {
+    assertThrows(com.appointment.exception.AppointmentException.class,
+      () -> appointmentService.getAppointmentsPage(null, 10, "not-a-cursor"));
+  }
+
+  @Test
+  void testGetAppointmentsByDateRange_MergesSeriesOccurrencesInOrder() {
+    LocalDateTime start = appointment.getAppointmentDateTime().minusDays(1);
+    LocalDateTime end = appointment.getAppointmentDateTime().plusDays(1);
+    AppointmentResponse occurrence = new AppointmentResponse();
+    occurrence.setSeriesId(5L);
+    occurrence.setAppointmentDateTime(appointment.getAppointmentDateTime().minusHours(3));
+    when(appointmentRepository.findByAppointmentDateTimeBetween(start, end)).thenReturn(List.of(appointment));
+    when(appointmentSeriesService.getOccurrencesBetween(start, end)).thenReturn(List.of(occurrence));
+
+    List<AppointmentResponse> result = appointmentService.getAppointmentsByDateRange(start, end);
+
+    assertEquals(2, result.size());
+    assertEquals(5L, result.get(0).getSeriesId());
+    assertEquals(1L, result.get(1).getId());
+  }
+
+  @Test
+  void testGetUpcomingAppointmentsByCustomer_MergesSeriesOccurrences() {
+    AppointmentResponse occurrence = new AppointmentResponse();
+    occurrence.setSeriesId(5L);
+    occurrence.setAppointmentDateTime(appointment.getAppointmentDateTime().plusWeeks(1));
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(appointmentRepository.findUpcomingAppointmentsByCustomer(eq(1L), any())).thenReturn(List.of(appointment));
+    when(appointmentSeriesService.getUpcomingOccurrencesByCustomer(eq(1L), any())).thenReturn(List.of(occurrence));
+
+    List<AppointmentResponse> result = appointmentService.getUpcomingAppointmentsByCustomer(1L);
+
+    assertEquals(2, result.size());
+    assertEquals(1L, result.get(0).getId());
+    assertEquals(5L, result.get(1).getSeriesId());
+  }
+
+  @Test
+  void testGetAppointmentsByProvider_IncludesSeriesOccurrences() {
+    AppointmentResponse occurrence = new AppointmentResponse();
+    occurrence.setSeriesId(5L);
+    occurrence.setAppointmentDateTime(appointment.getAppointmentDateTime().minusDays(3));
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(appointmentRepository.findByServiceProviderId(1L)).thenReturn(List.of(appointment));
+    when(appointmentSeriesService.getOccurrencesByProvider(1L)).thenReturn(List.of(occurrence));
+
+    List<AppointmentResponse> result = appointmentService.getAppointmentsByProvider(1L);
+
+    assertEquals(2, result.size());
+    assertEquals(5L, result.get(0).getSeriesId());
+  }
+
+  @Test
+  void testGetAppointmentsByCustomer_OtherCustomerIsDenied() {
+    callAs(new AuthenticatedUser(7L, User.Role.CUSTOMER, Long.MAX_VALUE, "t"));
+    assertThrows(AccessDeniedException.class, () -> appointmentService.getAppointmentsByCustomer(1L));
+    verify(appointmentRepository, never()).findByCustomerId(any());
+  }
+
+  @Test
+  void testGetAppointmentsByCustomer_NoCallerOutsideARequestIsDenied() {
+    when(userRepository.existsById(1L)).thenReturn(true);
+    RequestContextHolder.resetRequestAttributes();
+    assertThrows(AccessDeniedException.class, () -> appointmentService.getAppointmentsByCustomer(1L));
+    assertDoesNotThrow(() -> accessGuard.internal(() -> appointmentService.getAppointmentsByCustomer(1L)));
+  }
+
+  @Test
+  void testGetAppointmentsByCustomer_GraphQlCallerIsChecked() {
+    // A WebSocket operation: no servlet request, only the caller of the GraphQL context
+    RequestContextHolder.resetRequestAttributes();
+    AuthenticatedUser other = new AuthenticatedUser(7L, User.Role.CUSTOMER, Long.MAX_VALUE, "t");
+    assertThrows(AccessDeniedException.class,
+      () -> accessGuard.callAs(other, () -> appointmentService.getAppointmentsByCustomer(1L)));
+    assertThrows(AccessDeniedException.class,
+      () -> accessGuard.callAs(null, () -> appointmentService.getAppointmentsByCustomer(1L)));
+  }
+
+  @Test
+  void testUpdateAppointmentStatus_ChecksAndSavesTheLockedRow() {
+    Appointment stale = new Appointment();
+    stale.setStatus(Appointment.Status.CONFIRMED);
+    appointment.setStatus(Appointment.Status.COMPLETED);
+    when(appointmentRepository.findById(1L)).thenReturn(Optional.of(stale));
+    when(appointmentRepository.lockById(1L)).thenReturn(Optional.of(appointment));
+
+    // A concurrent change already completed it; cancelling a completed appointment is not allowed
+    assertThrows(com.appointment.exception.AppointmentException.class,
+      () -> appointmentService.updateAppointmentStatus(1L, Appointment.Status.CANCELLED));
+    verify(appointmentRepository, never()).save(any());
+  }
+
+  @Test
+  void testUpdateAppointmentStatus_RequiresParticipant() {
+    when(appointmentRepository.lockById(1L)).thenReturn(Optional.of(appointment));
+    callAs(new AuthenticatedUser(7L, User.Role.CUSTOMER, Long.MAX_VALUE, "t"));
+    assertThrows(AccessDeniedException.class,
+      () -> appointmentService.updateAppointmentStatus(1L, Appointment.Status.CANCELLED));
+    verify(appointmentRepository, never()).save(any());
+  }
+
+  @Test
+  void testUpdateAppointmentStatuses_OtherUsersAppointmentsAreNotFound() {
+    AppointmentRepository.StatusRow foreign = statusRow(2L, Appointment.Status.PENDING);
+    when(foreign.getCustomerId()).thenReturn(9L);
+    when(foreign.getServiceProviderId()).thenReturn(8L);
+    when(appointmentRepository.lockStatusRows(any()))
+      .thenReturn(List.of(statusRow(1L, Appointment.Status.PENDING), foreign));
+    when(appointmentRepository.transitionStatus(eq(List.of(1L)), any(), any(), any())).thenReturn(1);
+    callAs(new AuthenticatedUser(1L, User.Role.CUSTOMER, Long.MAX_VALUE, "t"));
+
+    BulkStatusUpdateResponse response = appointmentService.updateAppointmentStatuses(
+      List.of(1L, 2L), Appointment.Status.CANCELLED);
+
+    assertEquals(1, response.getUpdated());
+    assertEquals(BulkStatusUpdateResponse.Result.NOT_FOUND, response.getResults().get(1).getResult());
+    verify(appointmentRepository, times(1)).transitionStatus(any(), any(), any(), any());
+  }
+
+  @AfterEach
+  void clearRequest() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private static void callAs(AuthenticatedUser caller) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, caller);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+  }
+
+  private static AppointmentRepository.StatusRow statusRow(Long id, Appointment.Status status) {
+    AppointmentRepository.StatusRow row = mock(AppointmentRepository.StatusRow.class);
+    when(row.getId()).thenReturn(id);
+    when(row.getStatus()).thenReturn(status);
+    when(row.getCustomerId()).thenReturn(1L);
+    when(row.getServiceProviderId()).thenReturn(2L);
+    return row;
+  }
 }
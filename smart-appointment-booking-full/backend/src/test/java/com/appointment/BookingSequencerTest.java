@@ -0,0 +1,279 @@
+package com.appointment;
+
+import com.appointment.availability.AvailabilityProperties;
+import com.appointment.availability.ProviderCalendarLoader;
+import com.appointment.event.AppointmentChangedEvent;
+import com.appointment.exception.AppointmentException;
+import com.appointment.exception.ServiceOverloadedException;
+import com.appointment.metrics.AppointmentMetrics;
+import com.appointment.model.Appointment;
+import com.appointment.model.AppointmentSeries;
+import com.appointment.model.User;
+import com.appointment.repository.AppointmentRepository;
+import com.appointment.repository.AppointmentSeriesRepository;
+import com.appointment.repository.ProviderScheduleRepository;
+import com.appointment.repository.UserRepository;
+import com.appointment.service.BookingSequencer;
+import com.appointment.service.BookingSequencerProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingSequencerTest {
+
+  @Mock
+  private AppointmentRepository appointmentRepository;
+
+  @Mock
+  private AppointmentSeriesRepository seriesRepository;
+
+  @Mock
+  private ProviderScheduleRepository scheduleRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private AppointmentMetrics appointmentMetrics;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private BookingSequencer bookingSequencer;
+  private User provider;
+  private final AtomicLong ids = new AtomicLong();
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    provider = new User();
+    provider.setId(3L);
+    provider.setRole(User.Role.SERVICE_PROVIDER);
+
+    when(appointmentRepository.findBookedSlotsByProvider(eq(3L), any(LocalDateTime.class)))
+      .thenReturn(Collections.emptyList());
+    when(appointmentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<Appointment> saved = new ArrayList<>(invocation.getArgument(0));
+      saved.forEach(appointment -> appointment.setId(ids.incrementAndGet()));
+      return saved;
+    });
+    when(seriesRepository.save(any(AppointmentSeries.class))).thenAnswer(invocation -> {
+      AppointmentSeries series = invocation.getArgument(0);
+      series.setId(ids.incrementAndGet());
+      return series;
+    });
+
+    BookingSequencerProperties properties = new BookingSequencerProperties();
+    properties.setShards(2);
+    bookingSequencer = newSequencer(properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookingSequencer.stop();
+  }
+
+  @Test
+  void testOnlyOneOfConcurrentBookingsForSameSlotSucceeds() {
+    LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    List<CompletableFuture<Boolean>> attempts = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      attempts.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          bookingSequencer.book(newAppointment(slot));
+          return true;
+        } catch (AppointmentException ex) {
+          return false;
+        }
+      }));
+    }
+
+    long booked = attempts.stream().filter(CompletableFuture::join).count();
+    assertEquals(1, booked);
+    verify(appointmentMetrics, times(19)).bookingConflict(Appointment.ServiceType.DOCTOR, Appointment.Status.PENDING);
+  }
+
+  @Test
+  void testDifferentSlotsAreAllBooked() {
+    LocalDateTime first = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    Appointment a = bookingSequencer.book(newAppointment(first));
+    Appointment b = bookingSequencer.book(newAppointment(first.plusHours(2)));
+    assertNotNull(a.getId());
+    assertNotNull(b.getId());
+    verify(eventPublisher, times(2)).publishEvent(any(AppointmentChangedEvent.class));
+  }
+
+  @Test
+  void testKnownTakenSlotIsRejectedWithoutQueueing() {
+    LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    bookingSequencer.book(newAppointment(slot));
+    assertThrows(AppointmentException.class, () -> bookingSequencer.book(newAppointment(slot.plusMinutes(30))));
+    verify(appointmentRepository, times(1)).saveAll(anyList());
+  }
+
+  @Test
+  void testSeriesIsRejectedWhenAnyOccurrenceConflicts() {
+    LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    bookingSequencer.book(newAppointment(slot.plusWeeks(2)));
+
+    assertThrows(AppointmentException.class, () -> bookingSequencer.bookSeries(newSeries(slot, 4)));
+    verify(seriesRepository, never()).save(any(AppointmentSeries.class));
+  }
+
+  @Test
+  void testBookedSeriesBlocksSingleBookingsOnItsOccurrences() {
+    LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    AppointmentSeries series = bookingSequencer.bookSeries(newSeries(slot, 4));
+    assertNotNull(series.getId());
+
+    assertThrows(AppointmentException.class, () -> bookingSequencer.book(newAppointment(slot.plusWeeks(3))));
+    assertNotNull(bookingSequencer.book(newAppointment(slot.plusWeeks(4))).getId());
+  }
+
+  @Test
+  void testSlotBookedByAnotherInstanceIsRejectedUnderTheProviderLock() {
+    LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    bookingSequencer.book(newAppointment(slot));
+
+    // Another instance books slot + 2h; this instance's cached calendar does not know about it
+    AppointmentRepository.BookedSlot elsewhere = mock(AppointmentRepository.BookedSlot.class);
+    when(elsewhere.getAppointmentDateTime()).thenReturn(slot.plusHours(2));
+    when(elsewhere.getServiceType()).thenReturn(Appointment.ServiceType.DOCTOR);
+    when(appointmentRepository.findBookedSlotsByProviderBetween(eq(3L), any(LocalDateTime.class),
+      any(LocalDateTime.class))).thenReturn(List.of(elsewhere));
+
+    assertThrows(AppointmentException.class, () -> bookingSequencer.book(newAppointment(slot.plusHours(2))));
+    verify(userRepository, times(2)).lockById(3L);
+    verify(appointmentRepository, times(1)).saveAll(anyList());
+  }
+
+  @Test
+  void testVerifyReloadsOnlyTheDaysTheBookingTouches() {
+    LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    bookingSequencer.book(newAppointment(slot));
+    bookingSequencer.book(newAppointment(slot.plusHours(2)));
+
+    LocalDate day = slot.toLocalDate();
+    verify(appointmentRepository, times(2)).findBookedSlotsByProviderBetween(3L,
+      day.minusDays(1).atStartOfDay(), day.plusDays(2).atStartOfDay());
+    verify(seriesRepository, times(2)).findActiveByProviderBetween(3L,
+      day.minusDays(1).atStartOfDay(), day.plusDays(2).atStartOfDay());
+    // The whole future is only read to fill the cache
+    verify(appointmentRepository, times(1)).findBookedSlotsByProvider(eq(3L), any(LocalDateTime.class));
+  }
+
+  @Test
+  void testRescheduleMayOverlapTheAppointmentsOwnSlot() {
+    LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    Appointment booked = bookingSequencer.book(newAppointment(slot));
+    when(appointmentRepository.lockById(booked.getId())).thenReturn(Optional.of(booked));
+    when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    Appointment changed = newAppointment(slot.plusMinutes(30));
+    changed.setId(booked.getId());
+    Appointment moved = bookingSequencer.update(changed, slot, Appointment.ServiceType.DOCTOR);
+
+    assertEquals(slot.plusMinutes(30), moved.getAppointmentDateTime());
+    // The old slot is free again, the new one is taken
+    assertNotNull(bookingSequencer.book(newAppointment(slot.minusMinutes(30))).getId());
+    assertThrows(AppointmentException.class, () -> bookingSequencer.book(newAppointment(slot.plusHours(1))));
+  }
+
+  @Test
+  void testRescheduleOntoAnotherBookingIsRejected() {
+    LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    Appointment booked = bookingSequencer.book(newAppointment(slot));
+    bookingSequencer.book(newAppointment(slot.plusHours(2)));
+
+    Appointment changed = newAppointment(slot.plusHours(2));
+    changed.setId(booked.getId());
+    assertThrows(AppointmentException.class,
+      () -> bookingSequencer.update(changed, slot, Appointment.ServiceType.DOCTOR));
+    verify(appointmentRepository, never()).save(any(Appointment.class));
+    // Its own slot is still taken
+    assertThrows(AppointmentException.class, () -> bookingSequencer.book(newAppointment(slot)));
+  }
+
+  @Test
+  void testTimedOutBookingIsReportedAsOverloadNotAsFailure() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(userRepository.lockById(3L)).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return 3L;
+    });
+    BookingSequencerProperties properties = new BookingSequencerProperties();
+    properties.setShards(1);
+    properties.setTimeoutMs(50);
+    BookingSequencer slow = newSequencer(properties);
+    try {
+      LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+      ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+        () -> slow.book(newAppointment(slot)));
+      assertTrue(ex.getMessage().contains("not known"));
+      assertEquals(properties.getRetryAfterSeconds(), ex.getRetryAfterSeconds());
+    } finally {
+      release.countDown();
+      slow.stop();
+    }
+  }
+
+  private BookingSequencer newSequencer(BookingSequencerProperties properties) {
+    ProviderCalendarLoader calendarLoader = new ProviderCalendarLoader(appointmentRepository, seriesRepository,
+      scheduleRepository, new AvailabilityProperties());
+    BookingSequencer sequencer = new BookingSequencer(appointmentRepository, seriesRepository, userRepository,
+      calendarLoader, transactionManager, appointmentMetrics, properties, eventPublisher);
+    sequencer.start();
+    return sequencer;
+  }
+
+  private AppointmentSeries newSeries(LocalDateTime first, int occurrences) {
+    User customer = new User();
+    customer.setId(1L);
+    AppointmentSeries series = new AppointmentSeries();
+    series.setCustomer(customer);
+    series.setServiceProvider(provider);
+    series.setServiceType(Appointment.ServiceType.DOCTOR);
+    series.setFirstOccurrence(first);
+    series.setFrequency(AppointmentSeries.Frequency.WEEKLY);
+    series.setOccurrenceCount(occurrences);
+    series.updateLastOccurrence();
+    return series;
+  }
+
+  private Appointment newAppointment(LocalDateTime when) {
+    User customer = new User();
+    customer.setId(1L);
+    Appointment appointment = new Appointment();
+    appointment.setCustomer(customer);
+    appointment.setServiceProvider(provider);
+    appointment.setServiceType(Appointment.ServiceType.DOCTOR);
+    appointment.setAppointmentDateTime(when);
+    appointment.setStatus(Appointment.Status.PENDING);
+    return appointment;
+  }
+}
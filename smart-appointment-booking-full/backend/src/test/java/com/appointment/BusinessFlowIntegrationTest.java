@@ -6,11 +6,15 @@ import com.appointment.model.Appointment;
 import com.appointment.model.User;
 import com.appointment.repository.AppointmentRepository;
 import com.appointment.repository.UserRepository;
+import com.appointment.security.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -36,6 +40,9 @@ class BusinessFlowIntegrationTest {
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private TokenService tokenService;
+
     private User customer;
     private User provider;
 
@@ -69,18 +76,35 @@ class BusinessFlowIntegrationTest {
         request.setServiceType(Appointment.ServiceType.DOCTOR);
         request.setAppointmentDateTime(LocalDateTime.now().plusDays(2));
 
-        ResponseEntity<String> postResponse = restTemplate.postForEntity("/api/v1/appointments", request, String.class);
+        ResponseEntity<String> postResponse = restTemplate.postForEntity("/api/v1/appointments", as(customer, request), String.class);
         assertEquals(HttpStatus.CREATED, postResponse.getStatusCode());
         assertTrue(postResponse.getBody().contains("Appointment created successfully"));
 
         // Get appointments by customer
-        ResponseEntity<String> getCustomerResponse = restTemplate.getForEntity("/api/v1/appointments/customer/" + customer.getId(), String.class);
+        ResponseEntity<String> getCustomerResponse = restTemplate.exchange("/api/v1/appointments/customer/" + customer.getId(),
+            HttpMethod.GET, as(customer, null), String.class);
         assertEquals(HttpStatus.OK, getCustomerResponse.getStatusCode());
         assertTrue(getCustomerResponse.getBody().contains("Jane Customer"));
 
         // Get appointments by provider
-        ResponseEntity<String> getProviderResponse = restTemplate.getForEntity("/api/v1/appointments/provider/" + provider.getId(), String.class);
+        ResponseEntity<String> getProviderResponse = restTemplate.exchange("/api/v1/appointments/provider/" + provider.getId(),
+            HttpMethod.GET, as(provider, null), String.class);
         assertEquals(HttpStatus.OK, getProviderResponse.getStatusCode());
         assertTrue(getProviderResponse.getBody().contains("Dr. Provider"));
+
+        // Another customer's list needs their token, and no token at all is rejected
+        ResponseEntity<String> asProvider = restTemplate.exchange("/api/v1/appointments/customer/" + customer.getId(),
+            HttpMethod.GET, as(provider, null), String.class);
+        assertEquals(HttpStatus.FORBIDDEN, asProvider.getStatusCode());
+        ResponseEntity<String> anonymous = restTemplate.getForEntity(
+            "/api/v1/appointments/customer/" + customer.getId(), String.class);
+        assertEquals(HttpStatus.UNAUTHORIZED, anonymous.getStatusCode());
+    }
+
+    // Requests carry a session token for the given user, as after POST /api/v1/auth/login
+    private HttpEntity<Object> as(User user, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tokenService.issue(user.getId(), user.getRole()));
+        return new HttpEntity<>(body, headers);
     }
 }
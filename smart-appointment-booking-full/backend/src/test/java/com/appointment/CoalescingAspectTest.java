@@ -0,0 +1,135 @@
+package com.appointment;
+
+import com.appointment.coalesce.Coalesced;
+import com.appointment.coalesce.CoalescingAspect;
+import com.appointment.exception.AccessDeniedException;
+import com.appointment.security.AccessGuard;
+import com.appointment.security.TokenProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingAspectTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private SlowReader target;
+  private SlowReader reader;
+  private AccessGuard accessGuard;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    target = new SlowReader();
+    accessGuard = new AccessGuard(new TokenProperties());
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new CoalescingAspect(meterRegistry, accessGuard));
+    reader = factory.getProxy();
+  }
+
+  @Test
+  void testConcurrentIdenticalCallsShareOneExecution() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(5);
+    try {
+      List<Future<List<String>>> results = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        results.add(pool.submit(() -> reader.read("PENDING")));
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (sharedCalls() < 4 && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      target.release.countDown();
+
+      List<String> first = results.get(0).get(5, TimeUnit.SECONDS);
+      for (Future<List<String>> result : results) {
+        assertSame(first, result.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, target.calls.get());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void testDifferentArgumentsAndSequentialCallsRunSeparately() {
+    target.release.countDown();
+    reader.read("PENDING");
+    reader.read("CONFIRMED");
+    reader.read("PENDING");
+    assertEquals(3, target.calls.get());
+  }
+
+  @Test
+  void testMicrocacheServesBackToBackCalls() {
+    target.release.countDown();
+    assertSame(reader.cached("stats"), reader.cached("stats"));
+    assertEquals(1, target.calls.get());
+  }
+
+  @Test
+  void testFailureIsNotCached() {
+    assertThrows(IllegalStateException.class, () -> reader.failing());
+    assertThrows(IllegalStateException.class, () -> reader.failing());
+    assertEquals(2, target.calls.get());
+  }
+
+  @Test
+  void testAdminOnlyResultIsNotSharedWithOtherCallers() {
+    assertEquals(List.of("report"), accessGuard.internal(() -> reader.report()));
+    // Cached now, but a caller without access still does not get it
+    assertThrows(AccessDeniedException.class, () -> reader.report());
+    assertEquals(1, target.calls.get());
+  }
+
+  private double sharedCalls() {
+    var counter = meterRegistry.find("service.coalesced.calls").counter();
+    return counter != null ? counter.count() : 0;
+  }
+
+  public static class SlowReader {
+    final AtomicInteger calls = new AtomicInteger();
+    final CountDownLatch release = new CountDownLatch(1);
+
+    @Coalesced
+    public List<String> read(String status) {
+      calls.incrementAndGet();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      return new ArrayList<>(List.of(status));
+    }
+
+    @Coalesced(microcacheMs = 60_000)
+    public List<String> cached(String key) {
+      calls.incrementAndGet();
+      return new ArrayList<>(List.of(key));
+    }
+
+    @Coalesced(microcacheMs = 60_000, adminOnly = true)
+    public List<String> report() {
+      calls.incrementAndGet();
+      return List.of("report");
+    }
+
+    @Coalesced(microcacheMs = 60_000)
+    public List<String> failing() {
+      calls.incrementAndGet();
+      throw new IllegalStateException("boom");
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.appointment;
+
+import com.appointment.ratelimit.InMemoryRateLimiterBackend;
+import com.appointment.ratelimit.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRateLimiterBackendTest {
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+  private RateLimitProperties properties;
+  private RateLimitProperties.Policy policy;
+  private InMemoryRateLimiterBackend backend;
+
+  @BeforeEach
+  void setUp() {
+    properties = new RateLimitProperties();
+    policy = new RateLimitProperties.Policy();
+    policy.setCapacity(3);
+    policy.setRefillPerSecond(1);
+    backend = new InMemoryRateLimiterBackend(properties, clock::get);
+  }
+
+  @Test
+  void testBurstThenReject() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, backend.tryAcquire("search|ip:1", policy));
+    }
+    long wait = backend.tryAcquire("search|ip:1", policy);
+    assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+    // Other callers have their own bucket
+    assertEquals(0, backend.tryAcquire("search|ip:2", policy));
+  }
+
+  @Test
+  void testRefill() {
+    for (int i = 0; i < 3; i++) {
+      backend.tryAcquire("k", policy);
+    }
+    assertTrue(backend.tryAcquire("k", policy) > 0);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertEquals(0, backend.tryAcquire("k", policy));
+    assertTrue(backend.tryAcquire("k", policy) > 0);
+  }
+
+  @Test
+  void testIdleBucketsAreEvicted() {
+    properties.setEvictionIntervalMs(10_000);
+    backend.tryAcquire("a", policy);
+    backend.tryAcquire("b", policy);
+    assertEquals(2, backend.size());
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(11));
+    backend.tryAcquire("c", policy);
+    assertEquals(1, backend.size());
+  }
+}
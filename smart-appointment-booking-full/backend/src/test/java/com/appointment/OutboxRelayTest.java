@@ -0,0 +1,85 @@
+package com.appointment;
+
+import com.appointment.model.OutboxEvent;
+import com.appointment.outbox.OutboxMessage;
+import com.appointment.outbox.OutboxProperties;
+import com.appointment.outbox.OutboxRelay;
+import com.appointment.outbox.OutboxSink;
+import com.appointment.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+  @Mock
+  private OutboxEventRepository outboxEventRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private OutboxSink sink;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OutboxRelay relay;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    OutboxProperties properties = new OutboxProperties();
+    properties.setBatchSize(2);
+    // Not started: relayBatch is driven by the test
+    relay = new OutboxRelay(outboxEventRepository, transactionManager, sink, properties, meterRegistry);
+  }
+
+  @Test
+  void testBatchIsPublishedThenDeleted() {
+    when(outboxEventRepository.lockNextBatch(any())).thenReturn(List.of(event(1L), event(2L)));
+
+    assertEquals(2, relay.relayBatch());
+
+    verify(sink).publish(List.of(
+      new OutboxMessage(1L, "Appointment", 10L, "STATUS_CHANGED", "{}", event(1L).getCreatedAt()),
+      new OutboxMessage(2L, "Appointment", 10L, "STATUS_CHANGED", "{}", event(2L).getCreatedAt())));
+    verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    assertEquals(2, meterRegistry.get("outbox.relay.published").counter().count());
+  }
+
+  @Test
+  void testEmptyOutboxPublishesNothing() {
+    when(outboxEventRepository.lockNextBatch(any())).thenReturn(List.of());
+
+    assertEquals(0, relay.relayBatch());
+
+    verifyNoInteractions(sink);
+    verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+  }
+
+  @Test
+  void testFailedPublishKeepsEvents() {
+    when(outboxEventRepository.lockNextBatch(any())).thenReturn(List.of(event(1L)));
+    doThrow(new IllegalStateException("sink down")).when(sink).publish(anyList());
+
+    assertThrows(IllegalStateException.class, () -> relay.relayBatch());
+
+    verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+    verify(transactionManager).rollback(any());
+  }
+
+  private static OutboxEvent event(Long id) {
+    return new OutboxEvent(id, "Appointment", 10L, "STATUS_CHANGED", "{}", LocalDateTime.of(2026, 1, 1, 9, 0));
+  }
+}
@@ -0,0 +1,87 @@
+package com.appointment;
+
+import com.appointment.exception.ServiceOverloadedException;
+import com.appointment.security.PasswordProperties;
+import com.appointment.security.PasswordService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordServiceTest {
+
+  private PasswordService passwordService;
+
+  @AfterEach
+  void tearDown() {
+    passwordService.destroy();
+  }
+
+  private PasswordService create(int strength, int poolSize, int queueCapacity) {
+    PasswordProperties properties = new PasswordProperties();
+    properties.setBcryptStrength(strength);
+    properties.setPoolSize(poolSize);
+    properties.setQueueCapacity(queueCapacity);
+    passwordService = new PasswordService(properties, new SimpleMeterRegistry());
+    return passwordService;
+  }
+
+  @Test
+  void testHashAndVerify() {
+    PasswordService service = create(4, 2, 8);
+    String hash = service.hashAsync("secret123").join();
+    assertNotEquals("secret123", hash);
+    assertFalse(PasswordService.isLegacyPlaintext(hash));
+
+    PasswordService.Verification ok = service.verify("a@example.com", "secret123", hash).join();
+    assertTrue(ok.matches());
+    assertFalse(ok.needsRehash());
+    assertFalse(service.verify("a@example.com", "wrong", hash).join().matches());
+  }
+
+  @Test
+  void testUnknownUserIsCheckedOnThePoolAndRejected() {
+    PasswordService service = create(4, 2, 8);
+    CompletableFuture<PasswordService.Verification> verification = service.verify("nobody@example.com", "secret123", null);
+    assertFalse(verification.join().matches());
+    assertFalse(verification.join().needsRehash());
+  }
+
+  @Test
+  void testLegacyPlaintextIsAcceptedAndRehashed() {
+    PasswordService service = create(4, 2, 8);
+    PasswordService.Verification verification = service.verify("a@example.com", "password", "password").join();
+    assertTrue(verification.matches());
+    assertTrue(verification.needsRehash());
+    assertTrue(service.verify("a@example.com", "password", verification.newHash()).join().matches());
+    assertFalse(service.verify("a@example.com", "other", "password").join().matches());
+  }
+
+  @Test
+  void testSuccessfulVerificationIsCached() {
+    PasswordService service = create(4, 2, 8);
+    String hash = service.hashAsync("secret123").join();
+    service.verify("a@example.com", "secret123", hash).join();
+    CompletableFuture<PasswordService.Verification> second = service.verify("a@example.com", "secret123", hash);
+    assertTrue(second.isDone(), "cache hit should not go through the pool");
+    assertTrue(second.join().matches());
+  }
+
+  @Test
+  void testSaturatedPoolRejects() {
+    PasswordService service = create(12, 1, 1);
+    String hash = "$2a$12$" + "a".repeat(53);
+    List<CompletableFuture<PasswordService.Verification>> accepted = new ArrayList<>();
+    assertThrows(ServiceOverloadedException.class, () -> {
+      for (int i = 0; i < 10; i++) {
+        accepted.add(service.verify("a@example.com", "attempt" + i, hash));
+      }
+    });
+    assertTrue(accepted.size() < 10);
+  }
+}
@@ -0,0 +1,139 @@
+package com.appointment;
+
+import com.appointment.graphql.GraphQlDocumentProperties;
+import com.appointment.graphql.PersistedDocumentProvider;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.support.SerializableGraphQlRequest;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistedDocumentProviderTest {
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(
+        new SchemaParser().parse("type Query { hello: String }"),
+        RuntimeWiring.newRuntimeWiring()
+            .type("Query", wiring -> wiring.dataFetcher("hello", env -> "world"))
+            .build());
+
+    private static final String QUERY = "{ hello }";
+
+    private SimpleMeterRegistry meterRegistry;
+    private PersistedDocumentProvider provider;
+    private GraphQL graphQl;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        provider = new PersistedDocumentProvider(new GraphQlDocumentProperties(), meterRegistry);
+        graphQl = GraphQL.newGraphQL(SCHEMA).preparsedDocumentProvider(provider).build();
+    }
+
+    @Test
+    void testRepeatedQueryIsParsedOnce() {
+        assertEquals(Map.of("hello", "world"), graphQl.execute(QUERY).getData());
+        assertEquals(Map.of("hello", "world"), graphQl.execute(QUERY).getData());
+
+        assertEquals(1, count("graphql.document.cache", "miss"));
+        assertEquals(1, count("graphql.document.cache", "hit"));
+    }
+
+    @Test
+    void testInvalidQueryIsNotCached() {
+        graphQl.execute("{ goodbye }");
+        ExecutionResult result = graphQl.execute("{ goodbye }");
+
+        assertFalse(result.getErrors().isEmpty());
+        assertEquals(2, count("graphql.document.cache", "miss"));
+    }
+
+    @Test
+    void testPersistedQueryRoundTrip() {
+        String hash = sha256(QUERY);
+
+        ExecutionResult unknown = graphQl.execute(persisted("", hash));
+        assertEquals("PersistedQueryNotFound", unknown.getErrors().get(0).getMessage());
+
+        assertEquals(Map.of("hello", "world"), graphQl.execute(persisted(QUERY, hash)).getData());
+        ExecutionResult byHash = graphQl.execute(persisted("", hash));
+
+        assertTrue(byHash.getErrors().isEmpty());
+        assertEquals(Map.of("hello", "world"), byHash.getData());
+        assertEquals(1, count("graphql.persisted.query", "hit"));
+    }
+
+    @Test
+    void testHashOnlyRequestThroughTheWebHandler() {
+        // As sent over HTTP or WebSocket: the body has no query at all
+        GraphQlSource source = GraphQlSource.builder(SCHEMA)
+            .configureGraphQl(builder -> builder.preparsedDocumentProvider(provider))
+            .build();
+        WebGraphQlHandler handler = WebGraphQlHandler.builder(new DefaultExecutionGraphQlService(source)).build();
+        String hash = sha256(QUERY);
+
+        WebGraphQlResponse unknown = handler.handleRequest(webRequest(null, hash)).block();
+        assertEquals("PersistedQueryNotFound", unknown.getErrors().get(0).getMessage());
+
+        handler.handleRequest(webRequest(QUERY, hash)).block();
+        WebGraphQlResponse byHash = handler.handleRequest(webRequest(null, hash)).block();
+
+        assertTrue(byHash.getErrors().isEmpty());
+        assertEquals(Map.of("hello", "world"), byHash.getData());
+        assertEquals(1, count("graphql.persisted.query", "hit"));
+    }
+
+    @Test
+    void testMismatchedHashIsRejected() {
+        ExecutionResult result = graphQl.execute(persisted(QUERY, sha256("{ other }")));
+
+        assertEquals(1, result.getErrors().size());
+        assertEquals("PERSISTED_QUERY_HASH_MISMATCH", result.getErrors().get(0).getExtensions().get("code"));
+    }
+
+    private static ExecutionInput persisted(String query, String hash) {
+        return ExecutionInput.newExecutionInput(query)
+            .extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)))
+            .build();
+    }
+
+    private static WebGraphQlRequest webRequest(String query, String hash) {
+        SerializableGraphQlRequest body = new SerializableGraphQlRequest();
+        body.setQuery(query);
+        body.setExtensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)));
+        return new WebGraphQlRequest(URI.create("http://localhost/graphql"), new HttpHeaders(), null, null,
+            Map.of(), body, "1", null);
+    }
+
+    private double count(String name, String result) {
+        return meterRegistry.get(name).tag("result", result).counter().count();
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.appointment;
+
+import com.appointment.availability.AvailabilityProperties;
+import com.appointment.availability.ProviderCalendar;
+import com.appointment.availability.SlotTemplate;
+import com.appointment.model.Appointment;
+import com.appointment.model.ProviderSchedule;
+import com.appointment.model.WorkingPeriod;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderCalendarTest {
+
+  // A Monday
+  private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+  @Test
+  void testBookingsOutsideWorkingHoursOrDuringBreaksAreClosed() {
+    ProviderCalendar calendar = new ProviderCalendar(SlotTemplate.compile(salon(1), properties()));
+
+    assertEquals(ProviderCalendar.Fit.FREE, calendar.check(at(9, 0), Appointment.ServiceType.SALON));
+    assertEquals(ProviderCalendar.Fit.CLOSED, calendar.check(at(8, 45), Appointment.ServiceType.SALON));
+    // Would run into the lunch break
+    assertEquals(ProviderCalendar.Fit.CLOSED, calendar.check(at(11, 45), Appointment.ServiceType.SALON));
+    assertEquals(ProviderCalendar.Fit.CLOSED, calendar.check(at(16, 45), Appointment.ServiceType.SALON));
+    assertEquals(ProviderCalendar.Fit.CLOSED, calendar.check(at(10, 0).plusDays(1), Appointment.ServiceType.SALON));
+  }
+
+  @Test
+  void testCapacityAllowsParallelBookings() {
+    ProviderCalendar calendar = new ProviderCalendar(SlotTemplate.compile(salon(2), properties()));
+
+    assertTrue(calendar.reserve(at(9, 0), Appointment.ServiceType.SALON));
+    assertTrue(calendar.reserve(at(9, 15), Appointment.ServiceType.SALON));
+    assertEquals(ProviderCalendar.Fit.FULL, calendar.check(at(9, 30), Appointment.ServiceType.SALON));
+    // The first chair is free again after its 45 minute appointment
+    assertTrue(calendar.reserve(at(9, 45), Appointment.ServiceType.SALON));
+  }
+
+  @Test
+  void testCapacityIsNotLostToAnEarlierLaneChoice() {
+    ProviderSchedule schedule = salon(2);
+    schedule.getServiceDurations().put(Appointment.ServiceType.DOCTOR, 60);
+    ProviderCalendar calendar = new ProviderCalendar(SlotTemplate.compile(schedule, properties()));
+
+    assertTrue(calendar.reserve(at(9, 0), Appointment.ServiceType.DOCTOR));
+    assertTrue(calendar.reserve(at(10, 30), Appointment.ServiceType.DOCTOR));
+    assertTrue(calendar.reserve(at(9, 30), Appointment.ServiceType.SALON));
+    // 10:00-11:00 never has more than one other booking: 9:30-10:15, then 10:30-11:30
+    assertEquals(ProviderCalendar.Fit.FREE, calendar.check(at(10, 0), Appointment.ServiceType.DOCTOR));
+    assertTrue(calendar.reserve(at(10, 0), Appointment.ServiceType.DOCTOR));
+    assertEquals(ProviderCalendar.Fit.FULL, calendar.check(at(10, 0), Appointment.ServiceType.SALON));
+  }
+
+  @Test
+  void testAvailableStartsRespectHoursBreaksAndBookings() {
+    ProviderCalendar calendar = new ProviderCalendar(SlotTemplate.compile(salon(1), properties()));
+    calendar.occupy(at(9, 0), Appointment.ServiceType.SALON);
+
+    List<LocalDateTime> starts = calendar.availableStarts(DAY, Appointment.ServiceType.SALON);
+
+    assertEquals(at(9, 45), starts.get(0));
+    assertTrue(starts.contains(at(11, 15)));
+    assertFalse(starts.contains(at(11, 30)));
+    assertEquals(at(13, 0), starts.get(starts.indexOf(at(11, 15)) + 1));
+    assertEquals(at(16, 15), starts.get(starts.size() - 1));
+  }
+
+  @Test
+  void testProviderWithoutScheduleIsOpenAcrossMidnight() {
+    ProviderCalendar calendar = new ProviderCalendar(SlotTemplate.compile(null, properties()));
+
+    assertTrue(calendar.reserve(at(23, 30), Appointment.ServiceType.DOCTOR));
+    assertEquals(ProviderCalendar.Fit.FULL, calendar.check(at(0, 15).plusDays(1), Appointment.ServiceType.DOCTOR));
+    assertEquals(ProviderCalendar.Fit.FREE, calendar.check(at(0, 30).plusDays(1), Appointment.ServiceType.DOCTOR));
+  }
+
+  @Test
+  void testRefreshTakesOverOnlyTheGivenDays() {
+    ProviderCalendar cached = new ProviderCalendar(SlotTemplate.compile(salon(1), properties()));
+    cached.occupy(at(9, 0), Appointment.ServiceType.SALON);
+    cached.occupy(at(9, 0).plusWeeks(1), Appointment.ServiceType.SALON);
+    ProviderCalendar fresh = new ProviderCalendar(SlotTemplate.compile(salon(1), properties()));
+    fresh.occupy(at(10, 0), Appointment.ServiceType.SALON);
+
+    assertTrue(cached.refresh(fresh, DAY, DAY));
+
+    assertEquals(ProviderCalendar.Fit.FREE, cached.check(at(9, 0), Appointment.ServiceType.SALON));
+    assertEquals(ProviderCalendar.Fit.FULL, cached.check(at(10, 0), Appointment.ServiceType.SALON));
+    assertEquals(ProviderCalendar.Fit.FULL, cached.check(at(9, 0).plusWeeks(1), Appointment.ServiceType.SALON));
+    // Later changes to the fresh calendar are not shared
+    fresh.release(at(10, 0), Appointment.ServiceType.SALON);
+    assertEquals(ProviderCalendar.Fit.FULL, cached.check(at(10, 0), Appointment.ServiceType.SALON));
+  }
+
+  private static ProviderSchedule salon(int chairs) {
+    ProviderSchedule schedule = new ProviderSchedule();
+    schedule.setCapacity(chairs);
+    schedule.getWorkingHours().add(new WorkingPeriod(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+    schedule.getBreaks().add(new WorkingPeriod(DayOfWeek.MONDAY, LocalTime.of(12, 0), LocalTime.of(13, 0)));
+    schedule.getServiceDurations().put(Appointment.ServiceType.SALON, 45);
+    return schedule;
+  }
+
+  private static AvailabilityProperties properties() {
+    AvailabilityProperties properties = new AvailabilityProperties();
+    properties.setDefaultDuration(Duration.ofHours(1));
+    return properties;
+  }
+
+  private static LocalDateTime at(int hour, int minute) {
+    return DAY.atTime(hour, minute);
+  }
+}
@@ -0,0 +1,75 @@
+package com.appointment;
+
+import com.appointment.directory.ProviderDirectory;
+import com.appointment.directory.ProviderDirectoryProperties;
+import com.appointment.directory.ProviderEntry;
+import com.appointment.event.UserChangedEvent;
+import com.appointment.model.User;
+import com.appointment.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProviderDirectoryTest {
+
+  @Mock
+  private UserRepository userRepository;
+
+  private ProviderDirectory directory;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(userRepository.findAllActiveServiceProviders()).thenReturn(List.of(provider(3L, "Dr. Sarah")));
+    directory = new ProviderDirectory(userRepository, new ProviderDirectoryProperties());
+  }
+
+  @Test
+  void testLoadsOnceAndServesFromMemory() {
+    assertEquals(1, directory.activeProviders().size());
+    assertTrue(directory.find(3L).isPresent());
+    assertTrue(directory.find(99L).isEmpty());
+    verify(userRepository, times(1)).findAllActiveServiceProviders();
+  }
+
+  @Test
+  void testCommittedChangesAreApplied() {
+    directory.activeProviders();
+
+    directory.onUserChanged(UserChangedEvent.saved(provider(4L, "Mike")));
+    assertEquals(List.of(3L, 4L), directory.activeProviders().stream().map(ProviderEntry::id).toList());
+
+    User demoted = provider(3L, "Dr. Sarah");
+    demoted.setRole(User.Role.CUSTOMER);
+    directory.onUserChanged(UserChangedEvent.saved(demoted));
+    assertTrue(directory.find(3L).isEmpty());
+
+    directory.onUserChanged(UserChangedEvent.deleted(4L));
+    assertTrue(directory.activeProviders().isEmpty());
+    verify(userRepository, times(1)).findAllActiveServiceProviders();
+  }
+
+  @Test
+  void testEntryBuildsProviderStub() {
+    User stub = directory.find(3L).orElseThrow().toUser();
+    assertEquals(3L, stub.getId());
+    assertEquals("Dr. Sarah", stub.getName());
+    assertTrue(stub.isServiceProvider());
+  }
+
+  private static User provider(Long id, String name) {
+    User user = new User();
+    user.setId(id);
+    user.setName(name);
+    user.setEmail(name.toLowerCase().replace(" ", "") + "@example.com");
+    user.setRole(User.Role.SERVICE_PROVIDER);
+    user.setActive(true);
+    return user;
+  }
+}
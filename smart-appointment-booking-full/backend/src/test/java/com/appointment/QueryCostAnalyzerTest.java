@@ -0,0 +1,103 @@
+package com.appointment;
+
+import com.appointment.graphql.GraphQlCostProperties;
+import com.appointment.graphql.QueryCostAnalyzer;
+import graphql.execution.CoercedVariables;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCostAnalyzerTest {
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(
+        new SchemaParser().parse("""
+            type Query { items(first: Int): [Item!]! item(id: ID!): Item }
+            type Item { id: ID! name: String children(first: Int): [Item!]! parent: Item }
+            """),
+        RuntimeWiring.MOCKED_WIRING);
+
+    private GraphQlCostProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GraphQlCostProperties();
+    }
+
+    @Test
+    void testPagingArgumentMultipliesNestedCost() {
+        QueryCostAnalyzer.Result result = analyze("{ items(first: 10) { name children { id } } }", Map.of());
+
+        // items (1) + 10 x children (1); scalars are free
+        assertEquals(11, result.cost());
+        assertEquals(3, result.depth());
+        assertFalse(result.rejected());
+    }
+
+    @Test
+    void testPagingArgumentFromVariables() {
+        QueryCostAnalyzer.Result result = analyze(
+            "query Items($n: Int) { items(first: $n) { children { id } } }", Map.of("n", 3));
+
+        assertEquals(4, result.cost());
+    }
+
+    @Test
+    void testUnboundedNestedListsAreRejected() {
+        QueryCostAnalyzer.Result result = analyze("{ items { children { children { name } } } }", Map.of());
+
+        assertEquals(QueryCostAnalyzer.Violation.COST, result.violation());
+    }
+
+    @Test
+    void testConfiguredCostsAndListSizes() {
+        properties.getFieldCosts().put("Query.items", 10);
+        properties.getListSizes().put("Query.items", 20);
+
+        QueryCostAnalyzer.Result result = analyze("{ items { parent { id } } }", Map.of());
+
+        assertEquals(10 + 20, result.cost());
+    }
+
+    @Test
+    void testDepthLimit() {
+        properties.setMaxDepth(3);
+
+        QueryCostAnalyzer.Result result = analyze("{ item(id: 1) { parent { parent { parent { id } } } } }", Map.of());
+
+        assertEquals(QueryCostAnalyzer.Violation.DEPTH, result.violation());
+    }
+
+    @Test
+    void testFieldLimitStopsFragmentExpansion() {
+        properties.setMaxFields(10);
+
+        QueryCostAnalyzer.Result result = analyze("""
+            { item(id: 1) { ...f ...f ...f } a: item(id: 2) { ...f } b: item(id: 3) { ...f } }
+            fragment f on Item { id name parent { id name } }
+            """, Map.of());
+
+        assertEquals(QueryCostAnalyzer.Violation.FIELDS, result.violation());
+        assertEquals(11, result.fields());
+    }
+
+    @Test
+    void testIntrospectionIsFree() {
+        QueryCostAnalyzer.Result result = analyze("{ __schema { types { name fields { name type { name } } } } }", Map.of());
+
+        assertEquals(0, result.cost());
+        assertFalse(result.rejected());
+    }
+
+    private QueryCostAnalyzer.Result analyze(String query, Map<String, Object> variables) {
+        return new QueryCostAnalyzer(properties)
+            .analyze(SCHEMA, Parser.parse(query), null, CoercedVariables.of(variables));
+    }
+}
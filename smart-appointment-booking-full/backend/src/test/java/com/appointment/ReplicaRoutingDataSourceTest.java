@@ -0,0 +1,108 @@
+package com.appointment;
+
+import com.appointment.datasource.ReadYourWritesTracker;
+import com.appointment.datasource.ReplicaLagMonitor;
+import com.appointment.datasource.ReplicaProperties;
+import com.appointment.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing against two local H2 databases standing in for primary and replica
+ */
+class ReplicaRoutingDataSourceTest {
+
+  private ReplicaProperties properties;
+  private ReplicaLagMonitor lagMonitor;
+  private ReadYourWritesTracker tracker;
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate readOnly;
+  private TransactionTemplate readWrite;
+  private DataSource lagMonitorTarget;
+
+  @BeforeEach
+  void setUp() {
+    DataSource primary = h2("routing_primary", "primary");
+    DataSource replica = h2("routing_replica", "replica");
+
+    properties = new ReplicaProperties();
+    properties.setEnabled(true);
+    properties.setLagQuery("SELECT lag_ms FROM replica_state");
+    properties.setMaxLagMs(1000);
+    lagMonitorTarget = replica;
+    lagMonitor = new ReplicaLagMonitor(replica, properties);
+    lagMonitor.check();
+    tracker = new ReadYourWritesTracker(properties);
+
+    DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, lagMonitor));
+    jdbcTemplate = new JdbcTemplate(routing);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+  }
+
+  @Test
+  void testReadOnlyTransactionUsesReplica() {
+    assertEquals("replica", readOnly.execute(status -> whoAmI()));
+  }
+
+  @Test
+  void testReadWriteTransactionUsesPrimary() {
+    assertEquals("primary", readWrite.execute(status -> whoAmI()));
+  }
+
+  @Test
+  void testLaggingReplicaFallsBackToPrimary() {
+    new JdbcTemplate(lagMonitorTarget).update("UPDATE replica_state SET lag_ms = 5000");
+    lagMonitor.check();
+    assertFalse(lagMonitor.isUsable());
+    assertEquals("primary", readOnly.execute(status -> whoAmI()));
+  }
+
+  @Test
+  void testRecentWriterReadsFromPrimary() {
+    tracker.recordWrite(7L);
+    try (ReadYourWritesTracker.Scope ignored = tracker.primaryIfRecentWriter(7L)) {
+      assertEquals("primary", readOnly.execute(status -> whoAmI()));
+    }
+    try (ReadYourWritesTracker.Scope ignored = tracker.primaryIfRecentWriter(8L)) {
+      assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+  }
+
+  @Test
+  void testPrimaryScopeReadsFromPrimaryUntilClosed() {
+    try (ReadYourWritesTracker.Scope ignored = tracker.primary()) {
+      assertEquals("primary", readOnly.execute(status -> whoAmI()));
+    }
+    assertEquals("replica", readOnly.execute(status -> whoAmI()));
+  }
+
+  private String whoAmI() {
+    return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+  }
+
+  private static DataSource h2(String database, String name) {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+      "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+    jdbc.execute("CREATE TABLE IF NOT EXISTS replica_state (lag_ms BIGINT)");
+    if (jdbc.queryForObject("SELECT COUNT(*) FROM node", Integer.class) == 0) {
+      jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+      jdbc.update("INSERT INTO replica_state (lag_ms) VALUES (0)");
+    }
+    jdbc.update("UPDATE replica_state SET lag_ms = 0");
+    return dataSource;
+  }
+}
@@ -0,0 +1,42 @@
+package com.appointment;
+
+import com.appointment.directory.ScalableBloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+  @Test
+  void testNoFalseNegatives() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+    for (int i = 0; i < 5000; i++) {
+      filter.add("user" + i + "@example.com");
+    }
+    for (int i = 0; i < 5000; i++) {
+      assertTrue(filter.mightContain("user" + i + "@example.com"));
+    }
+    assertTrue(filter.layerCount() > 1, "filter should have grown past its initial capacity");
+  }
+
+  @Test
+  void testFalsePositiveRateStaysNearTarget() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.add("user" + i + "@example.com");
+    }
+    int falsePositives = 0;
+    int probes = 100_000;
+    for (int i = 0; i < probes; i++) {
+      if (filter.mightContain("other" + i + "@example.org")) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+  }
+
+  @Test
+  void testEmptyFilterContainsNothing() {
+    assertFalse(new ScalableBloomFilter(100, 0.01).mightContain("anyone@example.com"));
+  }
+}
@@ -0,0 +1,128 @@
+package com.appointment;
+
+import com.appointment.metrics.SqlStatementContext;
+import com.appointment.metrics.SqlStatsDataSourcePostProcessor;
+import com.appointment.metrics.SqlStatsProperties;
+import com.appointment.metrics.SqlStatsRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatsRegistryTest {
+
+  private SqlStatsProperties properties;
+  private SqlStatsRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    properties = new SqlStatsProperties();
+    properties.setStatementBudget(2);
+    properties.setHistorySize(2);
+    registry = new SqlStatsRegistry(properties);
+  }
+
+  @Test
+  void testSlowQueryLiteralsAreRedacted() {
+    registry.recordSlowQuery("select * from users where email = 'john@example.com' and id = 42", 300_000_000L);
+    List<Map<String, Object>> slow = registry.recentSlowQueries();
+    assertEquals(1, slow.size());
+    assertEquals("select * from users where email = ? and id = ?", slow.get(0).get("sql"));
+  }
+
+  @Test
+  void testSlowQueryHistoryIsBounded() {
+    registry.recordSlowQuery("select 1", 1L);
+    registry.recordSlowQuery("select 2", 1L);
+    registry.recordSlowQuery("select 3", 1L);
+    assertEquals(2, registry.recentSlowQueries().size());
+  }
+
+  @Test
+  void testRequestWithinBudgetIsNotFlagged() {
+    SqlStatementContext context = SqlStatementContext.open("GET /api/v1/appointments");
+    SqlStatementContext.close();
+    registry.recordRequest("GET /api/v1/appointments", context);
+
+    Map<String, Object> stats = registry.endpointSnapshot().get("GET /api/v1/appointments");
+    assertEquals(1L, stats.get("requests"));
+    assertEquals(0L, stats.get("budgetExceeded"));
+    assertTrue(registry.recentBudgetViolations().isEmpty());
+  }
+
+  @Test
+  void testRequestOverBudgetIsRecordedAsViolation() throws SQLException {
+    DataSource dataSource = countingDataSource();
+    SqlStatementContext context = SqlStatementContext.open("GET /api/v1/appointments/customer/1");
+    try {
+      runQueries(dataSource, 3);
+    } finally {
+      SqlStatementContext.close();
+    }
+    registry.recordRequest("GET /api/v1/appointments/customer/{customerId}", context);
+
+    assertEquals(3, context.getStatements());
+    Map<String, Object> stats = registry.endpointSnapshot().get("GET /api/v1/appointments/customer/{customerId}");
+    assertEquals(1L, stats.get("budgetExceeded"));
+    assertEquals(3L, stats.get("maxStatementsPerRequest"));
+    List<Map<String, Object>> violations = registry.recentBudgetViolations();
+    assertEquals(1, violations.size());
+    assertEquals(3, violations.get(0).get("statements"));
+  }
+
+  @Test
+  void testStatementsOnPropagatingExecutorCountAgainstTheRequest() throws SQLException {
+    DataSource dataSource = countingDataSource();
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    SqlStatementContext context = SqlStatementContext.open("POST /api/v1/auth/login");
+    try {
+      runQueries(dataSource, 1);
+      CompletableFuture.runAsync(() -> {
+        try {
+          runQueries(dataSource, 2);
+        } catch (SQLException ex) {
+          throw new IllegalStateException(ex);
+        }
+      }, SqlStatementContext.propagating(pool)).join();
+      CompletableFuture.runAsync(() -> assertNull(SqlStatementContext.current()), pool).join();
+    } finally {
+      SqlStatementContext.close();
+      pool.shutdownNow();
+    }
+
+    assertEquals(3, context.getStatements());
+  }
+
+  private DataSource countingDataSource() {
+    JdbcDataSource h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:sqlstats;DB_CLOSE_DELAY=-1");
+    StaticListableBeanFactory beans = new StaticListableBeanFactory();
+    beans.addBean("sqlStatsRegistry", registry);
+    beans.addBean("sqlStatsProperties", properties);
+    SqlStatsDataSourcePostProcessor postProcessor = new SqlStatsDataSourcePostProcessor(
+      beans.getBeanProvider(SqlStatsRegistry.class), beans.getBeanProvider(SqlStatsProperties.class));
+    return (DataSource) postProcessor.postProcessAfterInitialization(h2, "dataSource");
+  }
+
+  private static void runQueries(DataSource dataSource, int count) throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      for (int i = 0; i < count; i++) {
+        try (PreparedStatement statement = connection.prepareStatement("select 1")) {
+          statement.executeQuery().close();
+        }
+      }
+    }
+  }
+}
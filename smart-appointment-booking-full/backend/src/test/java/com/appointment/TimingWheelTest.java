@@ -0,0 +1,79 @@
+package com.appointment;
+
+import com.appointment.reminder.TimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+  private TimingWheel<Long> wheel;
+  private List<Long> fired;
+
+  @BeforeEach
+  void setUp() {
+    // 8 slots x 3 levels covers 512 ticks before refiling
+    wheel = new TimingWheel<>(8, 3, 0);
+    fired = new ArrayList<>();
+  }
+
+  @Test
+  void testFiresEachTimerAtItsDeadline() {
+    Random random = new Random(42);
+    List<Long> deadlines = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      long deadline = 1 + random.nextInt(2_000);
+      deadlines.add(deadline);
+      wheel.schedule(deadline, deadline);
+    }
+
+    for (long tick = 1; tick <= 2_000; tick++) {
+      long now = tick;
+      wheel.advance(tick, deadline -> {
+        assertEquals(now, deadline.longValue());
+        fired.add(deadline);
+      });
+    }
+
+    assertEquals(deadlines.size(), fired.size());
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void testCancelledTimerDoesNotFire() {
+    TimingWheel.Timer<Long> kept = wheel.schedule(100, 1L);
+    TimingWheel.Timer<Long> cancelled = wheel.schedule(100, 2L);
+
+    assertTrue(wheel.cancel(cancelled));
+    assertFalse(wheel.cancel(cancelled));
+    wheel.advance(100, fired::add);
+
+    assertEquals(List.of(1L), fired);
+    assertFalse(wheel.cancel(kept));
+  }
+
+  @Test
+  void testLargeJumpAndPastDeadlines() {
+    wheel.schedule(5_000, 5_000L);
+    wheel.advance(50, fired::add);
+    wheel.schedule(10, 10L);
+
+    wheel.advance(50, fired::add);
+    assertEquals(List.of(10L), fired);
+
+    wheel.advance(4_999, fired::add);
+    assertEquals(List.of(10L), fired);
+    wheel.advance(5_000, fired::add);
+    assertEquals(List.of(10L, 5_000L), fired);
+  }
+
+  @Test
+  void testRejectsWheelSizeThatIsNotAPowerOfTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new TimingWheel<Long>(10, 3, 0));
+  }
+}
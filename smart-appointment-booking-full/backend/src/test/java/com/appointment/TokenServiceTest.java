@@ -0,0 +1,83 @@
+package com.appointment;
+
+import com.appointment.model.User;
+import com.appointment.security.AuthenticatedUser;
+import com.appointment.security.TokenProperties;
+import com.appointment.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+  private TokenProperties properties;
+  private TokenService tokenService;
+
+  @BeforeEach
+  void setUp() {
+    properties = new TokenProperties();
+    properties.setSecret("test-secret-test-secret-test-secret");
+    tokenService = new TokenService(properties);
+  }
+
+  @Test
+  void testIssuedTokenVerifies() {
+    String token = tokenService.issue(42L, User.Role.SERVICE_PROVIDER);
+    AuthenticatedUser user = tokenService.verify(token).orElseThrow();
+    assertEquals(42L, user.userId());
+    assertEquals(User.Role.SERVICE_PROVIDER, user.role());
+  }
+
+  @Test
+  void testTamperedTokenIsRejected() {
+    String token = tokenService.issue(42L, User.Role.CUSTOMER);
+    String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+      .encodeToString("1:ADMIN:9999999999:x".getBytes());
+    assertTrue(tokenService.verify(forgedPayload + token.substring(token.indexOf('.'))).isEmpty());
+    assertTrue(tokenService.verify("garbage").isEmpty());
+    assertTrue(tokenService.verify("a.b").isEmpty());
+  }
+
+  @Test
+  void testTokenFromOtherKeyIsRejected() {
+    TokenProperties other = new TokenProperties();
+    other.setSecret("another-secret-another-secret-another");
+    String token = new TokenService(other).issue(42L, User.Role.CUSTOMER);
+    assertTrue(tokenService.verify(token).isEmpty());
+  }
+
+  @Test
+  void testExpiredTokenIsRejected() {
+    properties.setTtlSeconds(-1);
+    String token = tokenService.issue(42L, User.Role.CUSTOMER);
+    assertTrue(tokenService.verify(token).isEmpty());
+  }
+
+  @Test
+  void testRevokedTokenIsRejected() {
+    String token = tokenService.issue(42L, User.Role.CUSTOMER);
+    tokenService.revoke(tokenService.verify(token).orElseThrow());
+    assertTrue(tokenService.verify(token).isEmpty());
+    assertTrue(tokenService.verify(tokenService.issue(42L, User.Role.CUSTOMER)).isPresent());
+  }
+
+  @Test
+  void testFullRevocationListDropsTheEntryExpiringSoonest() {
+    properties.setRevocationMaxEntries(2);
+    String[] tokens = new String[3];
+    for (int i = 0; i < tokens.length; i++) {
+      properties.setTtlSeconds(100L * (i + 1));
+      tokens[i] = tokenService.issue(42L, User.Role.CUSTOMER);
+    }
+    for (String token : tokens) {
+      tokenService.revoke(tokenService.verify(token).orElseThrow());
+    }
+
+    assertTrue(tokenService.verify(tokens[0]).isPresent());
+    assertTrue(tokenService.verify(tokens[1]).isEmpty());
+    assertTrue(tokenService.verify(tokens[2]).isEmpty());
+  }
+}
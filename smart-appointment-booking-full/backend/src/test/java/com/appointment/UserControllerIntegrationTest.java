@@ -3,11 +3,15 @@ package com.appointment;
 import com.appointment.dto.UserRequest;
 import com.appointment.model.User;
 import com.appointment.repository.UserRepository;
+import com.appointment.security.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -31,6 +35,9 @@ class UserControllerIntegrationTest {
     @Autowired
     private com.appointment.repository.AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private TokenService tokenService;
+
     @BeforeEach
     void setUp() {
         appointmentRepository.deleteAll();
@@ -50,8 +57,18 @@ class UserControllerIntegrationTest {
         assertEquals(HttpStatus.CREATED, postResponse.getStatusCode());
         assertTrue(postResponse.getBody().contains("User created successfully"));
 
-        ResponseEntity<String> getResponse = restTemplate.getForEntity("/api/v1/users", String.class);
+        // Registration is public, listing users needs a session token
+        assertEquals(HttpStatus.UNAUTHORIZED, restTemplate.getForEntity("/api/v1/users", String.class).getStatusCode());
+        User alice = userRepository.findByEmail("alice@example.com").orElseThrow();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tokenService.issue(alice.getId(), alice.getRole()));
+        ResponseEntity<String> getResponse = restTemplate.exchange("/api/v1/users/" + alice.getId(), HttpMethod.GET,
+            new HttpEntity<>(headers), String.class);
         assertEquals(HttpStatus.OK, getResponse.getStatusCode());
         assertTrue(getResponse.getBody().contains("Alice"));
+
+        // Only admins list every user
+        assertEquals(HttpStatus.FORBIDDEN, restTemplate.exchange("/api/v1/users", HttpMethod.GET,
+            new HttpEntity<>(headers), String.class).getStatusCode());
     }
 }
@@ -12,9 +12,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -30,10 +32,13 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class UserControllerTest {
   @Test
   void testUpdateUser_Valid() throws Exception {
-    when(userService.updateUser(eq(1L), any(UserRequest.class))).thenReturn(userResponse);
-    mockMvc.perform(put("/api/v1/users/1")
+    when(userService.updateUser(eq(1L), any(UserRequest.class))).thenReturn(CompletableFuture.completedFuture(userResponse));
+    MvcResult result = mockMvc.perform(put("/api/v1/users/1")
         .contentType(MediaType.APPLICATION_JSON)
         .content(objectMapper.writeValueAsString(userRequest)))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+    mockMvc.perform(asyncDispatch(result))
       .andExpect(status().isOk())
       .andExpect(jsonPath("$.success").value(true));
   }
@@ -120,11 +125,14 @@ class UserControllerTest {
 
   @Test
   void testCreateUser() throws Exception {
-    when(userService.createUser(any(UserRequest.class))).thenReturn(userResponse);
+    when(userService.createUser(any(UserRequest.class))).thenReturn(CompletableFuture.completedFuture(userResponse));
 
-    mockMvc.perform(post("/api/v1/users")
+    MvcResult result = mockMvc.perform(post("/api/v1/users")
         .contentType(MediaType.APPLICATION_JSON)
         .content(objectMapper.writeValueAsString(userRequest)))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+    mockMvc.perform(asyncDispatch(result))
       .andExpect(status().isCreated())
       .andExpect(jsonPath("$.success").value(true))
       .andExpect(jsonPath("$.data.name").value("Alice"));
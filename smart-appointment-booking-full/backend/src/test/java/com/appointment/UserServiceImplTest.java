@@ -1,21 +1,39 @@
 package com.appointment;
 
+import com.appointment.directory.EmailDirectory;
+import com.appointment.directory.ProviderDirectory;
 import com.appointment.dto.UserRequest;
 import com.appointment.dto.UserResponse;
+import com.appointment.exception.AccessDeniedException;
 import com.appointment.exception.AppointmentException;
 import com.appointment.exception.ResourceNotFoundException;
 import com.appointment.model.User;
 import com.appointment.repository.UserRepository;
+import com.appointment.security.AccessGuard;
+import com.appointment.security.AuthenticatedUser;
+import com.appointment.security.PasswordService;
+import com.appointment.security.TokenProperties;
 import com.appointment.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.Optional;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -59,6 +77,25 @@ class UserServiceImplTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private PasswordService passwordService;
+
+  @Mock
+  private ProviderDirectory providerDirectory;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private EmailDirectory emailDirectory;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  // Real guard; tests call as an admin unless they set another caller
+  @Spy
+  private AccessGuard accessGuard = new AccessGuard(new TokenProperties());
+
   @InjectMocks
   private UserServiceImpl userService;
 
@@ -68,6 +105,7 @@ class UserServiceImplTest {
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
+    callAs(new AuthenticatedUser(99L, User.Role.ADMIN, Long.MAX_VALUE, "admin"));
     user = new User();
     user.setId(1L);
     user.setName("Alice");
@@ -80,6 +118,10 @@ class UserServiceImplTest {
     userRequest.setEmail("alice@example.com");
     userRequest.setPassword("password");
     userRequest.setPhone("1234567890");
+
+    when(passwordService.hashAsync(anyString()))
+      .thenAnswer(invocation -> CompletableFuture.completedFuture("$2a$10$" + invocation.getArgument(0)));
+    when(passwordService.completionExecutor()).thenReturn(Runnable::run);
   }
 
   @Test
@@ -113,7 +155,73 @@ class UserServiceImplTest {
   void testCreateUser_Success() {
     when(userRepository.existsByEmail("alice@example.com")).thenReturn(false);
     when(userRepository.save(any(User.class))).thenReturn(user);
-    UserResponse response = userService.createUser(userRequest);
+    UserResponse response = userService.createUser(userRequest).join();
     assertEquals("Alice", response.getName());
   }
+
+  @Test
+  void testCreateUser_StoresHashedPassword() {
+    when(userRepository.existsByEmail("alice@example.com")).thenReturn(false);
+    when(passwordService.hashAsync("password")).thenReturn(CompletableFuture.completedFuture("$2a$10$hashed"));
+    when(userRepository.save(any(User.class))).thenReturn(user);
+    userService.createUser(userRequest).join();
+    ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+    verify(userRepository).save(saved.capture());
+    assertEquals("$2a$10$hashed", saved.getValue().getPassword());
+  }
+
+  @Test
+  void testCreateUser_DefinitelyFreeEmailSkipsExistenceQuery() {
+    when(emailDirectory.isDefinitelyFree("alice@example.com")).thenReturn(true);
+    when(userRepository.save(any(User.class))).thenReturn(user);
+    userService.createUser(userRequest).join();
+    verify(userRepository, never()).existsByEmail(anyString());
+    verify(emailDirectory).add("alice@example.com");
+  }
+
+  @Test
+  void testCreateUser_UniqueConstraintIsAuthoritative() {
+    when(emailDirectory.isDefinitelyFree("alice@example.com")).thenReturn(true);
+    when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate email"));
+    CompletableFuture<UserResponse> created = userService.createUser(userRequest);
+    CompletionException ex = assertThrows(CompletionException.class, created::join);
+    assertInstanceOf(AppointmentException.class, ex.getCause());
+  }
+
+  @Test
+  void testCreateUser_AdminRoleNeedsAnAdminCaller() {
+    // Registration request without a token
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    userRequest.setRole(User.Role.ADMIN);
+    assertThrows(AccessDeniedException.class, () -> userService.createUser(userRequest));
+    verify(passwordService, never()).hashAsync(anyString());
+  }
+
+  @AfterEach
+  void clearRequest() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private static void callAs(AuthenticatedUser caller) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, caller);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+  }
+
+  @Test
+  void testUpdateUser_UnknownIdIsRejectedBeforeHashing() {
+    when(userRepository.findById(99L)).thenReturn(Optional.empty());
+    assertThrows(ResourceNotFoundException.class, () -> userService.updateUser(99L, userRequest));
+    verify(passwordService, never()).hashAsync(anyString());
+  }
+
+  @Test
+  void testUpdateUser_StoresHashedPassword() {
+    when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    UserRequest req = new UserRequest();
+    req.setPassword("changed");
+    userService.updateUser(1L, req).join();
+    assertEquals("$2a$10$changed", user.getPassword());
+  }
 }
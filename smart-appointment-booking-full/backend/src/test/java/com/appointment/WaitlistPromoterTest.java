@@ -0,0 +1,206 @@
+package com.appointment;
+
+import com.appointment.datasource.ReadYourWritesTracker;
+import com.appointment.event.AppointmentChangedEvent;
+import com.appointment.exception.AppointmentException;
+import com.appointment.exception.ServiceOverloadedException;
+import com.appointment.model.Appointment;
+import com.appointment.model.FreedSlot;
+import com.appointment.model.User;
+import com.appointment.model.WaitlistEntry;
+import com.appointment.repository.FreedSlotRepository;
+import com.appointment.repository.UserRepository;
+import com.appointment.repository.WaitlistEntryRepository;
+import com.appointment.service.BookingSequencer;
+import com.appointment.waitlist.Waiter;
+import com.appointment.waitlist.WaitlistPromoter;
+import com.appointment.waitlist.WaitlistProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WaitlistPromoterTest {
+
+  @Mock
+  private WaitlistEntryRepository waitlistRepository;
+
+  @Mock
+  private FreedSlotRepository freedSlotRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private BookingSequencer bookingSequencer;
+
+  @Mock
+  private ReadYourWritesTracker readYourWritesTracker;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private SimpleMeterRegistry meterRegistry;
+  private WaitlistPromoter promoter;
+  private LocalDateTime start;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(user(invocation.getArgument(0))));
+    when(waitlistRepository.hasWaiterFor(3L, start)).thenReturn(true);
+    when(waitlistRepository.transition(anyLong(), eq(WaitlistEntry.Status.WAITING), eq(WaitlistEntry.Status.BOOKED),
+      any())).thenReturn(1);
+    when(freedSlotRepository.deleteSlot(anyLong())).thenReturn(1);
+    when(freedSlotRepository.lockDue(any(), any())).thenReturn(List.of(freedSlot(7L)));
+
+    // Not started: promoteDue is driven by the test
+    promoter = new WaitlistPromoter(waitlistRepository, freedSlotRepository, userRepository, bookingSequencer,
+      readYourWritesTracker, transactionManager, new WaitlistProperties(), meterRegistry);
+    promoter.enqueueAfterCommit(waiter(21L, 1L, 1));
+    promoter.enqueueAfterCommit(waiter(22L, 2L, 2));
+  }
+
+  @Test
+  void testCancelledBookingIsRecordedAsFreedSlot() {
+    promoter.onAppointmentChanged(changed(AppointmentChangedEvent.Change.STATUS_CHANGED,
+      Appointment.Status.PENDING, Appointment.Status.CANCELLED));
+
+    ArgumentCaptor<FreedSlot> slot = ArgumentCaptor.forClass(FreedSlot.class);
+    verify(freedSlotRepository).save(slot.capture());
+    assertEquals(3L, slot.getValue().getServiceProviderId());
+    assertEquals(start, slot.getValue().getStart());
+  }
+
+  @Test
+  void testChangesThatFreeNoSlotAreIgnored() {
+    promoter.onAppointmentChanged(changed(AppointmentChangedEvent.Change.CREATED, null, Appointment.Status.PENDING));
+    promoter.onAppointmentChanged(changed(AppointmentChangedEvent.Change.STATUS_CHANGED,
+      Appointment.Status.CONFIRMED, Appointment.Status.COMPLETED));
+    promoter.onAppointmentChanged(changed(AppointmentChangedEvent.Change.STATUS_CHANGED,
+      Appointment.Status.COMPLETED, Appointment.Status.CANCELLED));
+
+    verify(freedSlotRepository, never()).save(any());
+  }
+
+  @Test
+  void testBookingClaimsAndRecordsInItsTransaction() {
+    bookAs(100L);
+
+    assertEquals(1, promoter.promoteDue());
+
+    verify(freedSlotRepository).deleteSlot(7L);
+    verify(waitlistRepository).transition(eq(21L), eq(WaitlistEntry.Status.WAITING), eq(WaitlistEntry.Status.BOOKED),
+      any());
+    verify(waitlistRepository).recordAppointment(eq(21L), eq(100L), any());
+    verify(readYourWritesTracker).recordWrite(1L);
+    assertEquals(1, meterRegistry.get("waitlist.promoted").counter().count());
+    assertEquals(1, promoter.position(3L, 22L));
+  }
+
+  @Test
+  void testEntryClaimedElsewhereFallsThroughToTheNextWaiter() {
+    when(waitlistRepository.transition(eq(21L), any(), any(), any())).thenReturn(0);
+    bookAs(100L);
+
+    promoter.promoteDue();
+
+    verify(bookingSequencer, times(2)).book(any(), any());
+    verify(waitlistRepository, never()).recordAppointment(eq(21L), anyLong(), any());
+    verify(waitlistRepository).recordAppointment(eq(22L), eq(100L), any());
+    assertEquals(0, promoter.position(3L, 21L));
+  }
+
+  @Test
+  void testRejectedBookingLeavesTheWaiterUnclaimed() {
+    when(bookingSequencer.book(argThat(appointment -> appointment != null
+      && appointment.getCustomer().getId().equals(1L)), any()))
+      .thenThrow(new AppointmentException("Fully booked"));
+    when(bookingSequencer.book(argThat(appointment -> appointment != null
+      && appointment.getCustomer().getId().equals(2L)), any()))
+      .thenAnswer(invocation -> booked(invocation, 100L));
+
+    promoter.promoteDue();
+
+    verify(waitlistRepository, never()).transition(eq(21L), any(), any(), any());
+    verify(waitlistRepository).recordAppointment(eq(22L), eq(100L), any());
+    assertEquals(1, promoter.position(3L, 21L));
+  }
+
+  @Test
+  void testSlotNoWaiterFitsIsDeleted() {
+    when(bookingSequencer.book(any(), any())).thenThrow(new AppointmentException("Fully booked"));
+
+    promoter.promoteDue();
+
+    verify(waitlistRepository, never()).transition(anyLong(), any(), any(), any());
+    verify(freedSlotRepository).deleteSlot(7L);
+  }
+
+  @Test
+  void testUnknownOutcomeKeepsTheSlotForARetry() {
+    when(bookingSequencer.book(any(), any())).thenThrow(new ServiceOverloadedException("Outcome not known", 5));
+
+    promoter.promoteDue();
+
+    verify(bookingSequencer, times(1)).book(any(), any());
+    verify(freedSlotRepository).postpone(eq(List.of(7L)), any());
+    verify(freedSlotRepository, never()).deleteSlot(anyLong());
+    assertEquals(1, meterRegistry.get("waitlist.promotion.failed").counter().count());
+    assertEquals(1, promoter.position(3L, 21L));
+  }
+
+  private void bookAs(Long appointmentId) {
+    when(bookingSequencer.book(any(), any())).thenAnswer(invocation -> booked(invocation, appointmentId));
+  }
+
+  /**
+   * Stand-in for the sequencer: saves the appointment and runs the callback, whose exception fails the booking
+   */
+  @SuppressWarnings("unchecked")
+  private static Appointment booked(InvocationOnMock invocation, Long appointmentId) {
+    Appointment appointment = invocation.getArgument(0);
+    appointment.setId(appointmentId);
+    ((Consumer<Appointment>) invocation.getArgument(1)).accept(appointment);
+    return appointment;
+  }
+
+  private AppointmentChangedEvent changed(AppointmentChangedEvent.Change change, Appointment.Status previous,
+                                          Appointment.Status status) {
+    return new AppointmentChangedEvent(change, 50L, 9L, 3L, previous, status, start);
+  }
+
+  private FreedSlot freedSlot(Long id) {
+    return new FreedSlot(id, 3L, start, LocalDateTime.now(), LocalDateTime.now());
+  }
+
+  private Waiter waiter(Long entryId, Long customerId, int place) {
+    return new Waiter(entryId, customerId, 3L, Appointment.ServiceType.DOCTOR, start.minusDays(1), start.plusDays(1),
+      LocalDateTime.now().minusHours(1).plusMinutes(place), null);
+  }
+
+  private static User user(Long id) {
+    User user = new User();
+    user.setId(id);
+    return user;
+  }
+}
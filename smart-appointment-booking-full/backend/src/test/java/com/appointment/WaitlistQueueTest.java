@@ -0,0 +1,60 @@
+package com.appointment;
+
+import com.appointment.model.Appointment;
+import com.appointment.waitlist.Waiter;
+import com.appointment.waitlist.WaitlistQueue;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistQueueTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+  private final WaitlistQueue queue = new WaitlistQueue();
+
+  @Test
+  void testCandidatesAreFirstComeFirstServedWithinTheirWindow() {
+    queue.add(waiter(3L, 7L, NOW.plusMinutes(3), NOW, NOW.plusDays(1)));
+    queue.add(waiter(1L, 7L, NOW.plusMinutes(1), NOW.plusHours(4), NOW.plusDays(1)));
+    queue.add(waiter(2L, 7L, NOW.plusMinutes(2), NOW, NOW.plusDays(1)));
+    queue.add(waiter(4L, 8L, NOW, NOW, NOW.plusDays(1)));
+
+    List<Waiter> candidates = queue.candidates(7L, NOW.plusHours(2), NOW);
+
+    assertEquals(List.of(2L, 3L), candidates.stream().map(Waiter::entryId).toList());
+    assertEquals(1, queue.position(7L, 1L));
+    assertEquals(0, queue.position(7L, 4L));
+  }
+
+  @Test
+  void testExpiredAndRemovedWaitersAreDropped() {
+    queue.add(waiter(1L, 7L, NOW, NOW, NOW.plusHours(1)));
+    queue.add(waiter(2L, 7L, NOW.plusMinutes(1), NOW, NOW.plusDays(1)));
+    queue.add(waiter(3L, 7L, NOW.plusMinutes(2), NOW, NOW.plusDays(1)));
+    queue.remove(7L, 3L);
+
+    List<Waiter> candidates = queue.candidates(7L, NOW.plusHours(3), NOW.plusHours(2));
+
+    assertEquals(List.of(2L), candidates.stream().map(Waiter::entryId).toList());
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  void testResetReplacesAllQueues() {
+    queue.add(waiter(1L, 7L, NOW, NOW, NOW.plusDays(1)));
+
+    queue.reset(List.of(waiter(5L, 9L, NOW, NOW, NOW.plusDays(1))));
+
+    assertTrue(queue.candidates(7L, NOW.plusHours(1), NOW).isEmpty());
+    assertEquals(1, queue.position(9L, 5L));
+  }
+
+  private static Waiter waiter(Long entryId, Long providerId, LocalDateTime joinedAt,
+                               LocalDateTime windowStart, LocalDateTime windowEnd) {
+    return new Waiter(entryId, 1L, providerId, Appointment.ServiceType.DOCTOR, windowStart, windowEnd, joinedAt, null);
+  }
+}
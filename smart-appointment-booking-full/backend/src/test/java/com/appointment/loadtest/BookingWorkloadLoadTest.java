@@ -0,0 +1,47 @@
+package com.appointment.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Booking workload against a locally started backend
+ * Excluded from the normal build; run with: mvn -Ploadtest test
+ * Point it at a local Postgres with -Dspring.datasource.url=jdbc:postgresql://... (plus username/password)
+ */
+@Tag("loadtest")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class BookingWorkloadLoadTest {
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void runBookingWorkload() throws Exception {
+    WorkloadConfig config = WorkloadConfig.fromSystemProperties();
+    SyntheticDataset dataset = new SyntheticDataGenerator(jdbcTemplate, config).generate();
+
+    WorkloadReport report;
+    try (WorkloadDriver driver = new WorkloadDriver("http://localhost:" + port, config, dataset)) {
+      report = driver.run();
+    }
+    log.info("Booking workload finished\n{}", report.toText());
+    report.writeTo(Path.of("target", "loadtest"));
+
+    assertTrue(report.totalRequests() > 0, "Workload did not complete any request");
+  }
+}
@@ -0,0 +1,104 @@
+package com.appointment.loadtest;
+
+import com.appointment.dto.ApiResponse;
+import com.appointment.dto.AppointmentResponse;
+import com.appointment.model.Appointment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Payload size and serialization CPU of JSON vs CBOR vs Smile for a typical appointment list
+ * Excluded from the normal build; run with: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+@Slf4j
+class ResponseEncodingBenchmarkTest {
+
+  private static final int ROWS = 500;
+  private static final int WARMUP_ROUNDS = 2_000;
+  private static final int MEASURED_ROUNDS = 2_000;
+
+  @Test
+  void compareEncodings() throws IOException {
+    ApiResponse<List<AppointmentResponse>> payload =
+      new ApiResponse<>(true, "Appointments retrieved", appointments(ROWS));
+
+    Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+    mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+    mappers.put("cbor", Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+    mappers.put("smile", Jackson2ObjectMapperBuilder.json().factory(SmileFactory.builder()
+      .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build()).build());
+
+    StringBuilder csv = new StringBuilder("encoding,bytes,micros_per_response\n");
+    Map<String, Integer> sizes = new LinkedHashMap<>();
+    for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+      ObjectMapper mapper = entry.getValue();
+      int size = mapper.writeValueAsBytes(payload).length;
+      long sink = 0;
+      for (int i = 0; i < WARMUP_ROUNDS; i++) {
+        sink += mapper.writeValueAsBytes(payload).length;
+      }
+      long start = System.nanoTime();
+      for (int i = 0; i < MEASURED_ROUNDS; i++) {
+        sink += mapper.writeValueAsBytes(payload).length;
+      }
+      double micros = (System.nanoTime() - start) / 1000.0 / MEASURED_ROUNDS;
+      sizes.put(entry.getKey(), size);
+      csv.append(String.format("%s,%d,%.1f%n", entry.getKey(), size, micros));
+      log.info("{} {} bytes {} us/response (checksum {})",
+        entry.getKey(), size, String.format("%.1f", micros), sink);
+    }
+
+    Path out = Path.of("target", "benchmark");
+    Files.createDirectories(out);
+    Files.writeString(out.resolve("response-encodings.csv"), csv);
+
+    assertTrue(sizes.get("cbor") < sizes.get("json"));
+    assertTrue(sizes.get("smile") < sizes.get("json"));
+  }
+
+  private static List<AppointmentResponse> appointments(int rows) {
+    String[] providers = {"Dr. Sarah Wilson", "Mike Johnson (Barber)", "Emily Brown (Dentist)"};
+    Appointment.ServiceType[] types = Appointment.ServiceType.values();
+    Appointment.Status[] statuses = Appointment.Status.values();
+    LocalDateTime base = LocalDateTime.of(2026, 1, 5, 9, 0);
+    List<AppointmentResponse> list = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      AppointmentResponse response = new AppointmentResponse();
+      response.setId((long) i + 1);
+      response.setCustomerId((long) (i % 40) + 1);
+      response.setCustomerName("Customer " + (i % 40));
+      response.setCustomerEmail("customer" + (i % 40) + "@example.com");
+      response.setCustomerPhone("555010" + (i % 40));
+      response.setServiceProviderId((long) (i % providers.length) + 100);
+      response.setServiceProviderName(providers[i % providers.length]);
+      response.setServiceProviderEmail("provider" + (i % providers.length) + "@example.com");
+      response.setServiceProviderPhone("555999" + (i % providers.length));
+      response.setServiceType(types[i % types.length]);
+      response.setAppointmentDateTime(base.plusHours(i));
+      response.setNotes(i % 3 == 0 ? "Regular checkup" : null);
+      response.setStatus(statuses[i % statuses.length]);
+      response.setCreatedAt(base.minusDays(7));
+      response.setUpdatedAt(base.minusDays(1));
+      list.add(response);
+    }
+    return list;
+  }
+}
@@ -0,0 +1,181 @@
+package com.appointment.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Startup time and first-request latency of the packaged jar: plain, AOT, and AOT with a CDS archive
+ * Runs after packaging in the fast-start profile: mvn -Pfast-start verify [-Dstartup.runs=5]
+ * The application needs its database; the benchmark is skipped when it cannot be reached.
+ * Database: -Dstartup.datasourceUrl / startup.datasourceUsername / startup.datasourcePassword
+ * (defaults match application.properties). Request: -Dstartup.firstRequestPath (default /api/v1/appointments/stats)
+ */
+@Tag("benchmark")
+@Slf4j
+class StartupBenchmarkIT {
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+  private static final Path OUT = Path.of("target", "benchmark", "startup");
+
+  private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+  @Test
+  void compareStartupModes() throws Exception {
+    Path jar = Path.of(System.getProperty("startup.jar", "target/smart-appointment-booking-0.0.1-SNAPSHOT.jar"));
+    assumeTrue(Files.isRegularFile(jar), "Packaged jar not found: " + jar);
+    String url = System.getProperty("startup.datasourceUrl", "jdbc:postgresql://localhost:5432/appointment_db");
+    String username = System.getProperty("startup.datasourceUsername", "appointment_user");
+    String password = System.getProperty("startup.datasourcePassword", "your_password");
+    assumeTrue(databaseReachable(url, username, password), "Database not reachable at " + url);
+    int runs = Integer.getInteger("startup.runs", 3);
+    String firstRequestPath = System.getProperty("startup.firstRequestPath", "/api/v1/appointments/stats");
+
+    Files.createDirectories(OUT);
+    List<String> appArgs = List.of(
+      "--spring.datasource.url=" + url,
+      "--spring.datasource.username=" + username,
+      "--spring.datasource.password=" + password,
+      // The first request is anonymous; it measures a cold request path, not authentication
+      "--app.auth.token.required=false",
+      "--logging.file.name=" + OUT.resolve("app.log"));
+
+    // Same layout as the Docker image: extracted jar plus an archive recorded by a training run
+    Path extracted = OUT.resolve("extracted");
+    Path extractedJar = extracted.resolve(jar.getFileName());
+    Path archive = extracted.resolve("application.jsa");
+    runToCompletion(command(List.of("-Djarmode=tools", "-jar", jar.toString(),
+      "extract", "--force", "--destination", extracted.toString()), List.of()));
+    runToCompletion(command(List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true",
+      "-Dspring.context.exit=onRefresh", "-jar", extractedJar.toString()), appArgs));
+    assertTrue(Files.isRegularFile(archive), "Training run did not produce " + archive);
+
+    Map<String, List<String>> modes = new LinkedHashMap<>();
+    modes.put("jar", List.of("-jar", jar.toString()));
+    modes.put("aot", List.of("-Dspring.aot.enabled=true", "-jar", jar.toString()));
+    modes.put("aot+cds", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+      "-jar", extractedJar.toString()));
+
+    StringBuilder csv = new StringBuilder("mode,run,startup_ms,first_request_ms\n");
+    for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+      List<Long> startups = new ArrayList<>();
+      List<Long> firstRequests = new ArrayList<>();
+      for (int run = 1; run <= runs; run++) {
+        long[] timings = measure(mode.getValue(), appArgs, firstRequestPath);
+        startups.add(timings[0]);
+        firstRequests.add(timings[1]);
+        csv.append(String.format("%s,%d,%d,%d%n", mode.getKey(), run, timings[0], timings[1]));
+      }
+      log.info("{} startup {} ms, first request {} ms (median of {})",
+        mode.getKey(), median(startups), median(firstRequests), runs);
+    }
+    Files.writeString(OUT.resolve("startup.csv"), csv);
+  }
+
+  /**
+   * Start the application, wait until it reports healthy, time one request, stop it
+   * @return startup millis (spawn to healthy) and first-request millis
+   */
+  private long[] measure(List<String> jvmArgs, List<String> appArgs, String firstRequestPath) throws Exception {
+    int port = freePort();
+    List<String> args = new ArrayList<>(appArgs);
+    args.add("--server.port=" + port);
+    ProcessBuilder builder = new ProcessBuilder(command(jvmArgs, args))
+      .redirectErrorStream(true)
+      .redirectOutput(OUT.resolve("last-run.log").toFile());
+
+    long start = System.nanoTime();
+    Process process = builder.start();
+    try {
+      long deadline = start + STARTUP_TIMEOUT.toNanos();
+      while (status(port, "/actuator/health") != 200) {
+        assertTrue(process.isAlive(), "Application exited during startup, see " + OUT.resolve("last-run.log"));
+        assertTrue(System.nanoTime() < deadline, "Application did not become healthy in " + STARTUP_TIMEOUT);
+        Thread.sleep(20);
+      }
+      long startupMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      long requestStart = System.nanoTime();
+      int status = status(port, firstRequestPath);
+      long firstRequestMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStart);
+      assertEquals(200, status, "First request to " + firstRequestPath + " failed");
+      return new long[] {startupMs, firstRequestMs};
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  private int status(int port, String path) throws InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+      .timeout(Duration.ofSeconds(30))
+      .build();
+    try {
+      return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    } catch (IOException ex) {
+      // Not listening yet
+      return -1;
+    }
+  }
+
+  private static void runToCompletion(List<String> command) throws IOException, InterruptedException {
+    Process process = new ProcessBuilder(command)
+      .redirectErrorStream(true)
+      .redirectOutput(OUT.resolve("prepare.log").toFile())
+      .start();
+    assertTrue(process.waitFor(STARTUP_TIMEOUT.toSeconds(), TimeUnit.SECONDS), "Timed out: " + command);
+    assertEquals(0, process.exitValue(), "Failed: " + command + ", see " + OUT.resolve("prepare.log"));
+  }
+
+  private static List<String> command(List<String> jvmArgs, List<String> appArgs) {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmArgs);
+    command.addAll(appArgs);
+    return command;
+  }
+
+  private static boolean databaseReachable(String url, String username, String password) {
+    DriverManager.setLoginTimeout(2);
+    try (Connection ignored = DriverManager.getConnection(url, username, password)) {
+      return true;
+    } catch (SQLException ex) {
+      return false;
+    }
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static long median(List<Long> values) {
+    List<Long> sorted = values.stream().sorted().toList();
+    return sorted.get(sorted.size() / 2);
+  }
+}
@@ -0,0 +1,147 @@
+package com.appointment.loadtest;
+
+import com.appointment.model.Appointment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds the users and appointments tables with a reproducible synthetic booking history
+ * Providers receive appointments with Zipf skew; inserts go through JDBC batches, not JPA
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+
+  private static final int BATCH_SIZE = 5_000;
+  private static final String[] NOTE_WORDS = {
+    "checkup", "follow-up", "consultation", "cleaning", "haircut", "styling", "review", "session", "urgent", "routine"
+  };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final WorkloadConfig config;
+
+  public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, WorkloadConfig config) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.config = config;
+  }
+
+  /**
+   * Replace the contents of users and appointments with generated rows
+   * @return Ids of the generated providers and customers
+   */
+  public SyntheticDataset generate() {
+    long start = System.nanoTime();
+    jdbcTemplate.update("DELETE FROM appointments");
+    jdbcTemplate.update("DELETE FROM users");
+
+    insertUsers("SERVICE_PROVIDER", "provider", config.providers());
+    insertUsers("CUSTOMER", "customer", config.customers());
+
+    long[] providerIds = loadIds("SERVICE_PROVIDER");
+    long[] customerIds = loadIds("CUSTOMER");
+    insertAppointments(providerIds, customerIds);
+
+    log.info("Generated {} providers, {} customers and {} appointments in {} s",
+      providerIds.length, customerIds.length, config.appointments(),
+      (System.nanoTime() - start) / 1_000_000_000);
+    return new SyntheticDataset(providerIds, customerIds);
+  }
+
+  private void insertUsers(String role, String prefix, int count) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < count; i++) {
+      batch.add(new Object[]{
+        capitalize(prefix) + " " + i,
+        SyntheticDataset.email(prefix, i),
+        SyntheticDataset.PASSWORD,
+        String.format("%010d", i),
+        role,
+        true,
+        now,
+        now
+      });
+      if (batch.size() == BATCH_SIZE) {
+        flushUsers(batch);
+      }
+    }
+    flushUsers(batch);
+  }
+
+  private void flushUsers(List<Object[]> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+      "INSERT INTO users (name, email, password, phone, role, active, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    batch.clear();
+  }
+
+  private long[] loadIds(String role) {
+    return jdbcTemplate.queryForList("SELECT id FROM users WHERE role = ? ORDER BY id", Long.class, role)
+      .stream()
+      .mapToLong(Long::longValue)
+      .toArray();
+  }
+
+  private void insertAppointments(long[] providerIds, long[] customerIds) {
+    SplittableRandom random = new SplittableRandom(config.seed());
+    ZipfSampler providerSampler = new ZipfSampler(providerIds.length, config.providerSkew());
+    Appointment.ServiceType[] serviceTypes = Appointment.ServiceType.values();
+    LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    Timestamp created = Timestamp.valueOf(now);
+
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < config.appointments(); i++) {
+      // Half-hour slots between 30 days ago and 60 days ahead
+      LocalDateTime when = now.plusMinutes(30L * random.nextInt(-30 * 48, 60 * 48));
+      batch.add(new Object[]{
+        customerIds[random.nextInt(customerIds.length)],
+        providerIds[providerSampler.sample(random)],
+        serviceTypes[random.nextInt(serviceTypes.length)].name(),
+        Timestamp.valueOf(when),
+        NOTE_WORDS[random.nextInt(NOTE_WORDS.length)] + " " + NOTE_WORDS[random.nextInt(NOTE_WORDS.length)],
+        statusFor(when.isBefore(now), random).name(),
+        created,
+        created
+      });
+      if (batch.size() == BATCH_SIZE) {
+        flushAppointments(batch);
+      }
+    }
+    flushAppointments(batch);
+  }
+
+  private void flushAppointments(List<Object[]> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+      "INSERT INTO appointments (customer_id, provider_id, service_type, appointment_datetime, notes, status, " +
+        "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    batch.clear();
+  }
+
+  private static Appointment.Status statusFor(boolean past, SplittableRandom random) {
+    int roll = random.nextInt(100);
+    if (past) {
+      return roll < 80 ? Appointment.Status.COMPLETED
+        : roll < 92 ? Appointment.Status.CANCELLED
+        : Appointment.Status.NO_SHOW;
+    }
+    return roll < 55 ? Appointment.Status.CONFIRMED
+      : roll < 90 ? Appointment.Status.PENDING
+      : Appointment.Status.CANCELLED;
+  }
+
+  private static String capitalize(String value) {
+    return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+  }
+}
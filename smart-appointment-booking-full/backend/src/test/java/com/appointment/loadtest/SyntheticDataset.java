@@ -0,0 +1,14 @@
+package com.appointment.loadtest;
+
+/**
+ * Ids of the rows created by SyntheticDataGenerator
+ * Emails follow the pattern customer{n}@loadtest.local, where n indexes customerIds
+ */
+public record SyntheticDataset(long[] providerIds, long[] customerIds) {
+
+  public static final String PASSWORD = "password123";
+
+  public static String email(String prefix, int index) {
+    return prefix + index + "@loadtest.local";
+  }
+}
@@ -0,0 +1,50 @@
+package com.appointment.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Load-test parameters, read from -Dloadtest.* system properties
+ * Example: mvn -Ploadtest test -Dloadtest.users=2000000 -Dloadtest.durationSeconds=300
+ */
+public record WorkloadConfig(
+  long seed,
+  int users,
+  double providerShare,
+  int appointments,
+  double providerSkew,
+  int threads,
+  Duration warmup,
+  Duration duration,
+  int readWeight,
+  int bookWeight,
+  int cancelWeight,
+  int searchWeight,
+  int loginWeight
+) {
+
+  public static WorkloadConfig fromSystemProperties() {
+    return new WorkloadConfig(
+      Long.getLong("loadtest.seed", 42L),
+      Integer.getInteger("loadtest.users", 1_000_000),
+      Double.parseDouble(System.getProperty("loadtest.providerShare", "0.02")),
+      Integer.getInteger("loadtest.appointments", 2_000_000),
+      Double.parseDouble(System.getProperty("loadtest.providerSkew", "1.1")),
+      Integer.getInteger("loadtest.threads", 32),
+      Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 15L)),
+      Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60L)),
+      Integer.getInteger("loadtest.mix.read", 50),
+      Integer.getInteger("loadtest.mix.book", 20),
+      Integer.getInteger("loadtest.mix.cancel", 5),
+      Integer.getInteger("loadtest.mix.search", 10),
+      Integer.getInteger("loadtest.mix.login", 15)
+    );
+  }
+
+  public int providers() {
+    return Math.max(1, (int) (users * providerShare));
+  }
+
+  public int customers() {
+    return users - providers();
+  }
+}
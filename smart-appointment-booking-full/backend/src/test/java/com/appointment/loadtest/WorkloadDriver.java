@@ -0,0 +1,278 @@
+package com.appointment.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives a weighted mix of read, book, cancel, search and login requests against a running backend
+ * Each worker thread loops until the deadline; samples taken during warm-up are discarded.
+ * Close the driver when done so the HTTP client's threads are released.
+ */
+@Slf4j
+public class WorkloadDriver implements AutoCloseable {
+
+  private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+  private static final String[] SEARCH_KEYWORDS = {"checkup", "follow", "provider 1", "customer 42", "DOCTOR", "session"};
+
+  /**
+   * Operations in the mix; the name is used as the report row label
+   */
+  public enum Operation {
+    READ("GET /appointments/customer/{id}"),
+    BOOK("POST /appointments"),
+    CANCEL("PATCH /appointments/{id}/status"),
+    SEARCH("GET /appointments/search"),
+    LOGIN("POST /auth/login");
+
+    private final String label;
+
+    Operation(String label) {
+      this.label = label;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  private final String baseUrl;
+  private final WorkloadConfig config;
+  private final SyntheticDataset dataset;
+  private final ExecutorService httpExecutor;
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ZipfSampler providerSampler;
+  private final ConcurrentLinkedQueue<Long> bookedIds = new ConcurrentLinkedQueue<>();
+  private final Map<Operation, EndpointResult> results = new EnumMap<>(Operation.class);
+  private final Operation[] weightedOperations;
+
+  private volatile boolean recording;
+
+  public WorkloadDriver(String baseUrl, WorkloadConfig config, SyntheticDataset dataset) {
+    this.baseUrl = baseUrl;
+    this.config = config;
+    this.dataset = dataset;
+    this.httpExecutor = Executors.newFixedThreadPool(config.threads());
+    this.httpClient = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofSeconds(5))
+      .executor(httpExecutor)
+      .build();
+    this.providerSampler = new ZipfSampler(dataset.providerIds().length, config.providerSkew());
+    for (Operation operation : Operation.values()) {
+      results.put(operation, new EndpointResult());
+    }
+    this.weightedOperations = buildMix(config);
+  }
+
+  /**
+   * Run warm-up followed by the measured phase
+   * @return Report of the measured phase
+   */
+  public WorkloadReport run() throws InterruptedException {
+    ExecutorService workers = Executors.newFixedThreadPool(config.threads());
+    long warmupEnd = System.nanoTime() + config.warmup().toNanos();
+    long deadline = warmupEnd + config.duration().toNanos();
+    for (int i = 0; i < config.threads(); i++) {
+      SplittableRandom random = new SplittableRandom(config.seed() + i);
+      workers.submit(() -> workerLoop(random, deadline));
+    }
+
+    long now = System.nanoTime();
+    if (warmupEnd > now) {
+      TimeUnit.NANOSECONDS.sleep(warmupEnd - now);
+    }
+    log.info("Warm-up finished, measuring for {} s", config.duration().toSeconds());
+    recording = true;
+    long measureStart = System.nanoTime();
+
+    workers.shutdown();
+    if (!workers.awaitTermination(config.duration().toSeconds() + 60, TimeUnit.SECONDS)) {
+      log.warn("Workers did not finish in time, interrupting them");
+      workers.shutdownNow();
+    }
+    recording = false;
+    Duration measured = Duration.ofNanos(System.nanoTime() - measureStart);
+    return new WorkloadReport(config, measured, results);
+  }
+
+  @Override
+  public void close() {
+    httpExecutor.shutdownNow();
+  }
+
+  private void workerLoop(SplittableRandom random, long deadline) {
+    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+      Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+      HttpRequest request = buildRequest(operation, random);
+      long start = System.nanoTime();
+      try {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        long elapsed = System.nanoTime() - start;
+        if (operation == Operation.BOOK && response.statusCode() == 201) {
+          rememberBookedId(response.body());
+        }
+        if (recording) {
+          results.get(operation).record(elapsed, response.statusCode());
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } catch (Exception ex) {
+        if (recording) {
+          results.get(operation).recordFailure(System.nanoTime() - start);
+        }
+      }
+    }
+  }
+
+  private HttpRequest buildRequest(Operation operation, SplittableRandom random) {
+    switch (operation) {
+      case READ:
+        return get("/api/v1/appointments/customer/" + randomCustomerId(random));
+      case SEARCH:
+        String keyword = SEARCH_KEYWORDS[random.nextInt(SEARCH_KEYWORDS.length)];
+        return get("/api/v1/appointments/search?keyword=" + URLEncoder.encode(keyword, StandardCharsets.UTF_8));
+      case BOOK:
+        LocalDateTime slot = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)
+          .plusMinutes(30L * random.nextInt(2, 60 * 48));
+        String booking = String.format(
+          "{\"customerId\":%d,\"serviceProviderId\":%d,\"serviceType\":\"DOCTOR\",\"appointmentDateTime\":\"%s\"}",
+          randomCustomerId(random),
+          dataset.providerIds()[providerSampler.sample(random)],
+          DATE_TIME.format(slot));
+        return json("/api/v1/appointments", "POST", booking);
+      case CANCEL:
+        Long id = bookedIds.poll();
+        long target = id != null ? id : random.nextLong(1, Math.max(2, config.appointments()));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/appointments/" + target + "/status?status=CANCELLED"))
+          .method("PATCH", HttpRequest.BodyPublishers.noBody())
+          .timeout(Duration.ofSeconds(30))
+          .build();
+      case LOGIN:
+      default:
+        int customer = random.nextInt(dataset.customerIds().length);
+        String login = String.format("{\"email\":\"%s\",\"password\":\"%s\"}",
+          SyntheticDataset.email("customer", customer), SyntheticDataset.PASSWORD);
+        return json("/api/v1/auth/login", "POST", login);
+    }
+  }
+
+  private long randomCustomerId(SplittableRandom random) {
+    return dataset.customerIds()[random.nextInt(dataset.customerIds().length)];
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+      .GET()
+      .header("Accept", "application/json")
+      .timeout(Duration.ofSeconds(30))
+      .build();
+  }
+
+  private HttpRequest json(String path, String method, String body) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+      .method(method, HttpRequest.BodyPublishers.ofString(body))
+      .header("Content-Type", "application/json")
+      .header("Accept", "application/json")
+      .timeout(Duration.ofSeconds(30))
+      .build();
+  }
+
+  private void rememberBookedId(String body) {
+    try {
+      JsonNode id = objectMapper.readTree(body).path("data").path("id");
+      if (id.isNumber()) {
+        bookedIds.offer(id.asLong());
+      }
+    } catch (Exception ex) {
+      log.debug("Could not read booked appointment id", ex);
+    }
+  }
+
+  private static Operation[] buildMix(WorkloadConfig config) {
+    List<Operation> mix = new ArrayList<>();
+    addWeighted(mix, Operation.READ, config.readWeight());
+    addWeighted(mix, Operation.BOOK, config.bookWeight());
+    addWeighted(mix, Operation.CANCEL, config.cancelWeight());
+    addWeighted(mix, Operation.SEARCH, config.searchWeight());
+    addWeighted(mix, Operation.LOGIN, config.loginWeight());
+    if (mix.isEmpty()) {
+      throw new IllegalArgumentException("Workload mix must have at least one positive weight");
+    }
+    return mix.toArray(new Operation[0]);
+  }
+
+  private static void addWeighted(List<Operation> mix, Operation operation, int weight) {
+    for (int i = 0; i < weight; i++) {
+      mix.add(operation);
+    }
+  }
+
+  /**
+   * Latency and status-class counters for one operation
+   */
+  public static class EndpointResult {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder success = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    void record(long nanos, int status) {
+      latency.record(nanos);
+      if (status >= 500) {
+        serverErrors.increment();
+      } else if (status >= 400) {
+        clientErrors.increment();
+      } else {
+        success.increment();
+      }
+    }
+
+    void recordFailure(long nanos) {
+      latency.record(nanos);
+      failures.increment();
+    }
+
+    public LatencyHistogram getLatency() {
+      return latency;
+    }
+
+    public long getSuccess() {
+      return success.sum();
+    }
+
+    public long getClientErrors() {
+      return clientErrors.sum();
+    }
+
+    public long getServerErrors() {
+      return serverErrors.sum();
+    }
+
+    public long getFailures() {
+      return failures.sum();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.appointment.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per operation for one load-test run
+ * Printed to the console and written as text and CSV under target/loadtest
+ */
+public class WorkloadReport {
+
+  private final WorkloadConfig config;
+  private final Duration measured;
+  private final Map<WorkloadDriver.Operation, WorkloadDriver.EndpointResult> results;
+
+  public WorkloadReport(WorkloadConfig config, Duration measured,
+                        Map<WorkloadDriver.Operation, WorkloadDriver.EndpointResult> results) {
+    this.config = config;
+    this.measured = measured;
+    this.results = results;
+  }
+
+  public long totalRequests() {
+    return results.values().stream().mapToLong(result -> result.getLatency().count()).sum();
+  }
+
+  public String toText() {
+    double seconds = Math.max(1, measured.toMillis()) / 1000.0;
+    StringBuilder text = new StringBuilder();
+    text.append(String.format("Load test: %d users (%d providers, skew %.2f), %d appointments, %d threads, %.1f s measured%n",
+      config.users(), config.providers(), config.providerSkew(), config.appointments(), config.threads(), seconds));
+    text.append(String.format("%-34s %9s %9s %7s %7s %7s %9s %9s %9s %9s %9s%n",
+      "operation", "requests", "req/s", "2xx", "4xx", "5xx/err", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+    results.forEach((operation, result) -> {
+      LatencyHistogram latency = result.getLatency();
+      text.append(String.format("%-34s %9d %9.1f %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+        operation.getLabel(),
+        latency.count(),
+        latency.count() / seconds,
+        result.getSuccess(),
+        result.getClientErrors(),
+        result.getServerErrors() + result.getFailures(),
+        millis(latency.percentileMicros(50)),
+        millis(latency.percentileMicros(90)),
+        millis(latency.percentileMicros(99)),
+        millis(latency.percentileMicros(99.9)),
+        millis(latency.maxMicros())));
+    });
+    text.append(String.format("total: %d requests, %.1f req/s%n", totalRequests(), totalRequests() / seconds));
+    return text.toString();
+  }
+
+  public String toCsv() {
+    double seconds = Math.max(1, measured.toMillis()) / 1000.0;
+    StringBuilder csv = new StringBuilder("operation,requests,throughput,success,client_errors,server_errors,p50_us,p90_us,p99_us,p999_us,max_us\n");
+    results.forEach((operation, result) -> {
+      LatencyHistogram latency = result.getLatency();
+      csv.append(String.join(",",
+        operation.name(),
+        Long.toString(latency.count()),
+        String.format("%.1f", latency.count() / seconds),
+        Long.toString(result.getSuccess()),
+        Long.toString(result.getClientErrors()),
+        Long.toString(result.getServerErrors() + result.getFailures()),
+        Long.toString(latency.percentileMicros(50)),
+        Long.toString(latency.percentileMicros(90)),
+        Long.toString(latency.percentileMicros(99)),
+        Long.toString(latency.percentileMicros(99.9)),
+        Long.toString(latency.maxMicros()))).append('\n');
+    });
+    return csv.toString();
+  }
+
+  public void writeTo(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    Files.writeString(directory.resolve("report.txt"), toText());
+    Files.writeString(directory.resolve("report.csv"), toCsv());
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
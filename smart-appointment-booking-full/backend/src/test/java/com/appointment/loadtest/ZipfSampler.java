@@ -0,0 +1,38 @@
+package com.appointment.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks 0..n-1 with Zipf-distributed probability (rank 0 is the most popular)
+ * Used to give a few providers most of the booking traffic, as on a real launch day
+ */
+public class ZipfSampler {
+
+  private final double[] cumulative;
+
+  /**
+   * @param size Number of ranks
+   * @param exponent Skew; 0 is uniform, ~1 is typical for popularity distributions
+   */
+  public ZipfSampler(int size, double exponent) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Zipf size must be positive");
+    }
+    cumulative = new double[size];
+    double sum = 0;
+    for (int rank = 0; rank < size; rank++) {
+      sum += 1.0 / Math.pow(rank + 1, exponent);
+      cumulative[rank] = sum;
+    }
+    for (int rank = 0; rank < size; rank++) {
+      cumulative[rank] /= sum;
+    }
+  }
+
+  public int sample(RandomGenerator random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    int rank = index >= 0 ? index : -index - 1;
+    return Math.min(rank, cumulative.length - 1);
+  }
+}
@@ -1,7 +1,10 @@
 import React from 'react';
 import { formatDate, formatTime } from '../../utils/dateFormatter';
 
-const AppointmentCard = ({ appointment, isServiceProvider, onCancel, onStatusChange }) => {
+const AppointmentCard = ({ appointment, isServiceProvider, onCancel, onCancelSeries, onStatusChange }) => {
+  // Occurrences of a recurring series have no ID of their own; they are changed through the series
+  const isOccurrence = appointment.seriesId != null;
+
   const getStatusClass = (status) => {
     switch (status) {
       case 'PENDING': return 'status-pending';
@@ -35,6 +38,7 @@ const AppointmentCard = ({ appointment, isServiceProvider, onCancel, onStatusCha
         <span className={`status-badge ${getStatusClass(appointment.status)}`}>
           {appointment.status}
         </span>
+        {isOccurrence && <span className="status-badge">RECURRING</span>}
       </div>
 
       <div className="appointment-card-body">
@@ -67,7 +71,17 @@ const AppointmentCard = ({ appointment, isServiceProvider, onCancel, onStatusCha
       </div>
 
       <div className="appointment-card-footer">
-        {isServiceProvider ? (
+        {isOccurrence ? (
+          // Recurring series: only the customer can cancel it, as a whole
+          !isServiceProvider && appointment.status === 'PENDING' && (
+            <button
+              className="btn btn-sm btn-danger"
+              onClick={() => onCancelSeries(appointment.seriesId)}
+            >
+              Cancel Series
+            </button>
+          )
+        ) : isServiceProvider ? (
           // Service Provider Actions
           <>
             {appointment.status === 'PENDING' && (
@@ -39,7 +39,7 @@ const UserDashboard = () => {
         // Check for expired unconfirmed appointments that may have been auto-removed
         const now = new Date();
         const expiredUnconfirmed = all.filter(
-          apt => apt.status === 'PENDING' && new Date(apt.appointmentDateTime) < now
+          apt => apt.seriesId == null && apt.status === 'PENDING' && new Date(apt.appointmentDateTime) < now
         );
         if (expiredUnconfirmed.length > 0) {
           setInfo(`${expiredUnconfirmed.length} expired unconfirmed appointment(s) have been auto-removed.`);
@@ -75,6 +75,18 @@ const UserDashboard = () => {
     }
   };
 
+  const handleCancelSeries = async (seriesId) => {
+    if (window.confirm('Cancel all remaining appointments of this recurring series?')) {
+      try {
+        await appointmentService.cancelSeries(seriesId);
+        fetchAppointments(); // Refresh the list
+      } catch (err) {
+        alert(err?.response?.data?.message || 'Failed to cancel series');
+        console.error(err);
+      }
+    }
+  };
+
   const handleStatusChange = async (id, newStatus) => {
     try {
       const result = await appointmentService.updateAppointmentStatus(id, newStatus);
@@ -203,11 +215,13 @@ const UserDashboard = () => {
         ) : (
           <Grid container spacing={2}>
             {filteredAppointments.map((appointment) => (
-              <Grid item xs={12} sm={6} md={4} key={appointment.id}>
+              <Grid item xs={12} sm={6} md={4}
+                key={appointment.id ?? `series-${appointment.seriesId}-${appointment.appointmentDateTime}`}>
                 <AppointmentCard
                   appointment={appointment}
                   isServiceProvider={isServiceProvider}
                   onCancel={handleCancelAppointment}
+                  onCancelSeries={handleCancelSeries}
                   onStatusChange={handleStatusChange}
                 />
               </Grid>
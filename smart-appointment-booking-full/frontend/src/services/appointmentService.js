@@ -61,6 +61,18 @@ const appointmentService = {
     return response.data;
   },
 
+  // Update the status of several appointments at once
+  updateAppointmentStatuses: async (ids, status) => {
+  const response = await api.patch('/v1/appointments/status', { ids, status });
+    return response.data;
+  },
+
+  // Cancel the remaining occurrences of a recurring series
+  cancelSeries: async (seriesId) => {
+  const response = await api.delete(`/v1/appointments/series/${seriesId}`);
+    return response.data;
+  },
+
   // Search appointments
   searchAppointments: async (keyword) => {
   const response = await api.get(`/v1/appointments/search?keyword=${keyword}`);
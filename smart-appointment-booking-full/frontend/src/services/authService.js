@@ -26,8 +26,12 @@ const authService = {
     }
   },
 
-  // Logout user
+  // Logout user (revokes the session token on the backend, best effort)
   logout: () => {
+    const user = authService.getCurrentUser();
+    if (user && user.token) {
+      api.post('/v1/auth/logout', null, { headers: { Authorization: `Bearer ${user.token}` } }).catch(() => {});
+    }
     localStorage.removeItem('user');
   },
 